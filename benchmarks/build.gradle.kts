@@ -0,0 +1,23 @@
+plugins {
+    id("tai-e.conventions")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(project(":"))
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // runs the benchmarks on the bundled test programs of Tai-e
+    jvmArgsAppend.set(listOf(
+        "--add-modules", "jdk.incubator.vector",
+        "-Xmx4G",
+        "-Dtai-e.root=${rootProject.rootDir}",
+    ))
+    resultFormat.set("JSON")
+    // selects the benchmarks to run, e.g., -Pjmh.includes=PointsToSetBenchmark
+    providers.gradleProperty("jmh.includes").orNull?.let {
+        includes.set(listOf(it))
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.benchmarks.Benchmarks;
+import pascal.taie.benchmarks.PtaTrace;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the churn of {@link WorkList} on the pointer flow graphs
+ * recorded from pointer analysis runs. Each processed pointer re-adds
+ * its points-to set to its successors, until each pointer has been
+ * processed {@link #ROUNDS} times, which simulates the repeated
+ * propagation of the solver.
+ * <p>
+ * This benchmark is in the package of {@link WorkList} as the work list
+ * is internal to the solver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkListBenchmark {
+
+    /**
+     * Maximum number of times that each pointer is added to the work list.
+     */
+    private static final int ROUNDS = 4;
+
+    @Param({"contextsensitivity/LinkedQueue", "basic/RedBlackBST"})
+    public String program;
+
+    @Param({"2-obj"})
+    public String cs;
+
+    @Param({"fifo", "lrf", "topo", "wave"})
+    public String order;
+
+    private List<Pointer> pointers;
+
+    private final Map<Pointer, Integer> pointerIds = Maps.newMap();
+
+    private PointerFlowGraph pointerFlowGraph;
+
+    @Setup
+    public void setUp() {
+        PtaTrace trace = Benchmarks.recordTrace(program, "cs:" + cs + ";only-app:true");
+        pointers = trace.pointers();
+        for (int i = 0; i < pointers.size(); ++i) {
+            pointerIds.put(pointers.get(i), i);
+        }
+        pointerFlowGraph = new PointerFlowGraph(trace.csManager());
+    }
+
+    @Benchmark
+    public int churn() {
+        WorkList workList = new WorkList(
+                WorkList.Order.of(order), pointerFlowGraph);
+        int[] adds = new int[pointers.size()];
+        for (int i = 0; i < adds.length; ++i) {
+            PointsToSet pts = pointers.get(i).getPointsToSet();
+            if (pts != null && !pts.isEmpty()) {
+                workList.addSharedEntry(pointers.get(i), pts);
+                ++adds[i];
+            }
+        }
+        int processed = 0;
+        while (!workList.isEmpty()) {
+            if (workList.pollEntry() instanceof WorkList.PointerEntry entry) {
+                ++processed;
+                for (Pointer succ : pointerFlowGraph.getSuccsOf(entry.pointer())) {
+                    int id = pointerIds.get(succ);
+                    if (adds[id] < ROUNDS) {
+                        workList.addSharedEntry(succ, entry.pointsToSet());
+                        ++adds[id];
+                    }
+                }
+            }
+        }
+        return processed;
+    }
+}
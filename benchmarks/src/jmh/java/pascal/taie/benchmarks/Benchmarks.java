@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigManager;
+import pascal.taie.config.Configs;
+import pascal.taie.config.Options;
+import pascal.taie.config.PlanConfig;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Static helpers for running pointer analysis on the bundled test programs.
+ */
+public final class Benchmarks {
+
+    /**
+     * Root directory of Tai-e, which is set by the build script.
+     */
+    private static final Path ROOT = Path.of(System.getProperty("tai-e.root", ".."));
+
+    /**
+     * Directory of the test programs of pointer analysis.
+     */
+    private static final String PTA_DIR = "src/test/resources/pta";
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Builds the world for a bundled test program of pointer analysis.
+     *
+     * @param program    directory and main class of the program,
+     *                   e.g., "basic/RedBlackBST".
+     * @param ptaOptions options of pointer analysis, e.g., "cs:2-obj".
+     * @return the config of pointer analysis with given options.
+     */
+    public static AnalysisConfig buildWorld(String program, String ptaOptions) {
+        int i = program.lastIndexOf('/');
+        String classPath = ROOT.resolve(PTA_DIR)
+                .resolve(program.substring(0, i)).toString();
+        String mainClass = program.substring(i + 1);
+        String[] args = {"-pp", "-cp", classPath, "-m", mainClass,
+                "-a", PointerAnalysis.ID + "=implicit-entries:false;" + ptaOptions};
+        Main.buildWorld(args);
+        List<AnalysisConfig> configs = AnalysisConfig.parseConfigs(
+                Configs.getAnalysisConfig());
+        new ConfigManager(configs).overwriteOptions(
+                PlanConfig.readConfigs(Options.parse(args)));
+        return configs.stream()
+                .filter(c -> c.getId().equals(PointerAnalysis.ID))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Runs pointer analysis on a bundled test program and records
+     * the operations of the run.
+     *
+     * @see #buildWorld(String, String)
+     */
+    public static PtaTrace recordTrace(String program, String ptaOptions) {
+        AnalysisConfig config = buildWorld(program, ptaOptions +
+                ";plugins:[" + TraceRecorder.class.getName() + "]");
+        new PointerAnalysis(config).analyze();
+        return TraceRecorder.getTrace();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.IndexBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the lookups of context-sensitive variables and objects
+ * recorded from pointer analysis runs on the {@link CSManager}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSManagerBenchmark {
+
+    /**
+     * Number of lookups of each element after its creation.
+     */
+    private static final int LOOKUPS = 4;
+
+    @Param({"contextsensitivity/LinkedQueue", "basic/RedBlackBST"})
+    public String program;
+
+    @Param({"2-obj", "2-type"})
+    public String cs;
+
+    @Param({"map", "index"})
+    public String csManager;
+
+    private Context[] varContexts;
+
+    private Var[] vars;
+
+    private Context[] heapContexts;
+
+    private Obj[] objs;
+
+    @Setup
+    public void setUp() {
+        PtaTrace trace = Benchmarks.recordTrace(program, "cs:" + cs + ";only-app:true");
+        List<CSVar> csVars = List.copyOf(trace.csManager().getCSVars());
+        varContexts = csVars.stream().map(CSVar::getContext).toArray(Context[]::new);
+        vars = csVars.stream().map(CSVar::getVar).toArray(Var[]::new);
+        List<CSObj> csObjs = List.copyOf(trace.csManager().getObjects());
+        heapContexts = csObjs.stream().map(CSObj::getContext).toArray(Context[]::new);
+        objs = csObjs.stream().map(CSObj::getObject).toArray(Obj[]::new);
+    }
+
+    /**
+     * Creates the recorded elements, and then looks them up repeatedly.
+     */
+    @Benchmark
+    public int createAndLookup() {
+        CSManager manager = csManager.equals("index")
+                ? new IndexBasedCSManager()
+                : new MapBasedCSManager();
+        int hash = 0;
+        for (int n = 0; n <= LOOKUPS; ++n) {
+            for (int i = 0; i < vars.length; ++i) {
+                hash += System.identityHashCode(
+                        manager.getCSVar(varContexts[i], vars[i]));
+            }
+            for (int i = 0; i < objs.length; ++i) {
+                hash += System.identityHashCode(
+                        manager.getCSObj(heapContexts[i], objs[i]));
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
+import pascal.taie.analysis.pta.core.cs.context.IntContext;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Replays the constructions of the contexts recorded from pointer
+ * analysis runs on the {@link ContextFactory}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextFactoryBenchmark {
+
+    @Param({"contextsensitivity/LinkedQueue", "basic/RedBlackBST"})
+    public String program;
+
+    @Param({"2-obj", "2-call"})
+    public String cs;
+
+    @Param({"trie", "int"})
+    public String factory;
+
+    /**
+     * Elements of the recorded contexts.
+     */
+    private Object[][] contexts;
+
+    @Setup
+    public void setUp() {
+        PtaTrace trace = Benchmarks.recordTrace(program, "cs:" + cs + ";only-app:true");
+        contexts = Stream.concat(
+                        trace.csManager().getCSVars().stream().map(CSVar::getContext),
+                        trace.csManager().getObjects().stream().map(CSObj::getContext))
+                .map(ContextFactoryBenchmark::toElements)
+                .toArray(Object[][]::new);
+    }
+
+    /**
+     * Makes each recorded context directly, and by appending its elements
+     * one by one as the context selectors do.
+     */
+    @Benchmark
+    public int makeAndAppend() {
+        ContextFactory<Object> f = factory.equals("trie")
+                ? new TrieContext.Factory<>()
+                : new IntContext.Factory<>();
+        int hash = 0;
+        for (Object[] elems : contexts) {
+            hash += System.identityHashCode(f.make(elems));
+            // appends to full contexts also drop their first elements
+            int k = Math.max(elems.length, 1);
+            Context context = f.getEmptyContext();
+            for (Object elem : elems) {
+                context = f.append(context, elem, k);
+            }
+            hash += System.identityHashCode(context);
+            if (elems.length > 0) {
+                hash += System.identityHashCode(f.append(context, elems[0], k));
+            }
+        }
+        return hash;
+    }
+
+    private static Object[] toElements(Context context) {
+        Object[] elems = new Object[context.getLength()];
+        for (int i = 0; i < elems.length; ++i) {
+            elems[i] = context.getElementAt(i);
+        }
+        return elems;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.config.AnalysisConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole pointer analysis on the bundled test programs.
+ * The world is built once for each trial, thus only the analysis is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PointerAnalysisBenchmark {
+
+    @Param({"contextsensitivity/LinkedQueue", "basic/RedBlackBST",
+            "misc/Zipper", "lambda/Args"})
+    public String program;
+
+    @Param({"ci", "2-obj", "2-type"})
+    public String cs;
+
+    /**
+     * Whether to analyze only the application code. Analyzing the JDK
+     * takes much longer, but exercises the solver with larger inputs.
+     */
+    @Param({"true"})
+    public boolean onlyApp;
+
+    private AnalysisConfig config;
+
+    @Setup
+    public void setUp() {
+        config = Benchmarks.buildWorld(program,
+                "cs:" + cs + ";only-app:" + onlyApp);
+    }
+
+    @Benchmark
+    public PointerAnalysisResult analyze() {
+        return new PointerAnalysis(config).analyze();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the unions and differences of points-to sets recorded from
+ * pointer analysis runs on the bit sets and points-to sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointsToSetBenchmark {
+
+    @Param({"contextsensitivity/LinkedQueue", "basic/RedBlackBST"})
+    public String program;
+
+    @Param({"2-obj"})
+    public String cs;
+
+    @Param({"sparse", "regular", "roaring"})
+    public String bitSet;
+
+    private PtaTrace trace;
+
+    private IBitSet.Kind kind;
+
+    private Indexer<CSObj> indexer;
+
+    /**
+     * Final points-to sets of pointers as bit sets.
+     */
+    private IBitSet[] pointsTo;
+
+    /**
+     * Final points-to sets of pointers as {@link PointsToSet}s.
+     */
+    private PointsToSet[] pointsToSets;
+
+    /**
+     * Recorded differences as bit sets.
+     */
+    private IBitSet[] diffs;
+
+    @Setup
+    public void setUp() {
+        trace = Benchmarks.recordTrace(program, "cs:" + cs + ";only-app:true");
+        kind = IBitSet.Kind.of(bitSet);
+        indexer = trace.csManager().getObjectIndexer();
+        pointsTo = toBitSets(trace.pointsTo());
+        diffs = toBitSets(trace.diffs());
+        PointsToSetFactory factory = newFactory();
+        pointsToSets = new PointsToSet[pointsTo.length];
+        for (int i = 0; i < pointsToSets.length; ++i) {
+            pointsToSets[i] = factory.make();
+            for (int index : trace.pointsTo()[i]) {
+                pointsToSets[i].addObject(indexer.getObject(index));
+            }
+        }
+    }
+
+    /**
+     * Replays the differences propagated to variables in the order
+     * of the recorded run.
+     */
+    @Benchmark
+    public int replayDiffs() {
+        IBitSet[] sets = newBitSets();
+        int changed = 0;
+        int[] diffPointers = trace.diffPointers();
+        for (int i = 0; i < diffPointers.length; ++i) {
+            if (sets[diffPointers[i]].or(diffs[i])) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Propagates the final points-to sets along the pointer flow edges
+     * by {@link IBitSet#orDiff}.
+     */
+    @Benchmark
+    public int propagateBitSets() {
+        IBitSet[] sets = newBitSets();
+        int[] sources = trace.edgeSources();
+        int[] targets = trace.edgeTargets();
+        int total = 0;
+        for (int i = 0; i < sources.length; ++i) {
+            total += sets[targets[i]].orDiff(pointsTo[sources[i]]).cardinality();
+        }
+        return total;
+    }
+
+    /**
+     * Propagates the final points-to sets along the pointer flow edges
+     * by {@link PointsToSet#addAllDiff}, which also covers the switching
+     * of small and large points-to sets.
+     */
+    @Benchmark
+    public int propagatePointsToSets() {
+        PointsToSetFactory factory = newFactory();
+        PointsToSet[] sets = new PointsToSet[pointsToSets.length];
+        for (int i = 0; i < sets.length; ++i) {
+            sets[i] = factory.make();
+        }
+        int[] sources = trace.edgeSources();
+        int[] targets = trace.edgeTargets();
+        int total = 0;
+        for (int i = 0; i < sources.length; ++i) {
+            total += sets[targets[i]].addAllDiff(pointsToSets[sources[i]]).size();
+        }
+        return total;
+    }
+
+    private PointsToSetFactory newFactory() {
+        return new PointsToSetFactory(indexer, false, kind);
+    }
+
+    private IBitSet[] newBitSets() {
+        IBitSet[] sets = new IBitSet[pointsTo.length];
+        for (int i = 0; i < sets.length; ++i) {
+            sets[i] = IBitSet.newBitSet(kind);
+        }
+        return sets;
+    }
+
+    private IBitSet[] toBitSets(int[][] indexes) {
+        IBitSet[] sets = new IBitSet[indexes.length];
+        for (int i = 0; i < sets.length; ++i) {
+            sets[i] = IBitSet.newBitSet(kind);
+            for (int index : indexes[i]) {
+                sets[i].set(index);
+            }
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+
+import java.util.List;
+
+/**
+ * Operations recorded from a run of pointer analysis, which are replayed
+ * by the benchmarks. The objects are represented by their indexes in
+ * the object indexer of {@code csManager}, and the pointers are
+ * represented by their indexes in {@code pointers}.
+ *
+ * @param csManager    the context-sensitive elements of the run.
+ * @param pointers     all pointers of the run.
+ * @param pointsTo     final points-to set of each pointer, sorted.
+ * @param edgeSources  sources of the pointer flow edges.
+ * @param edgeTargets  targets of the pointer flow edges.
+ * @param diffPointers the variables whose points-to sets changed,
+ *                     in the order of the run.
+ * @param diffs        the objects newly propagated to each variable
+ *                     in {@code diffPointers}, sorted.
+ */
+public record PtaTrace(CSManager csManager,
+                       List<Pointer> pointers,
+                       int[][] pointsTo,
+                       int[] edgeSources,
+                       int[] edgeTargets,
+                       int[] diffPointers,
+                       int[][] diffs) {
+}
@@ -0,0 +1,117 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.benchmarks;
+
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the operations of a run of pointer analysis as a {@link PtaTrace}.
+ * This plugin is added to the analysis by {@link Benchmarks#recordTrace}.
+ */
+public class TraceRecorder implements Plugin {
+
+    /**
+     * The trace of the last finished run.
+     */
+    private static PtaTrace trace;
+
+    private Solver solver;
+
+    private final Map<Pointer, Integer> pointerIds = Maps.newMap();
+
+    private final List<Pointer> pointers = new ArrayList<>();
+
+    private final List<Integer> diffPointers = new ArrayList<>();
+
+    private final List<int[]> diffs = new ArrayList<>();
+
+    static PtaTrace getTrace() {
+        return trace;
+    }
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        diffPointers.add(getId(csVar));
+        diffs.add(toIndexes(pts));
+    }
+
+    @Override
+    public void onFinish() {
+        CSManager csManager = solver.getCSManager();
+        csManager.pointers().forEach(this::getId);
+        int[][] pointsTo = new int[pointers.size()][];
+        List<Integer> sources = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < pointsTo.length; ++i) {
+            Pointer pointer = pointers.get(i);
+            pointsTo[i] = toIndexes(pointer.getPointsToSet());
+            for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                sources.add(i);
+                targets.add(getId(edge.target()));
+            }
+        }
+        trace = new PtaTrace(csManager, List.copyOf(pointers), pointsTo,
+                toArray(sources), toArray(targets),
+                toArray(diffPointers), diffs.toArray(int[][]::new));
+    }
+
+    private int getId(Pointer pointer) {
+        return pointerIds.computeIfAbsent(pointer, p -> {
+            pointers.add(p);
+            return pointers.size() - 1;
+        });
+    }
+
+    private int[] toIndexes(PointsToSet pts) {
+        if (pts == null) {
+            return new int[0];
+        }
+        Indexer<CSObj> indexer = solver.getCSManager().getObjectIndexer();
+        return pts.objects()
+                .mapToInt(indexer::getIndex)
+                .sorted()
+                .toArray();
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -58,8 +58,38 @@ task("fatJar", type = Jar::class) {
     with(tasks["jar"] as CopySpec)
 }
 
+// The bulk operations of bit sets are vectorized by the Vector API
+// (see pascal.taie.util.collection.VectorBitOps), which is enabled at runtime
+// only when the JVM runs with module jdk.incubator.vector.
+// To avoid the warnings of the incubator module everywhere else,
+// VectorBitOps is compiled in its own source set, which is the only
+// compilation that adds the module, and only its test runs with the module
+// (see task testVectorBitOps).
+val vectorModuleArgs = listOf("--add-modules", "jdk.incubator.vector")
+
+val vector: SourceSet by sourceSets.creating
+
+sourceSets {
+    main {
+        compileClasspath += vector.output
+        runtimeClasspath += vector.output
+    }
+    test {
+        runtimeClasspath += vector.output
+    }
+}
+
+tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
+tasks.named<Jar>("sourcesJar") {
+    from(vector.allSource)
+}
+
 tasks.jar {
     from("COPYING", "COPYING.LESSER")
+    from(vector.output)
     from(zipTree("lib/sootclasses-modified.jar"))
     destinationDirectory.set(rootProject.layout.buildDirectory)
 }
@@ -95,6 +125,17 @@ task("testTaieTestSuite", type = Test::class) {
     }
 }
 
+task("testVectorBitOps", type = Test::class) {
+    group = "verification"
+    description = "Runs the tests of the bit set kernels with the Vector API"
+    jvmArgs(vectorModuleArgs)
+    filter {
+        includeTestsMatching("*.BitOpsTest")
+    }
+}
+
+tasks.check { dependsOn("testVectorBitOps") }
+
 // Automatically agree the Gradle ToS when running gradle with '--scan' option
 extensions.findByName("buildScan")?.withGroovyBuilder {
     setProperty("termsOfServiceUrl", "https://gradle.com/terms-of-service")
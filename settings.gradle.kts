@@ -3,4 +3,5 @@ rootProject.name = "tai-e"
 include(
     ":", // root project
     "docs",
+    "benchmarks",
 )
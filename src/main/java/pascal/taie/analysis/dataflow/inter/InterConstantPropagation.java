@@ -130,7 +130,7 @@ public class InterConstantPropagation extends
         // related array stores and loads via alias information
         // derived from pointer analysis
         PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
-        MultiMap<Obj, Var> pointedBy = Maps.newMultiMap();
+        MultiMap<Obj, Var> pointedBy = Maps.newIndexableMultiMap();
         pta.getVars()
                 .stream()
                 .filter(v -> !v.getStoreFields().isEmpty() ||
@@ -44,9 +44,9 @@ public abstract class NodeManager implements Indexer<Node> {
 
     private final Map<Var, VarNode> var2Node = Maps.newMap(4096);
 
-    private final TwoKeyMap<Obj, JField, InstanceFieldNode> iField2Node = Maps.newTwoKeyMap();
+    private final TwoKeyMap<Obj, JField, InstanceFieldNode> iField2Node = Maps.newIndexableTwoKeyMap();
 
-    private final Map<Obj, ArrayIndexNode> array2Node = Maps.newMap(1024);
+    private final Map<Obj, ArrayIndexNode> array2Node = Maps.newIndexableMap(1024);
 
     private final Map<JField, StaticFieldNode> sField2Node = Maps.newMap(1024);
 
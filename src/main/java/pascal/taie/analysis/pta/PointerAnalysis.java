@@ -23,14 +23,19 @@
 package pascal.taie.analysis.pta;
 
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.IndexBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.AnalysisTimer;
 import pascal.taie.analysis.pta.plugin.ClassInitializer;
@@ -48,23 +53,38 @@ import pascal.taie.analysis.pta.plugin.natives.NativeModeller;
 import pascal.taie.analysis.pta.plugin.reflection.ReflectionAnalysis;
 import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
 import pascal.taie.analysis.pta.toolkit.CollectionMethods;
+import pascal.taie.analysis.pta.toolkit.FlowSensitivePointsTo;
 import pascal.taie.analysis.pta.toolkit.mahjong.Mahjong;
 import pascal.taie.analysis.pta.toolkit.scaler.Scaler;
+import pascal.taie.analysis.pta.toolkit.scaler.ScalerReport;
 import pascal.taie.analysis.pta.toolkit.zipper.Zipper;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
+    private static final Logger logger = LogManager.getLogger(PointerAnalysis.class);
+
     public static final String ID = "pta";
 
+    /**
+     * Report of Scaler, which is dumped after the main analysis
+     * if option {@code scaler-report} is enabled.
+     */
+    @Nullable
+    private ScalerReport scalerReport;
+
     public PointerAnalysis(AnalysisConfig config) {
         super(config);
     }
@@ -80,44 +100,131 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
             if (advanced.equals("collection")) {
                 selector = ContextSelectorFactory.makeSelectiveSelector(cs,
                         new CollectionMethods(World.get().getClassHierarchy()).get());
+            } else if (advanced.startsWith("scaler")) {
+                selector = ContextSelectorFactory.makeGuidedSelector(
+                        runScaler(heapModel, advanced));
+            } else if (advanced.startsWith("zipper")) {
+                selector = ContextSelectorFactory.makeSelectiveSelector(cs,
+                        runZipper(heapModel, advanced));
+            } else if (advanced.equals("mahjong")) {
+                PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+                heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
+                        "Mahjong", Level.INFO);
             } else {
-                // run context-insensitive analysis as pre-analysis
-                PointerAnalysisResult preResult = runAnalysis(heapModel,
-                        ContextSelectorFactory.makeCISelector());
-                if (advanced.startsWith("scaler")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeGuidedSelector(Scaler.run(preResult, advanced)),
-                            "Scaler", Level.INFO);
-                } else if (advanced.startsWith("zipper")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced)),
-                            "Zipper", Level.INFO);
-                } else if (advanced.equals("mahjong")) {
-                    heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
-                            "Mahjong", Level.INFO);
-                } else {
-                    throw new IllegalArgumentException(
-                            "Illegal advanced analysis argument: " + advanced);
-                }
+                throw new IllegalArgumentException(
+                        "Illegal advanced analysis argument: " + advanced);
             }
         }
         if (selector == null) {
             selector = ContextSelectorFactory.makePlainSelector(cs);
         }
-        return runAnalysis(heapModel, selector);
+        PointerAnalysisResult result = runAnalysis(heapModel, selector);
+        if (scalerReport != null) {
+            scalerReport.dump(result, World.get().getOptions().getOutputDir());
+            scalerReport = null;
+        }
+        return result;
+    }
+
+    /**
+     * Runs context-insensitive analysis as pre-analysis.
+     */
+    private PointerAnalysisResult runPreAnalysis(HeapModel heapModel) {
+        return runAnalysis(heapModel, ContextSelectorFactory.makeCISelector());
+    }
+
+    /**
+     * @return the context sensitivity variants of methods selected by Scaler.
+     * If the pre-analysis cache is enabled, the variants are loaded from
+     * (or saved to) the cache.
+     */
+    private Map<JMethod, String> runScaler(HeapModel heapModel, String advanced) {
+        PreAnalysisCache cache = makePreAnalysisCache();
+        Map<JMethod, String> csMap = cache != null ? cache.loadContextMap() : null;
+        if (csMap == null) {
+            PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+            Scaler scaler = new Scaler(preResult, Scaler.parseTST(advanced));
+            csMap = Timer.runAndCount(scaler::selectContext, "Scaler", Level.INFO);
+            if (cache != null) {
+                cache.saveContextMap(csMap,
+                        preResult.getCallGraph().reachableMethods());
+            }
+            if (getOptions().getBoolean("scaler-report")) {
+                scalerReport = scaler.getReport();
+            }
+        } else if (getOptions().getBoolean("scaler-report")) {
+            logger.warn("Scaler report is not available as the results" +
+                    " of Scaler are loaded from pre-analysis cache");
+        }
+        return csMap;
+    }
+
+    /**
+     * @return the precision-critical methods selected by Zipper.
+     * If the pre-analysis cache is enabled, the methods are loaded from
+     * (or saved to) the cache.
+     */
+    private Set<JMethod> runZipper(HeapModel heapModel, String advanced) {
+        PreAnalysisCache cache = makePreAnalysisCache();
+        Set<JMethod> methods = cache != null ? cache.loadMethods() : null;
+        if (methods == null) {
+            PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+            methods = Timer.runAndCount(() -> Zipper.run(preResult, advanced),
+                    "Zipper", Level.INFO);
+            if (cache != null) {
+                cache.saveMethods(methods,
+                        preResult.getCallGraph().reachableMethods());
+            }
+        }
+        return methods;
+    }
+
+    @Nullable
+    private PreAnalysisCache makePreAnalysisCache() {
+        String dir = getOptions().getString("pre-analysis-cache-dir");
+        return dir != null ? new PreAnalysisCache(dir, getOptions()) : null;
     }
 
     private PointerAnalysisResult runAnalysis(HeapModel heapModel,
                                               ContextSelector selector) {
         AnalysisOptions options = getOptions();
-        Solver solver = new DefaultSolver(options,
-                heapModel, selector, new MapBasedCSManager());
+        Solver solver = makeSolver(options, heapModel, selector);
         // The initialization of some Plugins may read the fields in solver,
         // e.g., contextSelector or csManager, thus we initialize Plugins
         // after setting all other fields of solver.
         setPlugin(solver, options);
         solver.solve();
-        return solver.getResult();
+        PointerAnalysisResult result = solver.getResult();
+        if (options.getBoolean("flow-sensitive")) {
+            result.storeResult(FlowSensitivePointsTo.class.getName(),
+                    new FlowSensitivePointsTo(result));
+        }
+        return result;
+    }
+
+    private static Solver makeSolver(AnalysisOptions options,
+                                     HeapModel heapModel,
+                                     ContextSelector selector) {
+        String solver = options.getString("solver");
+        CSManager csManager = makeCSManager(options);
+        return switch (solver) {
+            case "default" -> new DefaultSolver(options,
+                    heapModel, selector, csManager);
+            case "parallel" -> new ParallelSolver(options,
+                    heapModel, selector, csManager);
+            default -> throw new ConfigException(
+                    "Illegal solver argument: " + solver);
+        };
+    }
+
+    private static CSManager makeCSManager(AnalysisOptions options) {
+        String csManager = options.getString("cs-manager");
+        return switch (csManager) {
+            case "map" -> new MapBasedCSManager();
+            case "index" -> new IndexBasedCSManager();
+            default -> throw new ConfigException(
+                    "Illegal cs-manager argument: " + csManager);
+        };
     }
 
     private static void setPlugin(Solver solver, AnalysisOptions options) {
@@ -0,0 +1,227 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.ir.IRPrinter;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Persists the results of the pre-analyses of advanced pointer analyses
+ * (i.e., the methods selected by Zipper and the context sensitivity
+ * variants selected by Scaler), so that repeated analyses of the same
+ * program skip the context-insensitive pre-analysis.
+ * <p>
+ * Each cache file is keyed by the hash of the world (see
+ * {@link CachedWorldBuilder#getWorldCacheHash}) and the pointer analysis
+ * options that affect the results of the pre-analysis. The full key is
+ * also written in the file to rule out hash collisions.
+ * <p>
+ * The hash of the world covers the options of the world (e.g., the class
+ * path) and the timestamps of the class path entries, but not the contents
+ * of the classes, which may change without changing the timestamps of the
+ * entries (e.g., the class files in a directory). Thus, the file also
+ * records the hash of the IR of every method reached by the pre-analysis
+ * (see {@link IRPrinter#hash}), and the cache is ignored if any of these
+ * methods has been changed. Changes that affect the pre-analysis without
+ * changing any reached method (e.g., a new class that is loaded only via
+ * reflection) are not detected.
+ */
+final class PreAnalysisCache {
+
+    private static final Logger logger = LogManager.getLogger(PreAnalysisCache.class);
+
+    private static final String MAGIC = "tai-e-pre-analysis";
+
+    private static final String SEP = "\t";
+
+    /**
+     * Tag of the records of the hashes of the methods reached by
+     * the pre-analysis. Method signatures never start with it.
+     */
+    private static final String HASH = "H";
+
+    /**
+     * Options that affect the results of pre-analyses.
+     */
+    private static final List<String> KEY_OPTIONS = List.of(
+            "advanced", "only-app", "implicit-entries",
+            "distinguish-string-constants", "merge-string-objects",
+            "merge-string-builders", "merge-exception-objects",
+            "handle-invokedynamic", "propagate-types",
+            "reflection-inference", "reflection-log", "taint-config",
+            "plugins");
+
+    private final Path file;
+
+    private final String key;
+
+    /**
+     * @param dir directory of the cache files.
+     */
+    PreAnalysisCache(String dir, AnalysisOptions options) {
+        StringJoiner joiner = new StringJoiner(";");
+        joiner.add("world:" + CachedWorldBuilder.getWorldCacheHash(
+                World.get().getOptions()));
+        KEY_OPTIONS.forEach(k -> joiner.add(k + ":" + options.get(k)));
+        this.key = joiner.toString();
+        this.file = Path.of(dir, "pre-analysis-" +
+                Integer.toHexString(key.hashCode()) + ".txt");
+    }
+
+    /**
+     * @return the cached methods, or {@code null} if they are not cached.
+     */
+    @Nullable
+    Set<JMethod> loadMethods() {
+        Map<JMethod, String> map = load();
+        return map == null ? null : Sets.newSet(map.keySet());
+    }
+
+    /**
+     * @param methods        the methods to save.
+     * @param reachedMethods the methods reached by the pre-analysis.
+     */
+    void saveMethods(Set<JMethod> methods, Stream<JMethod> reachedMethods) {
+        Map<JMethod, String> map = Maps.newMap();
+        methods.forEach(m -> map.put(m, ""));
+        save(map, reachedMethods);
+    }
+
+    /**
+     * @return the cached context sensitivity variants of methods,
+     * or {@code null} if they are not cached.
+     */
+    @Nullable
+    Map<JMethod, String> loadContextMap() {
+        return load();
+    }
+
+    /**
+     * @param csMap          the context sensitivity variants to save.
+     * @param reachedMethods the methods reached by the pre-analysis.
+     */
+    void saveContextMap(Map<JMethod, String> csMap,
+                        Stream<JMethod> reachedMethods) {
+        save(csMap, reachedMethods);
+    }
+
+    @Nullable
+    private Map<JMethod, String> load() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        Map<JMethod, String> result = Maps.newMap();
+        try (BufferedReader reader = Files.newBufferedReader(
+                file, StandardCharsets.UTF_8)) {
+            if (!(MAGIC + SEP + key).equals(reader.readLine())) {
+                logger.warn("Pre-analysis cache {} is produced by" +
+                        " another analysis, and it is ignored", file);
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(HASH + SEP)) {
+                    if (!checkMethodHash(line, hierarchy)) {
+                        logger.info("Pre-analysis cache {} is produced for" +
+                                " a changed program, and it is ignored", file);
+                        return null;
+                    }
+                    continue;
+                }
+                int i = line.indexOf(SEP);
+                JMethod method = hierarchy.getMethod(line.substring(0, i));
+                if (method == null) {
+                    logger.warn("Pre-analysis cache {} contains unknown" +
+                            " method {}, and it is ignored", file, line);
+                    return null;
+                }
+                result.put(method, line.substring(i + 1));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to load pre-analysis cache {}", file, e);
+            return null;
+        }
+        logger.info("Loaded pre-analysis cache {}", file);
+        return result;
+    }
+
+    /**
+     * @return {@code true} if the method in given hash record exists
+     * and its IR has not been changed.
+     */
+    private static boolean checkMethodHash(String line, ClassHierarchy hierarchy) {
+        String[] fields = line.split(SEP);
+        JMethod method = hierarchy.getMethod(fields[1]);
+        return method != null && !method.isAbstract()
+                && IRPrinter.hash(method.getIR()).equals(fields[2]);
+    }
+
+    private void save(Map<JMethod, String> map, Stream<JMethod> reachedMethods) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+                    tmp, StandardCharsets.UTF_8))) {
+                out.println(MAGIC + SEP + key);
+                reachedMethods
+                        .sorted(Comparator.comparing(JMethod::getSignature))
+                        .forEach(m -> out.println(HASH + SEP + m.getSignature()
+                                + SEP + IRPrinter.hash(m.getIR())));
+                map.entrySet()
+                        .stream()
+                        .sorted(Map.Entry.comparingByKey(
+                                Comparator.comparing(JMethod::getSignature)))
+                        .forEach(e -> out.println(
+                                e.getKey().getSignature() + SEP + e.getValue()));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Saved pre-analysis cache {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to save pre-analysis cache {}", file, e);
+        }
+    }
+}
@@ -51,8 +51,7 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
 
     @Override
     public StmtResult<Boolean> analyze() {
-        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
-        CallGraph<Invoke, JMethod> callGraph = result.getCallGraph();
+        CallGraph<Invoke, JMethod> callGraph = getCallGraph();
         Set<Stmt> wantedStmts = Sets.newSet();
         int nRelevantStmts = 0;
         int nWantedAppStmts = 0, nRelevantAppStmts = 0;
@@ -65,7 +64,7 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
                     if (isApp) {
                         ++nRelevantAppStmts;
                     }
-                    if (isWanted(stmt, result)) {
+                    if (isWanted(stmt)) {
                         wantedStmts.add(stmt);
                         if (isApp) {
                             ++nWantedAppStmts;
@@ -94,6 +93,18 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
         };
     }
 
+    /**
+     * @return the call graph whose reachable methods are collected.
+     * By default, it is the call graph built by pointer analysis.
+     */
+    CallGraph<Invoke, JMethod> getCallGraph() {
+        return getPointerAnalysisResult().getCallGraph();
+    }
+
+    static PointerAnalysisResult getPointerAnalysisResult() {
+        return World.get().getResult(PointerAnalysis.ID);
+    }
+
     /**
      * @return {@code true} if the given statement is relevant to the client.
      */
@@ -102,7 +113,7 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
     /**
      * @return {@code true} if the given statement is wanted by the client.
      */
-    abstract boolean isWanted(Stmt stmt, PointerAnalysisResult result);
+    abstract boolean isWanted(Stmt stmt);
 
     /**
      * @return description of wanted statements
@@ -23,20 +23,79 @@
 package pascal.taie.analysis.pta.client;
 
 import pascal.taie.World;
-import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.StmtResult;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.demand.DemandPointerAnalysis;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.Configs;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Identifies the casts that may fail.
+ * <p>
+ * With option {@code demand}, the points-to sets of the cast variables are
+ * given by {@link DemandPointerAnalysis} on the call graph built by
+ * {@link CallGraphBuilder} (e.g., by class hierarchy analysis), instead of
+ * whole-program pointer analysis, which is only run when a query falls back.
+ */
 public class MayFailCast extends Collector {
 
     public static final String ID = "may-fail-cast";
 
+    private final boolean demand;
+
+    private Function<Var, Set<Obj>> pointsTo;
+
     public MayFailCast(AnalysisConfig config) {
         super(config);
+        demand = getOptions().getBoolean("demand");
+    }
+
+    @Override
+    public StmtResult<Boolean> analyze() {
+        if (demand) {
+            AnalysisConfig ptaConfig = getDefaultPTAConfig();
+            DemandPointerAnalysis demandPTA = new DemandPointerAnalysis(
+                    getCallGraph(),
+                    new AllocationSiteBasedModel(ptaConfig.getOptions()),
+                    getOptions().getInt("demand-budget"),
+                    () -> World.get().getResult(PointerAnalysis.ID,
+                            () -> new PointerAnalysis(ptaConfig).analyze()));
+            pointsTo = demandPTA::getPointsToSet;
+        } else {
+            pointsTo = getPointerAnalysisResult()::getPointsToSet;
+        }
+        return super.analyze();
+    }
+
+    /**
+     * @return the configuration of pointer analysis with default options,
+     * which is used if pointer analysis is not run by the analysis plan.
+     */
+    private static AnalysisConfig getDefaultPTAConfig() {
+        return AnalysisConfig.parseConfigs(Configs.getAnalysisConfig())
+                .stream()
+                .filter(config -> config.getId().equals(PointerAnalysis.ID))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Override
+    CallGraph<Invoke, JMethod> getCallGraph() {
+        return demand ? World.get().getResult(CallGraphBuilder.ID)
+                : super.getCallGraph();
     }
 
     @Override
@@ -45,11 +104,11 @@ public class MayFailCast extends Collector {
     }
 
     @Override
-    boolean isWanted(Stmt stmt, PointerAnalysisResult result) {
+    boolean isWanted(Stmt stmt) {
         Cast cast = (Cast) stmt;
         Type castType = cast.getRValue().getCastType();
         Var from = cast.getRValue().getValue();
-        for (Obj obj : result.getPointsToSet(from)) {
+        for (Obj obj : pointsTo.apply(from)) {
             if (!World.get().getTypeSystem().isSubtype(
                     castType, obj.getType())) {
                 return true;
@@ -22,7 +22,6 @@
 
 package pascal.taie.analysis.pta.client;
 
-import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
@@ -42,9 +41,9 @@ public class PolymorphicCallSite extends Collector {
     }
 
     @Override
-    boolean isWanted(Stmt stmt, PointerAnalysisResult result) {
+    boolean isWanted(Stmt stmt) {
         Invoke invoke = (Invoke) stmt;
-        return result.getCallGraph().getCalleesOf(invoke).size() > 1;
+        return getCallGraph().getCalleesOf(invoke).size() > 1;
     }
 
     @Override
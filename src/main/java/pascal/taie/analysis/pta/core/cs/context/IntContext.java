@@ -0,0 +1,316 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An implementation of {@link Context}, which encodes each context
+ * as a dense integer (id) in a context table of its {@link Factory}.
+ * <p>
+ * Like {@link TrieContext}, the contexts are organized as a trie,
+ * but the trie is stored in flat arrays (parent and element of each id)
+ * and a primitive hash table (from parent and element to child), and
+ * k-limited appending is done by table lookups. Thus, the factory does
+ * not allocate a node (with a map of its children) for each context,
+ * and an {@code IntContext} object is created only when the context
+ * is returned to the clients.
+ * <p>
+ * Each factory produces at most one object for each context,
+ * so contexts can be compared by identity.
+ */
+public final class IntContext implements Context {
+
+    private final Factory<?> factory;
+
+    private final int id;
+
+    private IntContext(Factory<?> factory, int id) {
+        this.factory = factory;
+        this.id = id;
+    }
+
+    /**
+     * @return the id of this context in the context table of its factory.
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int getLength() {
+        return factory.lengths[id];
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        int length = getLength();
+        assert 0 <= i && i < length;
+        int c = id;
+        for (int j = length - 1; j > i; --j) {
+            c = factory.parents[c];
+        }
+        return factory.elems.get(factory.elemIds[c]);
+    }
+
+    @Override
+    public String toString() {
+        int length = getLength();
+        Object[] elems = new Object[length];
+        int c = id;
+        for (int i = length - 1; i >= 0; --i) {
+            elems[i] = factory.elems.get(factory.elemIds[c]);
+            c = factory.parents[c];
+        }
+        return Arrays.toString(elems);
+    }
+
+    public static class Factory<T> implements ContextFactory<T> {
+
+        /**
+         * Id of the empty context, i.e., the root of the context trie.
+         */
+        private static final int ROOT = 0;
+
+        /**
+         * Marks absent entries in {@link #dropFirsts}.
+         */
+        private static final int UNKNOWN = -1;
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        /**
+         * Maps context elements to their ids.
+         */
+        private final Map<Object, Integer> elemToId = Maps.newMap();
+
+        /**
+         * Context elements indexed by their ids.
+         */
+        private final List<Object> elems = new ArrayList<>();
+
+        /**
+         * Number of contexts in the table.
+         */
+        private int size = 1;
+
+        /**
+         * Id of the parent of each context.
+         */
+        private int[] parents = new int[INITIAL_CAPACITY];
+
+        /**
+         * Id of the last element of each context.
+         */
+        private int[] elemIds = new int[INITIAL_CAPACITY];
+
+        /**
+         * Length of each context.
+         */
+        private int[] lengths = new int[INITIAL_CAPACITY];
+
+        /**
+         * Id of the context without the first element of each context,
+         * computed on demand.
+         */
+        private int[] dropFirsts = new int[INITIAL_CAPACITY];
+
+        /**
+         * Context objects, created on demand.
+         */
+        private IntContext[] contexts = new IntContext[INITIAL_CAPACITY];
+
+        /**
+         * Keys of the child table, i.e., (parent id, element id) pairs.
+         */
+        private long[] childKeys = new long[INITIAL_CAPACITY];
+
+        /**
+         * Values of the child table. As the root is never a child,
+         * 0 marks empty slots.
+         */
+        private int[] childIds = new int[INITIAL_CAPACITY];
+
+        public Factory() {
+            Arrays.fill(dropFirsts, UNKNOWN);
+            dropFirsts[ROOT] = ROOT;
+        }
+
+        @Override
+        public IntContext getEmptyContext() {
+            return get(ROOT);
+        }
+
+        @Override
+        public IntContext make(T elem) {
+            return get(childOf(ROOT, elem));
+        }
+
+        @Override
+        @SafeVarargs
+        public final IntContext make(T... elems) {
+            int c = ROOT;
+            for (T elem : elems) {
+                c = childOf(c, elem);
+            }
+            return get(c);
+        }
+
+        @Override
+        public IntContext makeLastK(Context context, int k) {
+            return get(lastK(((IntContext) context).id, k));
+        }
+
+        @Override
+        public IntContext append(Context parent, T elem, int limit) {
+            int p = ((IntContext) parent).id;
+            if (lengths[p] >= limit) {
+                p = lastK(p, limit - 1);
+            }
+            return get(childOf(p, elem));
+        }
+
+        /**
+         * @return the context object of given id.
+         */
+        private IntContext get(int id) {
+            IntContext context = contexts[id];
+            if (context == null) {
+                context = new IntContext(this, id);
+                contexts[id] = context;
+            }
+            return context;
+        }
+
+        /**
+         * @return id of the context with last k elements of given context.
+         */
+        private int lastK(int c, int k) {
+            if (k == 0) {
+                return ROOT;
+            }
+            for (int n = lengths[c] - k; n > 0; --n) {
+                c = dropFirst(c);
+            }
+            return c;
+        }
+
+        /**
+         * @return id of the context without the first element of given context.
+         */
+        private int dropFirst(int c) {
+            int result = dropFirsts[c];
+            if (result == UNKNOWN) {
+                result = lengths[c] == 1 ? ROOT
+                        : child(dropFirst(parents[c]), elemIds[c]);
+                dropFirsts[c] = result;
+            }
+            return result;
+        }
+
+        private int childOf(int parent, T elem) {
+            Integer elemId = elemToId.get(elem);
+            if (elemId == null) {
+                elemId = elems.size();
+                elemToId.put(elem, elemId);
+                elems.add(elem);
+            }
+            return child(parent, elemId);
+        }
+
+        /**
+         * @return id of the child context of given parent and element.
+         * Creates the child if it does not exist.
+         */
+        private int child(int parent, int elemId) {
+            long key = ((long) parent << 32) | elemId;
+            int mask = childKeys.length - 1;
+            int i = hash(key) & mask;
+            while (childIds[i] != 0) {
+                if (childKeys[i] == key) {
+                    return childIds[i];
+                }
+                i = (i + 1) & mask;
+            }
+            int c = newContext(parent, elemId);
+            childKeys[i] = key;
+            childIds[i] = c;
+            if (size * 2 > childKeys.length) {
+                rehash();
+            }
+            return c;
+        }
+
+        private int newContext(int parent, int elemId) {
+            if (size == parents.length) {
+                int capacity = size * 2;
+                parents = Arrays.copyOf(parents, capacity);
+                elemIds = Arrays.copyOf(elemIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                dropFirsts = Arrays.copyOf(dropFirsts, capacity);
+                Arrays.fill(dropFirsts, size, capacity, UNKNOWN);
+                contexts = Arrays.copyOf(contexts, capacity);
+            }
+            int c = size++;
+            parents[c] = parent;
+            elemIds[c] = elemId;
+            lengths[c] = lengths[parent] + 1;
+            return c;
+        }
+
+        private void rehash() {
+            long[] oldKeys = childKeys;
+            int[] oldIds = childIds;
+            childKeys = new long[oldKeys.length * 2];
+            childIds = new int[oldIds.length * 2];
+            int mask = childKeys.length - 1;
+            for (int j = 0; j < oldKeys.length; ++j) {
+                if (oldIds[j] != 0) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (childIds[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    childKeys[i] = oldKeys[j];
+                    childIds[i] = oldIds[j];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        /**
+         * @return number of contexts produced by this factory.
+         */
+        public int getContextCount() {
+            return size;
+        }
+    }
+}
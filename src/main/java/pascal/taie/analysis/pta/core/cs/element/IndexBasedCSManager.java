@@ -0,0 +1,372 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Manages data by maintaining the data and their context-sensitive
+ * counterparts by primitive tables.
+ * <p>
+ * Different from {@link MapBasedCSManager}, which stores the
+ * context-sensitive elements in nested maps, this manager assigns
+ * integer ids to variables, contexts, fields and call sites, and stores
+ * each kind of context-sensitive elements in a single open-addressing
+ * table keyed by the two ids packed into a {@code long}. This avoids
+ * the nested map (and its entries) created for every variable, and
+ * each lookup probes flat arrays instead of walking nested maps.
+ * <p>
+ * Context-sensitive objects and methods are managed in the same way
+ * as {@link MapBasedCSManager}.
+ */
+public class IndexBasedCSManager implements CSManager {
+
+    private final IdentityIds<Context> contextIds = new IdentityIds<>();
+
+    private final IdentityIds<Var> varIds = new IdentityIds<>();
+
+    private final IdentityIds<JField> fieldIds = new IdentityIds<>();
+
+    private final IdentityIds<Invoke> callSiteIds = new IdentityIds<>();
+
+    private final LongTable<CSVar> csVarTable = new LongTable<>();
+
+    /**
+     * The i-th element is the list of CSVars of the variable whose id is i.
+     */
+    private final List<List<CSVar>> csVarsOfVar = new ArrayList<>();
+
+    private final List<CSVar> csVars = new ArrayList<>();
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    private final LongTable<InstanceField> instanceFieldTable = new LongTable<>();
+
+    private final List<InstanceField> instanceFields = new ArrayList<>();
+
+    /**
+     * Maps index of CSObj to its ArrayIndex.
+     */
+    private ArrayIndex[] arrayIndexTable = new ArrayIndex[1024];
+
+    private final List<ArrayIndex> arrayIndexes = new ArrayList<>();
+
+    private final LongTable<CSCallSite> callSiteTable = new LongTable<>();
+
+    private final MapBasedCSManager.CSObjManager objManager =
+            new MapBasedCSManager.CSObjManager();
+
+    private final MapBasedCSManager.CSMethodManager mtdManager =
+            new MapBasedCSManager.CSMethodManager();
+
+    /**
+     * Counter for assigning unique indexes to Pointers.
+     */
+    private int counter = 0;
+
+    private static long key(int id1, int id2) {
+        return ((long) id1 << 32) | (id2 & 0xffffffffL);
+    }
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        int varId = varIds.getId(var);
+        return csVarTable.computeIfAbsent(
+                key(varId, contextIds.getId(context)), __ -> {
+                    CSVar csVar = new CSVar(var, context, counter++);
+                    if (varId == csVarsOfVar.size()) {
+                        csVarsOfVar.add(new ArrayList<>(1));
+                    }
+                    csVarsOfVar.get(varId).add(csVar);
+                    csVars.add(csVar);
+                    return csVar;
+                });
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> new StaticField(f, counter++));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        return instanceFieldTable.computeIfAbsent(
+                key(base.getIndex(), fieldIds.getId(field)), __ -> {
+                    InstanceField iField = new InstanceField(base, field, counter++);
+                    instanceFields.add(iField);
+                    return iField;
+                });
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexTable.length) {
+            int newLength = Math.max(index + 1, (int) (arrayIndexTable.length * 1.5));
+            arrayIndexTable = Arrays.copyOf(arrayIndexTable, newLength);
+        }
+        ArrayIndex arrayIndex = arrayIndexTable[index];
+        if (arrayIndex == null) {
+            arrayIndex = new ArrayIndex(array, counter++);
+            arrayIndexTable[index] = arrayIndex;
+            arrayIndexes.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return varIds.getElements();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        int varId = varIds.findId(var);
+        return varId != -1
+                ? Collections.unmodifiableList(csVarsOfVar.get(varId))
+                : List.of();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(instanceFields);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexes);
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return Streams.concat(
+                getCSVars().stream(),
+                getInstanceFields().stream(),
+                getArrayIndexes().stream(),
+                getStaticFields().stream());
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return objManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objManager.getObjects();
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        return objManager.getCSObjsOf(obj);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objManager;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return callSiteTable.computeIfAbsent(
+                key(callSiteIds.getId(callSite), contextIds.getId(context)),
+                __ -> new CSCallSite(callSite, context,
+                        mtdManager.getCSMethod(context, callSite.getContainer())));
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return mtdManager.getCSMethod(context, method);
+    }
+
+    @Override
+    public Indexer<CSMethod> getMethodIndexer() {
+        return mtdManager;
+    }
+
+    /**
+     * Assigns consecutive ids (starting from 0) to elements by their
+     * identities. The ids are stored in an open-addressing hash table
+     * with linear probing.
+     */
+    private static class IdentityIds<E> {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private Object[] keys = new Object[INITIAL_CAPACITY];
+
+        private int[] ids = new int[INITIAL_CAPACITY];
+
+        private final List<E> elements = new ArrayList<>();
+
+        /**
+         * @return the id of given element, or -1 if the element
+         * has not been assigned an id.
+         */
+        private int findId(E e) {
+            int mask = keys.length - 1;
+            for (int i = hash(e) & mask; ; i = (i + 1) & mask) {
+                Object k = keys[i];
+                if (k == e) {
+                    return ids[i];
+                } else if (k == null) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * @return the id of given element. If the element has not been
+         * assigned an id, assigns a new id to it.
+         */
+        private int getId(E e) {
+            int mask = keys.length - 1;
+            int i = hash(e) & mask;
+            for (Object k; (k = keys[i]) != null; i = (i + 1) & mask) {
+                if (k == e) {
+                    return ids[i];
+                }
+            }
+            int id = elements.size();
+            keys[i] = e;
+            ids[i] = id;
+            elements.add(e);
+            if (elements.size() * 2 > keys.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            Object[] oldKeys = keys;
+            int[] oldIds = ids;
+            keys = new Object[oldKeys.length * 2];
+            ids = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; ++j) {
+                Object k = oldKeys[j];
+                if (k != null) {
+                    int i = hash(k) & mask;
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = k;
+                    ids[i] = oldIds[j];
+                }
+            }
+        }
+
+        private static int hash(Object o) {
+            int h = System.identityHashCode(o);
+            return h ^ (h >>> 16);
+        }
+
+        private List<E> getElements() {
+            return Collections.unmodifiableList(elements);
+        }
+    }
+
+    /**
+     * Open-addressing hash table with linear probing, which maps
+     * {@code long} keys to values.
+     */
+    private static class LongTable<V> {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        private int size = 0;
+
+        @SuppressWarnings("unchecked")
+        private V computeIfAbsent(long key, LongFunction<V> mapper) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            for (Object v; (v = values[i]) != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) v;
+                }
+            }
+            V value = mapper.apply(key);
+            keys[i] = key;
+            values[i] = value;
+            if (++size * 2 > keys.length) {
+                rehash();
+            }
+            return value;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; ++j) {
+                if (oldValues[j] != null) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
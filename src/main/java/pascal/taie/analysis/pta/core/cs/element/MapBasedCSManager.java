@@ -159,9 +159,9 @@ public class MapBasedCSManager implements CSManager {
 
         private final Map<JField, StaticField> staticFields = Maps.newMap();
 
-        private final TwoKeyMap<CSObj, JField, InstanceField> instanceFields = Maps.newTwoKeyMap();
+        private final TwoKeyMap<CSObj, JField, InstanceField> instanceFields = Maps.newIndexableTwoKeyMap();
 
-        private final Map<CSObj, ArrayIndex> arrayIndexes = Maps.newMap();
+        private final Map<CSObj, ArrayIndex> arrayIndexes = Maps.newIndexableMap();
 
         /**
          * Counter for assigning unique indexes to Pointers.
@@ -222,9 +222,13 @@ public class MapBasedCSManager implements CSManager {
         }
     }
 
-    private static class CSObjManager implements Indexer<CSObj> {
+    /**
+     * Manages context-sensitive objects. This class is also used by
+     * {@link IndexBasedCSManager}.
+     */
+    static class CSObjManager implements Indexer<CSObj> {
 
-        private final TwoKeyMap<Obj, Context, CSObj> objMap = Maps.newTwoKeyMap();
+        private final TwoKeyMap<Obj, Context, CSObj> objMap = Maps.newIndexableTwoKeyMap();
 
         private final TypeSystem typeSystem = World.get().getTypeSystem();
 
@@ -317,7 +321,11 @@ public class MapBasedCSManager implements CSManager {
         }
     }
 
-    private static class CSMethodManager implements Indexer<CSMethod> {
+    /**
+     * Manages context-sensitive methods. This class is also used by
+     * {@link IndexBasedCSManager}.
+     */
+    static class CSMethodManager implements Indexer<CSMethod> {
 
         private final TwoKeyMap<JMethod, Context, CSMethod> methodMap = Maps.newTwoKeyMap();
 
@@ -328,7 +336,7 @@ public class MapBasedCSManager implements CSManager {
 
         private final List<CSMethod> methods = new ArrayList<>(65536);
 
-        private CSMethod getCSMethod(Context context, JMethod method) {
+        CSMethod getCSMethod(Context context, JMethod method) {
             return methodMap.computeIfAbsent(method, context, (m, c) -> {
                 CSMethod csMethod = new CSMethod(m, c, counter++);
                 methods.add(csMethod);
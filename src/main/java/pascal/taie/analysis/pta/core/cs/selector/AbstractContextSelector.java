@@ -23,21 +23,26 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
-import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.cs.context.IntContext;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 
 abstract class AbstractContextSelector<T> implements ContextSelector {
 
-    protected final ContextFactory<T> factory = new TrieContext.Factory<>();
+    protected final IntContext.Factory<T> factory = new IntContext.Factory<>();
 
     @Override
     public Context getEmptyContext() {
         return factory.getEmptyContext();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Context makeContext(Object... elems) {
+        return factory.make((T[]) elems);
+    }
+
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // Uses different strategies to select heap contexts
@@ -58,6 +58,32 @@ public interface ContextSelector {
      */
     Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee);
 
+    /**
+     * Declares what {@link #selectContext(CSCallSite, JMethod)} depends on.
+     * For the arguments with equal selection keys, this selector must
+     * select the same context, so that the selected contexts can be
+     * memoized (see {@link MemoizingSelector}).
+     *
+     * @return the selection key of the arguments, or {@code null} if
+     * the selection should not be memoized.
+     */
+    default Object getSelectionKey(CSCallSite callSite, JMethod callee) {
+        return null;
+    }
+
+    /**
+     * Declares what {@link #selectContext(CSCallSite, CSObj, JMethod)}
+     * depends on. For the arguments with equal selection keys, this selector
+     * must select the same context, so that the selected contexts can be
+     * memoized (see {@link MemoizingSelector}).
+     *
+     * @return the selection key of the arguments, or {@code null} if
+     * the selection should not be memoized.
+     */
+    default Object getSelectionKey(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return null;
+    }
+
     /**
      * Selects heap contexts for new-created abstract objects.
      *
@@ -67,4 +93,18 @@ public interface ContextSelector {
      * @return the heap context for the object.
      */
     Context selectHeapContext(CSMethod method, Obj obj);
+
+    /**
+     * Makes the context that consists of given context elements.
+     * This method is used to restore the contexts selected by this selector
+     * from an external form, e.g., a checkpoint of pointer analysis.
+     *
+     * @param elems the elements of the context.
+     * @return the context consisting of the elements.
+     * @throws UnsupportedOperationException if this selector does not
+     *                                       support restoring contexts.
+     */
+    default Context makeContext(Object... elems) {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -45,4 +45,14 @@ class KCallSelector extends KLimitingSelector<Invoke> {
         Context parent = callSite.getContext();
         return factory.append(parent, callSite.getCallSite(), limit);
     }
+
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, JMethod callee) {
+        return callSite;
+    }
+
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return callSite;
+    }
 }
@@ -27,6 +27,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Pair;
 
 class KTypeSelector extends KLimitingSelector<Type> {
 
@@ -44,4 +45,11 @@ class KTypeSelector extends KLimitingSelector<Type> {
         return factory.append(
                 recv.getContext(), recv.getObject().getContainerType(), limit);
     }
+
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, CSObj recv, JMethod callee) {
+        // the receiver objects allocated in the methods of the same type
+        // (and under the same heap context) share the same key
+        return new Pair<>(recv.getContext(), recv.getObject().getContainerType());
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Context selector that memoizes the contexts selected for callees
+ * by the given selector.
+ * <p>
+ * The results are keyed by the selection keys declared by the given
+ * selector (see {@link ContextSelector#getSelectionKey(CSCallSite, CSObj, JMethod)}),
+ * e.g., a receiver object for object sensitivity, and a call site for
+ * call-site sensitivity. Thus, the context for the callees of a receiver
+ * object is selected only once, although the solver selects it for each
+ * call site and each points-to set in which the receiver object appears.
+ * The selections without keys are not memoized.
+ */
+public final class MemoizingSelector implements ContextSelector {
+
+    private final ContextSelector delegate;
+
+    /**
+     * Memoized contexts for static methods.
+     */
+    private final Map<Object, Context> staticContexts = Maps.newMap();
+
+    /**
+     * Memoized contexts for instance methods.
+     */
+    private final Map<Object, Context> instanceContexts = Maps.newMap();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    public MemoizingSelector(ContextSelector delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Context getEmptyContext() {
+        return delegate.getEmptyContext();
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, JMethod callee) {
+        Object key = delegate.getSelectionKey(callSite, callee);
+        if (key == null) {
+            return delegate.selectContext(callSite, callee);
+        }
+        Context context = staticContexts.get(key);
+        if (context == null) {
+            ++misses;
+            context = delegate.selectContext(callSite, callee);
+            staticContexts.put(key, context);
+        } else {
+            ++hits;
+        }
+        return context;
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+        Object key = delegate.getSelectionKey(callSite, recv, callee);
+        if (key == null) {
+            return delegate.selectContext(callSite, recv, callee);
+        }
+        Context context = instanceContexts.get(key);
+        if (context == null) {
+            ++misses;
+            context = delegate.selectContext(callSite, recv, callee);
+            instanceContexts.put(key, context);
+        } else {
+            ++hits;
+        }
+        return context;
+    }
+
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, JMethod callee) {
+        return delegate.getSelectionKey(callSite, callee);
+    }
+
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return delegate.getSelectionKey(callSite, recv, callee);
+    }
+
+    @Override
+    public Context selectHeapContext(CSMethod method, Obj obj) {
+        return delegate.selectHeapContext(method, obj);
+    }
+
+    @Override
+    public Context makeContext(Object... elems) {
+        return delegate.makeContext(elems);
+    }
+
+    /**
+     * @return number of selections answered by memoized contexts.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of memoized selections computed by the given selector.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -78,10 +78,28 @@ class SelectiveSelector implements ContextSelector {
                 delegate.getEmptyContext();
     }
 
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, JMethod callee) {
+        // selections for context-insensitive methods are not memoized
+        return isCSMethod.test(callee) ?
+                delegate.getSelectionKey(callSite, callee) : null;
+    }
+
+    @Override
+    public Object getSelectionKey(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return isCSMethod.test(callee) ?
+                delegate.getSelectionKey(callSite, recv, callee) : null;
+    }
+
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         return isCSObj.test(obj) ?
                 delegate.selectHeapContext(method, obj) :
                 delegate.getEmptyContext();
     }
+
+    @Override
+    public Context makeContext(Object... elems) {
+        return delegate.makeContext(elems);
+    }
 }
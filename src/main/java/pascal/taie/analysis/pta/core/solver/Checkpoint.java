@@ -0,0 +1,1003 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.ConstantObj;
+import pascal.taie.analysis.pta.core.heap.MergedObj;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.ir.IRPrinter;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.IntSetMultiMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Checkpoint of pointer analysis, which periodically saves the state
+ * of the solver to a file, so that a long-running analysis that is
+ * stopped (e.g., by reaching time limit) can be resumed by a later run.
+ * <p>
+ * The saved state consists of the reachable (context-sensitive) methods,
+ * the call edges, and the points-to sets of all pointers. As the analysis
+ * is monotone, the saved facts are always a subset of the fixed point of
+ * the same analysis. Thus, a resumed run seeds the solver with the saved
+ * facts and continues to propagate from them, and it reaches the same
+ * fixed point as a run from scratch. The pointer flow graph and the work
+ * list are not saved, since they are re-derived from the seeded facts.
+ * <p>
+ * The program elements are saved by stable keys (e.g., signatures of
+ * methods and indexes of variables and statements in their IR), as the IR
+ * is re-built by each run. The facts involving the elements that have
+ * no stable keys, e.g., the mock objects created by plugins, are not
+ * saved, and they are re-derived by the resumed run.
+ * <p>
+ * Each checkpoint records the options that affect the result and the hash
+ * of the analyzed world (i.e., the program and class path), and a checkpoint
+ * is ignored if it is not produced with the same options and world.
+ * In addition, it records a hash of the IR of every saved method, so that
+ * a checkpoint is discarded when the stable keys of a changed method
+ * may refer to different elements.
+ * <p>
+ * With option {@code incremental}, a checkpoint of a previous version of
+ * the program is resumed even if the program has changed. The facts that
+ * may depend on the changed (or removed) methods and classes are dropped,
+ * and the others are seeded to the solver, which re-solves the changed part
+ * of the program. To find the affected facts, a checkpoint also records
+ * the pointer flow graph and the hash of the classes of the saved objects.
+ * A fact is affected if it is about the elements of a changed method, or
+ * any fact it may be derived from is affected, i.e., the facts of its
+ * predecessors in the pointer flow graph, the facts of the base variables
+ * of the field and array accesses that may induce its incoming edges,
+ * and the reachability of the method and the call edge that produce it.
+ * As the analysis is not monotone w.r.t. removing statements, only
+ * the unaffected facts are guaranteed to be in the fixed point of the
+ * changed program, and the facts derived by plugins via the edges that
+ * are not saved are also re-derived.
+ */
+final class Checkpoint {
+
+    private static final Logger logger = LogManager.getLogger(Checkpoint.class);
+
+    private static final String MAGIC = "tai-e-pta-checkpoint";
+
+    /**
+     * Options that affect the result of pointer analysis.
+     */
+    private static final List<String> RESULT_OPTIONS = List.of(
+            "cs", "only-app", "implicit-entries",
+            "distinguish-string-constants", "merge-string-objects",
+            "merge-string-builders", "merge-exception-objects",
+            "handle-invokedynamic", "propagate-types", "advanced",
+            "reflection-inference", "reflection-log", "taint-config",
+            "plugins");
+
+    private static final long NANOS_FACTOR = 1_000_000_000L;
+
+    private static final String SEP = "\t";
+
+    private static final String ELEM_SEP = ";";
+
+    private static final char INDEX_SEP = '/';
+
+    /**
+     * Key of the pointers that have no stable keys.
+     */
+    private static final String UNKNOWN = "?";
+
+    private final Solver solver;
+
+    private final CSManager csManager;
+
+    private final Path file;
+
+    private final long intervalNanos;
+
+    /**
+     * Hash of the analyzed world, which changes with the program.
+     */
+    private final String world;
+
+    private final String fingerprint;
+
+    /**
+     * Whether to resume a checkpoint of a previous version of the program.
+     */
+    private final boolean incremental;
+
+    /**
+     * Signatures of the methods that have changed since the checkpoint
+     * was saved. The stable keys of these methods are stale, and
+     * the records referring to them are not decoded.
+     */
+    private Set<String> changedMethods = Set.of();
+
+    /**
+     * Whether this checkpoint may write the checkpoint file.
+     * When resuming, the file produced by another analysis is kept.
+     */
+    private boolean writable = true;
+
+    private long lastWriteTime;
+
+    Checkpoint(Solver solver, String file, int interval) {
+        this.solver = solver;
+        this.csManager = solver.getCSManager();
+        this.file = Path.of(file);
+        this.intervalNanos = interval * NANOS_FACTOR;
+        this.world = Integer.toString(CachedWorldBuilder.getWorldCacheHash(
+                World.get().getOptions()));
+        this.fingerprint = computeFingerprint(solver);
+        this.incremental = solver.getOptions().getBoolean("incremental");
+        this.lastWriteTime = System.nanoTime();
+    }
+
+    private static String computeFingerprint(Solver solver) {
+        AnalysisOptions options = solver.getOptions();
+        StringJoiner joiner = new StringJoiner(";");
+        joiner.add("main:" + World.get().getOptions().getMainClass());
+        RESULT_OPTIONS.forEach(key -> joiner.add(key + ":" + options.get(key)));
+        joiner.add("selector:" + solver.getContextSelector().getClass().getName());
+        joiner.add("heap:" + solver.getHeapModel().getClass().getName());
+        return joiner.toString();
+    }
+
+    /**
+     * Seeds the solver with the facts in the checkpoint file, if the file
+     * exists and is produced by the same analysis.
+     * This method should be called after the solver is initialized.
+     */
+    void restore() {
+        if (!Files.exists(file)) {
+            logger.info("Checkpoint {} does not exist, solving from scratch", file);
+            return;
+        }
+        List<String[]> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(
+                file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String[] fields = header == null ? new String[0] : header.split(SEP, -1);
+            if (fields.length != 3 || !fields[0].equals(MAGIC)
+                    || !fields[2].equals(fingerprint)
+                    || !(incremental || fields[1].equals(world))) {
+                logger.warn("Checkpoint {} is not produced with the same" +
+                        " options, and it is ignored", file);
+                writable = false;
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                records.add(line.split(SEP, -1));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read checkpoint {}, solving from scratch: {}",
+                    file, e.toString());
+            return;
+        }
+        try {
+            if (incremental) {
+                restoreIncrementally(records);
+            } else {
+                restoreAll(records);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read checkpoint {}, solving from scratch: {}",
+                    file, e.toString());
+        }
+    }
+
+    /**
+     * Seeds the solver with all facts in given records, which must
+     * not refer to any changed method.
+     */
+    private void restoreAll(List<String[]> records) {
+        List<CSMethod> methods = new ArrayList<>();
+        List<Edge<CSCallSite, CSMethod>> edges = new ArrayList<>();
+        List<Pair<Pointer, PointsToSet>> pointsTo = new ArrayList<>();
+        for (String[] fields : records) {
+            switch (fields[0]) {
+                case "H" -> checkMethodHash(fields[1], fields[2]);
+                case "M" -> methods.add(decodeCSMethod(fields, 1));
+                case "E" -> edges.add(decodeEdge(fields));
+                case "P" -> {
+                    if (!fields[1].equals(UNKNOWN)) {
+                        pointsTo.add(new Pair<>(decodePointer(fields),
+                                decodePointsToSet(fields)));
+                    }
+                }
+                case "C", "F" -> {
+                    // only used to resume a changed program
+                }
+                default -> throw new IllegalArgumentException(
+                        "Unknown record: " + fields[0]);
+            }
+        }
+        methods.forEach(solver::addCSMethod);
+        edges.forEach(solver::addCallEdge);
+        pointsTo.forEach(p -> solver.addPointsTo(p.first(), p.second()));
+        logger.info("Resumed from checkpoint {} ({} methods, {} call edges," +
+                " {} pointers)", file, methods.size(), edges.size(), pointsTo.size());
+    }
+
+    /**
+     * Seeds the solver with the facts in given records that are not
+     * affected by the changes of the program since the checkpoint was saved.
+     */
+    private void restoreIncrementally(List<String[]> records) {
+        Set<String> changedClasses = Sets.newSet();
+        Set<String> changed = Sets.newSet();
+        for (String[] fields : records) {
+            if (fields[0].equals("H")) {
+                JMethod method = solver.getHierarchy().getMethod(fields[1]);
+                if (method == null || !hashMethod(method).equals(fields[2])) {
+                    changed.add(fields[1]);
+                }
+            } else if (fields[0].equals("C")) {
+                JClass jclass = solver.getHierarchy().getClass(fields[1]);
+                if (jclass == null || !hashClass(jclass).equals(fields[2])) {
+                    changedClasses.add(fields[1]);
+                }
+            }
+        }
+        changedMethods = changed;
+        Invalidator invalidator = new Invalidator(changedClasses);
+        records.forEach(invalidator::addRecord);
+        invalidator.invalidate();
+        invalidator.seed();
+        changedMethods = Set.of();
+    }
+
+    /**
+     * Finds the facts in a checkpoint that are affected by the changes of
+     * the program, by propagating the invalidation from the stale records
+     * (i.e., the ones that refer to changed methods and classes) along
+     * the dependencies of the facts.
+     */
+    private class Invalidator {
+
+        /**
+         * Names of the classes that have changed. The objects of these
+         * classes (and their subclasses) may be dispatched and filtered
+         * differently.
+         */
+        private final Set<String> changedClasses;
+
+        private final Map<Type, Boolean> affectedTypes = Maps.newMap();
+
+        private final List<CSMethod> methods = new ArrayList<>();
+
+        private final Set<CSMethod> invalidMethods = Sets.newSet();
+
+        /**
+         * Call edges, and their callees, which are decoded even if
+         * the edges are stale.
+         */
+        private final List<Edge<CSCallSite, CSMethod>> edges = new ArrayList<>();
+
+        private final List<CSMethod> callees = new ArrayList<>();
+
+        private final Set<Integer> invalidEdges = Sets.newSet();
+
+        /**
+         * Pointers and their objects, indexed by the ids in the checkpoint.
+         * The stale pointers and objects are {@code null}.
+         */
+        private final List<Pointer> pointers = new ArrayList<>();
+
+        private final List<List<CSObj>> objects = new ArrayList<>();
+
+        private final Set<Integer> invalidPointers = Sets.newSet();
+
+        // dependencies of the facts
+        private final IntSetMultiMap<Integer> successors = Maps.newIntSetMultiMap();
+
+        private final MultiMap<CSObj, Integer> fieldsOf = Maps.newIndexableMultiMap();
+
+        private final MultiMap<CSMethod, Integer> varsOf = Maps.newIndexableMultiMap();
+
+        private final MultiMap<CSMethod, Integer> edgesFrom = Maps.newIndexableMultiMap();
+
+        private final MultiMap<CSMethod, Integer> edgesTo = Maps.newIndexableMultiMap();
+
+        private final MultiMap<Pointer, Integer> edgesOfReceiver = Maps.newIndexableMultiMap();
+
+        private final Queue<Integer> pointerQueue = new ArrayDeque<>();
+
+        private final Queue<CSMethod> methodQueue = new ArrayDeque<>();
+
+        private final Queue<Integer> edgeQueue = new ArrayDeque<>();
+
+        private Invalidator(Set<String> changedClasses) {
+            this.changedClasses = changedClasses;
+        }
+
+        private void addRecord(String[] fields) {
+            switch (fields[0]) {
+                case "M" -> addMethod(fields);
+                case "E" -> addEdge(fields);
+                case "P" -> addPointer(fields);
+                case "F" -> addFlowEdge(fields);
+                case "H", "C" -> {
+                }
+                default -> throw new IllegalArgumentException(
+                        "Unknown record: " + fields[0]);
+            }
+        }
+
+        private void addMethod(String[] fields) {
+            CSMethod csMethod = decodeOrNull(() -> decodeCSMethod(fields, 1));
+            if (csMethod != null) {
+                methods.add(csMethod);
+                // the method is reached by the edges that are not saved
+                if (fields.length > 3) {
+                    invalidMethods.add(csMethod);
+                }
+            }
+        }
+
+        private void addEdge(String[] fields) {
+            int id = edges.size();
+            Edge<CSCallSite, CSMethod> edge = decodeOrNull(() -> decodeEdge(fields));
+            CSMethod callee = edge != null ? edge.getCallee()
+                    : decodeOrNull(() -> decodeCSMethod(fields, 4));
+            edges.add(edge);
+            callees.add(callee);
+            if (callee != null) {
+                edgesTo.put(callee, id);
+            }
+            if (edge == null) {
+                invalidEdges.add(id);
+                return;
+            }
+            CSCallSite csCallSite = edge.getCallSite();
+            Invoke callSite = csCallSite.getCallSite();
+            edgesFrom.put(csManager.getCSMethod(csCallSite.getContext(),
+                    callSite.getContainer()), id);
+            switch (edge.getKind()) {
+                case VIRTUAL, INTERFACE -> edgesOfReceiver.put(csManager.getCSVar(
+                        csCallSite.getContext(),
+                        ((InvokeInstanceExp) callSite.getInvokeExp()).getBase()), id);
+                case STATIC, SPECIAL -> {
+                    // the callee is resolved by the class hierarchy
+                    if (CallGraphs.resolveCallee(null, callSite) != callee.getMethod()) {
+                        invalidEdges.add(id);
+                    }
+                }
+                // the edges of other kinds are added by plugins
+                default -> invalidEdges.add(id);
+            }
+        }
+
+        private void addPointer(String[] fields) {
+            int id = pointers.size();
+            Pointer pointer = fields[1].equals(UNKNOWN) ? null
+                    : decodeOrNull(() -> decodePointer(fields));
+            boolean stale = pointer == null;
+            List<CSObj> objs = new ArrayList<>();
+            for (int i = getObjectsStart(fields); i < fields.length; i += 2) {
+                int start = i;
+                CSObj csObj = decodeOrNull(() -> decodeCSObj(fields, start));
+                if (csObj == null || isAffected(csObj.getObject().getType())) {
+                    stale = true;
+                }
+                if (csObj != null) {
+                    objs.add(csObj);
+                }
+            }
+            pointers.add(pointer);
+            objects.add(objs);
+            if (stale) {
+                invalidPointers.add(id);
+            }
+            if (pointer instanceof CSVar csVar) {
+                varsOf.put(csManager.getCSMethod(csVar.getContext(),
+                        csVar.getVar().getMethod()), id);
+            } else if (pointer instanceof InstanceField iField) {
+                fieldsOf.put(iField.getBase(), id);
+            } else if (pointer instanceof ArrayIndex arrayIndex) {
+                fieldsOf.put(arrayIndex.getArray(), id);
+            }
+        }
+
+        private void addFlowEdge(String[] fields) {
+            int target = Integer.parseInt(fields[3]);
+            successors.put(Integer.parseInt(fields[2]), target);
+            // the edges added by plugins may depend on any facts
+            if (FlowKind.valueOf(fields[1]) == FlowKind.OTHER) {
+                invalidPointers.add(target);
+            }
+        }
+
+        /**
+         * @return {@code true} if the objects of given type may be
+         * dispatched or filtered differently in the changed program.
+         */
+        private boolean isAffected(Type type) {
+            return affectedTypes.computeIfAbsent(type, t -> {
+                Type base = t instanceof ArrayType arrayType
+                        ? arrayType.baseType() : t;
+                return base instanceof ClassType classType
+                        && getSuperTypes(classType.getJClass()).stream()
+                        .anyMatch(c -> changedClasses.contains(c.getName()));
+            });
+        }
+
+        /**
+         * Invalidates the facts that are affected by the stale records.
+         */
+        private void invalidate() {
+            // methods reached without saved edges, except the entry methods
+            Set<CSMethod> entries = solver.getCallGraph().entryMethods()
+                    .collect(Collectors.toSet());
+            methods.stream()
+                    .filter(m -> edgesTo.get(m).isEmpty() && !entries.contains(m))
+                    .forEach(invalidMethods::add);
+            pointerQueue.addAll(invalidPointers);
+            methodQueue.addAll(invalidMethods);
+            edgeQueue.addAll(invalidEdges);
+            while (!pointerQueue.isEmpty() || !methodQueue.isEmpty()
+                    || !edgeQueue.isEmpty()) {
+                Integer p = pointerQueue.poll();
+                if (p != null) {
+                    successors.getInt(p).forEach(this::invalidatePointer);
+                    Pointer pointer = pointers.get(p);
+                    if (!(pointer instanceof InstanceField
+                            || pointer instanceof ArrayIndex)) {
+                        // the field and array accesses on the objects of
+                        // (possibly stale) variables may induce different edges
+                        objects.get(p).forEach(o ->
+                                fieldsOf.get(o).forEach(this::invalidatePointer));
+                    }
+                    if (pointer != null) {
+                        edgesOfReceiver.get(pointer).forEach(this::invalidateEdge);
+                    }
+                }
+                CSMethod m = methodQueue.poll();
+                if (m != null) {
+                    varsOf.get(m).forEach(this::invalidatePointer);
+                    edgesFrom.get(m).forEach(this::invalidateEdge);
+                }
+                Integer e = edgeQueue.poll();
+                if (e != null && callees.get(e) != null) {
+                    invalidateMethod(callees.get(e));
+                }
+            }
+        }
+
+        private void invalidatePointer(int id) {
+            if (invalidPointers.add(id)) {
+                pointerQueue.add(id);
+            }
+        }
+
+        private void invalidateMethod(CSMethod csMethod) {
+            if (invalidMethods.add(csMethod)) {
+                methodQueue.add(csMethod);
+            }
+        }
+
+        private void invalidateEdge(int id) {
+            if (invalidEdges.add(id)) {
+                edgeQueue.add(id);
+            }
+        }
+
+        /**
+         * Seeds the solver with the facts that are not invalidated.
+         */
+        private void seed() {
+            int nMethods = 0, nEdges = 0, nPointers = 0;
+            for (CSMethod csMethod : methods) {
+                if (!invalidMethods.contains(csMethod)) {
+                    solver.addCSMethod(csMethod);
+                    ++nMethods;
+                }
+            }
+            for (int i = 0; i < edges.size(); ++i) {
+                if (!invalidEdges.contains(i)) {
+                    solver.addCallEdge(edges.get(i));
+                    ++nEdges;
+                }
+            }
+            for (int i = 0; i < pointers.size(); ++i) {
+                if (!invalidPointers.contains(i)) {
+                    PointsToSet pts = solver.makePointsToSet();
+                    objects.get(i).forEach(pts::addObject);
+                    solver.addPointsTo(pointers.get(i), pts);
+                    ++nPointers;
+                }
+            }
+            logger.info("Resumed from checkpoint {} of a changed program" +
+                            " ({} changed methods, {} changed classes), reused" +
+                            " {}/{} methods, {}/{} call edges, {}/{} pointers",
+                    file, changedMethods.size(), changedClasses.size(),
+                    nMethods, methods.size(), nEdges, edges.size(),
+                    nPointers, pointers.size());
+        }
+    }
+
+    /**
+     * Writes the checkpoint if the checkpoint interval has elapsed
+     * since last write.
+     */
+    void writeIfNeeded() {
+        if (System.nanoTime() - lastWriteTime >= intervalNanos) {
+            write();
+        }
+    }
+
+    /**
+     * Writes the current state of the solver to the checkpoint file.
+     * The file is replaced only after the whole checkpoint is written,
+     * so that an interrupted write does not destroy the previous one.
+     */
+    void write() {
+        if (!writable) {
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            try (PrintWriter out = new PrintWriter(
+                    Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+                out.println(MAGIC + SEP + world + SEP + fingerprint);
+                CallGraph<CSCallSite, CSMethod> callGraph = solver.getCallGraph();
+                // the hashes are written first, so that they are checked
+                // before decoding the records referring to the methods
+                callGraph.reachableMethods()
+                        .map(CSMethod::getMethod)
+                        .distinct()
+                        .forEach(m -> out.println("H" + SEP + m.getSignature()
+                                + SEP + hashMethod(m)));
+                csManager.getObjects()
+                        .stream()
+                        .map(o -> o.getObject().getType())
+                        .distinct()
+                        .map(t -> t instanceof ArrayType a ? a.baseType() : t)
+                        .filter(t -> t instanceof ClassType)
+                        .flatMap(t -> getSuperTypes(((ClassType) t).getJClass()).stream())
+                        .distinct()
+                        .forEach(c -> out.println("C" + SEP + c.getName()
+                                + SEP + hashClass(c)));
+                callGraph.reachableMethods()
+                        .forEach(m -> writeCSMethod(out, callGraph, m));
+                callGraph.edges()
+                        .filter(edge -> edge.getClass() == Edge.class)
+                        .forEach(edge -> writeEdge(out, edge));
+                // the pointers are identified by the order of their records
+                Map<Pointer, Integer> ids = Maps.newMap();
+                csManager.pointers().forEach(p -> writePointsTo(out, p, ids));
+                ids.keySet().forEach(p -> writeFlowEdges(out, p, ids));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Saved checkpoint of pointer analysis to {}", file);
+        } catch (IOException e) {
+            logger.error("Failed to write checkpoint {}", file, e);
+        }
+        lastWriteTime = System.nanoTime();
+    }
+
+    private void writeCSMethod(PrintWriter out,
+                               CallGraph<CSCallSite, CSMethod> callGraph,
+                               CSMethod csMethod) {
+        String m = encodeCSMethod(csMethod);
+        if (m != null) {
+            // marks the method that is reached by the edges that are not saved
+            boolean unsaved = callGraph.edgesInTo(csMethod).anyMatch(edge ->
+                    edge.getClass() != Edge.class
+                            || encodeContext(edge.getCallSite().getContext()) == null);
+            out.println("M" + SEP + m + (unsaved ? SEP + UNKNOWN : ""));
+        }
+    }
+
+    private void writeEdge(PrintWriter out, Edge<CSCallSite, CSMethod> edge) {
+        CSCallSite csCallSite = edge.getCallSite();
+        String context = encodeContext(csCallSite.getContext());
+        String callee = encodeCSMethod(edge.getCallee());
+        if (context != null && callee != null) {
+            out.println("E" + SEP + edge.getKind().name() + SEP + context +
+                    SEP + encodeInvoke(csCallSite.getCallSite()) +
+                    SEP + callee);
+        }
+    }
+
+    private void writePointsTo(PrintWriter out, Pointer pointer,
+                               Map<Pointer, Integer> ids) {
+        PointsToSet pts = pointer.getPointsToSet();
+        if (pts == null || pts.isEmpty()) {
+            return;
+        }
+        ids.put(pointer, ids.size());
+        // the pointers without stable keys are still saved (without
+        // objects), as the facts may flow through them
+        String p = encodePointer(pointer);
+        if (p == null) {
+            out.println("P" + SEP + UNKNOWN);
+            return;
+        }
+        StringBuilder builder = new StringBuilder("P").append(SEP).append(p);
+        for (CSObj csObj : pts) {
+            String o = encodeCSObj(csObj);
+            if (o != null) {
+                builder.append(SEP).append(o);
+            }
+        }
+        out.println(builder);
+    }
+
+    private static void writeFlowEdges(PrintWriter out, Pointer pointer,
+                                       Map<Pointer, Integer> ids) {
+        int source = ids.get(pointer);
+        for (PointerFlowEdge edge : pointer.getOutEdges()) {
+            Integer target = ids.get(edge.target());
+            if (target != null) {
+                out.println("F" + SEP + edge.kind().name() + SEP + source
+                        + SEP + target);
+            }
+        }
+    }
+
+    // ---------- encoding ----------
+    // Contexts and objects may be unencodable (null), and the facts
+    // involving them are simply not saved.
+
+    @Nullable
+    private String encodeCSMethod(CSMethod csMethod) {
+        String context = encodeContext(csMethod.getContext());
+        return context == null ? null
+                : context + SEP + csMethod.getMethod().getSignature();
+    }
+
+    @Nullable
+    private String encodePointer(Pointer pointer) {
+        if (pointer instanceof CSVar csVar) {
+            String context = encodeContext(csVar.getContext());
+            return context == null ? null
+                    : "v" + SEP + context + SEP + encodeVar(csVar.getVar());
+        } else if (pointer instanceof StaticField sField) {
+            return "s" + SEP + sField.getField().getSignature();
+        } else if (pointer instanceof InstanceField iField) {
+            String base = encodeCSObj(iField.getBase());
+            return base == null ? null
+                    : "f" + SEP + base + SEP + iField.getField().getSignature();
+        } else if (pointer instanceof ArrayIndex arrayIndex) {
+            String array = encodeCSObj(arrayIndex.getArray());
+            return array == null ? null : "a" + SEP + array;
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private String encodeCSObj(CSObj csObj) {
+        String context = encodeContext(csObj.getContext());
+        String obj = encodeObj(csObj.getObject());
+        return context == null || obj == null ? null : context + SEP + obj;
+    }
+
+    @Nullable
+    private String encodeContext(Context context) {
+        StringJoiner joiner = new StringJoiner(ELEM_SEP);
+        for (int i = 0; i < context.getLength(); ++i) {
+            Object elem = context.getElementAt(i);
+            String e;
+            if (elem instanceof Invoke invoke) {
+                e = "i" + encodeInvoke(invoke);
+            } else if (elem instanceof Obj obj) {
+                e = encodeObj(obj);
+            } else if (elem instanceof Type type) {
+                e = "t" + type.getName();
+            } else {
+                e = null;
+            }
+            if (e == null) {
+                return null;
+            }
+            joiner.add(e);
+        }
+        return joiner.toString();
+    }
+
+    @Nullable
+    private static String encodeObj(Obj obj) {
+        if (obj instanceof NewObj newObj) {
+            New allocSite = newObj.getAllocation();
+            return "n" + encodeStmt(allocSite.getContainer(), allocSite);
+        } else if (obj instanceof ConstantObj constObj) {
+            if (constObj.getAllocation() instanceof StringLiteral str) {
+                return "s" + Base64.getEncoder().encodeToString(
+                        str.getString().getBytes(StandardCharsets.UTF_8));
+            } else if (constObj.getAllocation() instanceof ClassLiteral klass) {
+                return "c" + klass.getTypeValue().getName();
+            }
+        } else if (obj instanceof MergedObj mergedObj) {
+            // a merged object is obtained again from the heap model
+            // by any object it represents
+            for (Obj represented : mergedObj.getAllocation()) {
+                if (!(represented instanceof MergedObj)) {
+                    String encoded = encodeObj(represented);
+                    if (encoded != null) {
+                        return encoded;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String encodeVar(Var var) {
+        return var.getIndex() + String.valueOf(INDEX_SEP)
+                + var.getMethod().getSignature();
+    }
+
+    private static String encodeInvoke(Invoke invoke) {
+        return encodeStmt(invoke.getContainer(), invoke);
+    }
+
+    private static String encodeStmt(JMethod container, Stmt stmt) {
+        return stmt.getIndex() + String.valueOf(INDEX_SEP)
+                + container.getSignature();
+    }
+
+    /**
+     * @return hash of the IR of given method. The variables and statements
+     * of the method are saved by their indexes in the IR, which are stable
+     * only if the IR does not change.
+     */
+    private static String hashMethod(JMethod method) {
+        return IRPrinter.hash(method.getIR());
+    }
+
+    /**
+     * @return hash of the super types and declared methods of given class,
+     * which determine how the objects of the class are dispatched and filtered.
+     */
+    private static String hashClass(JClass jclass) {
+        StringJoiner joiner = new StringJoiner(ELEM_SEP);
+        JClass superclass = jclass.getSuperClass();
+        joiner.add(superclass == null ? "" : superclass.getName());
+        jclass.getInterfaces().stream()
+                .map(JClass::getName)
+                .sorted()
+                .forEach(joiner::add);
+        jclass.getDeclaredMethods().stream()
+                .map(m -> m.getSubsignature() + (m.isAbstract() ? "a" : ""))
+                .sorted()
+                .forEach(joiner::add);
+        return Integer.toHexString(joiner.toString().hashCode());
+    }
+
+    /**
+     * @return given class and all its super classes and interfaces.
+     */
+    private static Set<JClass> getSuperTypes(JClass jclass) {
+        Set<JClass> superTypes = Sets.newSet();
+        Deque<JClass> workList = new ArrayDeque<>();
+        workList.add(jclass);
+        while (!workList.isEmpty()) {
+            JClass c = workList.poll();
+            if (superTypes.add(c)) {
+                if (c.getSuperClass() != null) {
+                    workList.add(c.getSuperClass());
+                }
+                workList.addAll(c.getInterfaces());
+            }
+        }
+        return superTypes;
+    }
+
+    // ---------- decoding ----------
+    // Decoding throws exceptions for malformed or stale checkpoints,
+    // e.g., the records referring to the methods that have changed.
+
+    private void checkMethodHash(String signature, String hash) {
+        if (!hashMethod(decodeMethod(signature)).equals(hash)) {
+            throw new IllegalArgumentException("Method changed: " + signature);
+        }
+    }
+
+    private CSMethod decodeCSMethod(String[] fields, int start) {
+        return csManager.getCSMethod(decodeContext(fields[start]),
+                decodeMethod(fields[start + 1]));
+    }
+
+    /**
+     * @return the value of given decoder, or {@code null} if the decoded
+     * record is stale.
+     */
+    @Nullable
+    private static <T> T decodeOrNull(Supplier<T> decoder) {
+        try {
+            return decoder.get();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Edge<CSCallSite, CSMethod> decodeEdge(String[] fields) {
+        return new Edge<>(CallKind.valueOf(fields[1]),
+                csManager.getCSCallSite(decodeContext(fields[2]),
+                        decodeInvoke(fields[3])),
+                decodeCSMethod(fields, 4));
+    }
+
+    private Pointer decodePointer(String[] fields) {
+        return switch (fields[1]) {
+            case "v" -> csManager.getCSVar(decodeContext(fields[2]),
+                    decodeVar(fields[3]));
+            case "s" -> csManager.getStaticField(decodeField(fields[2]));
+            case "f" -> csManager.getInstanceField(
+                    decodeCSObj(fields, 2), decodeField(fields[4]));
+            case "a" -> csManager.getArrayIndex(decodeCSObj(fields, 2));
+            default -> throw new IllegalArgumentException(
+                    "Unknown pointer: " + fields[1]);
+        };
+    }
+
+    /**
+     * @return the index of the first object in given points-to record.
+     */
+    private static int getObjectsStart(String[] fields) {
+        return switch (fields[1]) {
+            case "v", "a" -> 4;
+            case "s" -> 3;
+            case "f" -> 5;
+            default -> fields.length;
+        };
+    }
+
+    private PointsToSet decodePointsToSet(String[] fields) {
+        PointsToSet pts = solver.makePointsToSet();
+        for (int i = getObjectsStart(fields); i < fields.length; i += 2) {
+            pts.addObject(decodeCSObj(fields, i));
+        }
+        return pts;
+    }
+
+    private CSObj decodeCSObj(String[] fields, int start) {
+        return csManager.getCSObj(decodeContext(fields[start]),
+                decodeObj(fields[start + 1]));
+    }
+
+    private Context decodeContext(String context) {
+        if (context.isEmpty()) {
+            return solver.getContextSelector().getEmptyContext();
+        }
+        String[] elems = context.split(ELEM_SEP);
+        Object[] result = new Object[elems.length];
+        for (int i = 0; i < elems.length; ++i) {
+            String elem = elems[i];
+            result[i] = switch (elem.charAt(0)) {
+                case 'i' -> decodeInvoke(elem.substring(1));
+                case 't' -> solver.getTypeSystem().getType(elem.substring(1));
+                default -> decodeObj(elem);
+            };
+        }
+        return solver.getContextSelector().makeContext(result);
+    }
+
+    private Obj decodeObj(String obj) {
+        String value = obj.substring(1);
+        return switch (obj.charAt(0)) {
+            case 'n' -> solver.getHeapModel().getObj((New) decodeStmt(value));
+            case 's' -> solver.getHeapModel().getConstantObj(StringLiteral.get(
+                    new String(Base64.getDecoder().decode(value),
+                            StandardCharsets.UTF_8)));
+            case 'c' -> solver.getHeapModel().getConstantObj(ClassLiteral.get(
+                    solver.getTypeSystem().getType(value)));
+            default -> throw new IllegalArgumentException("Unknown object: " + obj);
+        };
+    }
+
+    private Var decodeVar(String var) {
+        int i = var.indexOf(INDEX_SEP);
+        return decodeMethod(var.substring(i + 1)).getIR()
+                .getVar(Integer.parseInt(var.substring(0, i)));
+    }
+
+    private Invoke decodeInvoke(String invoke) {
+        return (Invoke) decodeStmt(invoke);
+    }
+
+    private Stmt decodeStmt(String stmt) {
+        int i = stmt.indexOf(INDEX_SEP);
+        return decodeMethod(stmt.substring(i + 1)).getIR()
+                .getStmt(Integer.parseInt(stmt.substring(0, i)));
+    }
+
+    private JMethod decodeMethod(String signature) {
+        if (changedMethods.contains(signature)) {
+            throw new IllegalArgumentException("Method changed: " + signature);
+        }
+        JMethod method = solver.getHierarchy().getMethod(signature);
+        if (method == null) {
+            throw new IllegalArgumentException("Unknown method: " + signature);
+        }
+        return method;
+    }
+
+    private JField decodeField(String signature) {
+        JField field = solver.getHierarchy().getField(signature);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + signature);
+        }
+        return field;
+    }
+}
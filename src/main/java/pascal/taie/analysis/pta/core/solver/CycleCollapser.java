@@ -0,0 +1,362 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.util.collection.IntIntMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects cycles in pointer flow graph lazily, and collapses the pointers
+ * in each cycle into a representative pointer.
+ * <p>
+ * The pointers in a cycle of pointer flow graph always have the same
+ * points-to set at the fixed point, thus they can share a single
+ * {@link PointsToSet}, and the solver does not need to propagate objects
+ * along the edges inside the cycle. To ensure this, only the edges that
+ * have {@link Identity} as their only transfer and whose source and target
+ * pointers have no filters can be collapsed. If a filter is added to
+ * a pointer after it has been collapsed, the pointer is detached from
+ * its cycle (see {@link #detach(Pointer)}).
+ * <p>
+ * Following lazy cycle detection, the cycle detection is triggered when
+ * the solver finds that the source and target of a PFG edge have
+ * the same points-to set, and each edge triggers cycle detection at most
+ * once. See Ben Hardekopf and Calvin Lin. The Ant and the Grasshopper:
+ * Fast and Accurate Pointer Analysis for Millions of Lines of Code. PLDI 2007.
+ * <p>
+ * Note that this class only maintains the mappings from pointers to
+ * their representatives; it is the solver's responsibility to merge
+ * the points-to sets of the collapsed pointers.
+ */
+final class CycleCollapser {
+
+    /**
+     * Map from collapsed pointers to their representatives.
+     * The pointers that have not been collapsed are absent in this map.
+     */
+    private final Map<Pointer, Pointer> reps = Maps.newIndexableMap();
+
+    /**
+     * Map from representatives to the pointers they represent
+     * (including the representatives themselves).
+     */
+    private final Map<Pointer, List<Pointer>> members = Maps.newIndexableMap();
+
+    /**
+     * PFG edges that have triggered cycle detection.
+     */
+    private final Set<PointerFlowEdge> checkedEdges = Sets.newSet();
+
+    /**
+     * Number of collapsed cycles.
+     */
+    private int cycles = 0;
+
+    /**
+     * This method is read-only, thus it is safe to call it concurrently
+     * when the mappings are not modified.
+     *
+     * @return the representative of given pointer.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        return reps.getOrDefault(pointer, pointer);
+    }
+
+    /**
+     * This method is read-only, thus it is safe to call it concurrently
+     * when the mappings are not modified.
+     *
+     * @return the pointers that are collapsed together with given pointer
+     * (including the pointer itself).
+     */
+    List<Pointer> getMembers(Pointer pointer) {
+        List<Pointer> result = members.get(getRepresentative(pointer));
+        return result != null ? result : List.of(pointer);
+    }
+
+    /**
+     * @return {@code true} if given pointer has been collapsed with
+     * other pointers.
+     */
+    boolean isCollapsed(Pointer pointer) {
+        return reps.containsKey(pointer);
+    }
+
+    /**
+     * @return {@code true} if the objects flowing along given edge never
+     * need to be propagated, i.e., the edge is inside a collapsed cycle.
+     */
+    boolean isInternal(PointerFlowEdge edge) {
+        return isIdentity(edge) &&
+                getRepresentative(edge.source()) == getRepresentative(edge.target());
+    }
+
+    /**
+     * @return {@code true} if the source and target of given edge
+     * can be collapsed together.
+     */
+    private static boolean isCollapsible(PointerFlowEdge edge) {
+        return isIdentity(edge) &&
+                edge.source().getFilters().isEmpty() &&
+                edge.target().getFilters().isEmpty();
+    }
+
+    private static boolean isIdentity(PointerFlowEdge edge) {
+        Set<Transfer> transfers = edge.getTransfers();
+        return transfers.size() == 1 && transfers.contains(Identity.INSTANCE);
+    }
+
+    /**
+     * Finds the cycles that need to be collapsed, when the points-to set of
+     * given pointer has been enlarged by {@code diff}.
+     *
+     * @param pointer the representative whose points-to set changes
+     * @param diff    set of new discovered objects pointed by the pointer
+     * @return the cycles (each is given by the representatives of
+     * its pointers) to be collapsed.
+     */
+    List<List<Pointer>> findCycles(Pointer pointer, PointsToSet diff) {
+        // the points-to set of pointer before it is enlarged
+        int oldSize = pointer.getPointsToSet().size() - diff.size();
+        if (oldSize == 0) {
+            return List.of();
+        }
+        List<Pointer> starts = new ArrayList<>();
+        for (Pointer member : getMembers(pointer)) {
+            for (PointerFlowEdge edge : member.getOutEdges()) {
+                Pointer target = getRepresentative(edge.target());
+                PointsToSet targetSet = target.getPointsToSet();
+                // the objects of pointer have not been propagated to
+                // target yet, so if target already points to the same
+                // objects as pointer, it is likely that target
+                // reaches pointer via a cycle
+                if (target != pointer && targetSet != null
+                        && targetSet.size() == oldSize
+                        && isCollapsible(edge)
+                        && checkedEdges.add(edge)) {
+                    starts.add(target);
+                }
+            }
+        }
+        if (starts.isEmpty()) {
+            return List.of();
+        }
+        return new CycleFinder().find(starts);
+    }
+
+    /**
+     * Collapses the given representatives into one representative.
+     * The representative that represents the most pointers is chosen
+     * as the new representative.
+     *
+     * @return the new representative.
+     */
+    Pointer collapse(List<Pointer> cycle) {
+        Pointer rep = cycle.get(0);
+        for (Pointer p : cycle) {
+            if (getMembers(p).size() > getMembers(rep).size()) {
+                rep = p;
+            }
+        }
+        List<Pointer> repMembers = members.computeIfAbsent(rep, r -> {
+            List<Pointer> list = new ArrayList<>();
+            list.add(r);
+            return list;
+        });
+        for (Pointer p : cycle) {
+            if (p != rep) {
+                List<Pointer> pMembers = members.remove(p);
+                if (pMembers == null) {
+                    pMembers = List.of(p);
+                }
+                for (Pointer member : pMembers) {
+                    reps.put(member, rep);
+                }
+                repMembers.addAll(pMembers);
+            }
+        }
+        reps.put(rep, rep);
+        ++cycles;
+        return rep;
+    }
+
+    /**
+     * Removes given collapsed pointer from its cycle, so that the edges
+     * between the pointer and the rest of the cycle are no longer internal,
+     * and the objects flowing along them are propagated (and filtered)
+     * as usual. If only one pointer remains in the cycle, it is no longer
+     * regarded as collapsed.
+     *
+     * @return the representative of the rest of the cycle.
+     */
+    Pointer detach(Pointer pointer) {
+        Pointer rep = reps.remove(pointer);
+        List<Pointer> repMembers = members.remove(rep);
+        repMembers.remove(pointer);
+        Pointer newRep = rep == pointer ? repMembers.get(0) : rep;
+        if (repMembers.size() == 1) {
+            reps.remove(newRep);
+        } else {
+            members.put(newRep, repMembers);
+            if (newRep != rep) {
+                repMembers.forEach(p -> reps.put(p, newRep));
+            }
+        }
+        return newRep;
+    }
+
+    /**
+     * @return the number of pointers that have been collapsed.
+     */
+    int getCollapsedPointers() {
+        return reps.size();
+    }
+
+    /**
+     * @return the number of collapsed cycles.
+     */
+    int getCollapsedCycles() {
+        return cycles;
+    }
+
+    /**
+     * Finds strongly connected components which consist of representatives
+     * and collapsible edges, using Tarjan's algorithm.
+     */
+    private class CycleFinder {
+
+        private int index = 0;
+
+        /**
+         * Maps the indexes of the visited pointers to their DFS indexes.
+         */
+        private final IntIntMap indexes = Maps.newIntIntMap();
+
+        /**
+         * Maps the indexes of the visited pointers to their low links.
+         */
+        private final IntIntMap lows = Maps.newIntIntMap();
+
+        private final Deque<Pointer> stack = new ArrayDeque<>();
+
+        private final Set<Pointer> inStack = Sets.newSet();
+
+        private final List<List<Pointer>> cycles = new ArrayList<>();
+
+        private List<List<Pointer>> find(List<Pointer> starts) {
+            // use iterative (non-recursive) algorithm to avoid stack overflow
+            // for large pointer flow graph
+            for (Pointer start : starts) {
+                if (indexes.containsKey(start.getIndex())) {
+                    continue;
+                }
+                Deque<Pointer> workStack = new ArrayDeque<>();
+                Deque<Iterator<Pointer>> succIters = new ArrayDeque<>();
+                visit(start, workStack, succIters);
+                while (!workStack.isEmpty()) {
+                    Pointer node = workStack.peek();
+                    Iterator<Pointer> succIter = succIters.peek();
+                    boolean hasUnvisitedSucc = false;
+                    while (succIter.hasNext()) {
+                        Pointer succ = succIter.next();
+                        if (!indexes.containsKey(succ.getIndex())) {
+                            visit(succ, workStack, succIters);
+                            hasUnvisitedSucc = true;
+                            break;
+                        } else if (inStack.contains(succ)) {
+                            lows.put(node.getIndex(), Math.min(
+                                    lows.get(node.getIndex()), indexes.get(succ.getIndex())));
+                        }
+                    }
+                    if (!hasUnvisitedSucc) {
+                        workStack.pop();
+                        succIters.pop();
+                        if (lows.get(node.getIndex()) == indexes.get(node.getIndex())) {
+                            collectCycle(node);
+                        }
+                        Pointer parent = workStack.peek();
+                        if (parent != null) {
+                            lows.put(parent.getIndex(), Math.min(
+                                    lows.get(parent.getIndex()), lows.get(node.getIndex())));
+                        }
+                    }
+                }
+            }
+            return cycles;
+        }
+
+        private void visit(Pointer node, Deque<Pointer> workStack,
+                           Deque<Iterator<Pointer>> succIters) {
+            indexes.put(node.getIndex(), index);
+            lows.put(node.getIndex(), index);
+            ++index;
+            stack.push(node);
+            inStack.add(node);
+            workStack.push(node);
+            succIters.push(getSuccsOf(node).iterator());
+        }
+
+        /**
+         * @return the representatives of the successors of given
+         * representative via collapsible edges.
+         */
+        private List<Pointer> getSuccsOf(Pointer node) {
+            List<Pointer> succs = new ArrayList<>();
+            for (Pointer member : getMembers(node)) {
+                for (PointerFlowEdge edge : member.getOutEdges()) {
+                    if (isCollapsible(edge)) {
+                        Pointer succ = getRepresentative(edge.target());
+                        if (succ != node) {
+                            succs.add(succ);
+                        }
+                    }
+                }
+            }
+            return succs;
+        }
+
+        private void collectCycle(Pointer node) {
+            List<Pointer> cycle = new ArrayList<>();
+            Pointer p;
+            do {
+                p = stack.pop();
+                inStack.remove(p);
+                cycle.add(p);
+            } while (p != node);
+            if (cycle.size() > 1) {
+                cycles.add(cycle);
+            }
+        }
+    }
+}
@@ -43,6 +43,7 @@ import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.cs.element.StaticField;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.cs.selector.MemoizingSelector;
 import pascal.taie.analysis.pta.core.heap.Descriptor;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.MockObj;
@@ -53,7 +54,9 @@ import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.InstanceFieldAccess;
 import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
 import pascal.taie.ir.exp.InvokeStatic;
 import pascal.taie.ir.exp.Literal;
 import pascal.taie.ir.exp.NewExp;
@@ -80,15 +83,23 @@ import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.MutableInt;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
 import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import static pascal.taie.language.classes.Signatures.FINALIZE;
@@ -104,10 +115,15 @@ public class DefaultSolver implements Solver {
     private static final Descriptor MULTI_ARRAY_DESC = () -> "MultiArrayObj";
 
     /**
-     * Number that represents unlimited elapsed time.
+     * Number that represents unlimited elapsed time or memory.
      */
     private static final long UNLIMITED = -1;
 
+    /**
+     * Number of the most processed pointers to be logged in debug mode.
+     */
+    private static final int MOST_PROCESSED_POINTERS = 20;
+
     private final AnalysisOptions options;
 
     private final HeapModel heapModel;
@@ -134,6 +150,50 @@ public class DefaultSolver implements Solver {
      */
     private final long timeLimit;
 
+    /**
+     * Whether collapses the cycles in pointer flow graph.
+     */
+    private final boolean collapseCycles;
+
+    /**
+     * Order of processing pointer entries in work list.
+     */
+    private final WorkList.Order workListOrder;
+
+    /**
+     * Path of checkpoint file, or {@code null} if checkpointing is disabled.
+     */
+    @Nullable
+    private final String checkpointFile;
+
+    /**
+     * Interval (in seconds) of writing checkpoints.
+     */
+    private final int checkpointInterval;
+
+    /**
+     * Whether to resume the analysis from the checkpoint file, which may
+     * be saved by the analysis of a previous version of the program
+     * if option {@code incremental} is enabled.
+     */
+    private final boolean resume;
+
+    /**
+     * Memory limit (in MB) of the analysis.
+     */
+    private final int memoryLimit;
+
+    /**
+     * Masks of assignable objects shared by all {@link TypeFilter}s.
+     */
+    private final TypeMasks typeMasks;
+
+    /**
+     * Selector that memoizes the selected contexts, or null if
+     * memoization is disabled.
+     */
+    private final MemoizingSelector memoizingSelector;
+
     private TimeLimiter timeLimiter;
 
     /**
@@ -149,6 +209,22 @@ public class DefaultSolver implements Solver {
 
     private PointerFlowGraph pointerFlowGraph;
 
+    /**
+     * Collapser of PFG cycles, {@code null} if cycle collapsing is disabled.
+     */
+    private CycleCollapser cycleCollapser;
+
+    private DispatchCache dispatchCache;
+
+    private Checkpoint checkpoint;
+
+    private MemoryMonitor memoryMonitor;
+
+    /**
+     * Degradations that have been applied to the analysis.
+     */
+    private List<Degradation> degradations;
+
     private Set<JMethod> reachableMethods;
 
     /**
@@ -161,6 +237,14 @@ public class DefaultSolver implements Solver {
      */
     private Set<JMethod> ignoredMethods;
 
+    /**
+     * Statements added to the methods by {@link #solveIncrementally(Map)}.
+     * As the IR of the methods is immutable, these statements are
+     * replayed in every context of the methods that becomes reachable
+     * after they are added.
+     */
+    private MultiMap<JMethod, Stmt> addedStmts;
+
     private StmtProcessor stmtProcessor;
 
     private PointerAnalysisResult result;
@@ -170,14 +254,31 @@ public class DefaultSolver implements Solver {
                          ContextSelector contextSelector, CSManager csManager) {
         this.options = options;
         this.heapModel = heapModel;
-        this.contextSelector = contextSelector;
+        memoryLimit = options.getInt("memory-limit");
+        if (options.getBoolean("memoize-contexts")) {
+            memoizingSelector = new MemoizingSelector(contextSelector);
+            contextSelector = memoizingSelector;
+        } else {
+            memoizingSelector = null;
+        }
+        this.contextSelector = memoryLimit != UNLIMITED
+                ? new DegradableSelector(contextSelector) : contextSelector;
         this.csManager = csManager;
         hierarchy = World.get().getClassHierarchy();
         typeSystem = World.get().getTypeSystem();
-        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer(),
+                options.getBoolean("intern-pts"),
+                IBitSet.Kind.of(options.getString("pts-bit-set")));
         propTypes = new PropagateTypes((List<String>) options.get("propagate-types"));
         onlyApp = options.getBoolean("only-app");
         timeLimit = options.getInt("time-limit");
+        collapseCycles = options.getBoolean("collapse-cycles");
+        workListOrder = WorkList.Order.of(options.getString("worklist"));
+        checkpointFile = options.getString("checkpoint-file");
+        checkpointInterval = options.getInt("checkpoint-interval");
+        resume = options.getBoolean("resume")
+                || options.getBoolean("incremental");
+        typeMasks = new TypeMasks(this);
     }
 
     @Override
@@ -235,6 +336,95 @@ public class DefaultSolver implements Solver {
         this.plugin = plugin;
     }
 
+    @Override
+    public ObjectFilter getTypeFilter(Type type) {
+        return typeMasks.getMask(type);
+    }
+
+    WorkList getWorkList() {
+        return workList;
+    }
+
+    /**
+     * @return {@code true} if the analysis has reached time limit.
+     */
+    boolean isTimeout() {
+        return isTimeout;
+    }
+
+    /**
+     * @return the pointer that represents given pointer in the work list.
+     * If given pointer has not been collapsed with other pointers,
+     * returns the pointer itself.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        return cycleCollapser != null
+                ? cycleCollapser.getRepresentative(pointer) : pointer;
+    }
+
+    /**
+     * Writes a checkpoint of the analysis if checkpointing is enabled and
+     * the checkpoint interval has elapsed. This method must be called when
+     * all objects that have been propagated to points-to sets are processed.
+     */
+    void checkpointIfNeeded() {
+        if (checkpoint != null) {
+            checkpoint.writeIfNeeded();
+        }
+    }
+
+    /**
+     * Applies the next degradation of precision if the memory used by
+     * the analysis nears the memory limit.
+     */
+    void degradeIfNeeded() {
+        if (memoryMonitor != null && memoryMonitor.pollExceeded()) {
+            Degradation[] all = Degradation.values();
+            if (degradations.size() == all.length) {
+                logger.warn("Heap usage exceeds {} MB, and no more precision" +
+                        " can be degraded", memoryMonitor.getThreshold());
+                return;
+            }
+            Degradation degradation = all[degradations.size()];
+            logger.warn("Heap usage exceeds {} MB, degrade precision: {}",
+                    memoryMonitor.getThreshold(), degradation.description);
+            switch (degradation) {
+                case RELEASE_PLUGIN_MEMORY -> plugin.onMemoryShortage();
+                case MERGE_HEAP_CONTEXTS ->
+                        ((DegradableSelector) contextSelector).mergeHeapContexts();
+                case MERGE_METHOD_CONTEXTS ->
+                        ((DegradableSelector) contextSelector).mergeMethodContexts();
+            }
+            degradations.add(degradation);
+            if (checkpoint != null) {
+                // the degraded facts are not in the fixed point of
+                // the precise analysis, and they must not be resumed
+                logger.warn("Stop saving checkpoints to {}, as the analysis" +
+                        " degrades precision", checkpointFile);
+                checkpoint = null;
+            }
+        }
+    }
+
+    /**
+     * Degradations of precision, which are applied in order when
+     * the memory used by the analysis nears the memory limit.
+     */
+    private enum Degradation {
+
+        RELEASE_PLUGIN_MEMORY("release memory of plugins"),
+
+        MERGE_HEAP_CONTEXTS("merge new objects by allocation sites"),
+
+        MERGE_METHOD_CONTEXTS("analyze new callees context-insensitively");
+
+        private final String description;
+
+        Degradation(String description) {
+            this.description = description;
+        }
+    }
+
     // ---------- solver logic starts ----------
 
     /**
@@ -246,23 +436,124 @@ public class DefaultSolver implements Solver {
         analyze();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As the analysis is monotone w.r.t. the added statements, this method
+     * processes the added statements in all reachable contexts of their
+     * container methods with the current points-to sets, and continues to
+     * propagate until a new fixed point is reached. The added statements
+     * must have been associated with the variables they use (e.g., by
+     * {@link Var#addStoreField}), so that they are also processed when the
+     * points-to sets of the variables change later. The added statements
+     * are also processed in the contexts of their container methods that
+     * become reachable later, and {@link Plugin#onNewStmt} is invoked
+     * for them.
+     */
+    @Override
+    public void solveIncrementally(Map<JMethod, ? extends Collection<Stmt>> addedStmts) {
+        if (callGraph == null) {
+            throw new IllegalStateException(
+                    "solve() must be called before solving incrementally");
+        }
+        // record the added statements before processing them, so that
+        // the contexts that become reachable since now also process them
+        addedStmts.forEach(this.addedStmts::putAll);
+        Map<JMethod, List<CSMethod>> csMethods = Maps.newMap();
+        callGraph.reachableMethods()
+                .filter(csMethod -> addedStmts.containsKey(csMethod.getMethod()))
+                .forEach(csMethod -> csMethods.computeIfAbsent(
+                        csMethod.getMethod(), __ -> new ArrayList<>()).add(csMethod));
+        csMethods.forEach((method, methodContexts) -> {
+            Collection<Stmt> stmts = addedStmts.get(method);
+            if (reachableMethods.contains(method)) {
+                stmts.forEach(stmt -> plugin.onNewStmt(stmt, method));
+            }
+            for (CSMethod csMethod : methodContexts) {
+                addStmts(csMethod, stmts);
+                // process the added statements that depend on
+                // the points-to sets of variables
+                Context context = csMethod.getContext();
+                stmts.stream()
+                        .map(DefaultSolver::getBaseVar)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .map(var -> csManager.getCSVar(context, var))
+                        .filter(csVar -> csVar.getPointsToSet() != null)
+                        .forEach(csVar -> {
+                            PointsToSet pts = csVar.getPointsToSet();
+                            processInstanceStore(csVar, pts);
+                            processInstanceLoad(csVar, pts);
+                            processArrayStore(csVar, pts);
+                            processArrayLoad(csVar, pts);
+                            processCall(csVar, pts);
+                        });
+            }
+        });
+        logger.info("Incrementally solving {} added statements in {} methods",
+                addedStmts.values().stream().mapToInt(Collection::size).sum(),
+                csMethods.size());
+        result = null;
+        analyze();
+    }
+
+    /**
+     * @return the base variable of the instance field access, array access,
+     * or instance invocation in given stmt, or {@code null} if the stmt
+     * has no such variable.
+     */
+    @Nullable
+    private static Var getBaseVar(Stmt stmt) {
+        if (stmt instanceof LoadField load && !load.isStatic()) {
+            return ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+        } else if (stmt instanceof StoreField store && !store.isStatic()) {
+            return ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+        } else if (stmt instanceof LoadArray load) {
+            return load.getArrayAccess().getBase();
+        } else if (stmt instanceof StoreArray store) {
+            return store.getArrayAccess().getBase();
+        } else if (stmt instanceof Invoke invoke
+                && invoke.getInvokeExp() instanceof InvokeInstanceExp invokeExp) {
+            return invokeExp.getBase();
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Initializes pointer analysis.
      */
     private void initialize() {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph(csManager);
-        workList = new WorkList();
+        if (collapseCycles) {
+            cycleCollapser = new CycleCollapser();
+        }
+        // the process count of each pointer is only for debug statistics
+        workList = new WorkList(workListOrder, pointerFlowGraph,
+                logger.isDebugEnabled());
+        dispatchCache = new DispatchCache();
         reachableMethods = Sets.newSet();
         initializedClasses = Sets.newSet();
         ignoredMethods = Sets.newSet();
+        addedStmts = Maps.newMultiMap();
         stmtProcessor = new StmtProcessor();
         isTimeout = false;
         if (timeLimit != UNLIMITED) {
             timeLimiter = new TimeLimiter(timeLimit);
             timeLimiter.countDown();
         }
+        if (memoryLimit != UNLIMITED) {
+            memoryMonitor = new MemoryMonitor(memoryLimit);
+        }
+        degradations = new ArrayList<>();
+        if (checkpointFile != null) {
+            checkpoint = new Checkpoint(this, checkpointFile, checkpointInterval);
+        }
         plugin.onStart();
+        if (checkpoint != null && resume) {
+            checkpoint.restore();
+        }
     }
 
     private class TimeLimiter {
@@ -303,31 +594,145 @@ public class DefaultSolver implements Solver {
      * Processes work list entries until the work list is empty.
      */
     private void analyze() {
+        if (memoryMonitor != null) {
+            memoryMonitor.start();
+        }
+        processWorkList();
+        if (memoryMonitor != null) {
+            memoryMonitor.stop();
+        }
+        if (!degradations.isEmpty()) {
+            logger.warn("Pointer analysis degrades precision as it nears memory" +
+                            " limit ({} MB), applied degradations: {}", memoryLimit,
+                    degradations.stream().map(d -> d.description).toList());
+        }
+        logWorkListStatistics();
+        logger.info("Dispatch cache: {} hits, {} misses (hit rate: {})",
+                dispatchCache.getHits(), dispatchCache.getMisses(),
+                String.format("%.2f%%", dispatchCache.getHitRate() * 100));
+        if (memoizingSelector != null) {
+            logger.info("Memoized contexts: {} hits, {} misses",
+                    memoizingSelector.getHits(), memoizingSelector.getMisses());
+        }
+        logger.info("Type masks: {} masks, filtered {} points-to sets" +
+                        " with {} type checks", typeMasks.getMaskCount(),
+                typeMasks.getFilteredCount(), typeMasks.getCheckedCount());
+        if (cycleCollapser != null) {
+            logger.info("Collapsed {} pointers in {} PFG cycles",
+                    cycleCollapser.getCollapsedPointers(),
+                    cycleCollapser.getCollapsedCycles());
+        }
+        if (!workList.isEmpty() && isTimeout) {
+            logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
+                    " and the result may be unsound!", timeLimit);
+        } else if (timeLimiter != null) { // finish normally but time limiter is still running
+            timeLimiter.stop();
+        }
+        if (checkpoint != null) {
+            // the checkpoint of an early stopped analysis is resumed later,
+            // and the one of the fixed point is resumed by the analysis
+            // of the changed program
+            checkpoint.write();
+        }
+        plugin.onFinish();
+    }
+
+    private void logWorkListStatistics() {
+        logger.info("Work list ({}): processed {} pointer entries",
+                workListOrder.name().toLowerCase(),
+                workList.getProcessedEntries());
+        Map<Pointer, MutableInt> counts = workList.getProcessCounts();
+        if (counts != null && logger.isDebugEnabled()) {
+            logger.debug("Processed pointers: {}", counts.size());
+            logger.debug("Most processed pointers:");
+            counts.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<Pointer, MutableInt>comparingByValue().reversed())
+                    .limit(MOST_PROCESSED_POINTERS)
+                    .forEach(e -> logger.debug("{}: {}", e.getKey(), e.getValue()));
+        }
+    }
+
+    /**
+     * Processes work list entries until the work list is empty or
+     * the analysis reaches time limit. Subclasses may override this
+     * method to change the strategy of draining the work list.
+     */
+    void processWorkList() {
         while (!workList.isEmpty() && !isTimeout) {
             WorkList.Entry entry = workList.pollEntry();
             if (entry instanceof WorkList.PointerEntry pEntry) {
-                Pointer p = pEntry.pointer();
+                Pointer p = getRepresentative(pEntry.pointer());
                 PointsToSet pts = pEntry.pointsToSet();
                 PointsToSet diff = propagate(p, pts);
-                if (!diff.isEmpty() && p instanceof CSVar v) {
-                    processInstanceStore(v, diff);
-                    processInstanceLoad(v, diff);
-                    processArrayStore(v, diff);
-                    processArrayLoad(v, diff);
-                    processCall(v, diff);
-                    plugin.onNewPointsToSet(v, diff);
-                }
+                processNewPointsToSet(p, diff);
             } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
                 processCallEdge(eEntry.edge());
             }
+            checkpointIfNeeded();
+            degradeIfNeeded();
         }
-        if (!workList.isEmpty() && isTimeout) {
-            logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
-                    " and the result may be unsound!", timeLimit);
-        } else if (timeLimiter != null) { // finish normally but time limiter is still running
-            timeLimiter.stop();
+    }
+
+    /**
+     * Processes the statements and plugins that are affected by
+     * the new objects flowing to {@code pointer}.
+     *
+     * @param pointer the pointer whose points-to set changes
+     * @param diff    set of new discovered objects pointed by the pointer
+     */
+    void processNewPointsToSet(Pointer pointer, PointsToSet diff) {
+        if (!diff.isEmpty()) {
+            if (cycleCollapser == null) {
+                processNewObjects(pointer, diff);
+            } else {
+                cycleCollapser.getMembers(pointer)
+                        .forEach(member -> processNewObjects(member, diff));
+                collapseCycles(getRepresentative(pointer), diff);
+            }
+        }
+    }
+
+    private void processNewObjects(Pointer pointer, PointsToSet diff) {
+        if (pointer instanceof CSVar v) {
+            processInstanceStore(v, diff);
+            processInstanceLoad(v, diff);
+            processArrayStore(v, diff);
+            processArrayLoad(v, diff);
+            processCall(v, diff);
+            plugin.onNewPointsToSet(v, diff);
+        }
+    }
+
+    /**
+     * Detects and collapses the PFG cycles that are related to
+     * the given pointer whose points-to set changes.
+     * For each collapsed cycle, the points-to sets of its pointers
+     * are merged into a single points-to set shared by all the pointers,
+     * and the objects that are newly added to the points-to set of
+     * each pointer are processed as usual.
+     */
+    private void collapseCycles(Pointer pointer, PointsToSet diff) {
+        for (List<Pointer> cycle : cycleCollapser.findCycles(pointer, diff)) {
+            PointsToSet union = makePointsToSet();
+            cycle.forEach(p -> union.addAll(getPointsToSetOf(p)));
+            // new objects of the pointers represented by each representative
+            List<Pair<List<Pointer>, PointsToSet>> newObjects = new ArrayList<>();
+            for (Pointer p : cycle) {
+                PointsToSet newObjs = getPointsToSetOf(p).addAllDiff(union);
+                if (!newObjs.isEmpty()) {
+                    newObjects.add(new Pair<>(
+                            List.copyOf(cycleCollapser.getMembers(p)), newObjs));
+                }
+            }
+            Pointer rep = cycleCollapser.collapse(cycle);
+            PointsToSet repSet = getPointsToSetOf(rep);
+            cycleCollapser.getMembers(rep).forEach(p -> p.setPointsToSet(repSet));
+            newObjects.forEach(pair -> pair.first().forEach(p -> {
+                propagateToSuccessors(p, pair.second(), this::addSharedPointsTo);
+                processNewObjects(p, pair.second());
+            }));
         }
-        plugin.onFinish();
     }
 
     /**
@@ -335,25 +740,108 @@ public class DefaultSolver implements Solver {
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
+        return propagate(pointer, pointsToSet, this::addSharedPointsTo);
+    }
+
+    /**
+     * Propagates pointsToSet to pt(pointer), and passes the objects
+     * which should flow to the PFG successors of pointer to {@code consumer}
+     * instead of adding them to the work list directly.
+     * <p>
+     * This method only modifies pt(pointer), thus it is safe to propagate
+     * to different pointers concurrently, as long as the pointer flow graph
+     * is not modified at the same time.
+     *
+     * @return the difference set of pointsToSet and pt(pointer).
+     */
+    PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet,
+                          BiConsumer<Pointer, PointsToSet> consumer) {
         logger.trace("Propagate {} to {}", pointsToSet, pointer);
         Set<Predicate<CSObj>> filters = pointer.getFilters();
         if (!filters.isEmpty()) {
-            // apply filters (of the pointer) on pointsToSet
-            pointsToSet = pointsToSet.objects()
-                    .filter(o -> filters.stream().allMatch(f -> f.test(o)))
-                    .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
+            pointsToSet = applyFilters(filters, pointsToSet);
         }
         PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
         if (!diff.isEmpty()) {
-            pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
-                Pointer target = edge.target();
-                edge.getTransfers().forEach(transfer ->
-                        addPointsTo(target, transfer.apply(edge, diff)));
-            });
+            if (cycleCollapser == null) {
+                propagateToSuccessors(pointer, diff, consumer);
+            } else {
+                cycleCollapser.getMembers(pointer).forEach(member ->
+                        propagateToSuccessors(member, diff, consumer));
+            }
         }
         return diff;
     }
 
+    /**
+     * Applies filters (of a pointer) on pointsToSet.
+     * {@link ObjectFilter}s are applied by bulk set operations first,
+     * then the other (opaque) filters are tested on the remaining objects
+     * in a single pass.
+     */
+    private PointsToSet applyFilters(
+            Set<Predicate<CSObj>> filters, PointsToSet pointsToSet) {
+        List<Predicate<CSObj>> opaqueFilters = null;
+        for (Predicate<CSObj> filter : filters) {
+            if (filter instanceof ObjectFilter objectFilter) {
+                pointsToSet = objectFilter.apply(pointsToSet);
+                if (pointsToSet.isEmpty()) {
+                    return pointsToSet;
+                }
+            } else {
+                if (opaqueFilters == null) {
+                    opaqueFilters = new ArrayList<>(filters.size());
+                }
+                opaqueFilters.add(filter);
+            }
+        }
+        if (opaqueFilters != null) {
+            List<Predicate<CSObj>> preds = opaqueFilters;
+            pointsToSet = pointsToSet.objects()
+                    .filter(o -> preds.stream().allMatch(f -> f.test(o)))
+                    .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
+        }
+        return pointsToSet;
+    }
+
+    /**
+     * Passes the objects which should flow to the PFG successors of
+     * {@code pointer} to {@code consumer}. The edges inside collapsed
+     * cycles are skipped.
+     */
+    private void propagateToSuccessors(Pointer pointer, PointsToSet diff,
+                                       BiConsumer<Pointer, PointsToSet> consumer) {
+        // outputs of the type filters, which only depend on diff,
+        // so that the edges with the same type filter share the output
+        Map<Transfer, PointsToSet> filtered = null;
+        for (PointerFlowEdge edge : pointerFlowGraph.getOutEdgesOf(pointer)) {
+            if (cycleCollapser != null && cycleCollapser.isInternal(edge)) {
+                continue;
+            }
+            Pointer target = edge.target();
+            for (Transfer transfer : edge.getTransfers()) {
+                PointsToSet output;
+                if (transfer == Identity.get()) {
+                    output = diff;
+                } else if (transfer instanceof TypeFilter) {
+                    if (filtered == null) {
+                        filtered = Maps.newHybridMap();
+                    }
+                    output = filtered.get(transfer);
+                    if (output == null) {
+                        output = transfer.apply(edge, diff);
+                        filtered.put(transfer, output);
+                    }
+                } else {
+                    output = transfer.apply(edge, diff);
+                }
+                if (!output.isEmpty()) {
+                    consumer.accept(target, output);
+                }
+            }
+        }
+    }
+
     /**
      * Processes instance stores when points-to set of the base variable changes.
      *
@@ -458,35 +946,46 @@ public class DefaultSolver implements Solver {
      * @param pts  set of new discovered objects pointed by the variable.
      */
     private void processCall(CSVar recv, PointsToSet pts) {
+        List<Invoke> invokes = recv.getVar().getInvokes();
+        if (invokes.isEmpty()) {
+            return;
+        }
         Context context = recv.getContext();
-        Var var = recv.getVar();
-        for (Invoke callSite : var.getInvokes()) {
-            pts.forEach(recvObj -> {
+        // group receiver objects by their types, so that each call site
+        // is resolved only once for each receiver type
+        Map<Type, List<CSObj>> recvObjs = Maps.newHybridMap();
+        pts.forEach(recvObj -> recvObjs.computeIfAbsent(
+                recvObj.getObject().getType(), __ -> new ArrayList<>())
+                .add(recvObj));
+        for (Invoke callSite : invokes) {
+            CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+            CallKind kind = CallGraphs.getCallKind(callSite);
+            recvObjs.forEach((type, objs) -> {
                 // resolve callee
-                JMethod callee = CallGraphs.resolveCallee(
-                        recvObj.getObject().getType(), callSite);
+                JMethod callee = dispatchCache.resolveCallee(type, callSite);
                 if (callee != null) {
-                    // select context
-                    CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
-                    Context calleeContext = contextSelector.selectContext(
-                            csCallSite, recvObj, callee);
-                    // build call edge
-                    CSMethod csCallee = csManager.getCSMethod(calleeContext, callee);
-                    addCallEdge(new Edge<>(CallGraphs.getCallKind(callSite),
-                            csCallSite, csCallee));
-                    // pass receiver object to *this* variable
-                    if (!isIgnored(callee)) {
-                        addVarPointsTo(calleeContext, callee.getIR().getThis(),
-                                recvObj);
+                    Var thisVar = isIgnored(callee) ? null : callee.getIR().getThis();
+                    for (CSObj recvObj : objs) {
+                        // select context
+                        Context calleeContext = contextSelector.selectContext(
+                                csCallSite, recvObj, callee);
+                        // build call edge
+                        CSMethod csCallee = csManager.getCSMethod(calleeContext, callee);
+                        addCallEdge(new Edge<>(kind, csCallSite, csCallee));
+                        // pass receiver object to *this* variable
+                        if (thisVar != null) {
+                            addVarPointsTo(calleeContext, thisVar, recvObj);
+                        }
                     }
                 } else {
-                    plugin.onUnresolvedCall(recvObj, context, callSite);
+                    objs.forEach(recvObj ->
+                            plugin.onUnresolvedCall(recvObj, context, callSite));
                 }
             });
         }
     }
 
-    private void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
+    void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
         if (callGraph.addEdge(edge)) {
             // process new call edge
             CSMethod csCallee = edge.getCallee();
@@ -536,6 +1035,7 @@ public class DefaultSolver implements Solver {
         if (reachableMethods.add(method)) {
             plugin.onNewMethod(method);
             method.getIR().forEach(stmt -> plugin.onNewStmt(stmt, method));
+            addedStmts.get(method).forEach(stmt -> plugin.onNewStmt(stmt, method));
         }
     }
 
@@ -556,6 +1056,11 @@ public class DefaultSolver implements Solver {
         private final MethodRef registerRef = Objects.requireNonNull(
                 hierarchy.getJREMethod(FINALIZER_REGISTER)).getRef();
 
+        /**
+         * Templates of the methods that have been reachable.
+         */
+        private final Map<JMethod, Template> templates = Maps.newMap();
+
         /**
          * Processes given Stmts in given CSMethod.
          */
@@ -564,6 +1069,209 @@ public class DefaultSolver implements Solver {
             stmts.forEach(stmt -> stmt.accept(visitor));
         }
 
+        /**
+         * Processes all Stmts in given new reachable CSMethod.
+         * This has the same effect as {@link #process(CSMethod, Collection)},
+         * but it instantiates the template of the method, which is
+         * compiled once and shared by all contexts of the method.
+         */
+        private void process(CSMethod csMethod) {
+            templates.computeIfAbsent(csMethod.getMethod(), Template::new)
+                    .instantiate(csMethod);
+        }
+
+        private void processNewMultiArray(
+                CSMethod csMethod, New allocSite, Context arrayContext, Obj array) {
+            NewMultiArray newMultiArray = (NewMultiArray) allocSite.getRValue();
+            Obj[] arrays = newArrays.computeIfAbsent(newMultiArray, nma -> {
+                ArrayType type = nma.getType();
+                Obj[] newArrays = new MockObj[nma.getLengthCount() - 1];
+                for (int i = 1; i < nma.getLengthCount(); ++i) {
+                    type = (ArrayType) type.elementType();
+                    newArrays[i - 1] = heapModel.getMockObj(MULTI_ARRAY_DESC,
+                            allocSite, type, allocSite.getContainer());
+                }
+                return newArrays;
+            });
+            for (Obj newArray : arrays) {
+                Context elemContext = contextSelector
+                        .selectHeapContext(csMethod, newArray);
+                CSObj arrayObj = csManager.getCSObj(arrayContext, array);
+                ArrayIndex arrayIndex = csManager.getArrayIndex(arrayObj);
+                addPointsTo(arrayIndex, elemContext, newArray);
+                array = newArray;
+                arrayContext = elemContext;
+            }
+        }
+
+        private boolean hasOverriddenFinalize(NewExp newExp) {
+            return !finalize.equals(
+                    hierarchy.dispatch(newExp.getType(), finalizeRef));
+        }
+
+        /**
+         * @return the call to Finalizer.register() at given allocation site.
+         * NOTE: finalize() has been deprecated since Java 9, and
+         * will eventually be removed.
+         */
+        private Invoke getRegisterInvoke(New allocSite, JMethod container) {
+            return registerInvokes.computeIfAbsent(allocSite, s -> {
+                InvokeStatic callSite = new InvokeStatic(registerRef,
+                        Collections.singletonList(s.getLValue()));
+                Invoke invoke = new Invoke(container, callSite);
+                invoke.setLineNumber(s.getLineNumber());
+                return invoke;
+            });
+        }
+
+        private void processInvokeStatic(Context context, Invoke callSite, JMethod callee) {
+            CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+            Context calleeCtx = contextSelector.selectContext(csCallSite, callee);
+            CSMethod csCallee = csManager.getCSMethod(calleeCtx, callee);
+            addCallEdge(new Edge<>(CallKind.STATIC, csCallSite, csCallee));
+        }
+
+        /**
+         * Context-independent result of processing all Stmts of a method,
+         * i.e., the allocations, local and static-field PFG edges, and
+         * static calls in the method. When the method is reachable in
+         * a new context, the solver instantiates the template with
+         * the context instead of visiting the Stmts one by one.
+         */
+        private class Template {
+
+            /**
+             * Allocations (including class constants), sorted by
+             * the variables they are assigned to.
+             */
+            private final List<Alloc> allocs = new ArrayList<>();
+
+            private final List<LocalEdge> localEdges = new ArrayList<>();
+
+            private final List<StaticFieldEdge> staticFieldEdges = new ArrayList<>();
+
+            private final List<StaticCall> staticCalls = new ArrayList<>();
+
+            private Template(JMethod method) {
+                for (Stmt stmt : method.getIR()) {
+                    if (stmt instanceof New newStmt) {
+                        NewExp rvalue = newStmt.getRValue();
+                        allocs.add(new Alloc(newStmt.getLValue(),
+                                heapModel.getObj(newStmt),
+                                rvalue instanceof NewMultiArray ? newStmt : null));
+                        if (hasOverriddenFinalize(rvalue)) {
+                            addStaticCall(getRegisterInvoke(newStmt, method));
+                        }
+                    } else if (stmt instanceof AssignLiteral assign) {
+                        Literal literal = assign.getRValue();
+                        if (literal.getType() instanceof ClassType) {
+                            Obj obj = heapModel.getConstantObj((ReferenceLiteral) literal);
+                            allocs.add(new Alloc(assign.getLValue(), obj, null));
+                        }
+                    } else if (stmt instanceof Copy copy) {
+                        Var rvalue = copy.getRValue();
+                        if (propTypes.isAllowed(rvalue)) {
+                            localEdges.add(new LocalEdge(rvalue, copy.getLValue(),
+                                    FlowKind.LOCAL_ASSIGN, Identity.get()));
+                        }
+                    } else if (stmt instanceof Cast castStmt) {
+                        CastExp cast = castStmt.getRValue();
+                        if (propTypes.isAllowed(cast.getValue())) {
+                            localEdges.add(new LocalEdge(cast.getValue(),
+                                    castStmt.getLValue(), FlowKind.CAST,
+                                    new TypeFilter(cast.getType(), typeMasks)));
+                        }
+                    } else if (stmt instanceof LoadField load) {
+                        if (load.isStatic() && propTypes.isAllowed(load.getRValue())) {
+                            StaticField sfield = csManager.getStaticField(
+                                    load.getFieldRef().resolve());
+                            staticFieldEdges.add(new StaticFieldEdge(
+                                    sfield, load.getLValue(), true));
+                        }
+                    } else if (stmt instanceof StoreField store) {
+                        if (store.isStatic() && propTypes.isAllowed(store.getRValue())) {
+                            StaticField sfield = csManager.getStaticField(
+                                    store.getFieldRef().resolve());
+                            staticFieldEdges.add(new StaticFieldEdge(
+                                    sfield, store.getRValue(), false));
+                        }
+                    } else if (stmt instanceof Invoke invoke) {
+                        if (invoke.isStatic()) {
+                            addStaticCall(invoke);
+                        }
+                    }
+                }
+                allocs.sort(Comparator.comparingInt(alloc -> alloc.lhs().getIndex()));
+            }
+
+            private void addStaticCall(Invoke callSite) {
+                JMethod callee = CallGraphs.resolveCallee(null, callSite);
+                if (callee != null) {
+                    staticCalls.add(new StaticCall(callSite, callee));
+                }
+            }
+
+            private void instantiate(CSMethod csMethod) {
+                Context context = csMethod.getContext();
+                // the objects assigned to the same variable are added
+                // to its points-to set in one batch
+                Var lhs = null;
+                PointsToSet pts = null;
+                for (Alloc alloc : allocs) {
+                    if (alloc.lhs() != lhs) {
+                        if (lhs != null) {
+                            addVarPointsTo(context, lhs, pts);
+                        }
+                        lhs = alloc.lhs();
+                        pts = makePointsToSet();
+                    }
+                    Obj obj = alloc.obj();
+                    Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
+                    pts.addObject(csManager.getCSObj(heapContext, obj));
+                    if (alloc.multiArray() != null) {
+                        processNewMultiArray(csMethod, alloc.multiArray(), heapContext, obj);
+                    }
+                }
+                if (lhs != null) {
+                    addVarPointsTo(context, lhs, pts);
+                }
+                for (LocalEdge edge : localEdges) {
+                    addPFGEdge(csManager.getCSVar(context, edge.source()),
+                            csManager.getCSVar(context, edge.target()),
+                            edge.kind(), edge.transfer());
+                }
+                for (StaticFieldEdge edge : staticFieldEdges) {
+                    CSVar var = csManager.getCSVar(context, edge.var());
+                    if (edge.isLoad()) {
+                        addPFGEdge(edge.field(), var, FlowKind.STATIC_LOAD);
+                    } else {
+                        addPFGEdge(var, edge.field(), FlowKind.STATIC_STORE);
+                    }
+                }
+                for (StaticCall call : staticCalls) {
+                    processInvokeStatic(context, call.callSite(), call.callee());
+                }
+            }
+        }
+
+        /**
+         * @param multiArray the allocation site if it creates a multi-array,
+         *                   otherwise null.
+         */
+        private record Alloc(Var lhs, Obj obj, New multiArray) {
+        }
+
+        private record LocalEdge(Var source, Var target,
+                                 FlowKind kind, Transfer transfer) {
+        }
+
+        private record StaticFieldEdge(StaticField field, Var var,
+                                       boolean isLoad) {
+        }
+
+        private record StaticCall(Invoke callSite, JMethod callee) {
+        }
+
         /**
          * Visitor that contains actual processing logics.
          */
@@ -586,67 +1294,20 @@ public class DefaultSolver implements Solver {
                 Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
                 addVarPointsTo(context, stmt.getLValue(), heapContext, obj);
                 if (rvalue instanceof NewMultiArray) {
-                    processNewMultiArray(stmt, heapContext, obj);
+                    processNewMultiArray(csMethod, stmt, heapContext, obj);
                 }
                 if (hasOverriddenFinalize(rvalue)) {
-                    processFinalizer(stmt);
+                    // call Finalizer.register() at allocation sites of objects
+                    // which override Object.finalize() method
+                    processInvokeStatic(getRegisterInvoke(stmt, csMethod.getMethod()));
                 }
                 return null;
             }
 
-            private void processNewMultiArray(
-                    New allocSite, Context arrayContext, Obj array) {
-                NewMultiArray newMultiArray = (NewMultiArray) allocSite.getRValue();
-                Obj[] arrays = newArrays.computeIfAbsent(newMultiArray, nma -> {
-                    ArrayType type = nma.getType();
-                    Obj[] newArrays = new MockObj[nma.getLengthCount() - 1];
-                    for (int i = 1; i < nma.getLengthCount(); ++i) {
-                        type = (ArrayType) type.elementType();
-                        newArrays[i - 1] = heapModel.getMockObj(MULTI_ARRAY_DESC,
-                                allocSite, type, allocSite.getContainer());
-                    }
-                    return newArrays;
-                });
-                for (Obj newArray : arrays) {
-                    Context elemContext = contextSelector
-                            .selectHeapContext(csMethod, newArray);
-                    CSObj arrayObj = csManager.getCSObj(arrayContext, array);
-                    ArrayIndex arrayIndex = csManager.getArrayIndex(arrayObj);
-                    addPointsTo(arrayIndex, elemContext, newArray);
-                    array = newArray;
-                    arrayContext = elemContext;
-                }
-            }
-
-            private boolean hasOverriddenFinalize(NewExp newExp) {
-                return !finalize.equals(
-                        hierarchy.dispatch(newExp.getType(), finalizeRef));
-            }
-
-            /**
-             * Call Finalizer.register() at allocation sites of objects
-             * which override Object.finalize() method.
-             * NOTE: finalize() has been deprecated since Java 9, and
-             * will eventually be removed.
-             */
-            private void processFinalizer(New stmt) {
-                Invoke registerInvoke = registerInvokes.computeIfAbsent(stmt, s -> {
-                    InvokeStatic callSite = new InvokeStatic(registerRef,
-                            Collections.singletonList(s.getLValue()));
-                    Invoke invoke = new Invoke(csMethod.getMethod(), callSite);
-                    invoke.setLineNumber(stmt.getLineNumber());
-                    return invoke;
-                });
-                processInvokeStatic(registerInvoke);
-            }
-
             private void processInvokeStatic(Invoke callSite) {
                 JMethod callee = CallGraphs.resolveCallee(null, callSite);
                 if (callee != null) {
-                    CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
-                    Context calleeCtx = contextSelector.selectContext(csCallSite, callee);
-                    CSMethod csCallee = csManager.getCSMethod(calleeCtx, callee);
-                    addCallEdge(new Edge<>(CallKind.STATIC, csCallSite, csCallee));
+                    StmtProcessor.this.processInvokeStatic(context, callSite, callee);
                 }
             }
 
@@ -731,7 +1392,15 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointsTo(Pointer pointer, PointsToSet pts) {
-        workList.addEntry(pointer, pts);
+        workList.addEntry(getRepresentative(pointer), pts);
+    }
+
+    /**
+     * Adds a points-to set which may be shared by other work list entries,
+     * thus it must not be modified afterwards.
+     */
+    void addSharedPointsTo(Pointer pointer, PointsToSet pts) {
+        workList.addSharedEntry(getRepresentative(pointer), pts);
     }
 
     @Override
@@ -763,9 +1432,32 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        if (cycleCollapser != null && cycleCollapser.isCollapsed(pointer)) {
+            detachFromCycle(pointer);
+        }
         pointer.addFilter(filter);
     }
 
+    /**
+     * Detaches a collapsed pointer from its cycle, so that the filters
+     * added to the pointer apply to the objects flowing into it.
+     * The pointer gets its own copy of the points-to set of the cycle.
+     */
+    private void detachFromCycle(Pointer pointer) {
+        boolean isRep = getRepresentative(pointer) == pointer;
+        PointsToSet cycleSet = getPointsToSetOf(pointer);
+        Pointer newRep = cycleCollapser.detach(pointer);
+        pointer.setPointsToSet(cycleSet.copy());
+        if (isRep) {
+            // the pending objects of the cycle were added to the entry of
+            // pointer, thus they are also added to the rest of the cycle
+            PointsToSet pending = workList.getPendingPointsTo(pointer);
+            if (pending != null) {
+                addPointsTo(newRep, pending);
+            }
+        }
+    }
+
     @Override
     public void addPFGEdge(Pointer source, Pointer target, FlowKind kind,
                            Transfer transfer) {
@@ -830,7 +1522,11 @@ public class DefaultSolver implements Solver {
                 return;
             }
             processNewMethod(method);
-            addStmts(csMethod, method.getIR().getStmts());
+            stmtProcessor.process(csMethod);
+            Set<Stmt> added = addedStmts.get(method);
+            if (!added.isEmpty()) {
+                stmtProcessor.process(csMethod, added);
+            }
             plugin.onNewCSMethod(csMethod);
         }
     }
@@ -0,0 +1,97 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Context selector whose precision can be degraded during the analysis
+ * to reduce memory footprint.
+ * <p>
+ * Before degradation, this selector delegates to the given selector.
+ * After degradation, it selects the empty context for the new objects
+ * (i.e., merges the objects created at the same allocation site)
+ * and/or for the callees of new calls. The contexts selected before
+ * degradation are kept, thus the analysis is still sound, and the
+ * degradation only affects the precision of the results.
+ */
+final class DegradableSelector implements ContextSelector {
+
+    private final ContextSelector delegate;
+
+    private boolean mergeHeapContexts;
+
+    private boolean mergeMethodContexts;
+
+    DegradableSelector(ContextSelector delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Selects the empty heap context for new objects.
+     */
+    void mergeHeapContexts() {
+        mergeHeapContexts = true;
+    }
+
+    /**
+     * Selects the empty context for callees of new calls.
+     */
+    void mergeMethodContexts() {
+        mergeMethodContexts = true;
+    }
+
+    @Override
+    public Context getEmptyContext() {
+        return delegate.getEmptyContext();
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, JMethod callee) {
+        return mergeMethodContexts ? delegate.getEmptyContext() :
+                delegate.selectContext(callSite, callee);
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return mergeMethodContexts ? delegate.getEmptyContext() :
+                delegate.selectContext(callSite, recv, callee);
+    }
+
+    @Override
+    public Context selectHeapContext(CSMethod method, Obj obj) {
+        return mergeHeapContexts ? delegate.getEmptyContext() :
+                delegate.selectHeapContext(method, obj);
+    }
+
+    @Override
+    public Context makeContext(Object... elems) {
+        return delegate.makeContext(elems);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Caches the callees resolved for each call site and receiver type,
+ * so that the solver resolves (i.e., dispatches) each pair of call site
+ * and receiver type only once.
+ * <p>
+ * The callees of each call site are stored in compact parallel arrays,
+ * which are searched linearly, as most call sites only have a few
+ * receiver types. For the call sites with many receiver types,
+ * the callees are also indexed by a map.
+ */
+final class DispatchCache {
+
+    private final Map<Invoke, Callees> callSite2Callees = Maps.newMap();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    /**
+     * @return the callee resolved for given receiver type and call site,
+     * or {@code null} if the callee cannot be resolved.
+     */
+    @Nullable
+    JMethod resolveCallee(Type type, Invoke callSite) {
+        Callees callees = callSite2Callees.computeIfAbsent(
+                callSite, __ -> new Callees());
+        int i = callees.indexOf(type);
+        if (i != -1) {
+            ++hits;
+            return callees.callees[i];
+        }
+        ++misses;
+        JMethod callee = CallGraphs.resolveCallee(type, callSite);
+        callees.add(type, callee);
+        return callee;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of the lookups that hit this cache.
+     */
+    double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Callees of a call site for its receiver types.
+     */
+    private static class Callees {
+
+        private static final int INITIAL_CAPACITY = 2;
+
+        /**
+         * If the number of receiver types exceeds this threshold,
+         * the types are also indexed by a map.
+         */
+        private static final int LINEAR_SEARCH_LIMIT = 8;
+
+        private Type[] types = new Type[INITIAL_CAPACITY];
+
+        private JMethod[] callees = new JMethod[INITIAL_CAPACITY];
+
+        private int size = 0;
+
+        /**
+         * Maps each receiver type to its index in {@link #types}.
+         */
+        @Nullable
+        private Map<Type, Integer> indexes;
+
+        private int indexOf(Type type) {
+            if (indexes != null) {
+                return indexes.getOrDefault(type, -1);
+            }
+            for (int i = 0; i < size; ++i) {
+                if (type.equals(types[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void add(Type type, @Nullable JMethod callee) {
+            if (size == types.length) {
+                types = Arrays.copyOf(types, size * 2);
+                callees = Arrays.copyOf(callees, size * 2);
+            }
+            types[size] = type;
+            callees[size] = callee;
+            if (indexes != null) {
+                indexes.put(type, size);
+            } else if (size == LINEAR_SEARCH_LIMIT) {
+                indexes = Maps.newMap();
+                for (int i = 0; i <= size; ++i) {
+                    indexes.put(types[i], i);
+                }
+            }
+            ++size;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+
+/**
+ * Monitors the heap usage of pointer analysis, and reports when the heap
+ * usage nears the memory limit.
+ * <p>
+ * This monitor listens to the notifications of
+ * {@link java.lang.management.MemoryMXBean}, which are sent by JVM when
+ * the usage of a heap memory pool still exceeds its collection usage
+ * threshold after garbage collection. The threshold of the whole heap is
+ * split evenly among the pools, so that at least one pool exceeds its share
+ * whenever the whole heap exceeds the threshold, and on each notification,
+ * the monitor compares the usage of the whole heap (which consists mostly
+ * of live data right after garbage collection) with the threshold.
+ * The notifications are received on a JVM thread, and the solver polls
+ * {@link #pollExceeded()} to handle them on its own thread.
+ */
+final class MemoryMonitor implements NotificationListener {
+
+    private static final Logger logger = LogManager.getLogger(MemoryMonitor.class);
+
+    private static final long BYTES_FACTOR = 1024 * 1024;
+
+    /**
+     * The monitor reports when the heap usage exceeds this ratio
+     * of the memory limit, so that the solver has some room to degrade.
+     */
+    private static final double NEAR_LIMIT_RATIO = 0.9;
+
+    /**
+     * Heap usage threshold in bytes.
+     */
+    private final long threshold;
+
+    private final List<MemoryPoolMXBean> pools;
+
+    private volatile boolean isExceeded;
+
+    /**
+     * @param limit the memory limit in MB.
+     */
+    MemoryMonitor(int limit) {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        long limitBytes = limit * BYTES_FACTOR;
+        if (limitBytes > maxHeap) {
+            logger.warn("Memory limit ({} MB) exceeds maximum heap size ({} MB)," +
+                    " use maximum heap size as memory limit", limit, maxHeap / BYTES_FACTOR);
+            limitBytes = maxHeap;
+        }
+        threshold = (long) (limitBytes * NEAR_LIMIT_RATIO);
+        pools = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP
+                        && pool.isCollectionUsageThresholdSupported())
+                .toList();
+    }
+
+    /**
+     * Starts monitoring heap usage.
+     */
+    void start() {
+        // the live data after last garbage collection may have
+        // exceeded the threshold before the analysis starts
+        isExceeded = getCollectionUsage() >= threshold;
+        long poolThreshold = Math.max(threshold / Math.max(pools.size(), 1), 1);
+        for (MemoryPoolMXBean pool : pools) {
+            long max = pool.getUsage().getMax();
+            pool.setCollectionUsageThreshold(
+                    max < 0 ? poolThreshold : Math.min(poolThreshold, max));
+        }
+        emitter().addNotificationListener(this, null, null);
+    }
+
+    /**
+     * Stops monitoring heap usage.
+     */
+    void stop() {
+        try {
+            emitter().removeNotificationListener(this);
+        } catch (ListenerNotFoundException ignored) {
+        }
+        // threshold 0 disables the collection usage threshold
+        pools.forEach(pool -> pool.setCollectionUsageThreshold(0));
+    }
+
+    private static NotificationEmitter emitter() {
+        return (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+    }
+
+    /**
+     * @return the sum of the usage of all heap pools after
+     * their last garbage collection.
+     */
+    private long getCollectionUsage() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (notification.getType().equals(
+                MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)
+                && ManagementFactory.getMemoryMXBean()
+                .getHeapMemoryUsage().getUsed() >= threshold) {
+            isExceeded = true;
+        }
+    }
+
+    /**
+     * @return {@code true} if the heap usage has exceeded the threshold
+     * since last call of this method.
+     */
+    boolean pollExceeded() {
+        if (isExceeded) {
+            isExceeded = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the heap usage threshold in MB.
+     */
+    long getThreshold() {
+        return threshold / BYTES_FACTOR;
+    }
+}
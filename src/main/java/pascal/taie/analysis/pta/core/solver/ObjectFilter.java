@@ -0,0 +1,86 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.language.type.Type;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Filter of the objects pointed to by a pointer (see
+ * {@link Solver#addPointerFilter(pascal.taie.analysis.pta.core.cs.element.Pointer, Predicate)}),
+ * which can be applied to a whole points-to set by a bulk set operation.
+ * <p>
+ * The solver tests opaque {@link Predicate}s on the objects one by one,
+ * while it applies an {@code ObjectFilter} by {@link #apply(PointsToSet)},
+ * e.g., a single intersection with a bit set of the accepted objects.
+ */
+public interface ObjectFilter extends Predicate<CSObj> {
+
+    /**
+     * @return a new points-to set that contains the objects in {@code pts}
+     * which are accepted by this filter.
+     */
+    PointsToSet apply(PointsToSet pts);
+
+    /**
+     * @return a filter that accepts the objects whose types are
+     * subtypes of given type.
+     * @see Solver#getTypeFilter(Type)
+     */
+    static ObjectFilter ofType(Type type, Solver solver) {
+        return solver.getTypeFilter(type);
+    }
+
+    /**
+     * @return a filter that accepts the objects in given set.
+     * The set can be modified after the filter is created.
+     */
+    static ObjectFilter ofObjects(Set<CSObj> objs) {
+        return new ObjectFilter() {
+            @Override
+            public PointsToSet apply(PointsToSet pts) {
+                return pts.intersect(objs);
+            }
+
+            @Override
+            public boolean test(CSObj obj) {
+                return objs.contains(obj);
+            }
+        };
+    }
+
+    /**
+     * @return a filter that accepts the objects satisfying given predicate.
+     * The predicate must be stable, i.e., it always gives the same result
+     * for the same object, so that the result for each object is computed
+     * only once and is cached in a bit set.
+     */
+    static ObjectFilter ofStable(Predicate<CSObj> predicate, Solver solver) {
+        return new ObjectMask(predicate, solver.getCSManager().getObjectIndexer(),
+                ObjectMask.getBitSetKind(solver));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.IBitSet;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Filter that caches the results of a stable predicate on objects
+ * in bit sets (mask).
+ * <p>
+ * The mask is built lazily: each object is tested by the predicate
+ * only when it is filtered by this mask for the first time. Filtering
+ * a points-to set takes two bulk operations: a difference of the set
+ * and the tested objects, which finds the objects to be tested, and
+ * an intersection of the set and the accepted objects.
+ * <p>
+ * The masks use the same kind of bit sets as the points-to sets of
+ * the solver (see {@link #getBitSetKind(Solver)}), as the bulk operations
+ * on bit sets of different kinds fall back to testing bits one by one.
+ * <p>
+ * The filters may be applied by the worker threads of
+ * {@link ParallelSolver}, thus this class is thread-safe. The bulk
+ * operations only read the mask, and they are performed by multiple
+ * threads in parallel; only the update of the mask is exclusive.
+ */
+final class ObjectMask implements ObjectFilter {
+
+    private static final String PTS_BIT_SET = "pts-bit-set";
+
+    private final Predicate<CSObj> predicate;
+
+    /**
+     * Objects that have been tested by the predicate.
+     */
+    private final HybridBitSet<CSObj> tested;
+
+    /**
+     * Tested objects that satisfy the predicate.
+     */
+    private final HybridBitSet<CSObj> accepted;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long testCount = 0;
+
+    /**
+     * Number of points-to sets filtered by this mask.
+     */
+    private final LongAdder applyCount = new LongAdder();
+
+    ObjectMask(Predicate<CSObj> predicate, Indexer<CSObj> objIndexer,
+               IBitSet.Kind kind) {
+        this.predicate = predicate;
+        this.tested = new HybridBitSet<>(objIndexer, kind);
+        this.accepted = new HybridBitSet<>(objIndexer, kind);
+    }
+
+    /**
+     * @return the kind of bit sets that store the large points-to sets
+     * of given solver.
+     */
+    static IBitSet.Kind getBitSetKind(Solver solver) {
+        AnalysisOptions options = solver.getOptions();
+        return options.has(PTS_BIT_SET)
+                ? IBitSet.Kind.of(options.getString(PTS_BIT_SET))
+                : IBitSet.Kind.SPARSE;
+    }
+
+    @Override
+    public PointsToSet apply(PointsToSet pts) {
+        applyCount.increment();
+        PointsToSet untested;
+        lock.readLock().lock();
+        try {
+            untested = pts.subtract(tested);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!untested.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                untested.forEach(this::testNew);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            return pts.intersect(accepted);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean test(CSObj obj) {
+        lock.readLock().lock();
+        try {
+            if (tested.contains(obj)) {
+                return accepted.contains(obj);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            testNew(obj);
+            return accepted.contains(obj);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tests given object by the predicate if it has not been tested.
+     * The caller must hold the write lock.
+     */
+    private void testNew(CSObj obj) {
+        if (tested.add(obj)) {
+            ++testCount;
+            if (predicate.test(obj)) {
+                accepted.add(obj);
+            }
+        }
+    }
+
+    /**
+     * @return number of points-to sets filtered by this mask.
+     */
+    long getApplyCount() {
+        return applyCount.sum();
+    }
+
+    /**
+     * @return number of objects tested by the predicate.
+     */
+    long getTestCount() {
+        lock.readLock().lock();
+        try {
+            return testCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
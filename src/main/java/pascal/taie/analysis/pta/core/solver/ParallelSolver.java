@@ -0,0 +1,186 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solver that propagates points-to sets with multiple worker threads.
+ * <p>
+ * This solver works in rounds. In each round, it takes all pointer entries
+ * out of the work list and propagates them to the points-to sets of the
+ * corresponding pointers in parallel. As the pointers of these entries are
+ * distinct and the pointer flow graph is not modified during propagation,
+ * each worker only updates the points-to sets of its own pointers, and the
+ * objects to be propagated to PFG successors are buffered by the worker.
+ * After that, the solver thread adds the buffered objects to the work list
+ * and processes the new points-to sets (e.g., resolving callees and adding
+ * PFG edges for field accesses) in the order of the entries. Therefore, all
+ * {@link Plugin} callbacks are still invoked on a single thread, and plugins
+ * need not be thread-safe. The only code run by the workers is the pointer
+ * filters and the {@link Transfer} functions on PFG edges, which should
+ * not have side effects.
+ * <p>
+ * Since the analysis is monotone, this solver reaches the same fixed point,
+ * i.e., the same points-to sets and call graph, as {@link DefaultSolver}.
+ */
+public class ParallelSolver extends DefaultSolver {
+
+    private static final Logger logger = LogManager.getLogger(ParallelSolver.class);
+
+    /**
+     * Number of worker threads.
+     */
+    private final int threads;
+
+    public ParallelSolver(AnalysisOptions options, HeapModel heapModel,
+                          ContextSelector contextSelector, CSManager csManager) {
+        super(options, heapModel, contextSelector, csManager);
+        if (options.getBoolean("intern-pts")) {
+            // the interner of points-to sets is not thread-safe
+            throw new ConfigException(
+                    "intern-pts:true cannot be used with solver:parallel");
+        }
+        int threads = options.getInt("threads");
+        this.threads = threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    void processWorkList() {
+        logger.info("Propagating points-to sets with {} threads", threads);
+        WorkList workList = getWorkList();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int rounds = 0;
+        try {
+            while (!workList.isEmpty() && !isTimeout()) {
+                processCallEdges(workList);
+                List<WorkList.PointerEntry> entries = combineCollapsedEntries(
+                        workList.pollPointerEntries());
+                if (entries.isEmpty()) {
+                    continue;
+                }
+                List<Propagation> propagations = pool.submit(() -> entries
+                                .parallelStream()
+                                .map(this::propagate)
+                                .toList())
+                        .join();
+                for (Propagation propagation : propagations) {
+                    propagation.successors().forEach(succ ->
+                            addSharedPointsTo(succ.first(), succ.second()));
+                    // for correctness, the call edges discovered by
+                    // previous entries must be processed prior to the
+                    // remaining pointer entries
+                    processCallEdges(workList);
+                    processNewPointsToSet(propagation.pointer(), propagation.diff());
+                }
+                ++rounds;
+                checkpointIfNeeded();
+                degradeIfNeeded();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("{} rounds of parallel propagation", rounds);
+    }
+
+    private void processCallEdges(WorkList workList) {
+        while (workList.hasCallEdges()) {
+            processCallEdge(workList.pollCallEdge());
+        }
+    }
+
+    /**
+     * Combines the entries whose pointers have been collapsed into the same
+     * representative, so that the pointers of the resulting entries,
+     * and their points-to sets, are still distinct.
+     */
+    private List<WorkList.PointerEntry> combineCollapsedEntries(
+            List<WorkList.PointerEntry> entries) {
+        if (entries.stream().allMatch(e ->
+                getRepresentative(e.pointer()) == e.pointer())) {
+            return entries;
+        }
+        Map<Pointer, PointsToSet> combined = Maps.newLinkedHashMap();
+        // the points-to sets of entries may be shared, thus they are
+        // copied before other sets are merged into them
+        Set<Pointer> copied = Sets.newSet();
+        for (WorkList.PointerEntry entry : entries) {
+            Pointer rep = getRepresentative(entry.pointer());
+            PointsToSet pts = combined.get(rep);
+            if (pts != null) {
+                if (copied.add(rep)) {
+                    pts = pts.copy();
+                    combined.put(rep, pts);
+                }
+                pts.addAll(entry.pointsToSet());
+            } else {
+                combined.put(rep, entry.pointsToSet());
+            }
+        }
+        List<WorkList.PointerEntry> result = new ArrayList<>(combined.size());
+        combined.forEach((p, pts) -> result.add(new WorkList.PointerEntry(p, pts)));
+        return result;
+    }
+
+    /**
+     * Propagates the given entry to its pointer. This method is invoked
+     * by worker threads.
+     */
+    private Propagation propagate(WorkList.PointerEntry entry) {
+        List<Pair<Pointer, PointsToSet>> successors = new ArrayList<>();
+        PointsToSet diff = propagate(entry.pointer(), entry.pointsToSet(),
+                (succ, pts) -> successors.add(new Pair<>(succ, pts)));
+        return new Propagation(entry.pointer(), diff, successors);
+    }
+
+    /**
+     * Result of propagating a work list entry.
+     *
+     * @param pointer    the pointer of the entry
+     * @param diff       the new objects added to the points-to set of pointer
+     * @param successors the PFG successors of pointer and the objects
+     *                   to be propagated to them
+     */
+    private record Propagation(Pointer pointer, PointsToSet diff,
+                               List<Pair<Pointer, PointsToSet>> successors) {
+    }
+}
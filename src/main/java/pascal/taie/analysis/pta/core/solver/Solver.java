@@ -47,6 +47,7 @@ import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.function.Predicate;
 
 public interface Solver {
@@ -77,6 +78,13 @@ public interface Solver {
      */
     PointsToSet makePointsToSet();
 
+    /**
+     * @return the filter that accepts the objects whose types are subtypes
+     * of given type. The filters are owned by this solver and shared by
+     * the {@link TypeFilter}s of the same type.
+     */
+    ObjectFilter getTypeFilter(Type type);
+
     /**
      * Sets plugin to this solver.
      */
@@ -87,6 +95,23 @@ public interface Solver {
      */
     void solve();
 
+    /**
+     * Incrementally updates the analysis result after statements are added
+     * to the methods of the analyzed program, instead of re-solving the whole
+     * program. This method must be called after {@link #solve()} returns,
+     * and it reaches the same fixed point as re-solving the program with
+     * the added statements. {@link Plugin#onFinish()} is invoked again when
+     * the update finishes, and the result is re-computed by
+     * {@link #getResult()}.
+     * <p>
+     * To re-solve a program whose methods are removed or changed,
+     * use option {@code incremental} with a checkpoint of the previous
+     * version of the program (see {@link Checkpoint}).
+     *
+     * @param addedStmts the added statements of each method
+     */
+    void solveIncrementally(Map<JMethod, ? extends Collection<Stmt>> addedStmts);
+
     // ---------- side-effect APIs (begin) ----------
     // These side-effect APIs could be used by Plugins to update
     // points-to information.
@@ -126,6 +151,11 @@ public interface Solver {
      * Note that the filter works only after it is added to the pointer,
      * and it cannot filter out the objects pointed to by the pointer
      * before it is added.
+     * <p>
+     * An {@link ObjectFilter} is applied to a whole points-to set by
+     * a bulk set operation, thus it is preferred for the filters on
+     * pointers with large points-to sets; other filters are tested
+     * on each object.
      */
     void addPointerFilter(Pointer pointer, Predicate<CSObj> filter);
 
@@ -23,16 +23,15 @@
 package pascal.taie.analysis.pta.core.solver;
 
 import pascal.taie.analysis.pta.pts.PointsToSet;
-import pascal.taie.language.type.NullType;
-import pascal.taie.language.type.ReferenceType;
 import pascal.taie.language.type.Type;
-import pascal.taie.language.type.TypeSystem;
-
-import java.util.function.Supplier;
 
 /**
  * Transfer function that filters out the objects whose types are NOT
  * subtypes of specific type.
+ * <p>
+ * The filters created for the same solver share the type filters
+ * owned by the solver (see {@link Solver#getTypeFilter(Type)}),
+ * so that each object is checked against each guard type only once.
  */
 public class TypeFilter implements Transfer {
 
@@ -41,29 +40,24 @@ public class TypeFilter implements Transfer {
      */
     private final Type type;
 
-    private final TypeSystem typeSystem;
-
-    private final Supplier<PointsToSet> ptsFactory;
+    private final ObjectFilter filter;
 
     public TypeFilter(Type type, Solver solver) {
+        this(type, solver.getTypeFilter(type));
+    }
+
+    TypeFilter(Type type, TypeMasks typeMasks) {
+        this(type, typeMasks.getMask(type));
+    }
+
+    private TypeFilter(Type type, ObjectFilter filter) {
         this.type = type;
-        this.typeSystem = solver.getTypeSystem();
-        this.ptsFactory = solver::makePointsToSet;
+        this.filter = filter;
     }
 
     @Override
     public PointsToSet apply(PointerFlowEdge edge, PointsToSet input) {
-        PointsToSet result = ptsFactory.get();
-        input.objects()
-                .filter(o -> isAssignable(o.getObject().getType(), type))
-                .forEach(result::addObject);
-        return result;
-    }
-
-    private boolean isAssignable(Type from, Type to) {
-        return (from instanceof NullType)
-                ? to instanceof ReferenceType
-                : typeSystem.isSubtype(to, from);
+        return filter.apply(input);
     }
 
     @Override
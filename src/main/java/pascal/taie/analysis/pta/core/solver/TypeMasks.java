@@ -0,0 +1,106 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches, for each guard type of {@link TypeFilter}, an {@link ObjectMask}
+ * of the context-sensitive objects that are assignable to the type.
+ * Thus, each object is checked against each guard type only once,
+ * and filtering a points-to set is a bulk intersection of the set
+ * and the mask.
+ * <p>
+ * Each solver owns its type masks, and it passes them to the filters
+ * (see {@link Solver#getTypeFilter(Type)}).
+ * <p>
+ * The filters may be applied by the worker threads of
+ * {@link ParallelSolver}, thus this class is thread-safe.
+ */
+final class TypeMasks {
+
+    private final TypeSystem typeSystem;
+
+    private final Indexer<CSObj> objIndexer;
+
+    private final IBitSet.Kind kind;
+
+    private final ConcurrentMap<Type, ObjectMask> masks = Maps.newConcurrentMap();
+
+    TypeMasks(Solver solver) {
+        this.typeSystem = solver.getTypeSystem();
+        this.objIndexer = solver.getCSManager().getObjectIndexer();
+        this.kind = ObjectMask.getBitSetKind(solver);
+    }
+
+    /**
+     * @return the mask of the objects that are assignable to given type.
+     */
+    ObjectMask getMask(Type type) {
+        return masks.computeIfAbsent(type, t -> new ObjectMask(
+                o -> isAssignable(o.getObject().getType(), t), objIndexer, kind));
+    }
+
+    private boolean isAssignable(Type from, Type to) {
+        return (from instanceof NullType)
+                ? to instanceof ReferenceType
+                : typeSystem.isSubtype(to, from);
+    }
+
+    /**
+     * @return number of guard types that have masks.
+     */
+    int getMaskCount() {
+        return masks.size();
+    }
+
+    /**
+     * @return number of points-to sets filtered by the masks.
+     */
+    long getFilteredCount() {
+        return masks.values()
+                .stream()
+                .mapToLong(ObjectMask::getApplyCount)
+                .sum();
+    }
+
+    /**
+     * @return number of objects checked against guard types.
+     * The other objects in filtered sets are handled by the masks.
+     */
+    long getCheckedCount() {
+        return masks.values()
+                .stream()
+                .mapToLong(ObjectMask::getTestCount)
+                .sum();
+    }
+}
@@ -27,35 +27,148 @@ import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.MutableInt;
+import pascal.taie.util.collection.IntIntMap;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCC;
 
+import javax.annotation.Nullable;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * The call edges are always processed in first-in-first-out order, and
+ * the order of processing pointer entries is specified by {@link Order}.
  */
 final class WorkList {
 
+    /**
+     * Orders of processing pointer entries.
+     */
+    enum Order {
+
+        /**
+         * First-in-first-out order.
+         */
+        FIFO,
+
+        /**
+         * Least-recently-fired order, i.e., the pointer that has not been
+         * processed for the longest time is processed first.
+         */
+        LRF,
+
+        /**
+         * Topological order over the condensation (i.e., the graph of
+         * strongly connected components) of pointer flow graph, i.e.,
+         * the pointer which is closest to the sources of pointer flow graph
+         * is processed first.
+         */
+        TOPO,
+
+        /**
+         * Two-phase order: the pointer entries are processed in waves.
+         * The pointers added during current wave are deferred to the next
+         * wave, and the pointers of each wave are sorted in topological
+         * order (same as {@link #TOPO}) when the wave starts.
+         */
+        WAVE;
+
+        static Order of(String order) {
+            return switch (order) {
+                case "fifo" -> FIFO;
+                case "lrf" -> LRF;
+                case "topo" -> TOPO;
+                case "wave" -> WAVE;
+                default -> throw new ConfigException(
+                        "Illegal worklist argument: " + order);
+            };
+        }
+    }
+
     /**
      * Pointer entries to be processed.
      */
-    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newLinkedHashMap();
+    private final PointerQueue pointerEntries;
 
     /**
      * Call edges to be processed.
      */
     private final Queue<Edge<CSCallSite, CSMethod>> callEdges = new ArrayDeque<>();
 
+    /**
+     * Number of processed pointer entries.
+     */
+    private long processedEntries = 0;
+
+    /**
+     * Number of times that each pointer has been processed;
+     * {@code null} if the counts are not kept.
+     */
+    @Nullable
+    private final Map<Pointer, MutableInt> processCounts;
+
+    WorkList() {
+        this(Order.FIFO, null);
+    }
+
+    WorkList(Order order, PointerFlowGraph pointerFlowGraph) {
+        this(order, pointerFlowGraph, false);
+    }
+
+    /**
+     * @param order            order of processing pointer entries
+     * @param pointerFlowGraph the pointer flow graph, which is required
+     *                         by {@link Order#TOPO} and {@link Order#WAVE}
+     * @param countProcesses   whether to keep the number of times that
+     *                         each pointer has been processed, which is
+     *                         only for statistics
+     */
+    WorkList(Order order, PointerFlowGraph pointerFlowGraph,
+             boolean countProcesses) {
+        processCounts = countProcesses ? Maps.newMap() : null;
+        pointerEntries = switch (order) {
+            case FIFO -> new FIFOQueue();
+            case LRF -> new LRFQueue();
+            case TOPO -> new TopoQueue(new TopologicalRanks(pointerFlowGraph));
+            case WAVE -> new WaveQueue(new TopologicalRanks(pointerFlowGraph));
+        };
+    }
+
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        PointsToSet set = pointerEntries.get(pointer);
-        if (set != null) {
-            set.addAll(pointsToSet);
-        } else {
-            pointerEntries.put(pointer, pointsToSet.copy());
-        }
+        pointerEntries.add(pointer, pointsToSet, false);
+    }
+
+    /**
+     * Adds a pointer entry whose points-to set may be shared by other
+     * entries (e.g., the difference set propagated to all PFG successors
+     * of a pointer). The set is copied only when other objects are merged
+     * into the entry, thus the caller must not modify it afterwards.
+     */
+    void addSharedEntry(Pointer pointer, PointsToSet pointsToSet) {
+        pointerEntries.add(pointer, pointsToSet, true);
+    }
+
+    /**
+     * @return the points-to set of the pending entry of given pointer,
+     * or {@code null} if the pointer has no entry. The returned set
+     * must not be modified.
+     */
+    PointsToSet getPendingPointsTo(Pointer pointer) {
+        return pointerEntries.get(pointer);
     }
 
     void addEntry(Edge<CSCallSite, CSMethod> edge) {
@@ -68,22 +181,81 @@ final class WorkList {
             // the work list must be processed prior to the pointer entries
             return new CallEdgeEntry(callEdges.poll());
         } else if (!pointerEntries.isEmpty()) {
-            var it = pointerEntries.entrySet().iterator();
-            var e = it.next();
-            it.remove();
-            return new PointerEntry(e.getKey(), e.getValue());
+            return count(pointerEntries.poll());
         } else {
             throw new NoSuchElementException();
         }
     }
 
+    /**
+     * @return {@code true} if there are call edges to be processed.
+     */
+    boolean hasCallEdges() {
+        return !callEdges.isEmpty();
+    }
+
+    /**
+     * Retrieves and removes the first call edge of this work list.
+     */
+    Edge<CSCallSite, CSMethod> pollCallEdge() {
+        Edge<CSCallSite, CSMethod> edge = callEdges.poll();
+        if (edge == null) {
+            throw new NoSuchElementException();
+        }
+        return edge;
+    }
+
+    /**
+     * Retrieves and removes a batch of pointer entries of this work list.
+     * For {@link Order#WAVE}, the batch is the entries of current wave;
+     * for other orders, the batch is all pointer entries.
+     * The pointers of the returned entries are distinct.
+     */
+    List<PointerEntry> pollPointerEntries() {
+        List<PointerEntry> entries = pointerEntries.pollBatch();
+        entries.forEach(this::count);
+        return entries;
+    }
+
     boolean isEmpty() {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
 
+    private PointerEntry count(PointerEntry entry) {
+        ++processedEntries;
+        if (processCounts != null) {
+            processCounts.computeIfAbsent(entry.pointer(), __ -> new MutableInt(0))
+                    .add(1);
+        }
+        return entry;
+    }
+
+    /**
+     * @return the number of processed pointer entries.
+     */
+    long getProcessedEntries() {
+        return processedEntries;
+    }
+
+    /**
+     * @return the number of times that each pointer has been processed,
+     * or {@code null} if this work list does not keep the counts.
+     */
+    @Nullable
+    Map<Pointer, MutableInt> getProcessCounts() {
+        return processCounts == null ? null :
+                Collections.unmodifiableMap(processCounts);
+    }
+
     interface Entry {
     }
 
+    /**
+     * @param pointsToSet the objects to be propagated to the pointer.
+     *                    The set may be shared by other entries (see
+     *                    {@link #addSharedEntry(Pointer, PointsToSet)}),
+     *                    thus it must not be modified.
+     */
     record PointerEntry(Pointer pointer, PointsToSet pointsToSet)
             implements Entry {
     }
@@ -91,4 +263,306 @@ final class WorkList {
     record CallEdgeEntry(Edge<CSCallSite, CSMethod> edge)
             implements Entry {
     }
+
+    /**
+     * Maintains pointer entries and decides the order of processing them.
+     * Each pointer has at most one entry, i.e., the points-to sets added
+     * to the same pointer are merged until the pointer is polled.
+     * <p>
+     * The points-to sets of the entries are copied on write, i.e.,
+     * a shared set is kept in its entry as is, and it is copied only
+     * when another set is merged into the entry.
+     */
+    private abstract static class PointerQueue {
+
+        private final Map<Pointer, PointsToSet> entries;
+
+        /**
+         * Pointers whose entries hold shared points-to sets.
+         */
+        private final Set<Pointer> sharedEntries = Sets.newSet();
+
+        private PointerQueue(Map<Pointer, PointsToSet> entries) {
+            this.entries = entries;
+        }
+
+        private void add(Pointer pointer, PointsToSet pointsToSet, boolean isShared) {
+            PointsToSet set = entries.get(pointer);
+            if (set != null) {
+                if (sharedEntries.remove(pointer)) {
+                    set = set.copy();
+                    entries.put(pointer, set);
+                }
+                set.addAll(pointsToSet);
+            } else {
+                if (isShared) {
+                    entries.put(pointer, pointsToSet);
+                    sharedEntries.add(pointer);
+                } else {
+                    entries.put(pointer, pointsToSet.copy());
+                }
+                onNewEntry(pointer);
+            }
+        }
+
+        PointsToSet get(Pointer pointer) {
+            return entries.get(pointer);
+        }
+
+        /**
+         * Removes the entry of given pointer.
+         *
+         * @return the points-to set of the entry, which may be shared
+         * and must not be modified.
+         */
+        PointsToSet remove(Pointer pointer) {
+            sharedEntries.remove(pointer);
+            return entries.remove(pointer);
+        }
+
+        /**
+         * Called when a pointer that has no entry is added to this queue.
+         */
+        abstract void onNewEntry(Pointer pointer);
+
+        /**
+         * Retrieves and removes the pointer to be processed next.
+         * This method is called only when this queue is not empty.
+         */
+        abstract Pointer pollPointer();
+
+        private PointerEntry poll() {
+            Pointer pointer = pollPointer();
+            return new PointerEntry(pointer, remove(pointer));
+        }
+
+        List<PointerEntry> pollBatch() {
+            List<PointerEntry> batch = new ArrayList<>(entries.size());
+            while (!isEmpty()) {
+                batch.add(poll());
+            }
+            return batch;
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+
+    private static class FIFOQueue extends PointerQueue {
+
+        private FIFOQueue() {
+            super(Maps.newLinkedHashMap());
+        }
+
+        @Override
+        void onNewEntry(Pointer pointer) {
+            // the insertion order is maintained by entries
+        }
+
+        @Override
+        Pointer pollPointer() {
+            return super.entries.keySet().iterator().next();
+        }
+    }
+
+    /**
+     * Priority of a pointer in the queue. The smaller the priority,
+     * the earlier the pointer is processed. Pointers of the same
+     * priority are processed in first-in-first-out order.
+     */
+    private record Item(Pointer pointer, long priority, long seq) {
+
+        private static final Comparator<Item> COMPARATOR = Comparator
+                .comparingLong(Item::priority)
+                .thenComparingLong(Item::seq);
+    }
+
+    private static class LRFQueue extends PointerQueue {
+
+        private final PriorityQueue<Item> queue = new PriorityQueue<>(Item.COMPARATOR);
+
+        /**
+         * The time when each pointer is processed last time.
+         * The pointers that have never been processed are absent.
+         */
+        private final Map<Pointer, Long> lastFired = Maps.newIndexableMap();
+
+        private long time = 0;
+
+        private long seq = 0;
+
+        private LRFQueue() {
+            super(Maps.newIndexableMap());
+        }
+
+        @Override
+        void onNewEntry(Pointer pointer) {
+            queue.add(new Item(pointer, lastFired.getOrDefault(pointer, -1L), seq++));
+        }
+
+        @Override
+        Pointer pollPointer() {
+            Pointer pointer = queue.remove().pointer();
+            lastFired.put(pointer, time++);
+            return pointer;
+        }
+    }
+
+    private static class TopoQueue extends PointerQueue {
+
+        private final TopologicalRanks ranks;
+
+        private PriorityQueue<Item> queue = new PriorityQueue<>(Item.COMPARATOR);
+
+        private long seq = 0;
+
+        private TopoQueue(TopologicalRanks ranks) {
+            super(Maps.newIndexableMap());
+            this.ranks = ranks;
+        }
+
+        @Override
+        void onNewEntry(Pointer pointer) {
+            int version = ranks.getVersion();
+            int rank = ranks.getRank(pointer);
+            if (version != ranks.getVersion()) {
+                // ranks have been recomputed, re-prioritize queued pointers
+                PriorityQueue<Item> newQueue = new PriorityQueue<>(
+                        Math.max(1, queue.size()), Item.COMPARATOR);
+                queue.forEach(item -> newQueue.add(new Item(item.pointer(),
+                        ranks.getRank(item.pointer()), item.seq())));
+                queue = newQueue;
+            }
+            queue.add(new Item(pointer, rank, seq++));
+        }
+
+        @Override
+        Pointer pollPointer() {
+            return queue.remove().pointer();
+        }
+    }
+
+    private static class WaveQueue extends PointerQueue {
+
+        private final TopologicalRanks ranks;
+
+        /**
+         * Pointers of current wave.
+         */
+        private final Deque<Pointer> current = new ArrayDeque<>();
+
+        /**
+         * Pointers deferred to next wave.
+         */
+        private List<Pointer> next = new ArrayList<>();
+
+        private WaveQueue(TopologicalRanks ranks) {
+            super(Maps.newIndexableMap());
+            this.ranks = ranks;
+        }
+
+        @Override
+        void onNewEntry(Pointer pointer) {
+            next.add(pointer);
+        }
+
+        @Override
+        Pointer pollPointer() {
+            if (current.isEmpty()) {
+                startNextWave();
+            }
+            return current.poll();
+        }
+
+        @Override
+        List<PointerEntry> pollBatch() {
+            if (current.isEmpty()) {
+                startNextWave();
+            }
+            List<PointerEntry> batch = new ArrayList<>(current.size());
+            while (!current.isEmpty()) {
+                Pointer pointer = current.poll();
+                batch.add(new PointerEntry(pointer, remove(pointer)));
+            }
+            return batch;
+        }
+
+        private void startNextWave() {
+            List<Item> wave = new ArrayList<>(next.size());
+            for (Pointer pointer : next) {
+                // the ranks are obtained before sorting as querying
+                // a rank may trigger recomputation of all ranks
+                wave.add(new Item(pointer, ranks.getRank(pointer), wave.size()));
+            }
+            next = new ArrayList<>();
+            wave.sort(Item.COMPARATOR);
+            wave.forEach(item -> current.add(item.pointer()));
+        }
+    }
+
+    /**
+     * Topological ranks of the pointers over the condensation of
+     * pointer flow graph. As pointer flow graph grows during the analysis,
+     * the ranks are recomputed when the pointers whose ranks are unknown
+     * have been queried more times than the number of ranked pointers,
+     * so that the cost of recomputation is amortized.
+     */
+    private static class TopologicalRanks {
+
+        private final PointerFlowGraph pointerFlowGraph;
+
+        /**
+         * Maps the indexes of the ranked pointers to their ranks.
+         */
+        private IntIntMap ranks = new IntIntMap(0, -1);
+
+        /**
+         * Number of queries for the pointers whose ranks are unknown
+         * since last computation.
+         */
+        private int misses = 0;
+
+        /**
+         * Incremented when the ranks are recomputed.
+         */
+        private int version = 0;
+
+        private TopologicalRanks(PointerFlowGraph pointerFlowGraph) {
+            this.pointerFlowGraph = pointerFlowGraph;
+        }
+
+        private int getRank(Pointer pointer) {
+            int rank = ranks.get(pointer.getIndex());
+            if (rank < 0 && ++misses > ranks.size()) {
+                compute();
+                rank = ranks.get(pointer.getIndex());
+            }
+            // the pointers whose ranks are unknown are processed last
+            return rank >= 0 ? rank : ranks.size();
+        }
+
+        private int getVersion() {
+            return version;
+        }
+
+        private void compute() {
+            List<List<Pointer>> components = new SCC<>(pointerFlowGraph)
+                    .getComponents();
+            IntIntMap newRanks = new IntIntMap(
+                    pointerFlowGraph.getNumberOfNodes(), -1);
+            // Tarjan's algorithm finds the components
+            // in reverse topological order
+            int rank = components.size();
+            for (List<Pointer> component : components) {
+                --rank;
+                for (Pointer pointer : component) {
+                    newRanks.put(pointer.getIndex(), rank);
+                }
+            }
+            ranks = newRanks;
+            misses = 0;
+            ++version;
+        }
+    }
 }
@@ -0,0 +1,640 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.demand;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Demand-driven, context-insensitive pointer analysis.
+ * <p>
+ * For each query, this analysis traverses the pointer assignment graph
+ * backwards from the queried variable, and constructs the graph on demand:
+ * the assignments, field/array accesses, and parameter/return passing
+ * that may define the variables reached by the traversal are collected
+ * (this is the CFL-reachability formulation of pointer analysis, where
+ * the matching of field stores and loads is decided by whether their base
+ * variables may alias). Then the points-to sets of the collected variables
+ * are solved locally. Call edges are taken from a given call graph (e.g.,
+ * the one built by class hierarchy analysis), and the edges of virtual calls
+ * are filtered by the points-to sets of the receiver variables.
+ * <p>
+ * Each query has a budget, i.e., the maximum number of variables that
+ * can be collected for the query. When the budget runs out, or the query
+ * reaches a variable which cannot be handled on demand (e.g., the variables
+ * defined by catch statements, the parameters of entry methods, and the
+ * variables affected by the calls modelled by the plugins of whole-program
+ * pointer analysis), the query falls back to the result of whole-program
+ * pointer analysis, which is computed only when it is first needed.
+ * A call is modelled by plugins (see {@link #isModelled(Invoke)}) if its
+ * effects are not given by the IR of its callees, e.g., invokedynamic,
+ * native code (such as {@code System.arraycopy()}), reflection and
+ * {@code Thread.start()}. A query falls back if it needs the result of
+ * a modelled call, or the parameters passed by a modelled call, or it
+ * loads a field or an array element of an object that may be passed to
+ * a modelled call, which may write the object.
+ * The answers (including the ones of fall-back queries) are cached across
+ * queries, and the answers of all variables collected by a query are
+ * also cached, since they have been solved as well.
+ * <p>
+ * Note that the objects in the answers given by this analysis are created
+ * by the heap model given to this analysis, while the objects in fall-back
+ * answers are created by the heap model of whole-program pointer analysis.
+ * Thus, clients should not compare objects from the two kinds of answers
+ * directly; {@link #mayAlias(Var, Var)} takes care of this.
+ */
+public class DemandPointerAnalysis {
+
+    private static final Logger logger = LogManager.getLogger(DemandPointerAnalysis.class);
+
+    /**
+     * Prefixes of the names of the classes whose methods may be modelled
+     * by the plugins of whole-program pointer analysis.
+     */
+    private static final List<String> MODELLED_CLASSES = List.of(
+            "java.lang.Class", "java.lang.reflect.", "java.lang.invoke.",
+            "java.lang.Thread", "java.security.AccessController",
+            "java.util.Arrays", "sun.misc.Unsafe", "jdk.internal.misc.Unsafe");
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    private final HeapModel heapModel;
+
+    /**
+     * Maximum number of variables collected for each query.
+     */
+    private final int budget;
+
+    /**
+     * Supplier of result of whole-program pointer analysis.
+     */
+    private final Supplier<PointerAnalysisResult> fallback;
+
+    private final TypeSystem typeSystem;
+
+    /**
+     * Cached answers of queries.
+     */
+    private final Map<Var, Set<Obj>> answers = Maps.newMap();
+
+    /**
+     * Variables whose answers are given by fall-back.
+     */
+    private final Set<Var> fallbackVars = Sets.newSet();
+
+    /**
+     * Definition statements of the variables in each method.
+     */
+    private final Map<JMethod, MultiMap<Var, Stmt>> defs = Maps.newMap();
+
+    private MultiMap<JField, StoreField> instanceStores;
+
+    private MultiMap<JField, StoreField> staticStores;
+
+    private List<StoreArray> arrayStores;
+
+    /**
+     * Reference arguments (including receivers) of the modelled calls,
+     * whose objects may be written by the calls.
+     */
+    private Set<Var> modelledArgs;
+
+    /**
+     * Whether any modelled call may write static fields, e.g., by reflection.
+     */
+    private boolean modelledStaticStores;
+
+    private PointerAnalysisResult fallbackResult;
+
+    /**
+     * @param callGraph call graph used to find the callers of methods
+     *                  and the callees of call sites
+     * @param heapModel heap model of this analysis
+     * @param budget    maximum number of variables collected for each query
+     * @param fallback  supplier of the result of whole-program pointer
+     *                  analysis, which is used when a query falls back
+     */
+    public DemandPointerAnalysis(CallGraph<Invoke, JMethod> callGraph,
+                                 HeapModel heapModel, int budget,
+                                 Supplier<PointerAnalysisResult> fallback) {
+        this.callGraph = callGraph;
+        this.heapModel = heapModel;
+        this.budget = budget;
+        this.fallback = fallback;
+        this.typeSystem = World.get().getTypeSystem();
+    }
+
+    /**
+     * @return the objects that given variable may point to.
+     */
+    public Set<Obj> getPointsToSet(Var var) {
+        Set<Obj> answer = answers.get(var);
+        if (answer == null) {
+            Query query = new Query();
+            if (query.solve(var)) {
+                answer = answers.get(var);
+            } else {
+                logger.debug("Query for {} falls back to whole-program result", var);
+                answer = getFallbackResult().getPointsToSet(var);
+                answers.put(var, answer);
+                fallbackVars.add(var);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * @return {@code true} if the two given variables may point to
+     * the same object.
+     */
+    public boolean mayAlias(Var v1, Var v2) {
+        Set<Obj> pts1 = getPointsToSet(v1);
+        Set<Obj> pts2 = getPointsToSet(v2);
+        if (isFallback(v1) != isFallback(v2)) {
+            // the answers of v1 and v2 are given by different heap models
+            return getFallbackResult().mayAlias(v1, v2);
+        }
+        return hasOverlap(pts1, pts2);
+    }
+
+    /**
+     * @return {@code true} if the answer of given variable is given by
+     * whole-program pointer analysis.
+     */
+    public boolean isFallback(Var var) {
+        return fallbackVars.contains(var);
+    }
+
+    private PointerAnalysisResult getFallbackResult() {
+        if (fallbackResult == null) {
+            fallbackResult = fallback.get();
+        }
+        return fallbackResult;
+    }
+
+    private static boolean hasOverlap(Set<Obj> s1, Set<Obj> s2) {
+        if (s1.size() > s2.size()) {
+            Set<Obj> tmp = s1;
+            s1 = s2;
+            s2 = tmp;
+        }
+        for (Obj obj : s1) {
+            if (s2.contains(obj)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MultiMap<Var, Stmt> getDefs(JMethod method) {
+        return defs.computeIfAbsent(method, m -> {
+            MultiMap<Var, Stmt> varDefs = Maps.newMultiMap();
+            for (Stmt stmt : m.getIR()) {
+                stmt.getDef().ifPresent(def -> {
+                    if (def instanceof Var var) {
+                        varDefs.put(var, stmt);
+                    }
+                });
+            }
+            return varDefs;
+        });
+    }
+
+    /**
+     * @return {@code true} if the effects of given call site are modelled
+     * by the plugins of whole-program pointer analysis, instead of being
+     * given by the IR of its callees.
+     */
+    private boolean isModelled(Invoke callSite) {
+        if (callSite.isDynamic()) {
+            return true;
+        }
+        String declaringClass = callSite.getMethodRef()
+                .getDeclaringClass().getName();
+        if (MODELLED_CLASSES.stream().anyMatch(declaringClass::startsWith)) {
+            return true;
+        }
+        return callGraph.edgesOutOf(callSite).anyMatch(edge ->
+                edge.getKind() == CallKind.OTHER || edge.getCallee().isNative());
+    }
+
+    /**
+     * Builds the indexes of field and array stores in the methods
+     * of the call graph, and collects the arguments of modelled calls.
+     */
+    private void buildStoreIndexes() {
+        if (instanceStores == null) {
+            instanceStores = Maps.newMultiMap();
+            staticStores = Maps.newMultiMap();
+            arrayStores = new ArrayList<>();
+            modelledArgs = Sets.newSet();
+            callGraph.reachableMethods()
+                    .filter(m -> !m.isAbstract())
+                    .forEach(m -> m.getIR().forEach(stmt -> {
+                        if (stmt instanceof StoreField store) {
+                            JField field = store.getFieldRef().resolve();
+                            (store.isStatic() ? staticStores : instanceStores)
+                                    .put(field, store);
+                        } else if (stmt instanceof StoreArray store) {
+                            arrayStores.add(store);
+                        } else if (stmt instanceof Invoke invoke && isModelled(invoke)) {
+                            collectModelledArgs(invoke);
+                        }
+                    }));
+        }
+    }
+
+    private void collectModelledArgs(Invoke invoke) {
+        List<Var> args = new ArrayList<>(invoke.getInvokeExp().getArgs());
+        if (invoke.getInvokeExp() instanceof InvokeInstanceExp invokeExp) {
+            args.add(invokeExp.getBase());
+        }
+        args.stream()
+                .filter(arg -> arg.getType() instanceof ReferenceType)
+                .forEach(modelledArgs::add);
+        String declaringClass = invoke.getMethodRef().getDeclaringClass().getName();
+        if (declaringClass.startsWith("java.lang.reflect.")
+                || declaringClass.endsWith(".Unsafe")) {
+            modelledStaticStores = true;
+        }
+    }
+
+    /**
+     * A query, which collects the constraints of points-to sets on demand
+     * and solves them.
+     */
+    private class Query {
+
+        private final Map<Var, Set<Obj>> pts = Maps.newMap();
+
+        /**
+         * Variables to be solved by this query.
+         */
+        private final Set<Var> collected = Sets.newSet();
+
+        private final Deque<Var> workList = new ArrayDeque<>();
+
+        /**
+         * Each constraint propagates objects among points-to sets,
+         * and returns whether any points-to set changes.
+         */
+        private final List<BooleanSupplier> constraints = new ArrayList<>();
+
+        /**
+         * Whether this query cannot be answered on demand.
+         */
+        private boolean failed = false;
+
+        /**
+         * @return {@code true} if the query is answered on demand.
+         */
+        private boolean solve(Var var) {
+            demand(var);
+            while (!workList.isEmpty() && !failed) {
+                collect(workList.poll());
+            }
+            if (failed) {
+                return false;
+            }
+            boolean changed;
+            do {
+                changed = false;
+                for (BooleanSupplier constraint : constraints) {
+                    changed |= constraint.getAsBoolean();
+                }
+            } while (changed && !failed);
+            if (failed) {
+                // a loaded object may be written by a modelled call
+                return false;
+            }
+            collected.forEach(v -> answers.put(v,
+                    Collections.unmodifiableSet(getPts(v))));
+            return true;
+        }
+
+        private Set<Obj> getPts(Var var) {
+            return pts.computeIfAbsent(var, __ -> Sets.newHybridSet());
+        }
+
+        private void demand(Var var) {
+            if (collected.contains(var) || pts.containsKey(var)) {
+                return;
+            }
+            if (fallbackVars.contains(var)) {
+                failed = true;
+            } else if (answers.containsKey(var)) {
+                // reuse the answer of previous query
+                pts.put(var, answers.get(var));
+            } else if (collected.size() >= budget) {
+                failed = true;
+            } else {
+                collected.add(var);
+                workList.add(var);
+            }
+        }
+
+        private void fail() {
+            failed = true;
+        }
+
+        /**
+         * Collects the constraints that define points-to set of given variable.
+         */
+        private void collect(Var var) {
+            if (!(var.getType() instanceof ReferenceType)) {
+                return;
+            }
+            JMethod method = var.getMethod();
+            IR ir = method.getIR();
+            if (var == ir.getThis() || ir.isParam(var)) {
+                collectParam(method, ir, var);
+            }
+            for (Stmt stmt : getDefs(method).get(var)) {
+                if (stmt instanceof New newStmt) {
+                    if (newStmt.getRValue() instanceof NewMultiArray) {
+                        // the inner arrays are not handled on demand
+                        fail();
+                    } else {
+                        getPts(var).add(heapModel.getObj(newStmt));
+                    }
+                } else if (stmt instanceof AssignLiteral assign) {
+                    Literal literal = assign.getRValue();
+                    if (literal.getType() instanceof ClassType) {
+                        getPts(var).add(heapModel.getConstantObj(
+                                (ReferenceLiteral) literal));
+                    }
+                } else if (stmt instanceof Copy copy) {
+                    addSubset(copy.getRValue(), var);
+                } else if (stmt instanceof Cast cast) {
+                    Var from = cast.getRValue().getValue();
+                    Type castType = cast.getRValue().getCastType();
+                    demand(from);
+                    constraints.add(() -> addAll(var, getPts(from), obj ->
+                            typeSystem.isSubtype(castType, obj.getType())));
+                } else if (stmt instanceof LoadField load) {
+                    collectLoadField(load, var);
+                } else if (stmt instanceof LoadArray load) {
+                    collectLoadArray(load, var);
+                } else if (stmt instanceof Invoke invoke) {
+                    collectInvokeResult(invoke, var);
+                } else {
+                    // e.g., Catch
+                    fail();
+                }
+            }
+        }
+
+        private void collectParam(JMethod method, IR ir, Var param) {
+            if (callGraph.entryMethods().anyMatch(method::equals)) {
+                // the parameters of entry methods are given by
+                // whole-program pointer analysis
+                fail();
+                return;
+            }
+            int index = ir.getParams().indexOf(param);
+            for (Edge<Invoke, JMethod> edge : callGraph.edgesInTo(method).toList()) {
+                Invoke callSite = edge.getCallSite();
+                if (edge.getKind() == CallKind.OTHER || isModelled(callSite)) {
+                    // the arguments of modelled calls (e.g., reflective
+                    // calls and Thread.start()) are not passed as in the
+                    // call sites, but by pointer analysis plugins
+                    fail();
+                    return;
+                }
+                if (param == ir.getThis()) {
+                    Var base = ((InvokeInstanceExp) callSite.getInvokeExp()).getBase();
+                    demand(base);
+                    constraints.add(() -> addAll(param, getPts(base),
+                            obj -> isCallee(callSite, obj, method)));
+                } else {
+                    Var arg = callSite.getInvokeExp().getArg(index);
+                    if (callSite.isStatic()) {
+                        addSubset(arg, param);
+                    } else {
+                        Var base = ((InvokeInstanceExp) callSite.getInvokeExp()).getBase();
+                        demand(base);
+                        demand(arg);
+                        constraints.add(() -> isCallee(callSite, getPts(base), method)
+                                && addAll(param, getPts(arg), null));
+                    }
+                }
+            }
+        }
+
+        private void collectLoadField(LoadField load, Var to) {
+            buildStoreIndexes();
+            JField field = load.getFieldRef().resolve();
+            if (load.isStatic()) {
+                if (modelledStaticStores) {
+                    fail();
+                    return;
+                }
+                for (StoreField store : staticStores.get(field)) {
+                    addSubset(store.getRValue(), to);
+                }
+            } else {
+                Var base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                demand(base);
+                for (StoreField store : instanceStores.get(field)) {
+                    Var storeBase = ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+                    Var from = store.getRValue();
+                    demand(storeBase);
+                    demand(from);
+                    // the store and the load access the same field
+                    // if their bases may alias
+                    constraints.add(() -> hasOverlap(getPts(base), getPts(storeBase))
+                            && addAll(to, getPts(from), null));
+                }
+                checkModelledStores(base);
+            }
+        }
+
+        private void collectLoadArray(LoadArray load, Var to) {
+            buildStoreIndexes();
+            Var base = load.getArrayAccess().getBase();
+            demand(base);
+            for (StoreArray store : arrayStores) {
+                Var storeBase = store.getArrayAccess().getBase();
+                Var from = store.getRValue();
+                if (!(from.getType() instanceof ReferenceType)) {
+                    continue;
+                }
+                demand(storeBase);
+                demand(from);
+                constraints.add(() -> {
+                    boolean changed = false;
+                    for (Obj array : getPts(base)) {
+                        if (getPts(storeBase).contains(array)
+                                && array.getType() instanceof ArrayType arrayType) {
+                            // Java arrays are covariant, thus
+                            // the stored objects are filtered by element type
+                            Type elemType = arrayType.elementType();
+                            changed |= addAll(to, getPts(from), obj ->
+                                    typeSystem.isSubtype(elemType, obj.getType()));
+                        }
+                    }
+                    return changed;
+                });
+            }
+            checkModelledStores(base);
+        }
+
+        /**
+         * Adds constraints that make this query fail if the objects
+         * pointed to by given base variable of a load may be written
+         * by modelled calls.
+         */
+        private void checkModelledStores(Var base) {
+            for (Var arg : modelledArgs) {
+                demand(arg);
+                constraints.add(() -> {
+                    if (hasOverlap(getPts(base), getPts(arg))) {
+                        fail();
+                    }
+                    return false;
+                });
+            }
+        }
+
+        private void collectInvokeResult(Invoke invoke, Var result) {
+            if (isModelled(invoke)) {
+                // the results of modelled calls are given by
+                // pointer analysis plugins
+                fail();
+                return;
+            }
+            Var base = invoke.isStatic() ? null
+                    : ((InvokeInstanceExp) invoke.getInvokeExp()).getBase();
+            if (base != null) {
+                demand(base);
+            }
+            for (Edge<Invoke, JMethod> edge : callGraph.edgesOutOf(invoke).toList()) {
+                JMethod callee = edge.getCallee();
+                if (callee.isAbstract()) {
+                    continue;
+                }
+                for (Var ret : callee.getIR().getReturnVars()) {
+                    demand(ret);
+                    if (base == null) {
+                        constraints.add(() -> addAll(result, getPts(ret), null));
+                    } else {
+                        constraints.add(() -> isCallee(invoke, getPts(base), callee)
+                                && addAll(result, getPts(ret), null));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds constraint pts(from) &sube; pts(to).
+         */
+        private void addSubset(Var from, Var to) {
+            demand(from);
+            constraints.add(() -> addAll(to, getPts(from), null));
+        }
+
+        /**
+         * Adds the objects in {@code objs} that satisfy {@code filter}
+         * (if it is not {@code null}) to the points-to set of {@code var}.
+         *
+         * @return {@code true} if the points-to set of var changes.
+         */
+        private boolean addAll(Var var, Set<Obj> objs,
+                               Predicate<Obj> filter) {
+            if (objs.isEmpty()) {
+                return false;
+            }
+            Set<Obj> varPts = getPts(var);
+            boolean changed = false;
+            for (Obj obj : objs) {
+                if (filter == null || filter.test(obj)) {
+                    changed |= varPts.add(obj);
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * @return {@code true} if any object in {@code recvObjs} makes
+         * {@code callSite} call {@code callee}.
+         */
+        private boolean isCallee(Invoke callSite, Set<Obj> recvObjs, JMethod callee) {
+            for (Obj recvObj : recvObjs) {
+                if (isCallee(callSite, recvObj, callee)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isCallee(Invoke callSite, Obj recvObj, JMethod callee) {
+            return callee.equals(CallGraphs.resolveCallee(recvObj.getType(), callSite));
+        }
+    }
+}
@@ -104,6 +104,11 @@ public class CompositePlugin implements Plugin {
         allPlugins.forEach(Plugin::onFinish);
     }
 
+    @Override
+    public void onMemoryShortage() {
+        allPlugins.forEach(Plugin::onMemoryShortage);
+    }
+
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
         onNewPointsToSetPlugins.forEach(p -> p.onNewPointsToSet(csVar, pts));
@@ -64,6 +64,14 @@ public interface Plugin {
     default void onFinish() {
     }
 
+    /**
+     * Invoked when the memory used by pointer analysis nears the memory
+     * limit. Plugins may release the memory of their data that is not
+     * necessary for the soundness of pointer analysis, e.g., statistics.
+     */
+    default void onMemoryShortage() {
+    }
+
     /**
      * Invoked when set of new objects flow to a context-sensitive variable.
      *
@@ -72,14 +72,29 @@ public class Profiler implements Plugin {
 
     private final Map<Var, MutableInt> varVisited = Maps.newMap();
 
+    /**
+     * Whether the visit counts are dropped due to memory shortage.
+     */
+    private boolean isDropped = false;
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
         this.csManager = solver.getCSManager();
     }
 
+    @Override
+    public void onMemoryShortage() {
+        csVarVisited.clear();
+        varVisited.clear();
+        isDropped = true;
+    }
+
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        if (isDropped) {
+            return;
+        }
         csVarVisited.computeIfAbsent(csVar, __ -> new MutableInt(0)).add(1);
         varVisited.computeIfAbsent(csVar.getVar(), __ -> new MutableInt(0)).add(1);
     }
@@ -90,6 +105,10 @@ public class Profiler implements Plugin {
         try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
             logger.info("Dumping pointer analysis profile to {}",
                     outFile.getAbsolutePath());
+            if (isDropped) {
+                out.println("Visit counts are dropped due to memory shortage");
+                out.println();
+            }
             // report variables
             reportTop(out, "frequently-visited variables",
                     varVisited, v -> v.getMethod() + "/" + v.getName());
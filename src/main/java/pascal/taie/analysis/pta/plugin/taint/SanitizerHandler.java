@@ -25,16 +25,14 @@ package pascal.taie.analysis.pta.plugin.taint;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
-import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.solver.ObjectFilter;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 
-import java.util.function.Predicate;
-
 /**
  * Handles sanitizers in taint analysis.
  */
@@ -46,13 +44,16 @@ class SanitizerHandler extends OnFlyHandler {
 
     /**
      * Used to filter out taint objects from points-to set.
+     * Whether an object is a taint object never changes, thus
+     * the filter caches the result for each object in a bit set.
      */
-    private final Predicate<CSObj> taintFilter;
+    private final ObjectFilter taintFilter;
 
     SanitizerHandler(HandlerContext context) {
         super(context);
         csManager = solver.getCSManager();
-        taintFilter = o -> !context.manager().isTaint(o.getObject());
+        taintFilter = ObjectFilter.ofStable(
+                o -> !context.manager().isTaint(o.getObject()), solver);
         context.config().paramSanitizers()
                 .forEach(s -> this.paramSanitizers.put(s.method(), s));
     }
@@ -0,0 +1,55 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.SetEx;
+
+/**
+ * Thread-safe points-to set, which stores the objects in a concurrent
+ * bit set (see {@link IBitSet.Kind#isConcurrent()}), so that the objects
+ * can be added and queried by multiple threads simultaneously.
+ * <p>
+ * Unlike {@link HybridBitPointsToSet}, this set does not store few objects
+ * in an array (which is not thread-safe), thus it takes more memory for
+ * small points-to sets.
+ */
+class ConcurrentPointsToSet extends DelegatePointsToSet {
+
+    ConcurrentPointsToSet(Indexer<CSObj> indexer, IBitSet.Kind kind) {
+        this(new IndexerBitSet<>(indexer, kind));
+        assert kind.isConcurrent();
+    }
+
+    private ConcurrentPointsToSet(SetEx<CSObj> set) {
+        super(set);
+    }
+
+    @Override
+    protected PointsToSet newSet(SetEx<CSObj> set) {
+        return new ConcurrentPointsToSet(set);
+    }
+}
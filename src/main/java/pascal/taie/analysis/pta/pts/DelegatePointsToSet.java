@@ -95,6 +95,20 @@ abstract class DelegatePointsToSet implements PointsToSet {
         return newSet(set.addAllDiff(otherSet));
     }
 
+    @Override
+    public PointsToSet intersect(Set<CSObj> objs) {
+        SetEx<CSObj> result = set.copy();
+        result.retainAll(objs);
+        return newSet(result);
+    }
+
+    @Override
+    public PointsToSet subtract(Set<CSObj> objs) {
+        SetEx<CSObj> result = set.copy();
+        result.removeAll(objs);
+        return newSet(result);
+    }
+
     @Override
     public PointsToSet copy() {
         return newSet(set.copy());
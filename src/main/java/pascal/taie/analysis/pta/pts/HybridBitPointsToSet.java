@@ -25,6 +25,7 @@ package pascal.taie.analysis.pta.pts;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.SetEx;
 
 class HybridBitPointsToSet extends DelegatePointsToSet {
@@ -33,6 +34,10 @@ class HybridBitPointsToSet extends DelegatePointsToSet {
         this(new HybridBitSet<>(indexer, isSparse));
     }
 
+    public HybridBitPointsToSet(Indexer<CSObj> indexer, IBitSet.Kind kind) {
+        this(new HybridBitSet<>(indexer, kind));
+    }
+
     private HybridBitPointsToSet(SetEx<CSObj> set) {
         super(set);
     }
@@ -0,0 +1,176 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.PointsToSetInterner.Canonical;
+import pascal.taie.analysis.pta.pts.PointsToSetInterner.Union;
+import pascal.taie.util.collection.SetEx;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set whose content is shared with other points-to sets of
+ * equal content via {@link PointsToSetInterner}.
+ * <p>
+ * This set refers to either a canonical set, which is shared and immutable,
+ * or a private set, which is owned by this set. Copying a set that refers to
+ * a canonical set is cheap as the copy shares the canonical set, and the
+ * canonical set is copied only when the points-to set is modified by
+ * {@link #addObject(CSObj)} (i.e., copy-on-write). {@link #addAll(PointsToSet)}
+ * and {@link #addAllDiff(PointsToSet)} interns the operands and their
+ * results, so that they can reuse the memoized unions.
+ */
+class InternedPointsToSet implements PointsToSet {
+
+    private final PointsToSetInterner<CSObj> interner;
+
+    /**
+     * Content of this set. If {@link #canonical} is not {@code null},
+     * this set is the set of the canonical set and must not be modified.
+     */
+    private SetEx<CSObj> set;
+
+    /**
+     * The canonical set that this set refers to,
+     * or {@code null} if this set refers to a private set.
+     */
+    private Canonical<CSObj> canonical;
+
+    InternedPointsToSet(PointsToSetInterner<CSObj> interner, Canonical<CSObj> canonical) {
+        this.interner = interner;
+        setCanonical(canonical);
+    }
+
+    private InternedPointsToSet(PointsToSetInterner<CSObj> interner, SetEx<CSObj> set) {
+        this.interner = interner;
+        this.set = set;
+    }
+
+    private void setCanonical(Canonical<CSObj> canonical) {
+        this.canonical = canonical;
+        this.set = canonical.getSet();
+    }
+
+    /**
+     * Interns the content of this set if this set refers to a private set.
+     *
+     * @return the canonical set of this set.
+     */
+    private Canonical<CSObj> canonicalize() {
+        if (canonical == null) {
+            setCanonical(interner.intern(set));
+        }
+        return canonical;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        if (set.contains(obj)) {
+            return false;
+        }
+        if (canonical != null) {
+            set = set.copy();
+            canonical = null;
+        }
+        return set.add(obj);
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        return !addAllDiff0(pts).getSet().isEmpty();
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        return new InternedPointsToSet(interner, addAllDiff0(pts));
+    }
+
+    private Canonical<CSObj> addAllDiff0(PointsToSet pts) {
+        Canonical<CSObj> other = pts instanceof InternedPointsToSet interned
+                ? interned.canonicalize()
+                : interner.intern(copyOf(pts));
+        Union<CSObj> union = interner.union(canonicalize(), other);
+        setCanonical(union.union());
+        return union.diff();
+    }
+
+    private SetEx<CSObj> copyOf(PointsToSet pts) {
+        SetEx<CSObj> result = interner.getEmpty().getSet().copy();
+        pts.forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return set.contains(obj);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return set.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return set.size();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return set.stream();
+    }
+
+    @Override
+    public PointsToSet intersect(Set<CSObj> objs) {
+        SetEx<CSObj> result = set.copy();
+        result.retainAll(objs);
+        return new InternedPointsToSet(interner, result);
+    }
+
+    @Override
+    public PointsToSet subtract(Set<CSObj> objs) {
+        SetEx<CSObj> result = set.copy();
+        result.removeAll(objs);
+        return new InternedPointsToSet(interner, result);
+    }
+
+    @Override
+    public PointsToSet copy() {
+        return canonical != null
+                ? new InternedPointsToSet(interner, canonical)
+                : new InternedPointsToSet(interner, set.copy());
+    }
+
+    @Override
+    public String toString() {
+        return set.toString();
+    }
+}
@@ -57,6 +57,22 @@ public interface PointsToSet extends Iterable<CSObj>, Copyable<PointsToSet> {
      */
     PointsToSet addAllDiff(PointsToSet pts);
 
+    /**
+     * @return a new set that contains the objects in this set
+     * which are also contained in {@code objs}.
+     * If {@code objs} is backed by the same kind of bit set as this set,
+     * the intersection is computed by bulk bit operations.
+     */
+    PointsToSet intersect(Set<CSObj> objs);
+
+    /**
+     * @return a new set that contains the objects in this set
+     * which are not contained in {@code objs}.
+     * If {@code objs} is backed by the same kind of bit set as this set,
+     * the difference is computed by bulk bit operations.
+     */
+    PointsToSet subtract(Set<CSObj> objs);
+
     /**
      * @return true if this set contains given object, otherwise false.
      */
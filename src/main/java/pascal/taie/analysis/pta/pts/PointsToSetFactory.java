@@ -24,6 +24,8 @@ package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.IBitSet;
 
 import java.util.function.Supplier;
 
@@ -35,7 +37,48 @@ public class PointsToSetFactory {
     private final Supplier<PointsToSet> factory;
 
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
-        factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        this(objIndexer, false);
+    }
+
+    /**
+     * @param objIndexer indexer of the objects in points-to sets
+     * @param intern     whether intern the contents of points-to sets,
+     *                   so that the points-to sets of equal contents share
+     *                   a single immutable set, and the unions of the
+     *                   shared sets are memoized.
+     *                   This saves memory when many pointers point to
+     *                   the same objects.
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, boolean intern) {
+        this(objIndexer, intern, IBitSet.Kind.SPARSE);
+    }
+
+    /**
+     * @param objIndexer indexer of the objects in points-to sets
+     * @param intern     whether intern the contents of points-to sets
+     * @param kind       kind of the bit sets that store large points-to sets.
+     *                   If the kind is concurrent, all points-to sets are
+     *                   thread-safe, and they are stored in bit sets of
+     *                   the kind regardless of their sizes.
+     * @throws IllegalArgumentException if {@code intern} is {@code true}
+     *                                  and {@code kind} is concurrent,
+     *                                  as interning is not thread-safe.
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, boolean intern,
+                              IBitSet.Kind kind) {
+        if (kind.isConcurrent()) {
+            if (intern) {
+                throw new IllegalArgumentException(
+                        "Interned points-to sets cannot be concurrent");
+            }
+            factory = () -> new ConcurrentPointsToSet(objIndexer, kind);
+        } else if (intern) {
+            PointsToSetInterner<CSObj> interner = new PointsToSetInterner<>(
+                    new HybridBitSet<>(objIndexer, kind));
+            factory = () -> new InternedPointsToSet(interner, interner.getEmpty());
+        } else {
+            factory = () -> new HybridBitPointsToSet(objIndexer, kind);
+        }
     }
 
     public PointsToSet make() {
@@ -0,0 +1,186 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetEx;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hash-conses the contents of points-to sets, so that equal contents
+ * are represented by a single immutable set, i.e., the {@link Canonical}
+ * set, and the unions of canonical sets are memoized by the pair of
+ * their IDs.
+ * <p>
+ * The table of canonical sets only holds weak references, so that the
+ * canonical sets that are no longer used by any points-to sets can be
+ * garbage collected. The memoized unions are dropped when the number
+ * of them exceeds a limit, for the same reason.
+ * <p>
+ * This class is not thread-safe, thus interned points-to sets cannot be
+ * used by {@link pascal.taie.analysis.pta.core.solver.ParallelSolver}.
+ *
+ * @param <E> type of elements of the sets
+ */
+final class PointsToSetInterner<E> {
+
+    /**
+     * Default maximum number of memoized unions.
+     */
+    private static final int MAX_UNIONS = 1 << 20;
+
+    private final Map<Canonical<E>, WeakReference<Canonical<E>>> table = new WeakHashMap<>();
+
+    private final Map<Long, Union<E>> unions = Maps.newMap();
+
+    /**
+     * Maximum number of memoized unions.
+     */
+    private final int maxUnions;
+
+    private final Canonical<E> empty;
+
+    private int counter = 0;
+
+    PointsToSetInterner(SetEx<E> emptySet) {
+        this(emptySet, MAX_UNIONS);
+    }
+
+    PointsToSetInterner(SetEx<E> emptySet, int maxUnions) {
+        this.maxUnions = maxUnions;
+        empty = intern(emptySet);
+    }
+
+    /**
+     * @return the canonical set of empty content.
+     */
+    Canonical<E> getEmpty() {
+        return empty;
+    }
+
+    /**
+     * Returns the canonical set whose content equals {@code set}.
+     * If there is no such canonical set, {@code set} itself becomes
+     * a canonical set, and it must not be modified after this call.
+     */
+    Canonical<E> intern(SetEx<E> set) {
+        Canonical<E> probe = new Canonical<>(-1, set);
+        WeakReference<Canonical<E>> ref = table.get(probe);
+        Canonical<E> canonical = ref != null ? ref.get() : null;
+        if (canonical == null) {
+            canonical = new Canonical<>(counter++, set);
+            table.put(canonical, new WeakReference<>(canonical));
+        }
+        return canonical;
+    }
+
+    /**
+     * Computes the union of {@code s1} and {@code s2}, and the difference
+     * set between {@code s2} and {@code s1}.
+     */
+    Union<E> union(Canonical<E> s1, Canonical<E> s2) {
+        if (s1 == s2 || s2 == empty) {
+            return new Union<>(s1, empty);
+        }
+        if (s1 == empty) {
+            return new Union<>(s2, s2);
+        }
+        long key = ((long) s1.id << 32) | (s2.id & 0xffffffffL);
+        Union<E> result = unions.get(key);
+        if (result == null) {
+            SetEx<E> set = s1.set.copy();
+            SetEx<E> diff = set.addAllDiff(s2.set);
+            result = diff.isEmpty() ? new Union<>(s1, empty)
+                    : new Union<>(intern(set), intern(diff));
+            if (unions.size() >= maxUnions) {
+                unions.clear();
+            }
+            unions.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of canonical sets that are alive.
+     */
+    int getNumberOfCanonicalSets() {
+        return table.size();
+    }
+
+    /**
+     * @return the number of memoized unions.
+     */
+    int getNumberOfUnions() {
+        return unions.size();
+    }
+
+    /**
+     * Immutable set whose content is unique among all canonical sets.
+     */
+    static final class Canonical<E> {
+
+        private final int id;
+
+        private final SetEx<E> set;
+
+        private final int hashCode;
+
+        private Canonical(int id, SetEx<E> set) {
+            this.id = id;
+            this.set = set;
+            this.hashCode = set.hashCode();
+        }
+
+        SetEx<E> getSet() {
+            return set;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Canonical<?> that)) {
+                return false;
+            }
+            return hashCode == that.hashCode
+                    && set.size() == that.set.size()
+                    && set.equals(that.set);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * @param union the union of two canonical sets
+     * @param diff  the objects in the second set but not in the first set
+     */
+    record Union<E>(Canonical<E> union, Canonical<E> diff) {
+    }
+}
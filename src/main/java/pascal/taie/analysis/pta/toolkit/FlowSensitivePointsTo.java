@@ -0,0 +1,282 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import pascal.taie.analysis.dataflow.analysis.ReachingDefinition;
+import pascal.taie.analysis.defuse.DefUse;
+import pascal.taie.analysis.defuse.DefUseAnalysis;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Sparse flow-sensitive points-to information of local variables,
+ * refined from a flow-insensitive pointer analysis result.
+ * <p>
+ * The points-to set of each definition of a variable is computed by
+ * propagating the objects along the def-use chains (see {@link DefUseAnalysis})
+ * of the method, e.g., {@code x = y} defines {@code x} with the objects
+ * of the definitions of {@code y} that reach the statement, and
+ * {@code x = null} defines {@code x} with no objects. The points-to set
+ * of a variable at a use is the union of the sets of the definitions
+ * that reach the use. All the sets are bounded by the flow-insensitive
+ * points-to sets, thus the refined results are never less precise than
+ * the base result.
+ * <p>
+ * The methods are refined lazily, i.e., only when the points-to sets of
+ * their variables are queried. For the methods that cannot be refined
+ * soundly, e.g., the methods with exception handlers but without
+ * control-flow graphs built by the analysis plan, and for the
+ * parameters, this class returns the flow-insensitive results.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class FlowSensitivePointsTo {
+
+    private static final CFGBuilder CFG_BUILDER = new CFGBuilder(AnalysisConfig.of(
+            CFGBuilder.ID, "exception", null, "dump", false));
+
+    private static final ReachingDefinition REACH_DEF = new ReachingDefinition(
+            AnalysisConfig.of(ReachingDefinition.ID));
+
+    private static final DefUseAnalysis DEF_USE = new DefUseAnalysis(AnalysisConfig.of(
+            DefUseAnalysis.ID, "compute-defs", true, "compute-uses", true));
+
+    private final PointerAnalysisResult base;
+
+    private final Map<JMethod, MethodResult> results = Maps.newMap();
+
+    public FlowSensitivePointsTo(PointerAnalysisResult base) {
+        this.base = base;
+    }
+
+    /**
+     * @return the base (flow-insensitive) pointer analysis result.
+     */
+    public PointerAnalysisResult getBase() {
+        return base;
+    }
+
+    /**
+     * @return the objects that {@code var} may point to when it is used
+     * at {@code stmt}. If {@code var} is not used at {@code stmt},
+     * the flow-insensitive points-to set of {@code var} is returned.
+     */
+    public Set<Obj> getPointsToSet(Stmt stmt, Var var) {
+        MethodResult result = getResult(var.getMethod());
+        if (result.defUse == null || isParamOrThis(var)) {
+            return base.getPointsToSet(var);
+        }
+        Set<Stmt> defs = result.defUse.getDefs(stmt, var);
+        if (defs.isEmpty()) {
+            return base.getPointsToSet(var);
+        }
+        if (defs.size() == 1) {
+            return Collections.unmodifiableSet(
+                    result.defPts.get(defs.iterator().next()));
+        }
+        Set<Obj> pts = Sets.newHybridSet();
+        defs.forEach(def -> pts.addAll(result.defPts.get(def)));
+        return Collections.unmodifiableSet(pts);
+    }
+
+    /**
+     * @return the objects that the variable defined by {@code stmt} may
+     * point to right after {@code stmt}. If {@code stmt} does not define
+     * a variable, an empty set is returned.
+     */
+    public Set<Obj> getPointsToSet(Stmt stmt) {
+        Var var = getDefVar(stmt);
+        if (var == null) {
+            return Set.of();
+        }
+        MethodResult result = getResult(var.getMethod());
+        if (result.defUse == null) {
+            return base.getPointsToSet(var);
+        }
+        return Collections.unmodifiableSet(result.defPts.get(stmt));
+    }
+
+    /**
+     * @return {@code true} if the variables of given method are refined
+     * flow-sensitively.
+     */
+    public boolean isRefined(JMethod method) {
+        return getResult(method).defUse != null;
+    }
+
+    private MethodResult getResult(JMethod method) {
+        MethodResult result = results.get(method);
+        if (result == null) {
+            result = refine(method.getIR());
+            results.put(method, result);
+        }
+        return result;
+    }
+
+    private MethodResult refine(IR ir) {
+        DefUse defUse = computeDefUse(ir);
+        if (defUse == null) {
+            return new MethodResult(null, Map.of());
+        }
+        Map<Stmt, Set<Obj>> defPts = Maps.newMap();
+        Queue<Stmt> workList = new ArrayDeque<>();
+        for (Stmt stmt : ir) {
+            Var var = getDefVar(stmt);
+            if (var == null) {
+                continue;
+            }
+            Set<Obj> pts = Sets.newHybridSet();
+            if (stmt instanceof New) {
+                // the heap model may represent the objects of the allocation
+                // site by other objects (e.g., merged objects), which are kept
+                base.getPointsToSet(var)
+                        .stream()
+                        .filter(obj -> !(obj instanceof NewObj)
+                                || obj.getAllocation() == stmt)
+                        .forEach(pts::add);
+            } else if (stmt instanceof Copy || stmt instanceof Cast) {
+                workList.add(stmt);
+            } else if (!(stmt instanceof AssignLiteral assign &&
+                    assign.getRValue() instanceof NullLiteral)) {
+                // the objects of other definitions (e.g., loads and calls)
+                // are not tracked by def-use chains
+                pts.addAll(base.getPointsToSet(var));
+            }
+            defPts.put(stmt, pts);
+        }
+        // propagate objects along def-use chains of copies and casts
+        while (!workList.isEmpty()) {
+            Stmt stmt = workList.poll();
+            Var var = getDefVar(stmt);
+            Var from = stmt instanceof Copy copy
+                    ? copy.getRValue()
+                    : ((Cast) stmt).getRValue().getValue();
+            Set<Stmt> fromDefs = defUse.getDefs(stmt, from);
+            Set<Obj> fromPts;
+            if (isParamOrThis(from) || fromDefs.isEmpty()) {
+                fromPts = base.getPointsToSet(from);
+            } else {
+                fromPts = Sets.newHybridSet();
+                for (Stmt def : fromDefs) {
+                    fromPts.addAll(defPts.get(def));
+                }
+            }
+            // the flow-insensitive points-to set of var also accounts
+            // for the type filtering of casts
+            Set<Obj> varPts = base.getPointsToSet(var);
+            Set<Obj> pts = defPts.get(stmt);
+            boolean changed = false;
+            for (Obj obj : fromPts) {
+                if (varPts.contains(obj) && pts.add(obj)) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                for (Stmt use : defUse.getUses(stmt)) {
+                    if (use instanceof Copy || use instanceof Cast) {
+                        workList.add(use);
+                    }
+                }
+            }
+        }
+        return new MethodResult(defUse, defPts);
+    }
+
+    /**
+     * Computes def-use chains of given IR. The control-flow graph and
+     * reaching definitions are reused if they have been computed by
+     * the analysis plan; otherwise, they are computed temporarily.
+     *
+     * @return the def-use chains, or {@code null} if the chains cannot be
+     * computed soundly, i.e., the IR has exception handlers but its
+     * control-flow graph (which needs exceptional edges) is not available.
+     */
+    @Nullable
+    private static DefUse computeDefUse(IR ir) {
+        boolean hasCFG = ir.hasResult(CFGBuilder.ID);
+        if (!hasCFG) {
+            if (!ir.getExceptionEntries().isEmpty()) {
+                return null;
+            }
+            // exceptional edges only reach the exit of the method,
+            // thus they do not affect the def-use chains
+            ir.storeResult(CFGBuilder.ID, CFG_BUILDER.analyze(ir));
+        }
+        boolean hasReachDef = ir.hasResult(ReachingDefinition.ID);
+        if (!hasReachDef) {
+            ir.storeResult(ReachingDefinition.ID, REACH_DEF.analyze(ir));
+        }
+        DefUse defUse = DEF_USE.analyze(ir);
+        // removes the temporary results
+        if (!hasReachDef) {
+            ir.clearResult(ReachingDefinition.ID);
+        }
+        if (!hasCFG) {
+            ir.clearResult(CFGBuilder.ID);
+        }
+        return defUse;
+    }
+
+    @Nullable
+    private static Var getDefVar(Stmt stmt) {
+        Optional<LValue> def = stmt.getDef();
+        return def.isPresent() && def.get() instanceof Var var ? var : null;
+    }
+
+    private static boolean isParamOrThis(Var var) {
+        IR ir = var.getMethod().getIR();
+        return var == ir.getThis() || ir.isParam(var);
+    }
+
+    /**
+     * @param defUse def-use chains of the method, or {@code null}
+     *               if the method is not refined.
+     * @param defPts points-to sets of the definitions in the method.
+     */
+    private record MethodResult(@Nullable DefUse defUse,
+                                Map<Stmt, Set<Obj>> defPts) {
+    }
+}
@@ -24,9 +24,9 @@ package pascal.taie.analysis.pta.toolkit.scaler;
 
 import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.Maps;
 
-import java.util.Map;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * This class computes (estimates) the number of contexts for given method
@@ -36,21 +36,22 @@ abstract class ContextComputer {
 
     final PointerAnalysisResultEx pta;
 
-    /**
-     * Map from a method to its context number.
-     */
-    final Map<JMethod, Integer> method2ctxNumber = Maps.newMap();
-
     ContextComputer(PointerAnalysisResultEx pta) {
         this.pta = pta;
     }
 
     /**
-     * @return the number of contexts of the given method.
+     * Computes the numbers of contexts of given methods in parallel.
+     *
+     * @return an array whose i-th element is the number of contexts
+     * of the i-th method in {@code methods}.
      */
-    int contextNumberOf(JMethod method) {
-        return method2ctxNumber.computeIfAbsent(
-                method, this::computeContextNumberOf);
+    int[] computeContextNumbers(List<JMethod> methods) {
+        int[] ctxNumbers = new int[methods.size()];
+        IntStream.range(0, ctxNumbers.length)
+                .parallel()
+                .forEach(i -> ctxNumbers[i] = computeContextNumberOf(methods.get(i)));
+        return ctxNumbers;
     }
 
     /**
@@ -60,7 +61,8 @@ abstract class ContextComputer {
 
     /**
      * Computes (estimates) the number of contexts for the given method
-     * using the context sensitivity variant.
+     * using the context sensitivity variant. This method may be called
+     * by multiple threads concurrently.
      */
     abstract int computeContextNumberOf(JMethod method);
 }
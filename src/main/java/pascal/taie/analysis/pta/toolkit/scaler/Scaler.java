@@ -39,12 +39,15 @@ import pascal.taie.util.graph.Graph;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Given a TST (Total Scalability Threshold), select the ST (Scalability Threshold),
  * then select context-sensitivity based on the selected ST value.
+ * <p>
+ * The methods are indexed by their positions in a list, and the estimated
+ * context numbers and weights of the methods are stored in primitive arrays,
+ * which are computed in parallel.
  */
 public class Scaler {
 
@@ -60,45 +63,74 @@ public class Scaler {
     private final long tst;
 
     /**
-     * Context computer for the fastest and the most imprecise
-     * context sensitivity variant.
+     * Context computers from the most precise variant to the least
+     * precise variant. The last one is the bottom line, i.e., the
+     * context computer for the fastest and the most imprecise variant.
      */
-    private final ContextComputer bottomLine;
-
     private final List<ContextComputer> ctxComputers;
 
     /**
-     * Map from a method to total size of points-to sets of all (concerned)
-     * variables in the method.
+     * Index of the bottom line in {@link #ctxComputers}.
+     */
+    private final int bottomLine;
+
+    /**
+     * Methods to select context sensitivity variants for.
+     */
+    private List<JMethod> methods;
+
+    /**
+     * Whether each method is a special method.
+     */
+    private boolean[] isSpecial;
+
+    /**
+     * Context numbers of the methods, indexed by context computer and method.
      */
-    private final Map<JMethod, Integer> ptsSize = Maps.newMap();
+    private int[][] ctxNumbers;
+
+    /**
+     * Weights of the methods, indexed by context computer and method.
+     */
+    private long[][] weights;
+
+    /**
+     * Report of the last selection.
+     */
+    private ScalerReport report;
 
     /**
      * Parses Scaler argument and runs Scaler.
      */
     public static Map<JMethod, String> run(PointerAnalysisResult pta, String arg) {
-        long tst;
+        return new Scaler(pta, parseTST(arg)).selectContext();
+    }
+
+    /**
+     * Parses the TST in Scaler argument.
+     */
+    public static long parseTST(String arg) {
         if (arg.equals("scaler")) {
-            tst = DEFAULT_TST;
+            return DEFAULT_TST;
         } else if (arg.startsWith("scaler=")) { // scaler=tst
-            tst = Integer.parseInt(arg.split("=")[1]);
+            return Long.parseLong(arg.split("=")[1]);
         } else {
             throw new IllegalArgumentException("Illegal Scaler argument: " + arg);
         }
-        return new Scaler(pta, tst).selectContext();
     }
 
     public Scaler(PointerAnalysisResult ptaBase, long tst) {
         this.pta = new PointerAnalysisResultExImpl(ptaBase, true);
         this.tst = tst;
-        bottomLine = new _InsensitiveContextComputer(pta);
         // From the most precise analysis to the least precise analysis
         Graph<Obj> oag = OAGs.build(pta);
         // TODO - make ctxComputers configurable
         ctxComputers = List.of(
                 new _2ObjContextComputer(pta, oag),
                 new _2TypeContextComputer(pta, oag),
-                new _1TypeContextComputer(pta));
+                new _1TypeContextComputer(pta),
+                new _InsensitiveContextComputer(pta));
+        bottomLine = ctxComputers.size() - 1;
     }
 
     /**
@@ -110,36 +142,80 @@ public class Scaler {
      */
     public Map<JMethod, String> selectContext() {
         logger.info("Scaler TST: {}", tst);
-        Set<JMethod> instanceMethods = pta.getBase()
+        methods = pta.getBase()
                 .getCallGraph()
                 .reachableMethods()
                 .filter(m -> !m.isStatic())
-                .collect(Collectors.toUnmodifiableSet());
-        long st = binarySearch(instanceMethods, tst);
-        Map<JMethod, String> csMap = instanceMethods.stream()
-                .collect(Collectors.toMap(m -> m, m -> selectVariantFor(m, st)));
+                .toList();
+        computeWeights();
+        long st = binarySearch(tst);
+        logger.info("Scaler ST: {}", st);
+        Map<JMethod, String> csMap = Maps.newMap(methods.size());
+        report = new ScalerReport(tst, st);
+        for (int i = 0; i < methods.size(); ++i) {
+            JMethod method = methods.get(i);
+            int cc = selectContextComputer(i, st);
+            String variant = ctxComputers.get(cc).getVariantName();
+            logger.debug("{}, {}, {}", method, variant, ctxNumbers[cc][i]);
+            csMap.put(method, variant);
+            report.addEstimate(method, variant,
+                    ctxNumbers[cc][i], weights[cc][i]);
+        }
         logCSMap(csMap);
         return csMap;
     }
 
+    /**
+     * @return the report of the last selection, which contains the
+     * selected variants and estimated costs of the methods.
+     */
+    public ScalerReport getReport() {
+        return report;
+    }
+
+    /**
+     * Computes the context numbers and weights of all methods
+     * for all context computers.
+     */
+    private void computeWeights() {
+        int n = methods.size();
+        isSpecial = new boolean[n];
+        int[] ptsSizes = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            JMethod method = methods.get(i);
+            isSpecial[i] = isSpecialMethod(method);
+            ptsSizes[i] = getCIPTSSizeOf(method);
+        });
+        ctxNumbers = new int[ctxComputers.size()][];
+        weights = new long[ctxComputers.size()][];
+        for (int c = 0; c < ctxComputers.size(); ++c) {
+            int[] ctxNums = ctxComputers.get(c).computeContextNumbers(methods);
+            long[] ws = new long[n];
+            for (int i = 0; i < n; ++i) {
+                ws[i] = ((long) ctxNums[i]) * ((long) ptsSizes[i]);
+            }
+            ctxNumbers[c] = ctxNums;
+            weights[c] = ws;
+        }
+    }
+
     /**
      * Search the suitable st such that the accumulative size of
      * context-sensitive points to sets of given methods is less than given tst.
      *
      * @return the st for every method
      */
-    private long binarySearch(Set<JMethod> methods, long tst) {
+    private long binarySearch(long tst) {
         // Select the max value and make it as end
-        @SuppressWarnings("OptionalGetWithoutIsPresent")
-        long end = methods.stream()
-                .mapToLong(m -> getWeight(m, ctxComputers.get(0)))
-                .max()
-                .getAsLong();
+        long end = 0;
+        for (long w : weights[0]) {
+            end = Math.max(end, w);
+        }
         long start = 0;
         long mid, ret = 0;
         while (start <= end) {
             mid = (start + end) / 2;
-            long totalSize = getTotalAccumulativePTS(methods, mid);
+            long totalSize = getTotalAccumulativePTS(mid);
             if (totalSize < tst) {
                 ret = mid;
                 start = mid + 1;
@@ -154,45 +230,38 @@ public class Scaler {
     }
 
     /**
-     * Given a set of methods and a st (scalability threshold),
-     * computes the total size of all (concerned) variables in the program.
+     * Given a st (scalability threshold), computes the total size
+     * of all (concerned) variables in the program.
      */
-    private long getTotalAccumulativePTS(Set<JMethod> methods, long st) {
-        long total = 0;
-        for (JMethod method : methods) {
-            if (!isSpecialMethod(method)) {
+    private long getTotalAccumulativePTS(long st) {
+        return IntStream.range(0, methods.size())
+                .parallel()
                 // special methods are excluded from this computation
-                ContextComputer cc = selectContextComputer(method, st);
-                total += getWeight(method, cc);
-            }
-        }
-        return total;
+                .filter(i -> !isSpecial[i])
+                .mapToLong(i -> weights[selectContextComputer(i, st)][i])
+                .sum();
     }
 
     /**
-     * Selects a suitable context computer for given method and st.
+     * Selects a suitable context computer for the i-th method and st.
      * If there are any ContextComputers which can satisfy that the weight
      * of given method can be less than or equal to given st, then the
      * most expensive (and precise) ContextComputer is returned;
      * otherwise, bottom line is returned.
      *
-     * @return the selected context computer for method according to tst
+     * @return index of the selected context computer for method according to tst
      */
-    private ContextComputer selectContextComputer(JMethod method, long st) {
-        ContextComputer ctxComp;
-        if (isSpecialMethod(method)) {
+    private int selectContextComputer(int i, long st) {
+        if (isSpecial[i]) {
             // special methods will be analyzed with the most precise variant
-            ctxComp = ctxComputers.get(0);
-        } else {
-            ctxComp = bottomLine;
-            for (ContextComputer cc : ctxComputers) {
-                if (getWeight(method, cc) <= st) {
-                    ctxComp = cc;
-                    break;
-                }
+            return 0;
+        }
+        for (int c = 0; c < bottomLine; ++c) {
+            if (weights[c][i] <= st) {
+                return c;
             }
         }
-        return ctxComp;
+        return bottomLine;
     }
 
     /**
@@ -205,50 +274,27 @@ public class Scaler {
                 .startsWith("java.util.");
     }
 
-    /**
-     * @return the weight of given method when analyzed using the
-     * context sensitivity variant that corresponds to given ContextComputer.
-     */
-    private long getWeight(JMethod method, ContextComputer cc) {
-        return ((long) cc.contextNumberOf(method))
-                * ((long) getCIPTSSizeOf(method));
-    }
-
     /**
      * @return total size of points-to sets of all (concerned) variables
      * in given method when analyzed using context insensitivity.
      */
     private int getCIPTSSizeOf(JMethod method) {
-        if (!ptsSize.containsKey(method)) {
-            int size = method.getIR()
-                    .getVars()
-                    .stream()
-                    .filter(Scaler::isConcerned)
-                    .mapToInt(v -> pta.getBase().getPointsToSet(v).size())
-                    .sum();
-            ptsSize.put(method, size);
-        }
-        return ptsSize.get(method);
+        return method.getIR()
+                .getVars()
+                .stream()
+                .filter(Scaler::isConcerned)
+                .mapToInt(v -> pta.getBase().getPointsToSet(v).size())
+                .sum();
     }
 
     /**
      * @return if given variable is concerned in pointer analysis.
      */
-    private static boolean isConcerned(Var var) {
+    static boolean isConcerned(Var var) {
         Type type = var.getType();
         return type instanceof ReferenceType && !(type instanceof NullType);
     }
 
-    /**
-     * Given st, selects suitable context sensitivity variant for given method.
-     */
-    private String selectVariantFor(JMethod method, long st) {
-        ContextComputer ctxComp = selectContextComputer(method, st);
-        logger.debug("{}, {}, {}", method,
-                ctxComp.getVariantName(), ctxComp.contextNumberOf(method));
-        return ctxComp.getVariantName();
-    }
-
     private static void logCSMap(Map<JMethod, String> csMap) {
         if (logger.isDebugEnabled()) {
             csMap.entrySet()
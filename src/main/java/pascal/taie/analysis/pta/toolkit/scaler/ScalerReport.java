@@ -0,0 +1,136 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.scaler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Report of the context sensitivity variants selected by {@link Scaler}.
+ * For each method, the report lists the selected variant, and the
+ * estimated and actual numbers of contexts and costs (i.e., total size
+ * of the context-sensitive points-to sets of the concerned variables)
+ * of the method, where the actual values are obtained from the result
+ * of the main pointer analysis. The report helps tune the TST
+ * with measured data.
+ */
+public class ScalerReport {
+
+    private static final Logger logger = LogManager.getLogger(ScalerReport.class);
+
+    public static final String REPORT_FILE = "scaler-report.txt";
+
+    private static final String SEP = "\t";
+
+    private final long tst;
+
+    private final long st;
+
+    private final Map<JMethod, Estimate> estimates = Maps.newMap();
+
+    ScalerReport(long tst, long st) {
+        this.tst = tst;
+        this.st = st;
+    }
+
+    void addEstimate(JMethod method, String variant, int contexts, long cost) {
+        estimates.put(method, new Estimate(variant, contexts, cost));
+    }
+
+    /**
+     * Dumps the report to {@link #REPORT_FILE} in given directory.
+     *
+     * @param result result of the pointer analysis guided by Scaler.
+     */
+    public void dump(PointerAnalysisResult result, File outputDir) {
+        Map<JMethod, Long> actualContexts = Maps.newMap();
+        result.getCSCallGraph()
+                .reachableMethods()
+                .map(CSMethod::getMethod)
+                .forEach(m -> actualContexts.merge(m, 1L, Long::sum));
+        Map<JMethod, Long> actualCosts = Maps.newMap();
+        for (CSVar csVar : result.getCSVars()) {
+            PointsToSet pts = csVar.getPointsToSet();
+            if (pts != null && Scaler.isConcerned(csVar.getVar())) {
+                actualCosts.merge(csVar.getVar().getMethod(),
+                        (long) pts.size(), Long::sum);
+            }
+        }
+        File outFile = new File(outputDir, REPORT_FILE);
+        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+            logger.info("Dumping Scaler report to {}", outFile.getAbsolutePath());
+            out.println("# TST: " + tst + ", ST: " + st);
+            out.println(String.join(SEP, "method", "variant",
+                    "estimated-contexts", "actual-contexts",
+                    "estimated-cost", "actual-cost"));
+            long totalEstimated = 0, totalActual = 0;
+            // lists the methods from the most expensive one
+            for (var e : estimates.entrySet()
+                    .stream()
+                    .sorted(Comparator.comparing(
+                                    (Map.Entry<JMethod, Estimate> entry) ->
+                                            -entry.getValue().cost())
+                            .thenComparing(entry -> entry.getKey().toString()))
+                    .toList()) {
+                JMethod method = e.getKey();
+                Estimate estimate = e.getValue();
+                long actualCost = actualCosts.getOrDefault(method, 0L);
+                totalEstimated += estimate.cost();
+                totalActual += actualCost;
+                out.println(String.join(SEP, method.toString(),
+                        estimate.variant(),
+                        Integer.toString(estimate.contexts()),
+                        Long.toString(actualContexts.getOrDefault(method, 0L)),
+                        Long.toString(estimate.cost()),
+                        Long.toString(actualCost)));
+            }
+            logger.info("Scaler estimated cost: {}, actual cost: {}",
+                    totalEstimated, totalActual);
+        } catch (FileNotFoundException e) {
+            logger.error("Failed to open output file {}", outFile);
+        }
+    }
+
+    /**
+     * @param variant  the selected context sensitivity variant.
+     * @param contexts estimated number of contexts.
+     * @param cost     estimated cost, i.e., number of contexts times total
+     *                 size of the context-insensitive points-to sets of
+     *                 the concerned variables of the method.
+     */
+    private record Estimate(String variant, int contexts, long cost) {
+    }
+}
@@ -33,11 +33,25 @@ class _2ObjContextComputer extends ContextComputer {
 
     private static final Logger logger = LogManager.getLogger(_2ObjContextComputer.class);
 
-    private final Graph<Obj> oag;
+    /**
+     * Number of the 2-object contexts that each object (indexed by
+     * {@link Obj#getIndex()}) contributes to the methods invoked on it,
+     * i.e., the number of its allocators, or 1 if it has no allocators.
+     */
+    private final int[] ctxNumbers;
 
     _2ObjContextComputer(PointerAnalysisResultEx pta, Graph<Obj> oag) {
         super(pta);
-        this.oag = oag;
+        int maxIndex = pta.getBase().getObjects()
+                .stream()
+                .mapToInt(Obj::getIndex)
+                .max()
+                .orElse(-1);
+        ctxNumbers = new int[maxIndex + 1];
+        for (Obj obj : pta.getBase().getObjects()) {
+            // without allocator, back to 1-object
+            ctxNumbers[obj.getIndex()] = Math.max(oag.getInDegreeOf(obj), 1);
+        }
     }
 
     @Override
@@ -53,13 +67,7 @@ class _2ObjContextComputer extends ContextComputer {
         }
         int count = 0;
         for (Obj recv : pta.getReceiverObjectsOf(method)) {
-            int inDegree = oag.getInDegreeOf(recv);
-            if (inDegree > 0) {
-                count += inDegree;
-            } else {
-                // without allocator, back to 1-object
-                ++count;
-            }
+            count += ctxNumbers[recv.getIndex()];
         }
         return count;
     }
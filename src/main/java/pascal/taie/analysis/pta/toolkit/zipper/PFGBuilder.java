@@ -64,17 +64,22 @@ class PFGBuilder {
 
     private final ObjectAllocationGraph oag;
 
-    private final PotentialContextElement pce;
-
     /**
      * The input type.
      */
     private final Type type;
 
     /**
-     * Methods invoked on objects of the input type.
+     * PCE methods of the input type.
+     */
+    private final Set<JMethod> pceMethods;
+
+    /**
+     * Nodes of this variables of the methods invoked on objects of
+     * the input type, i.e., the targets of wrapped flow edges from
+     * the fields of the objects.
      */
-    private final Set<JMethod> invokeMethods;
+    private final List<VarNode> thisNodes;
 
     /**
      * Stores wrapped and unwrapped flow edges.
@@ -87,24 +92,36 @@ class PFGBuilder {
 
     private Set<VarNode> outNodes;
 
+    /**
+     * Objects pointed to by the IN nodes.
+     */
+    private Set<Obj> inObjs;
+
     PFGBuilder(PointerAnalysisResultEx pta, ObjectFlowGraph ofg,
                ObjectAllocationGraph oag, PotentialContextElement pce,
                Type type) {
         this.pta = pta;
         this.ofg = ofg;
         this.oag = oag;
-        this.pce = pce;
         this.type = type;
-        this.invokeMethods = pta.getObjectsOf(type)
+        this.pceMethods = pce.pceMethodsOf(type);
+        this.thisNodes = pta.getObjectsOf(type)
                 .stream()
                 .map(pta::getMethodsInvokedOn)
                 .flatMap(Set::stream)
-                .collect(Collectors.toUnmodifiableSet());
+                .distinct()
+                .map(m -> m.getIR().getThis())
+                .map(ofg::getVarNode)
+                .filter(Objects::nonNull) // filter this variable of native methods
+                .toList();
     }
 
     PrecisionFlowGraph build() {
         inNodes = obtainInNodes();
         outNodes = obtainOutNodes();
+        inObjs = Sets.newSet();
+        inNodes.forEach(inNode -> inObjs.addAll(
+                pta.getBase().getPointsToSet(inNode.getVar())));
         visitedNodes = new IndexerBitSet<>(ofg, true);
         wuEdges = Maps.newMultiMap();
         for (VarNode inNode : inNodes) {
@@ -136,13 +153,11 @@ class PFGBuilder {
         Set<JMethod> outMethods = Sets.newSet(obtainMethods());
         // OUT methods of inner classes and special access$ methods
         // are also considered as the OUT methods of current type
-        pce.pceMethodsOf(type)
-                .stream()
+        pceMethods.stream()
                 .filter(m -> !m.isPrivate() && !m.isStatic())
                 .filter(m -> isInnerClass(m.getDeclaringClass()))
                 .forEach(outMethods::add);
-        pce.pceMethodsOf(type)
-                .stream()
+        pceMethods.stream()
                 .filter(m -> !m.isPrivate() && m.isStatic())
                 .filter(m -> m.getDeclaringClass().getType().equals(type)
                         && m.getName().startsWith("access$"))
@@ -185,22 +200,20 @@ class PFGBuilder {
             // add unwrapped flow edges
             if (node instanceof VarNode varNode) {
                 Var var = varNode.getVar();
-                Set<Obj> varPts = pta.getBase().getPointsToSet(var);
                 // Optimization: approximate unwrapped flows to make
-                // Zipper and pointer analysis run faster
-                getReturnToVariablesOf(var).forEach(toVar -> {
-                    VarNode toNode = ofg.getVarNode(toVar);
-                    if (toNode != null && outNodes.contains(toNode)) {
-                        for (VarNode inNode : inNodes) {
-                            Var inVar = inNode.getVar();
-                            if (!Collections.disjoint(
-                                    pta.getBase().getPointsToSet(inVar), varPts)) {
-                                wuEdges.put(node, new UnwrappedFlowEdge(node, toNode));
-                                break;
-                            }
+                // Zipper and pointer analysis run faster.
+                // var may point to the objects of some IN node iff
+                // it may point to some object in the union of the
+                // IN nodes' points-to sets.
+                if (!Collections.disjoint(inObjs,
+                        pta.getBase().getPointsToSet(var))) {
+                    getReturnToVariablesOf(var).forEach(toVar -> {
+                        VarNode toNode = ofg.getVarNode(toVar);
+                        if (toNode != null && outNodes.contains(toNode)) {
+                            wuEdges.put(node, new UnwrappedFlowEdge(node, toNode));
                         }
-                    }
-                });
+                    });
+                }
             }
             List<FlowEdge> nextEdges = new ArrayList<>();
             for (FlowEdge edge : getOutEdgesOf(node)) {
@@ -216,7 +229,7 @@ class PFGBuilder {
                         // Optimization: filter out some potential spurious flows due to
                         // the imprecision of context-insensitive pre-analysis, which
                         // helps improve the performance of Zipper and pointer analysis.
-                        if (pce.pceMethodsOf(type).contains(toVar.getMethod())) {
+                        if (pceMethods.contains(toVar.getMethod())) {
                             nextEdges.add(edge);
                         }
                     }
@@ -225,12 +238,8 @@ class PFGBuilder {
                         Obj base = toNode.getBase();
                         if (base.getType().equals(type)) {
                             // add wrapped flow edges to this variable
-                            invokeMethods.stream()
-                                    .map(m -> m.getIR().getThis())
-                                    .map(ofg::getVarNode)
-                                    .filter(Objects::nonNull) // filter this variable of native methods
-                                    .forEach(nextNode -> wuEdges.put(toNode,
-                                            new WrappedFlowEdge(toNode, nextNode)));
+                            thisNodes.forEach(nextNode -> wuEdges.put(toNode,
+                                    new WrappedFlowEdge(toNode, nextNode)));
                             nextEdges.add(edge);
                         } else if (oag.getAllocateesOf(type).contains(base)) {
                             // Optimization, similar as above.
@@ -251,7 +260,7 @@ class PFGBuilder {
                             // Optimization: filter out some potential spurious flows due to
                             // the imprecision of context-insensitive pre-analysis, which
                             // helps improve the performance of Zipper and pointer analysis.
-                            if (pce.pceMethodsOf(type).contains(toVar.getMethod())) {
+                            if (pceMethods.contains(toVar.getMethod())) {
                                 nextEdges.add(edge);
                             }
                         } else if (edge instanceof UnwrappedFlowEdge) {
@@ -33,6 +33,7 @@ import pascal.taie.util.collection.Views;
 import pascal.taie.util.graph.Graph;
 
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 class PrecisionFlowGraph implements Graph<Node> {
@@ -73,6 +74,35 @@ class PrecisionFlowGraph implements Graph<Node> {
         return outNodes;
     }
 
+    /**
+     * Applies {@code action} to the predecessors of {@code node}.
+     * Unlike {@link #getPredsOf(Node)}, this method does not collect
+     * the in edges of the node.
+     */
+    void forEachPredOf(Node node, Consumer<Node> action) {
+        for (FlowEdge edge : ofg.getInEdgesOf(node)) {
+            if (nodes.contains(edge.source())) {
+                action.accept(edge.source());
+            }
+        }
+        inWUEdges.get(node).forEach(edge -> action.accept(edge.source()));
+    }
+
+    /**
+     * @return number of edges in this graph.
+     */
+    int getNumberOfEdges() {
+        int count = outWUEdges.size();
+        for (Node node : nodes) {
+            for (FlowEdge edge : ofg.getOutEdgesOf(node)) {
+                if (nodes.contains(edge.target())) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
     @Override
     public boolean hasEdge(Node source, Node target) {
         throw new UnsupportedOperationException();
@@ -40,17 +40,18 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.MutableInt;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.IndexerBitSet;
 
 import javax.annotation.Nullable;
 import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 public class Zipper {
@@ -59,6 +60,11 @@ public class Zipper {
 
     private static final float DEFAULT_PV = 0.05f;
 
+    /**
+     * Number of the most expensive types to report.
+     */
+    private static final int TOP_TYPES = 10;
+
     private final PointerAnalysisResultEx pta;
 
     private final boolean isExpress;
@@ -74,9 +80,10 @@ public class Zipper {
 
     private final ObjectFlowGraph ofg;
 
-    private AtomicInteger totalPFGNodes;
-
-    private AtomicInteger totalPFGEdges;
+    /**
+     * Statistics of the precision-flow graphs of the types.
+     */
+    private Queue<TypeStat> typeStats;
 
     private Map<Type, Collection<JMethod>> pcmMap;
 
@@ -125,8 +132,7 @@ public class Zipper {
      * context-sensitively.
      */
     public Set<JMethod> selectPrecisionCriticalMethods() {
-        totalPFGNodes = new AtomicInteger(0);
-        totalPFGEdges = new AtomicInteger(0);
+        typeStats = new ConcurrentLinkedQueue<>();
         pcmMap = Maps.newConcurrentMap(1024);
 
         // prepare information for Zipper-e
@@ -150,9 +156,7 @@ public class Zipper {
         Set<Type> types = pta.getObjectTypes();
         Timer.runAndCount(() -> types.parallelStream().forEach(this::analyze),
                 "Building and analyzing PFG", Level.INFO);
-        logger.info("#types: {}", types.size());
-        logger.info("#avg. nodes in PFG: {}", totalPFGNodes.get() / types.size());
-        logger.info("#avg. edges in PFG: {}", totalPFGEdges.get() / types.size());
+        logTypeStats();
 
         // collect all precision-critical methods
         Set<JMethod> pcms = pcmMap.values()
@@ -163,17 +167,43 @@ public class Zipper {
         return pcms;
     }
 
+    /**
+     * Builds and analyzes the precision-flow graph of given type.
+     * The graph is released once the analysis of the type finishes,
+     * so only the graphs of the types being analyzed in parallel
+     * are kept in memory.
+     */
     private void analyze(Type type) {
+        long start = System.nanoTime();
         PrecisionFlowGraph pfg = new PFGBuilder(pta, ofg, oag, pce, type).build();
-        totalPFGNodes.addAndGet(pfg.getNumberOfNodes());
-        totalPFGEdges.addAndGet(pfg.getNodes()
-                .stream()
-                .mapToInt(pfg::getOutDegreeOf)
-                .sum());
         Set<JMethod> pcms = getPrecisionCriticalMethods(pfg);
         if (!pcms.isEmpty()) {
             pcmMap.put(type, pcms);
         }
+        typeStats.add(new TypeStat(type, pfg.getNumberOfNodes(),
+                pfg.getNumberOfEdges(), System.nanoTime() - start));
+    }
+
+    private void logTypeStats() {
+        int nTypes = typeStats.size();
+        logger.info("#types: {}", nTypes);
+        if (nTypes == 0) {
+            return;
+        }
+        long totalNodes = typeStats.stream().mapToLong(TypeStat::nodes).sum();
+        long totalEdges = typeStats.stream().mapToLong(TypeStat::edges).sum();
+        logger.info("#avg. nodes in PFG: {}", totalNodes / nTypes);
+        logger.info("#avg. edges in PFG: {}", totalEdges / nTypes);
+        // report the most expensive types, which are the candidates
+        // to be excluded or capped when Zipper takes too much time
+        logger.info("Top {} types by time of building and analyzing PFG:",
+                Math.min(TOP_TYPES, nTypes));
+        typeStats.stream()
+                .sorted(Comparator.comparingLong(TypeStat::time).reversed())
+                .limit(TOP_TYPES)
+                .forEach(stat -> logger.info("  {}: {}ms, {} nodes, {} edges",
+                        stat.type(), stat.time() / 1_000_000,
+                        stat.nodes(), stat.edges()));
     }
 
     private Set<JMethod> getPrecisionCriticalMethods(PrecisionFlowGraph pfg) {
@@ -197,19 +227,17 @@ public class Zipper {
         return pcms;
     }
 
-    private static Set<Node> getFlowNodes(PrecisionFlowGraph pfg) {
-        Set<Node> visited = Sets.newSet();
-        for (VarNode outNode : pfg.getOutNodes()) {
-            Deque<Node> workList = new ArrayDeque<>();
-            workList.add(outNode);
-            while (!workList.isEmpty()) {
-                Node node = workList.poll();
-                if (visited.add(node)) {
-                    pfg.getPredsOf(node)
-                            .stream()
-                            .filter(Predicate.not(visited::contains))
-                            .forEach(workList::add);
-                }
+    private Set<Node> getFlowNodes(PrecisionFlowGraph pfg) {
+        Set<Node> visited = new IndexerBitSet<>(ofg, true);
+        Deque<Node> workList = new ArrayDeque<>(pfg.getOutNodes());
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (visited.add(node)) {
+                pfg.forEachPredOf(node, pred -> {
+                    if (!visited.contains(pred)) {
+                        workList.add(pred);
+                    }
+                });
             }
         }
         return visited;
@@ -230,4 +258,12 @@ public class Zipper {
         }
         return null;
     }
+
+    /**
+     * Statistics of the precision-flow graph of a type.
+     *
+     * @param time nanoseconds spent on building and analyzing the graph.
+     */
+    private record TypeStat(Type type, int nodes, int edges, long time) {
+    }
 }
@@ -149,7 +149,10 @@ public class CachedWorldBuilder implements WorldBuilder {
                 "world-cache-" + getWorldCacheHash(options) + ".bin").getAbsoluteFile();
     }
 
-    private static int getWorldCacheHash(Options options) {
+    /**
+     * @return the hash of the options that affect the built world.
+     */
+    public static int getWorldCacheHash(Options options) {
         int result = options.getMainClass() != null
                 ? options.getMainClass().hashCode() : 0;
         result = 31 * result + (options.getInputClasses() != null
@@ -26,6 +26,8 @@ import pascal.taie.ir.exp.InvokeDynamic;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.InvokeInstanceExp;
 import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.ExceptionEntry;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 
@@ -35,6 +37,13 @@ import java.util.stream.Collectors;
 
 public class IRPrinter {
 
+    /**
+     * Parameters of 64-bit FNV-1a hash.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     public static void print(IR ir, PrintStream out) {
         // print method signature
         out.println("---------- " + ir.getMethod() + " ----------");
@@ -57,6 +66,38 @@ public class IRPrinter {
         }
     }
 
+    /**
+     * @return 64-bit hash of the variables (their types and names),
+     * statements and exception entries of given IR, as they are printed
+     * by {@link #print(IR, PrintStream)}. The hash identifies (with high
+     * probability) the IR of a method across runs, e.g., to detect whether
+     * the method has been changed.
+     */
+    public static String hash(IR ir) {
+        long hash = FNV_OFFSET_BASIS;
+        for (Var var : ir.getVars()) {
+            hash = hash(hash, var.getType() + " " + var);
+        }
+        for (Stmt stmt : ir) {
+            hash = hash(hash, stmt.toString());
+        }
+        for (ExceptionEntry entry : ir.getExceptionEntries()) {
+            hash = hash(hash, entry.toString());
+        }
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * Mixes given string, followed by a line break, into {@code hash}
+     * by 64-bit FNV-1a, so that the boundaries of the strings count.
+     */
+    private static long hash(long hash, String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ '\n') * FNV_PRIME;
+    }
+
     public static String toString(Stmt stmt) {
         if (stmt instanceof Invoke) {
             return toString((Invoke) stmt);
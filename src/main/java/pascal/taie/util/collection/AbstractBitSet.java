@@ -105,6 +105,29 @@ public abstract class AbstractBitSet implements IBitSet {
         }
     }
 
+    /**
+     * Generic implementation of {@link IBitSet#and(IBitSet)}, which tests
+     * the bits of this set one by one. The subclasses override this method
+     * with bulk word operations, and fall back to it for the bit sets of
+     * other kinds.
+     */
+    @Override
+    public boolean and(IBitSet set) {
+        if (this == set) {
+            return false;
+        }
+        boolean changed = false;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (!set.get(i) && clear(i)) {
+                changed = true;
+            }
+            if (i == Integer.MAX_VALUE) {
+                break;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public boolean andNot(IBitSet set) {
         return set.iterateBits(new AndNotAction());
@@ -0,0 +1,295 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Provides common functionality for the thread-safe {@link IBitSet}
+ * implementations.
+ * <p>
+ * The subclasses store the words in {@link AtomicLongArray}s, and update
+ * each word by compare-and-set (see {@link #updateWord}), so that the bits
+ * set (or cleared) concurrently by different threads are never lost.
+ * The bulk operations update the words one by one, thus they are atomic
+ * for each word, but not for the whole set. Especially, the bits returned
+ * by {@link #orDiff(IBitSet)} are exactly the bits changed by the call,
+ * i.e., when multiple threads add overlapping bits to the same set
+ * concurrently, each newly-added bit is in the diff of exactly one thread.
+ * <p>
+ * The queries (e.g., {@link #get} and {@link #nextSetBit}) do not block,
+ * and they reflect the updates that have completed before they start.
+ * The iterations are weakly consistent, i.e., they may or may not reflect
+ * the concurrent updates.
+ */
+abstract class AbstractConcurrentBitSet extends AbstractBitSet {
+
+    protected static final long WORD_MASK = 0xffffffffffffffffL;
+
+    protected static final LongBinaryOperator OR = (word, bits) -> word | bits;
+
+    protected static final LongBinaryOperator AND_NOT = (word, bits) -> word & ~bits;
+
+    protected static final LongBinaryOperator XOR = (word, bits) -> word ^ bits;
+
+    /**
+     * Atomically replaces word {@code wordIndex} of this set by
+     * {@code op(word, bits)}.
+     *
+     * @param create whether to allocate the word if it is absent.
+     *               If it is {@code false}, the absent word is regarded
+     *               as 0 and is not updated.
+     * @return the previous value of the word.
+     */
+    protected abstract long updateWord(
+            int wordIndex, long bits, LongBinaryOperator op, boolean create);
+
+    /**
+     * @return the value of word {@code wordIndex} of this set.
+     */
+    protected abstract long getWord(int wordIndex);
+
+    /**
+     * Applies {@code action} to the non-zero words of this set
+     * in increasing order of their indexes.
+     */
+    protected abstract void forEachWord(WordAction action);
+
+    /**
+     * @return a new empty set of the same type as this set.
+     */
+    protected abstract AbstractConcurrentBitSet newSet();
+
+    /**
+     * Action on the words of bit sets.
+     */
+    @FunctionalInterface
+    protected interface WordAction {
+
+        void accept(int wordIndex, long word);
+    }
+
+    /**
+     * Atomically updates word {@code i} of {@code words} to
+     * {@code op(word, bits)}.
+     *
+     * @return the previous value of the word.
+     */
+    protected static long update(AtomicLongArray words, int i,
+                                 long bits, LongBinaryOperator op) {
+        long oldWord = words.get(i);
+        while (true) {
+            long newWord = op.applyAsLong(oldWord, bits);
+            if (newWord == oldWord) {
+                return oldWord;
+            }
+            long witness = words.compareAndExchange(i, oldWord, newWord);
+            if (witness == oldWord) {
+                return oldWord;
+            }
+            oldWord = witness;
+        }
+    }
+
+    /**
+     * Applies {@code action} to the non-zero words of given bit set
+     * in increasing order of their indexes.
+     */
+    private static void forEachWord(IBitSet set, WordAction action) {
+        if (set instanceof AbstractConcurrentBitSet concurrentSet) {
+            concurrentSet.forEachWord(action);
+            return;
+        }
+        int wordIndex = -1;
+        long word = 0;
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            int w = wordIndex(i);
+            if (w != wordIndex) {
+                if (word != 0) {
+                    action.accept(wordIndex, word);
+                }
+                wordIndex = w;
+                word = 0;
+            }
+            word |= 1L << i;
+        }
+        if (word != 0) {
+            action.accept(wordIndex, word);
+        }
+    }
+
+    protected static void checkIndex(int bitIndex) {
+        if (bitIndex < 0) {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    @Override
+    public boolean set(int bitIndex) {
+        checkIndex(bitIndex);
+        long bit = 1L << bitIndex;
+        return (updateWord(wordIndex(bitIndex), bit, OR, true) & bit) == 0;
+    }
+
+    @Override
+    public boolean clear(int bitIndex) {
+        checkIndex(bitIndex);
+        long bit = 1L << bitIndex;
+        return (updateWord(wordIndex(bitIndex), bit, AND_NOT, false) & bit) != 0;
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        return (getWord(wordIndex(bitIndex)) & (1L << bitIndex)) != 0;
+    }
+
+    @Override
+    public void flip(int bitIndex) {
+        checkIndex(bitIndex);
+        updateWord(wordIndex(bitIndex), 1L << bitIndex, XOR, true);
+    }
+
+    @Override
+    public boolean andNot(IBitSet set) {
+        if (this == set) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        boolean[] changed = {false};
+        forEachWord(set, (w, bits) -> {
+            if ((updateWord(w, bits, AND_NOT, false) & bits) != 0) {
+                changed[0] = true;
+            }
+        });
+        return changed[0];
+    }
+
+    @Override
+    public boolean or(IBitSet set) {
+        if (this == set) {
+            return false;
+        }
+        boolean[] changed = {false};
+        forEachWord(set, (w, bits) -> {
+            if ((~updateWord(w, bits, OR, true) & bits) != 0) {
+                changed[0] = true;
+            }
+        });
+        return changed[0];
+    }
+
+    @Override
+    public IBitSet orDiff(IBitSet set) {
+        AbstractConcurrentBitSet diff = newSet();
+        if (this != set) {
+            forEachWord(set, (w, bits) -> {
+                long newBits = ~updateWord(w, bits, OR, true) & bits;
+                if (newBits != 0) {
+                    diff.updateWord(w, newBits, OR, true);
+                }
+            });
+        }
+        return diff;
+    }
+
+    @Override
+    public boolean xor(IBitSet set) {
+        if (this == set) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        boolean[] changed = {false};
+        forEachWord(set, (w, bits) -> {
+            updateWord(w, bits, XOR, true);
+            changed[0] = true;
+        });
+        return changed[0];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nextSetBit(0) == -1;
+    }
+
+    @Override
+    public int length() {
+        return previousSetBit(Integer.MAX_VALUE) + 1;
+    }
+
+    @Override
+    public int cardinality() {
+        int[] sum = {0};
+        forEachWord((w, word) -> sum[0] += Long.bitCount(word));
+        return sum[0];
+    }
+
+    /**
+     * @return the words of this set, without trailing zero words.
+     */
+    private long[] toWords() {
+        int last = previousSetBit(Integer.MAX_VALUE);
+        long[] words = new long[last < 0 ? 0 : wordIndex(last) + 1];
+        forEachWord((w, word) -> {
+            if (w < words.length) {
+                words[w] = word;
+            }
+        });
+        return words;
+    }
+
+    /**
+     * Returns the hash code value for this bit set, which is computed
+     * in the same way as {@link RegularBitSet#hashCode()}.
+     */
+    @Override
+    public int hashCode() {
+        long[] words = toWords();
+        long h = 1234;
+        for (int i = words.length; --i >= 0; ) {
+            h ^= words[i] * (i + 1);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+
+    /**
+     * Compares this bit set with another bit set of the same type.
+     * The result is {@code true} if and only if both bit sets have
+     * exactly the same set of bits set to {@code true}.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        return Arrays.equals(toWords(),
+                ((AbstractConcurrentBitSet) obj).toWords());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+/**
+ * Word-level kernels of the bulk operations of bit sets, i.e., the innermost
+ * loops of the propagation of points-to sets.
+ * <p>
+ * Each kernel processes the words in range [from, to) of the given arrays,
+ * and returns the combination of {@link #CHANGED} and {@link #NON_ZERO}.
+ * If module {@code jdk.incubator.vector} is present at runtime
+ * (e.g., the JVM is started with {@code --add-modules jdk.incubator.vector}),
+ * the kernels are computed by {@link VectorBitOps} with the Vector API;
+ * otherwise, they are computed by the scalar loops in this class.
+ */
+final class BitOps {
+
+    /**
+     * The kernel changed the destination words.
+     */
+    static final int CHANGED = 1;
+
+    /**
+     * The resulting destination words in the range are not all zero.
+     */
+    static final int NON_ZERO = 2;
+
+    /**
+     * Whether the kernels are computed with the Vector API.
+     */
+    static final boolean VECTORIZED = isVectorAvailable();
+
+    private BitOps() {
+    }
+
+    private static boolean isVectorAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorBitOps.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    static boolean isChanged(int result) {
+        return (result & CHANGED) != 0;
+    }
+
+    static boolean isNonZero(int result) {
+        return (result & NON_ZERO) != 0;
+    }
+
+    /**
+     * @param changed bitwise OR of the changed bits of the words.
+     * @param result  bitwise OR of the resulting words.
+     */
+    static int result(long changed, long result) {
+        return (changed != 0 ? CHANGED : 0) | (result != 0 ? NON_ZERO : 0);
+    }
+
+    /**
+     * {@code dst |= src}.
+     */
+    static int or(long[] dst, long[] src, int from, int to) {
+        return VECTORIZED
+                ? VectorBitOps.or(dst, src, from, to)
+                : scalarOr(dst, src, from, to);
+    }
+
+    /**
+     * {@code dst &= ~src}.
+     */
+    static int andNot(long[] dst, long[] src, int from, int to) {
+        return VECTORIZED
+                ? VectorBitOps.andNot(dst, src, from, to)
+                : scalarAndNot(dst, src, from, to);
+    }
+
+    /**
+     * {@code diff = src & ~dst; dst |= src}. The words of {@code diff}
+     * in the range are all overwritten. {@link #CHANGED} means that
+     * {@code diff} is not all zero in the range.
+     */
+    static int orDiff(long[] dst, long[] src, long[] diff, int from, int to) {
+        return VECTORIZED
+                ? VectorBitOps.orDiff(dst, src, diff, from, to)
+                : scalarOrDiff(dst, src, diff, from, to);
+    }
+
+    static int scalarOr(long[] dst, long[] src, int from, int to) {
+        long changed = 0, result = 0;
+        for (int i = from; i < to; ++i) {
+            long oldWord = dst[i];
+            long newWord = oldWord | src[i];
+            dst[i] = newWord;
+            changed |= oldWord ^ newWord;
+            result |= newWord;
+        }
+        return result(changed, result);
+    }
+
+    static int scalarAndNot(long[] dst, long[] src, int from, int to) {
+        long changed = 0, result = 0;
+        for (int i = from; i < to; ++i) {
+            long oldWord = dst[i];
+            long newWord = oldWord & ~src[i];
+            dst[i] = newWord;
+            changed |= oldWord ^ newWord;
+            result |= newWord;
+        }
+        return result(changed, result);
+    }
+
+    static int scalarOrDiff(long[] dst, long[] src, long[] diff,
+                            int from, int to) {
+        long changed = 0, result = 0;
+        for (int i = from; i < to; ++i) {
+            long oldWord = dst[i];
+            long srcWord = src[i];
+            long diffWord = srcWord & ~oldWord;
+            long newWord = oldWord | srcWord;
+            dst[i] = newWord;
+            diff[i] = diffWord;
+            changed |= diffWord;
+            result |= newWord;
+        }
+        return result(changed, result);
+    }
+}
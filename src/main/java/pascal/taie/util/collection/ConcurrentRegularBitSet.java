@@ -0,0 +1,261 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Thread-safe counterpart of {@link RegularBitSet}, which stores the words
+ * in a single {@link AtomicLongArray} and updates them by compare-and-set.
+ * <p>
+ * Growing the array copies the words, thus the updates hold the read lock
+ * of this set (which does not block each other) and the growth holds
+ * the write lock, so that no update is lost by the copying.
+ * The queries do not acquire any locks.
+ *
+ * @see AbstractConcurrentBitSet
+ */
+public class ConcurrentRegularBitSet extends AbstractConcurrentBitSet
+        implements Serializable {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The words of this set. The length of the array never decreases.
+     */
+    private volatile AtomicLongArray words;
+
+    public ConcurrentRegularBitSet() {
+        this(BITS_PER_WORD);
+    }
+
+    public ConcurrentRegularBitSet(int nbits) {
+        if (nbits < 0) {
+            throw new NegativeArraySizeException("nbits < 0: " + nbits);
+        }
+        words = new AtomicLongArray(wordIndex(nbits - 1) + 1);
+    }
+
+    @Override
+    protected long updateWord(int wordIndex, long bits,
+                              LongBinaryOperator op, boolean create) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            AtomicLongArray words = this.words;
+            if (wordIndex >= words.length()) {
+                if (!create) {
+                    return 0;
+                }
+                readLock.unlock();
+                try {
+                    expandTo(wordIndex);
+                } finally {
+                    readLock.lock();
+                }
+                words = this.words;
+            }
+            return update(words, wordIndex, bits, op);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Ensures that the array can hold the word of given index.
+     */
+    private void expandTo(int wordIndex) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            AtomicLongArray oldWords = words;
+            int oldLength = oldWords.length();
+            if (wordIndex >= oldLength) {
+                AtomicLongArray newWords = new AtomicLongArray(
+                        Math.max(2 * oldLength, wordIndex + 1));
+                for (int i = 0; i < oldLength; ++i) {
+                    newWords.set(i, oldWords.get(i));
+                }
+                words = newWords;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    protected long getWord(int wordIndex) {
+        AtomicLongArray words = this.words;
+        return wordIndex < words.length() ? words.get(wordIndex) : 0;
+    }
+
+    @Override
+    protected void forEachWord(WordAction action) {
+        AtomicLongArray words = this.words;
+        for (int i = 0; i < words.length(); ++i) {
+            long word = words.get(i);
+            if (word != 0) {
+                action.accept(i, word);
+            }
+        }
+    }
+
+    @Override
+    protected ConcurrentRegularBitSet newSet() {
+        return new ConcurrentRegularBitSet();
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        AtomicLongArray words = this.words;
+        int u = wordIndex(fromIndex);
+        if (u >= words.length()) {
+            return -1;
+        }
+        long word = words.get(u) & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == words.length()) {
+                return -1;
+            }
+            word = words.get(u);
+        }
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        AtomicLongArray words = this.words;
+        int u = wordIndex(fromIndex);
+        if (u >= words.length()) {
+            return fromIndex;
+        }
+        long word = ~words.get(u) & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == words.length()) {
+                return words.length() * BITS_PER_WORD;
+            }
+            word = ~words.get(u);
+        }
+    }
+
+    @Override
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        AtomicLongArray words = this.words;
+        int u = wordIndex(fromIndex);
+        long word;
+        if (u >= words.length()) {
+            u = words.length() - 1;
+            if (u < 0) {
+                return -1;
+            }
+            word = words.get(u);
+        } else {
+            word = words.get(u) & (WORD_MASK >>> -(fromIndex + 1));
+        }
+        while (true) {
+            if (word != 0) {
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            }
+            if (u-- == 0) {
+                return -1;
+            }
+            word = words.get(u);
+        }
+    }
+
+    @Override
+    public int previousClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        AtomicLongArray words = this.words;
+        int u = wordIndex(fromIndex);
+        if (u >= words.length()) {
+            return fromIndex;
+        }
+        long word = ~words.get(u) & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0) {
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            }
+            if (u-- == 0) {
+                return -1;
+            }
+            word = ~words.get(u);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            words = new AtomicLongArray(words.length());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return words.length() * BITS_PER_WORD;
+    }
+
+    @Override
+    public ConcurrentRegularBitSet copy() {
+        AtomicLongArray words = this.words;
+        ConcurrentRegularBitSet copy = new ConcurrentRegularBitSet(0);
+        AtomicLongArray copyWords = new AtomicLongArray(words.length());
+        for (int i = 0; i < words.length(); ++i) {
+            copyWords.set(i, words.get(i));
+        }
+        copy.words = copyWords;
+        return copy;
+    }
+}
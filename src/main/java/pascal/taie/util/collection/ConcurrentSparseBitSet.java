@@ -0,0 +1,370 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Thread-safe counterpart of {@link SparseBitSet}. Like {@link SparseBitSet},
+ * this implementation groups the words into blocks, and only allocates
+ * the blocks that contain set bits.
+ * <p>
+ * The blocks are organized as a radix tree of fixed height, which covers
+ * all non-negative {@code int} indexes. Thus, unlike {@link SparseBitSet},
+ * this set never resizes its top-level array, and the absent nodes and
+ * blocks are installed by compare-and-set, so that neither the updates
+ * nor the queries acquire any locks.
+ *
+ * @see AbstractConcurrentBitSet
+ */
+public class ConcurrentSparseBitSet extends AbstractConcurrentBitSet
+        implements Serializable {
+
+    /**
+     * Number of bits of the index of a child in a node (or of a word
+     * in a block).
+     */
+    private static final int FANOUT_BITS = 5;
+
+    /**
+     * Number of children of each node (and number of words of each block).
+     */
+    private static final int FANOUT = 1 << FANOUT_BITS;
+
+    private static final int FANOUT_MASK = FANOUT - 1;
+
+    /**
+     * Number of levels of inner nodes above the blocks. The tree covers
+     * all word indexes, i.e., {@code (1 + INNER_LEVELS) * FANOUT_BITS
+     * + ADDRESS_BITS_PER_WORD == Integer.SIZE - 1}.
+     */
+    private static final int INNER_LEVELS = 4;
+
+    /**
+     * Number of words covered by the tree.
+     */
+    private static final int MAX_WORDS = 1 << ((1 + INNER_LEVELS) * FANOUT_BITS);
+
+    /**
+     * Root of the radix tree. Each inner node is an
+     * {@code AtomicReferenceArray} of its children, and each block is
+     * an {@code AtomicLongArray} of its words.
+     */
+    private volatile AtomicReferenceArray<Object> root = newNode();
+
+    @Override
+    protected long updateWord(int wordIndex, long bits,
+                              LongBinaryOperator op, boolean create) {
+        AtomicLongArray block = create ?
+                getOrCreateBlock(wordIndex) : getBlock(wordIndex);
+        return block == null ? 0 :
+                update(block, wordIndex & FANOUT_MASK, bits, op);
+    }
+
+    @Override
+    protected long getWord(int wordIndex) {
+        AtomicLongArray block = getBlock(wordIndex);
+        return block == null ? 0 : block.get(wordIndex & FANOUT_MASK);
+    }
+
+    @Override
+    protected void forEachWord(WordAction action) {
+        forEachWord(root, 0, 0, action);
+    }
+
+    private static void forEachWord(Object node, int level, int base,
+                                    WordAction action) {
+        if (level == INNER_LEVELS) {
+            AtomicLongArray block = (AtomicLongArray) node;
+            for (int i = 0; i < FANOUT; ++i) {
+                long word = block.get(i);
+                if (word != 0) {
+                    action.accept(base + i, word);
+                }
+            }
+        } else {
+            AtomicReferenceArray<?> inner = (AtomicReferenceArray<?>) node;
+            for (int i = 0; i < FANOUT; ++i) {
+                Object child = inner.get(i);
+                if (child != null) {
+                    forEachWord(child, level + 1,
+                            base + (i << shift(level)), action);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected ConcurrentSparseBitSet newSet() {
+        return new ConcurrentSparseBitSet();
+    }
+
+    // ------------------------------------------------------------------------
+    // tree operations
+    // ------------------------------------------------------------------------
+
+    private static AtomicReferenceArray<Object> newNode() {
+        return new AtomicReferenceArray<>(FANOUT);
+    }
+
+    /**
+     * @return the shift that brings the child index at given level
+     * (from a word index) to the right end.
+     */
+    private static int shift(int level) {
+        return FANOUT_BITS * (INNER_LEVELS - level);
+    }
+
+    private static int childIndex(int wordIndex, int level) {
+        return (wordIndex >>> shift(level)) & FANOUT_MASK;
+    }
+
+    /**
+     * @return the block that contains given word, or {@code null}
+     * if the block is absent.
+     */
+    @Nullable
+    private AtomicLongArray getBlock(int wordIndex) {
+        Object node = root;
+        for (int level = 0; level < INNER_LEVELS && node != null; ++level) {
+            node = ((AtomicReferenceArray<?>) node)
+                    .get(childIndex(wordIndex, level));
+        }
+        return (AtomicLongArray) node;
+    }
+
+    private AtomicLongArray getOrCreateBlock(int wordIndex) {
+        Object node = root;
+        for (int level = 0; level < INNER_LEVELS; ++level) {
+            @SuppressWarnings("unchecked")
+            AtomicReferenceArray<Object> inner = (AtomicReferenceArray<Object>) node;
+            int i = childIndex(wordIndex, level);
+            Object child = inner.get(i);
+            if (child == null) {
+                Object newChild = level + 1 < INNER_LEVELS ?
+                        newNode() : new AtomicLongArray(FANOUT);
+                child = inner.compareAndExchange(i, null, newChild);
+                if (child == null) {
+                    child = newChild;
+                }
+            }
+            node = child;
+        }
+        return (AtomicLongArray) node;
+    }
+
+    /**
+     * @return the shift of the highest absent node on the path to
+     * the block of given word, or -1 if the block is present.
+     */
+    private int absentShift(int wordIndex) {
+        Object node = root;
+        for (int level = 0; level < INNER_LEVELS; ++level) {
+            node = ((AtomicReferenceArray<?>) node)
+                    .get(childIndex(wordIndex, level));
+            if (node == null) {
+                return shift(level);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the first word after the absent subtree that
+     * contains given word.
+     */
+    private static int skipForward(int wordIndex, int shift) {
+        return ((wordIndex >>> shift) + 1) << shift;
+    }
+
+    /**
+     * @return the index of the last word before the absent subtree that
+     * contains given word.
+     */
+    private static int skipBackward(int wordIndex, int shift) {
+        return ((wordIndex >>> shift) << shift) - 1;
+    }
+
+    // ------------------------------------------------------------------------
+    // queries
+    // ------------------------------------------------------------------------
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int u = wordIndex(fromIndex);
+        long mask = WORD_MASK << fromIndex;
+        while (u < MAX_WORDS) {
+            AtomicLongArray block = getBlock(u);
+            if (block == null) {
+                int shift = absentShift(u);
+                if (shift >= 0) {
+                    u = skipForward(u, shift);
+                    mask = WORD_MASK;
+                }
+                continue;
+            }
+            for (int i = u & FANOUT_MASK; i < FANOUT; ++i) {
+                long word = block.get(i) & mask;
+                if (word != 0) {
+                    return ((u & ~FANOUT_MASK) + i) * BITS_PER_WORD
+                            + Long.numberOfTrailingZeros(word);
+                }
+                mask = WORD_MASK;
+            }
+            u = (u | FANOUT_MASK) + 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int u = wordIndex(fromIndex);
+        long mask = WORD_MASK << fromIndex;
+        while (u < MAX_WORDS) {
+            AtomicLongArray block = getBlock(u);
+            if (block == null) {
+                return u == wordIndex(fromIndex) ? fromIndex : u * BITS_PER_WORD;
+            }
+            for (int i = u & FANOUT_MASK; i < FANOUT; ++i) {
+                long word = ~block.get(i) & mask;
+                if (word != 0) {
+                    return ((u & ~FANOUT_MASK) + i) * BITS_PER_WORD
+                            + Long.numberOfTrailingZeros(word);
+                }
+                mask = WORD_MASK;
+            }
+            u = (u | FANOUT_MASK) + 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        int u = wordIndex(fromIndex);
+        long mask = WORD_MASK >>> -(fromIndex + 1);
+        while (u >= 0) {
+            AtomicLongArray block = getBlock(u);
+            if (block == null) {
+                int shift = absentShift(u);
+                if (shift >= 0) {
+                    u = skipBackward(u, shift);
+                    mask = WORD_MASK;
+                }
+                continue;
+            }
+            for (int i = u & FANOUT_MASK; i >= 0; --i) {
+                long word = block.get(i) & mask;
+                if (word != 0) {
+                    return ((u & ~FANOUT_MASK) + i + 1) * BITS_PER_WORD - 1
+                            - Long.numberOfLeadingZeros(word);
+                }
+                mask = WORD_MASK;
+            }
+            u = (u & ~FANOUT_MASK) - 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public int previousClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        int u = wordIndex(fromIndex);
+        long mask = WORD_MASK >>> -(fromIndex + 1);
+        while (u >= 0) {
+            AtomicLongArray block = getBlock(u);
+            if (block == null) {
+                return u == wordIndex(fromIndex) ?
+                        fromIndex : (u + 1) * BITS_PER_WORD - 1;
+            }
+            for (int i = u & FANOUT_MASK; i >= 0; --i) {
+                long word = ~block.get(i) & mask;
+                if (word != 0) {
+                    return ((u & ~FANOUT_MASK) + i + 1) * BITS_PER_WORD - 1
+                            - Long.numberOfLeadingZeros(word);
+                }
+                mask = WORD_MASK;
+            }
+            u = (u & ~FANOUT_MASK) - 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public void clear() {
+        root = newNode();
+    }
+
+    /**
+     * @return the number of bits in the allocated blocks of this set.
+     */
+    @Override
+    public int size() {
+        int[] blocks = {0};
+        countBlocks(root, 0, blocks);
+        return blocks[0] * FANOUT * BITS_PER_WORD;
+    }
+
+    private static void countBlocks(Object node, int level, int[] blocks) {
+        if (level == INNER_LEVELS) {
+            ++blocks[0];
+        } else {
+            AtomicReferenceArray<?> inner = (AtomicReferenceArray<?>) node;
+            for (int i = 0; i < FANOUT; ++i) {
+                Object child = inner.get(i);
+                if (child != null) {
+                    countBlocks(child, level + 1, blocks);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ConcurrentSparseBitSet copy() {
+        ConcurrentSparseBitSet copy = new ConcurrentSparseBitSet();
+        forEachWord((w, word) -> copy.updateWord(w, word, OR, true));
+        return copy;
+    }
+}
@@ -24,6 +24,7 @@ package pascal.taie.util.collection;
 
 import pascal.taie.util.Indexer;
 
+import javax.annotation.Nonnull;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Set;
@@ -36,21 +37,28 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
 
     private final Indexer<E> indexer;
 
-    private final boolean isSparse;
+    private final IBitSet.Kind kind;
 
     public HybridBitSet(Indexer<E> indexer, boolean isSparse) {
+        this(indexer, isSparse ? IBitSet.Kind.SPARSE : IBitSet.Kind.REGULAR);
+    }
+
+    /**
+     * @param kind kind of the bit set used for large set.
+     */
+    public HybridBitSet(Indexer<E> indexer, IBitSet.Kind kind) {
         this.indexer = indexer;
-        this.isSparse = isSparse;
+        this.kind = kind;
     }
 
     @Override
     protected Set<E> newLargeSet(int unused) {
-        return new IndexerBitSet<>(indexer, isSparse);
+        return new IndexerBitSet<>(indexer, kind);
     }
 
     @Override
     public HybridBitSet<E> addAllDiff(Collection<? extends E> c) {
-        HybridBitSet<E> diff = new HybridBitSet<>(indexer, isSparse);
+        HybridBitSet<E> diff = new HybridBitSet<>(indexer, kind);
         if (c instanceof HybridBitSet other && other.isLargeSet) {
             //noinspection unchecked
             SetEx<E> otherSet = (SetEx<E>) other.set;
@@ -86,9 +94,31 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
         return diff;
     }
 
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (isLargeSet && c instanceof HybridBitSet<?> other && other.isLargeSet) {
+            // subtracts the underlying bit sets
+            return set.removeAll(other.set);
+        }
+        if (!isLargeSet) {
+            // iterates the few elements of this set instead of c
+            return removeIf(c::contains);
+        }
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(@Nonnull Collection<?> c) {
+        if (isLargeSet && c instanceof HybridBitSet<?> other && other.isLargeSet) {
+            // intersects the underlying bit sets
+            return set.retainAll(other.set);
+        }
+        return super.retainAll(c);
+    }
+
     @Override
     public HybridBitSet<E> copy() {
-        HybridBitSet<E> copy = new HybridBitSet<>(indexer, isSparse);
+        HybridBitSet<E> copy = new HybridBitSet<>(indexer, kind);
         copy.singleton = singleton;
         copy.isLargeSet = isLargeSet;
         if (set != null) {
@@ -22,9 +22,11 @@
 
 package pascal.taie.util.collection;
 
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.Copyable;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Interface for different bit set implementations.
@@ -346,11 +348,88 @@ public interface IBitSet extends Copyable<IBitSet>, Serializable {
     // utilities
     // ------------------------------------------------------------------------
 
+    /**
+     * Kinds of the bit set implementations.
+     */
+    enum Kind {
+
+        /**
+         * {@link RegularBitSet}.
+         */
+        REGULAR,
+
+        /**
+         * {@link SparseBitSet}.
+         */
+        SPARSE,
+
+        /**
+         * {@link RoaringBitSet}.
+         */
+        ROARING,
+
+        /**
+         * {@link ConcurrentRegularBitSet}.
+         */
+        CONCURRENT_REGULAR,
+
+        /**
+         * {@link ConcurrentSparseBitSet}.
+         */
+        CONCURRENT_SPARSE;
+
+        /**
+         * @return the kind of given name (case-insensitive,
+         * and '-' is equivalent to '_', e.g., "concurrent-sparse").
+         * @throws ConfigException if the name is unknown, e.g., the value
+         *                         of option {@code pts-bit-set} is illegal
+         */
+        public static Kind of(String name) {
+            for (Kind kind : values()) {
+                if (kind.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                    return kind;
+                }
+            }
+            throw new ConfigException("Illegal bit set kind: " + name
+                    + ", expected one of " + Arrays.stream(values())
+                    .map(Kind::toOptionValue)
+                    .toList());
+        }
+
+        /**
+         * @return the name of this kind in analysis options,
+         * e.g., "concurrent-sparse".
+         */
+        private String toOptionValue() {
+            return name().toLowerCase().replace('_', '-');
+        }
+
+        /**
+         * @return {@code true} if the bit sets of this kind are thread-safe.
+         */
+        public boolean isConcurrent() {
+            return this == CONCURRENT_REGULAR || this == CONCURRENT_SPARSE;
+        }
+    }
+
     /**
      * Creates a new set.
      */
     static IBitSet newBitSet(boolean isSparse) {
-        return isSparse ? new SparseBitSet() : new RegularBitSet();
+        return newBitSet(isSparse ? Kind.SPARSE : Kind.REGULAR);
+    }
+
+    /**
+     * Creates a new set of given kind.
+     */
+    static IBitSet newBitSet(Kind kind) {
+        return switch (kind) {
+            case REGULAR -> new RegularBitSet();
+            case SPARSE -> new SparseBitSet();
+            case ROARING -> new RoaringBitSet();
+            case CONCURRENT_REGULAR -> new ConcurrentRegularBitSet();
+            case CONCURRENT_SPARSE -> new ConcurrentSparseBitSet();
+        };
     }
 
     /**
@@ -360,6 +439,23 @@ public interface IBitSet extends Copyable<IBitSet>, Serializable {
         return set instanceof SparseBitSet;
     }
 
+    /**
+     * @return the kind of the given bit set.
+     */
+    static Kind kindOf(IBitSet set) {
+        if (set instanceof SparseBitSet) {
+            return Kind.SPARSE;
+        } else if (set instanceof RoaringBitSet) {
+            return Kind.ROARING;
+        } else if (set instanceof ConcurrentRegularBitSet) {
+            return Kind.CONCURRENT_REGULAR;
+        } else if (set instanceof ConcurrentSparseBitSet) {
+            return Kind.CONCURRENT_SPARSE;
+        } else {
+            return Kind.REGULAR;
+        }
+    }
+
     /**
      * Creates a bit set that contains given bits.
      */
@@ -0,0 +1,245 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import pascal.taie.util.Indexable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link Map} interface whose keys are
+ * {@link Indexable}, backed by an {@link IntObjectMap} from the indexes
+ * of the keys to the entries. Thus, it looks up the keys by their indexes,
+ * without calling {@link Object#hashCode()}.
+ * <p>
+ * The indexes of the keys in this map must be unique, e.g., the keys are
+ * pointers, objects or methods of pointer analysis. This map does not fit
+ * the keys whose indexes are unique only in certain scope, e.g.,
+ * the variables of different methods.
+ * <p>
+ * This map does not permit {@code null} keys or {@code null} values.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class IndexableMap<K extends Indexable, V> extends AbstractMap<K, V>
+        implements Serializable {
+
+    private final IntObjectMap<MapEntry<K, V>> entries;
+
+    /**
+     * The cache of {@link IndexableMap#entrySet()}.
+     */
+    private transient Set<Entry<K, V>> entrySet;
+
+    public IndexableMap() {
+        entries = new IntObjectMap<>();
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} mappings
+     * without rehashing.
+     */
+    public IndexableMap(int expectedSize) {
+        entries = new IntObjectMap<>(expectedSize);
+    }
+
+    /**
+     * @return the entry of given key, or {@code null} if this map
+     * contains no mapping for the key.
+     */
+    @Nullable
+    private MapEntry<K, V> getEntry(Object key) {
+        if (key instanceof Indexable indexable) {
+            MapEntry<K, V> entry = entries.getInt(indexable.getIndex());
+            if (entry != null && entry.getKey().equals(key)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getEntry(key) != null;
+    }
+
+    @Override
+    @Nullable
+    public V get(Object key) {
+        MapEntry<K, V> entry = getEntry(key);
+        return entry == null ? null : entry.getValue();
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        MapEntry<K, V> entry = getEntry(key);
+        return entry == null ? defaultValue : entry.getValue();
+    }
+
+    @Override
+    @Nullable
+    public V put(@Nonnull K key, @Nonnull V value) {
+        Objects.requireNonNull(value);
+        int index = key.getIndex();
+        MapEntry<K, V> entry = entries.getInt(index);
+        if (entry == null) {
+            entries.putInt(index, new MapEntry<>(key, value));
+            return null;
+        }
+        checkKey(entry, key);
+        return entry.setValue(value);
+    }
+
+    @Override
+    public V computeIfAbsent(@Nonnull K key,
+                             @Nonnull Function<? super K, ? extends V> mappingFunction) {
+        MapEntry<K, V> entry = entries.getInt(key.getIndex());
+        if (entry != null) {
+            checkKey(entry, key);
+            return entry.getValue();
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            entries.putInt(key.getIndex(), new MapEntry<>(key, value));
+        }
+        return value;
+    }
+
+    /**
+     * Checks that the key of {@code entry}, which has the same index as
+     * {@code key}, is {@code key}, i.e., the indexes of the keys are unique.
+     */
+    private static void checkKey(MapEntry<?, ?> entry, Object key) {
+        if (!entry.getKey().equals(key)) {
+            throw new IllegalArgumentException(String.format(
+                    "%s and %s have the same index %d",
+                    entry.getKey(), key, ((Indexable) key).getIndex()));
+        }
+    }
+
+    @Override
+    @Nullable
+    public V remove(Object key) {
+        MapEntry<K, V> entry = getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        entries.removeInt(((Indexable) key).getIndex());
+        return entry.getValue();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public int hashCode() {
+        // MapEntry does not follow the hash code of Map.Entry
+        int h = 0;
+        for (MapEntry<K, V> entry : entries.values()) {
+            h += entry.getKey().hashCode() ^ entry.getValue().hashCode();
+        }
+        return h;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        if (set == null) {
+            set = new EntrySet();
+            entrySet = set;
+        }
+        return set;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Entry<?, ?> e
+                    && Objects.equals(get(e.getKey()), e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                IndexableMap.this.remove(((Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            IndexableMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<MapEntry<K, V>> it = entries.values().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    return it.next();
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+}
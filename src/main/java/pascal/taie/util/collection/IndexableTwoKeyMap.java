@@ -0,0 +1,272 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import pascal.taie.util.Indexer;
+import pascal.taie.util.TriFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implements {@link TwoKeyMap} as {@link IntObjectMap} of
+ * {@link IntObjectMap}s, keyed by the indexes of the keys.
+ * <p>
+ * Similar to {@link IndexMap}, this implementation requires two
+ * {@link Indexer}s, which provide unique indexes of the first keys
+ * and the second keys, respectively. The indexes should be non-negative,
+ * like those of {@link pascal.taie.util.Indexable} objects.
+ * Since the indexers maintain the mappings between objects and indexes,
+ * this map does not store the keys, and it recovers the keys from their
+ * indexes when iterating.
+ * Unlike {@link IndexMap}, the storage is proportional to the number of
+ * the mappings, instead of the universe of the keys.
+ *
+ * @param <K1> type of first keys
+ * @param <K2> type of second keys
+ * @param <V>  type of values
+ * @see Indexer
+ */
+public class IndexableTwoKeyMap<K1, K2, V> extends
+        AbstractTwoKeyMap<K1, K2, V> implements Serializable {
+
+    private final Indexer<K1> indexer1;
+
+    private final Indexer<K2> indexer2;
+
+    /**
+     * The backing map from indexes of first keys to the maps
+     * from indexes of second keys to values.
+     */
+    private final IntObjectMap<IntObjectMap<V>> map = new IntObjectMap<>();
+
+    private int size = 0;
+
+    public IndexableTwoKeyMap(Indexer<K1> indexer1, Indexer<K2> indexer2) {
+        this.indexer1 = indexer1;
+        this.indexer2 = indexer2;
+    }
+
+    @Override
+    public boolean containsKey(K1 key1) {
+        return map.containsKeyInt(indexer1.getIndex(key1));
+    }
+
+    @Override
+    @Nullable
+    public Map<K2, V> get(K1 key1) {
+        IntObjectMap<V> m = map.getInt(indexer1.getIndex(key1));
+        return m == null ? null : new MapView(m);
+    }
+
+    @Override
+    @Nullable
+    public V get(K1 key1, K2 key2) {
+        IntObjectMap<V> m = map.getInt(indexer1.getIndex(key1));
+        return m == null ? null : m.getInt(indexer2.getIndex(key2));
+    }
+
+    @Override
+    @Nullable
+    public V put(@Nonnull K1 key1, @Nonnull K2 key2, @Nonnull V value) {
+        Objects.requireNonNull(key1, NULL_KEY);
+        Objects.requireNonNull(key2, NULL_KEY);
+        Objects.requireNonNull(value, NULL_VALUE);
+        V oldV = map.computeIfAbsentInt(indexer1.getIndex(key1),
+                        __ -> new IntObjectMap<>())
+                .putInt(indexer2.getIndex(key2), value);
+        if (oldV == null) {
+            ++size;
+        }
+        return oldV;
+    }
+
+    @Override
+    public void putAll(@Nonnull K1 key1, @Nonnull Map<K2, V> map) {
+        Objects.requireNonNull(key1, NULL_KEY);
+        Objects.requireNonNull(map);
+        map.forEach((k2, v) -> put(key1, k2, v));
+    }
+
+    @Override
+    public void putAll(@Nonnull TwoKeyMap<K1, K2, V> twoKeyMap) {
+        Objects.requireNonNull(twoKeyMap);
+        twoKeyMap.forEach(this::put);
+    }
+
+    @Override
+    @Nullable
+    public V remove(K1 key1, K2 key2) {
+        int index1 = indexer1.getIndex(key1);
+        IntObjectMap<V> m = map.getInt(index1);
+        V oldV = null;
+        if (m != null) {
+            oldV = m.removeInt(indexer2.getIndex(key2));
+            if (oldV != null) {
+                --size;
+            }
+            if (m.isEmpty()) {
+                map.removeInt(index1);
+            }
+        }
+        return oldV;
+    }
+
+    @Override
+    public boolean removeAll(K1 key1) {
+        IntObjectMap<V> oldMappings = map.removeInt(indexer1.getIndex(key1));
+        if (oldMappings != null) {
+            size -= oldMappings.size();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void replaceALl(TriFunction<? super K1, ? super K2, ? super V, ? extends V> function) {
+        map.forEachInt((index1, m) -> {
+            K1 key1 = indexer1.getObject(index1);
+            m.replaceAll((index2, v) ->
+                    function.apply(key1, indexer2.getObject(index2), v));
+        });
+    }
+
+    @Override
+    public Set<K1> keySet() {
+        return Views.toMappedSet(map.keySet(), indexer1::getObject,
+                o -> {
+                    int index1 = indexOf(indexer1, o);
+                    return index1 >= 0 && map.containsKeyInt(index1);
+                });
+    }
+
+    /**
+     * @return the index of {@code key} given by {@code indexer}, or -1 if
+     * {@code key} is not of the type of the objects indexed by {@code indexer}.
+     */
+    // The cast is unchecked as K is erased; if key is not a K, the indexer
+    // throws ClassCastException when it accesses key as a K.
+    @SuppressWarnings("unchecked")
+    private static <K> int indexOf(Indexer<K> indexer, Object key) {
+        try {
+            return indexer.getIndex((K) key);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    protected Iterator<TwoKeyMap.Entry<K1, K2, V>> entryIterator() {
+        return new EntryIterator();
+    }
+
+    private final class EntryIterator implements Iterator<TwoKeyMap.Entry<K1, K2, V>> {
+
+        private final Iterator<Map.Entry<Integer, IntObjectMap<V>>> mapIt;
+
+        private K1 currKey1;
+
+        private Iterator<Map.Entry<Integer, V>> key2ValIt;
+
+        private EntryIterator() {
+            mapIt = map.entrySet().iterator();
+            key2ValIt = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return key2ValIt.hasNext() || mapIt.hasNext();
+        }
+
+        @Override
+        public TwoKeyMap.Entry<K1, K2, V> next() {
+            if (!key2ValIt.hasNext()) {
+                if (!mapIt.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var entry = mapIt.next();
+                currKey1 = indexer1.getObject(entry.getKey());
+                key2ValIt = entry.getValue().entrySet().iterator();
+            }
+            var next = key2ValIt.next();
+            return new Entry<>(currKey1,
+                    indexer2.getObject(next.getKey()), next.getValue());
+        }
+    }
+
+    /**
+     * Unmodifiable view of the mappings of a first key.
+     */
+    private final class MapView extends AbstractMap<K2, V> {
+
+        private final IntObjectMap<V> m;
+
+        private MapView(IntObjectMap<V> m) {
+            this.m = m;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public V get(Object key) {
+            int index2 = indexOf(indexer2, key);
+            return index2 >= 0 ? m.getInt(index2) : null;
+        }
+
+        @Override
+        public int size() {
+            return m.size();
+        }
+
+        @Override
+        public Set<Map.Entry<K2, V>> entrySet() {
+            return Views.toMappedSet(m.entrySet(),
+                    e -> new ImmutableMapEntry<>(
+                            indexer2.getObject(e.getKey()), e.getValue()),
+                    o -> o instanceof Map.Entry<?, ?> e
+                            && Objects.equals(get(e.getKey()), e.getValue()));
+        }
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import javax.annotation.Nonnull;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Open-addressing map from {@code int} keys to {@code int} values,
+ * which stores the keys and the values in two parallel {@code int} arrays
+ * and resolves collisions by linear probing.
+ * <p>
+ * Key {@code 0} marks the free slots of the table, thus the mapping of
+ * key {@code 0} (if any) is kept out of the table. The removal shifts
+ * the following mappings backward, so that no removed slots are left.
+ * <p>
+ * The absent keys are regarded as mapped to the <i>missing value</i>
+ * of this map (given when creating the map, {@code 0} by default),
+ * which is returned by {@link #get(int)}, {@link #put(int, int)} and
+ * {@link #remove(int)} when the key is absent.
+ */
+public class IntIntMap implements Serializable {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 8;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int missingValue;
+
+    private int[] keys;
+
+    private int[] values;
+
+    /**
+     * Number of the mappings in the table,
+     * i.e., excluding the mapping of key {@code 0}.
+     */
+    private int tableSize = 0;
+
+    private int threshold;
+
+    private boolean hasZeroKey = false;
+
+    private int zeroValue;
+
+    public IntIntMap() {
+        this(DEFAULT_EXPECTED_SIZE, 0);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} mappings
+     * without rehashing.
+     *
+     * @param missingValue the value regarded as mapped by absent keys.
+     */
+    public IntIntMap(int expectedSize, int missingValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected size: " + expectedSize);
+        }
+        this.missingValue = missingValue;
+        this.zeroValue = missingValue;
+        allocate(IntObjectMap.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        threshold = capacity == MAX_CAPACITY ?
+                capacity - 1 : capacity / 4 * 3;
+    }
+
+    /**
+     * @return the slot of given non-zero key, or -1 if the key is absent.
+     */
+    private int slotOf(int key) {
+        int mask = keys.length - 1;
+        for (int i = IntObjectMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @return the slot of given non-zero key if it is present; otherwise,
+     * {@code -(insertion slot) - 1}.
+     */
+    private int probe(int key) {
+        int mask = keys.length - 1;
+        for (int i = IntObjectMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == 0) {
+                return -i - 1;
+            }
+        }
+    }
+
+    public int getMissingValue() {
+        return missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * @return the value to which given key is mapped, or the missing value
+     * if this map contains no mapping for the key.
+     */
+    public int get(int key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    /**
+     * Associates given value with given key in this map.
+     *
+     * @return the previous value associated with the key,
+     * or the missing value if there was no mapping for the key.
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int oldV = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return oldV;
+        }
+        int slot = probe(key);
+        if (slot >= 0) {
+            int oldV = values[slot];
+            values[slot] = value;
+            return oldV;
+        }
+        insert(-slot - 1, key, value);
+        return missingValue;
+    }
+
+    /**
+     * Adds {@code delta} to the value associated with given key, or
+     * associates {@code delta} with the key if it is absent.
+     *
+     * @return the new value associated with the key.
+     */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? zeroValue + delta : delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int slot = probe(key);
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+        insert(-slot - 1, key, delta);
+        return delta;
+    }
+
+    private void insert(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++tableSize > threshold) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("IntIntMap is full");
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = IntObjectMap.hash(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for given key from this map if it is present.
+     *
+     * @return the previous value associated with the key,
+     * or the missing value if there was no mapping for the key.
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            int oldV = zeroValue;
+            hasZeroKey = false;
+            zeroValue = missingValue;
+            return oldV;
+        }
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return missingValue;
+        }
+        int oldV = values[slot];
+        shiftBackward(slot);
+        --tableSize;
+        return oldV;
+    }
+
+    /**
+     * Frees given slot, and moves the following mappings on the same
+     * probing cluster backward to fill the gap, if their home slots
+     * are not between the gap and their current slots (cyclically).
+     */
+    private void shiftBackward(int gap) {
+        int mask = keys.length - 1;
+        for (int i = (gap + 1) & mask; ; i = (i + 1) & mask) {
+            int key = keys[i];
+            if (key == 0) {
+                break;
+            }
+            int home = IntObjectMap.hash(key) & mask;
+            // checks whether home is cyclically in (gap, i]
+            boolean stays = gap <= i ?
+                    gap < home && home <= i :
+                    gap < home || home <= i;
+            if (!stays) {
+                keys[gap] = key;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+    }
+
+    public void clear() {
+        if (tableSize > 0) {
+            Arrays.fill(keys, 0);
+            tableSize = 0;
+        }
+        hasZeroKey = false;
+        zeroValue = missingValue;
+    }
+
+    public int size() {
+        return hasZeroKey ? tableSize + 1 : tableSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Action on the mappings of {@link IntIntMap}.
+     */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+
+        void accept(int key, int value);
+    }
+
+    /**
+     * Performs given action for each mapping in this map.
+     * The action should not modify this map.
+     */
+    public void forEach(@Nonnull IntIntConsumer action) {
+        Objects.requireNonNull(action);
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntIntMap that)) {
+            return false;
+        }
+        if (size() != that.size()
+                || hasZeroKey && (!that.hasZeroKey || zeroValue != that.zeroValue)) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; ++i) {
+            int key = keys[i];
+            if (key != 0) {
+                int slot = that.slotOf(key);
+                if (slot < 0 || that.values[slot] != values[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] h = {0};
+        forEach((k, v) -> h[0] += k ^ v);
+        return h[0];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+}
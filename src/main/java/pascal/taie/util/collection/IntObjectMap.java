@@ -0,0 +1,522 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Open-addressing implementation of the {@link Map} interface
+ * whose keys are {@code int}s.
+ * <p>
+ * This implementation stores the keys in an {@code int} array and the values
+ * in a parallel array, and resolves collisions by linear probing, thus it
+ * does not box the keys or allocate any entry objects. Besides the methods
+ * of {@link Map}, it provides the counterparts that take primitive keys,
+ * whose names end with {@code Int} (e.g., {@link #getInt(int)} and
+ * {@link #putInt(int, Object)}), which should be preferred by the
+ * performance-sensitive code. They are not overloads of the methods of
+ * {@link Map}, as such overloads are ambiguous for some calls, e.g.,
+ * {@code put(1, v)} on an {@code IntObjectMap<Integer>} with {@code int v}.
+ * <p>
+ * This map does not permit {@code null} keys or {@code null} values,
+ * as a {@code null} value marks a free slot of the table.
+ *
+ * @param <V> the type of mapped values
+ */
+public class IntObjectMap<V> extends AbstractMap<Integer, V>
+        implements Serializable {
+
+    private static final String NULL_KEY_MSG = "IntObjectMap does not permit null keys";
+
+    private static final String NULL_VALUE_MSG = "IntObjectMap does not permit null values";
+
+    private static final int DEFAULT_EXPECTED_SIZE = 8;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Marks the slots whose mappings have been removed, so that the probing
+     * of the keys after such slots does not stop early.
+     * It is an enum so that the marker is kept by serialization.
+     */
+    private enum Tombstone {
+        REMOVED
+    }
+
+    private int[] keys;
+
+    /**
+     * The values of the slots. Each element is {@code null} (free slot),
+     * {@link Tombstone#REMOVED} (removed slot) or a value of this map.
+     */
+    private Object[] values;
+
+    private int size = 0;
+
+    /**
+     * Number of non-free slots, i.e., the mappings and the removed slots.
+     */
+    private int used = 0;
+
+    /**
+     * When {@link #used} exceeds this threshold, the table is rehashed.
+     */
+    private int threshold;
+
+    /**
+     * Number of structural modifications, for detecting concurrent
+     * modifications during iteration.
+     */
+    private transient int modCount = 0;
+
+    /**
+     * The cache of {@link IntObjectMap#entrySet()}.
+     */
+    private transient Set<Entry<Integer, V>> entrySet;
+
+    public IntObjectMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} mappings
+     * without rehashing.
+     */
+    public IntObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected size: " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return the power-of-two capacity whose 3/4 is enough for
+     * {@code expectedSize} mappings.
+     */
+    static int capacityFor(int expectedSize) {
+        long n = Math.max(4, expectedSize + expectedSize / 3 + 1L);
+        return n >= MAX_CAPACITY ? MAX_CAPACITY :
+                Integer.highestOneBit((int) n - 1) << 1;
+    }
+
+    /**
+     * Spreads the bits of given key, so that the consecutive keys
+     * (e.g., indexes of objects) do not cluster in the table.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        threshold = capacity == MAX_CAPACITY ?
+                capacity - 1 : capacity / 4 * 3;
+    }
+
+    /**
+     * @return the slot of given key, or -1 if the key is absent.
+     */
+    private int slotOf(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object v = values[i];
+            if (v == null) {
+                return -1;
+            }
+            if (keys[i] == key && v != Tombstone.REMOVED) {
+                return i;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    public boolean containsKeyInt(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer i && containsKeyInt(i);
+    }
+
+    /**
+     * @return the value to which given key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     */
+    @Nullable
+    public V getInt(int key) {
+        int slot = slotOf(key);
+        return slot >= 0 ? valueAt(slot) : null;
+    }
+
+    @Override
+    @Nullable
+    public V get(Object key) {
+        return key instanceof Integer i ? getInt(i) : null;
+    }
+
+    public V getOrDefaultInt(int key, V defaultValue) {
+        V v = getInt(key);
+        return v != null ? v : defaultValue;
+    }
+
+    /**
+     * Associates given value with given key in this map.
+     *
+     * @return the previous value associated with the key,
+     * or {@code null} if there was no mapping for the key.
+     */
+    @Nullable
+    public V putInt(int key, @Nonnull V value) {
+        Objects.requireNonNull(value, NULL_VALUE_MSG);
+        int mask = keys.length - 1;
+        int removed = -1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object v = values[i];
+            if (v == null) {
+                if (removed >= 0) {
+                    // reuses the first removed slot on the probing path
+                    i = removed;
+                } else {
+                    ++used;
+                }
+                keys[i] = key;
+                values[i] = value;
+                ++size;
+                ++modCount;
+                if (used > threshold) {
+                    rehash();
+                }
+                return null;
+            }
+            if (v == Tombstone.REMOVED) {
+                if (removed < 0) {
+                    removed = i;
+                }
+            } else if (keys[i] == key) {
+                values[i] = value;
+                @SuppressWarnings("unchecked")
+                V oldV = (V) v;
+                return oldV;
+            }
+        }
+    }
+
+    @Override
+    @Nullable
+    public V put(@Nonnull Integer key, @Nonnull V value) {
+        Objects.requireNonNull(key, NULL_KEY_MSG);
+        return putInt(key, value);
+    }
+
+    /**
+     * If given key is absent in this map, computes its value by
+     * {@code mappingFunction} and enters it into this map unless
+     * it is {@code null}.
+     *
+     * @return the current (existing or computed) value associated with
+     * the key, or {@code null} if the computed value is {@code null}.
+     */
+    public V computeIfAbsentInt(int key,
+                                @Nonnull IntFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V v = getInt(key);
+        if (v == null) {
+            v = mappingFunction.apply(key);
+            if (v != null) {
+                putInt(key, v);
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Rebuilds the table to drop the removed slots, and doubles
+     * the capacity if the mappings occupy over half of the table.
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldKeys.length;
+        if (size >= threshold / 2 && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        } else if (size >= threshold) {
+            throw new IllegalStateException("IntObjectMap is full");
+        }
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            Object v = oldValues[j];
+            if (v != null && v != Tombstone.REMOVED) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = v;
+            }
+        }
+        used = size;
+    }
+
+    /**
+     * Removes the mapping for given key from this map if it is present.
+     *
+     * @return the previous value associated with the key,
+     * or {@code null} if there was no mapping for the key.
+     */
+    @Nullable
+    public V removeInt(int key) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            V oldV = valueAt(slot);
+            removeAt(slot);
+            return oldV;
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public V remove(Object key) {
+        return key instanceof Integer i ? removeInt(i) : null;
+    }
+
+    private void removeAt(int slot) {
+        values[slot] = Tombstone.REMOVED;
+        --size;
+        ++modCount;
+    }
+
+    @Override
+    public void clear() {
+        if (used > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+            used = 0;
+            ++modCount;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Action on the mappings of {@link IntObjectMap}.
+     */
+    @FunctionalInterface
+    public interface IntObjectConsumer<V> {
+
+        void accept(int key, V value);
+    }
+
+    /**
+     * Performs given action for each mapping in this map,
+     * without boxing the keys.
+     */
+    public void forEachInt(@Nonnull IntObjectConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int i = 0; i < values.length; ++i) {
+            Object v = values[i];
+            if (v != null && v != Tombstone.REMOVED) {
+                action.accept(keys[i], valueAt(i));
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns the hash code value for this map, which is computed as
+     * specified by {@link Map#hashCode()}, without creating the entries.
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < values.length; ++i) {
+            Object v = values[i];
+            if (v != null && v != Tombstone.REMOVED) {
+                h += keys[i] ^ v.hashCode();
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        Set<Entry<Integer, V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<Integer, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Map.Entry<?, ?> e) {
+                V value = IntObjectMap.this.get(e.getKey());
+                return value != null && value.equals(e.getValue());
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                IntObjectMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            IntObjectMap.this.clear();
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<Entry<Integer, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<Integer, V>> {
+
+        /**
+         * Slot of the next mapping; -1 if no such.
+         */
+        private int next;
+
+        /**
+         * Slot of the last returned mapping; -1 if no such.
+         */
+        private int lastRet = -1;
+
+        private int expectedModCount = modCount;
+
+        private EntryIterator() {
+            next = nextSlot(0);
+        }
+
+        /**
+         * @return the first slot on or after {@code fromSlot} that holds
+         * a mapping, or -1 if no such slot.
+         */
+        private int nextSlot(int fromSlot) {
+            for (int i = fromSlot; i < values.length; ++i) {
+                Object v = values[i];
+                if (v != null && v != Tombstone.REMOVED) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != -1;
+        }
+
+        @Override
+        public Entry<Integer, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            int i = next;
+            if (i == -1) {
+                throw new NoSuchElementException();
+            }
+            next = nextSlot(i + 1);
+            lastRet = i;
+            return new SlotEntry(i);
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == -1) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            // removing a mapping only marks its slot, thus it does not
+            // move the mappings that are not iterated yet
+            removeAt(lastRet);
+            expectedModCount = modCount;
+            lastRet = -1;
+        }
+    }
+
+    /**
+     * Entry that writes through to the slot of this map.
+     */
+    private final class SlotEntry extends MapEntry<Integer, V> {
+
+        private final int slot;
+
+        private SlotEntry(int slot) {
+            super(keys[slot], valueAt(slot));
+            this.slot = slot;
+        }
+
+        @Override
+        public V setValue(V value) {
+            Objects.requireNonNull(value, NULL_VALUE_MSG);
+            values[slot] = value;
+            return super.setValue(value);
+        }
+    }
+}
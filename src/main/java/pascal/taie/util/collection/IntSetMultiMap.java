@@ -0,0 +1,77 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import pascal.taie.util.function.SSupplier;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * An implementation of {@link MultiMap} whose keys are {@code int}s.
+ * It is a {@link MapSetMultiMap} backed by an {@link IntObjectMap},
+ * and it provides the queries that take primitive keys, whose names end
+ * with {@code Int} (like the ones of {@link IntObjectMap}).
+ *
+ * @param <V> type of the values in this map
+ */
+public class IntSetMultiMap<V> extends MapSetMultiMap<Integer, V> {
+
+    /**
+     * The backing map, shared with the super class.
+     */
+    private final IntObjectMap<Set<V>> map;
+
+    public IntSetMultiMap() {
+        this(Sets::newHybridSet);
+    }
+
+    public IntSetMultiMap(SSupplier<Set<V>> setFactory) {
+        this(new IntObjectMap<>(), setFactory);
+    }
+
+    private IntSetMultiMap(IntObjectMap<Set<V>> map,
+                           SSupplier<Set<V>> setFactory) {
+        super(map, setFactory);
+        this.map = map;
+    }
+
+    public boolean containsInt(int key, V value) {
+        Set<V> values = map.getInt(key);
+        return values != null && values.contains(value);
+    }
+
+    public boolean containsKeyInt(int key) {
+        return map.containsKeyInt(key);
+    }
+
+    /**
+     * @return an unmodifiable view of the values associated with given key,
+     * or an empty set if this map contains no mapping for the key.
+     */
+    public Set<V> getInt(int key) {
+        Set<V> values = map.getInt(key);
+        return values == null ? Set.of() :
+                Collections.unmodifiableSet(values);
+    }
+}
@@ -22,6 +22,8 @@
 
 package pascal.taie.util.collection;
 
+import pascal.taie.util.Indexable;
+import pascal.taie.util.Indexer;
 import pascal.taie.util.function.SSupplier;
 
 import java.util.Collections;
@@ -94,6 +96,48 @@ public final class Maps {
         return new ConcurrentHashMap<>(initialCapacity);
     }
 
+    /**
+     * Creates a map whose keys are indexed by {@code indexer}, which stores
+     * the values in an array instead of hashing the keys.
+     * It suits the maps whose keys cover most of the universe.
+     *
+     * @param universe the number of objects indexed by {@code indexer}.
+     * @see IndexMap
+     */
+    public static <K, V> Map<K, V> newMap(Indexer<K> indexer, int universe) {
+        return new IndexMap<>(indexer, universe);
+    }
+
+    /**
+     * Creates a map whose keys are {@link Indexable}, which looks up
+     * the keys by their indexes. The indexes of the keys must be unique
+     * in the map, e.g., the keys are pointers or objects of pointer analysis.
+     *
+     * @see IndexableMap
+     */
+    public static <K extends Indexable, V> Map<K, V> newIndexableMap() {
+        return new IndexableMap<>();
+    }
+
+    /**
+     * @see #newIndexableMap()
+     */
+    public static <K extends Indexable, V> Map<K, V> newIndexableMap(int expectedSize) {
+        return new IndexableMap<>(expectedSize);
+    }
+
+    public static <V> IntObjectMap<V> newIntObjectMap() {
+        return new IntObjectMap<>();
+    }
+
+    public static <V> IntObjectMap<V> newIntObjectMap(int expectedSize) {
+        return new IntObjectMap<>(expectedSize);
+    }
+
+    public static IntIntMap newIntIntMap() {
+        return new IntIntMap();
+    }
+
     public static <K, V> MultiMap<K, V> newMultiMap(Map<K, Set<V>> map,
                                                     SSupplier<Set<V>> setFactory) {
         return new MapSetMultiMap<>(map, setFactory);
@@ -116,6 +160,29 @@ public final class Maps {
                 newMap(initialCapacity), Sets::newHybridSet);
     }
 
+    /**
+     * Creates a multimap whose keys are indexed by {@code indexer}.
+     *
+     * @param universe the number of objects indexed by {@code indexer}.
+     * @see #newMap(Indexer, int)
+     */
+    public static <K, V> MultiMap<K, V> newMultiMap(Indexer<K> indexer, int universe) {
+        return newMultiMap(newMap(indexer, universe), Sets::newHybridSet);
+    }
+
+    /**
+     * Creates a multimap whose keys are {@link Indexable}.
+     *
+     * @see #newIndexableMap()
+     */
+    public static <K extends Indexable, V> MultiMap<K, V> newIndexableMultiMap() {
+        return newMultiMap(newIndexableMap(), Sets::newHybridSet);
+    }
+
+    public static <V> IntSetMultiMap<V> newIntSetMultiMap() {
+        return new IntSetMultiMap<>();
+    }
+
     public static <K, V> MultiMap<K, V> unmodifiableMultiMap(MultiMap<K, V> map) {
         if (map instanceof UnmodifiableMultiMap<K, V>) {
             return map;
@@ -141,6 +208,28 @@ public final class Maps {
         return new MapMapTwoKeyMap<>(map1, map2Factory);
     }
 
+    /**
+     * Creates a two-key map whose keys are indexed by {@code indexer1}
+     * and {@code indexer2}, which does not hash or store the keys.
+     *
+     * @see IndexableTwoKeyMap
+     */
+    public static <K1, K2, V> TwoKeyMap<K1, K2, V> newTwoKeyMap(
+            Indexer<K1> indexer1, Indexer<K2> indexer2) {
+        return new IndexableTwoKeyMap<>(indexer1, indexer2);
+    }
+
+    /**
+     * Creates a two-key map whose first keys are {@link Indexable}.
+     * If the second keys also have an {@link Indexer}, prefer
+     * {@link #newTwoKeyMap(Indexer, Indexer)}.
+     *
+     * @see #newIndexableMap()
+     */
+    public static <K1 extends Indexable, K2, V> TwoKeyMap<K1, K2, V> newIndexableTwoKeyMap() {
+        return newTwoKeyMap(newIndexableMap(), Maps::newHybridMap);
+    }
+
     public static <K1, K2, V> TwoKeyMultiMap<K1, K2, V> newTwoKeyMultiMap() {
         return new MapMultiMapTwoKeyMultiMap<>(newMap(), Maps::newMultiMap);
     }
@@ -358,9 +358,7 @@ public class RegularBitSet extends AbstractBitSet
             return false;
         }
         if (!(set instanceof RegularBitSet other)) {
-            throw new UnsupportedOperationException(
-                    String.format("%s does not support AND with %s",
-                            this.getClass(), set.getClass()));
+            return super.and(set);
         }
 
         boolean changed = false;
@@ -404,18 +402,8 @@ public class RegularBitSet extends AbstractBitSet
 
         // Perform logical (a & !b) on words in common
         int wordsInCommon = Math.min(wordsInUse, other.wordsInUse);
-        for (int i = wordsInCommon - 1; i >= 0; i--) {
-            if (changed) {
-                words[i] &= ~other.words[i];
-            } else {
-                long oldWord = words[i];
-                long newWord = oldWord & ~other.words[i];
-                if (oldWord != newWord) {
-                    words[i] = newWord;
-                    changed = true;
-                }
-            }
-        }
+        changed = BitOps.isChanged(
+                BitOps.andNot(words, other.words, 0, wordsInCommon));
 
         recalculateWordsInUse();
         checkInvariants();
@@ -441,19 +429,8 @@ public class RegularBitSet extends AbstractBitSet
         }
 
         // Perform logical OR on words in common
-        for (int i = 0; i < wordsInCommon; i++) {
-            if (changed) {
-                // already know set changed, just perform logical OR
-                words[i] |= other.words[i];
-            } else {
-                long oldWord = words[i];
-                long newWord = oldWord | other.words[i];
-                if (oldWord != newWord) {
-                    words[i] = newWord;
-                    changed = true;
-                }
-            }
-        }
+        changed |= BitOps.isChanged(
+                BitOps.or(words, other.words, 0, wordsInCommon));
 
         // Copy any remaining words
         if (wordsInCommon < other.wordsInUse) {
@@ -480,21 +457,16 @@ public class RegularBitSet extends AbstractBitSet
             ensureCapacity(other.wordsInUse);
             wordsInUse = other.wordsInUse;
         }
-        boolean foundNonZero = false;
-        for (int i = other.wordsInUse - 1; i >= 0; --i) {
-            long oldWord = words[i];
-            long otherWord = other.words[i];
-            words[i] = oldWord | otherWord;
-            // compute diff
-            long diffWord = otherWord & ~oldWord;
-            if (diffWord != 0) {
-                if (!foundNonZero) {
-                    diff.ensureCapacity(i + 1);
-                    diff.wordsInUse = i + 1;
-                    foundNonZero = true;
-                }
-                diff.words[i] = diffWord;
-            }
+        // find the highest word of diff, above which the words
+        // of other set are already contained in this set
+        int top = other.wordsInUse - 1;
+        while (top >= 0 && (other.words[top] & ~words[top]) == 0) {
+            --top;
+        }
+        if (top >= 0) {
+            diff.ensureCapacity(top + 1);
+            diff.wordsInUse = top + 1;
+            BitOps.orDiff(words, other.words, diff.words, 0, top + 1);
         }
         return diff;
     }
@@ -0,0 +1,1634 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Compressed bit set implementation based on the design of Roaring bitmaps.
+ * <p>
+ * The bit indexes are partitioned into chunks of 2^16 bits by their high
+ * 16 bits, and the low 16 bits of the set bits in each non-empty chunk
+ * are stored in a container, which is one of the following kinds,
+ * whichever is the most compact for the contents of the chunk:
+ * <ul>
+ *     <li>array container: a sorted array of the set bits, for the chunks
+ *     that have at most {@link #ARRAY_MAX_SIZE} set bits;</li>
+ *     <li>bitmap container: an array of 1024 words;</li>
+ *     <li>run container: a sorted array of the runs of consecutive set bits,
+ *     which compresses dense runs, e.g., the indexes of the objects
+ *     created by the same allocation sites.</li>
+ * </ul>
+ * Bulk operations between two roaring bit sets work on the pairs of
+ * containers of the same chunks, and the kinds of the resulting containers
+ * are chosen after the operations. Bulk operations with other kinds of
+ * bit sets fall back to the bit-by-bit implementations of
+ * {@link AbstractBitSet}.
+ */
+public class RoaringBitSet extends AbstractBitSet
+        implements Serializable {
+
+    private static final int CHUNK_BITS = 16;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int LOW_MASK = CHUNK_SIZE - 1;
+
+    private static final int BITMAP_WORDS = CHUNK_SIZE / BITS_PER_WORD;
+
+    /**
+     * Maximum number of set bits in an array container.
+     */
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Sorted high 16 bits of the chunks in this set.
+     */
+    private char[] keys;
+
+    /**
+     * Containers of the chunks, which are never empty.
+     */
+    private Container[] containers;
+
+    /**
+     * Number of the containers in this set.
+     */
+    private int size = 0;
+
+    /**
+     * Creates a new bit set. All bits are initially {@code false}.
+     */
+    public RoaringBitSet() {
+        keys = new char[INITIAL_CAPACITY];
+        containers = new Container[INITIAL_CAPACITY];
+    }
+
+    private static int high(int bitIndex) {
+        return bitIndex >>> CHUNK_BITS;
+    }
+
+    private static int low(int bitIndex) {
+        return bitIndex & LOW_MASK;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0) {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    /**
+     * @return index of the container of given key if it exists;
+     * otherwise, {@code -(insertion point) - 1}.
+     */
+    private int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, size, (char) key);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (keys.length < capacity) {
+            int newCapacity = Math.max(keys.length * 2, capacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+    }
+
+    private void insertAt(int i, int key, Container c) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = (char) key;
+        containers[i] = c;
+        ++size;
+    }
+
+    private void append(int key, Container c) {
+        ensureCapacity(size + 1);
+        keys[size] = (char) key;
+        containers[size] = c;
+        ++size;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * Removes empty containers.
+     */
+    private void removeEmptyContainers() {
+        int k = 0;
+        for (int i = 0; i < size; ++i) {
+            if (containers[i].cardinality() > 0) {
+                keys[k] = keys[i];
+                containers[k++] = containers[i];
+            }
+        }
+        Arrays.fill(containers, k, size, null);
+        size = k;
+    }
+
+    @Override
+    public boolean set(int bitIndex) {
+        checkIndex(bitIndex);
+        int key = high(bitIndex);
+        int i = indexOf(key);
+        if (i >= 0) {
+            Container c = containers[i];
+            int oldCard = c.cardinality();
+            c = c.add(low(bitIndex));
+            containers[i] = c;
+            return c.cardinality() != oldCard;
+        } else {
+            insertAt(-i - 1, key, new ArrayContainer(low(bitIndex)));
+            return true;
+        }
+    }
+
+    @Override
+    public boolean clear(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = indexOf(high(bitIndex));
+        if (i < 0) {
+            return false;
+        }
+        Container c = containers[i];
+        int oldCard = c.cardinality();
+        c = c.remove(low(bitIndex));
+        if (c.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = c;
+        }
+        return c.cardinality() != oldCard;
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = indexOf(high(bitIndex));
+        return i >= 0 && containers[i].contains(low(bitIndex));
+    }
+
+    @Override
+    public void flip(int bitIndex) {
+        if (!clear(bitIndex)) {
+            set(bitIndex);
+        }
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int key = high(fromIndex);
+        int i = indexOf(key);
+        if (i >= 0) {
+            int next = containers[i].nextSet(low(fromIndex));
+            if (next >= 0) {
+                return (key << CHUNK_BITS) | next;
+            }
+            ++i;
+        } else {
+            i = -i - 1;
+        }
+        return i < size ? (keys[i] << CHUNK_BITS) | containers[i].first() : -1;
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int key = high(fromIndex);
+        int i = indexOf(key);
+        if (i < 0) {
+            return fromIndex;
+        }
+        int next = containers[i].nextClear(low(fromIndex));
+        while (next == CHUNK_SIZE) {
+            // the rest of the chunk is full, continue from the next chunk
+            ++key;
+            if (++i == size || keys[i] != key) {
+                return key << CHUNK_BITS;
+            }
+            next = containers[i].nextClear(0);
+        }
+        return (key << CHUNK_BITS) | next;
+    }
+
+    @Override
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        int key = high(fromIndex);
+        int i = indexOf(key);
+        if (i >= 0) {
+            int prev = containers[i].previousSet(low(fromIndex));
+            if (prev >= 0) {
+                return (key << CHUNK_BITS) | prev;
+            }
+            --i;
+        } else {
+            i = -i - 2;
+        }
+        return i >= 0 ? (keys[i] << CHUNK_BITS) | containers[i].last() : -1;
+    }
+
+    @Override
+    public int previousClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        int key = high(fromIndex);
+        int i = indexOf(key);
+        if (i < 0) {
+            return fromIndex;
+        }
+        int prev = containers[i].previousClear(low(fromIndex));
+        while (prev == -1) {
+            // the beginning of the chunk is full, continue from the previous chunk
+            if (key == 0) {
+                return -1;
+            }
+            --key;
+            if (--i < 0 || keys[i] != key) {
+                return (key << CHUNK_BITS) | LOW_MASK;
+            }
+            prev = containers[i].previousClear(LOW_MASK);
+        }
+        return (key << CHUNK_BITS) | prev;
+    }
+
+    @Override
+    public boolean intersects(IBitSet set) {
+        if (this == set) {
+            return !isEmpty();
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.intersects(set);
+        }
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                ++i;
+            } else if (keys[i] > other.keys[j]) {
+                ++j;
+            } else {
+                if (intersects(containers[i++], other.containers[j++])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(IBitSet set) {
+        if (this == set) {
+            return true;
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.contains(set);
+        }
+        int i = 0;
+        for (int j = 0; j < other.size; ++j) {
+            while (i < size && keys[i] < other.keys[j]) {
+                ++i;
+            }
+            if (i == size || keys[i] != other.keys[j]
+                    || !contains(containers[i], other.containers[j])) {
+                return false;
+            }
+            ++i;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean and(IBitSet set) {
+        if (this == set) {
+            return false;
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.and(set);
+        }
+        boolean changed = false;
+        int j = 0;
+        for (int i = 0; i < size; ++i) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                ++j;
+            }
+            Container c = containers[i];
+            int oldCard = c.cardinality();
+            if (j < other.size && other.keys[j] == keys[i]) {
+                c = and(c, other.containers[j]);
+                containers[i] = c;
+                changed |= c.cardinality() != oldCard;
+            } else {
+                // marks the container to be removed
+                containers[i] = EMPTY;
+                changed = true;
+            }
+        }
+        removeEmptyContainers();
+        return changed;
+    }
+
+    @Override
+    public boolean andNot(IBitSet set) {
+        if (this == set) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.andNot(set);
+        }
+        boolean changed = false;
+        boolean hasEmpty = false;
+        int j = 0;
+        for (int i = 0; i < size && j < other.size; ++i) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                ++j;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                Container c = containers[i];
+                int oldCard = c.cardinality();
+                c = andNot(c, other.containers[j]);
+                containers[i] = c;
+                if (c.cardinality() != oldCard) {
+                    changed = true;
+                    hasEmpty |= c.cardinality() == 0;
+                }
+            }
+        }
+        if (hasEmpty) {
+            removeEmptyContainers();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean or(IBitSet set) {
+        if (this == set) {
+            return false;
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            return super.or(set);
+        }
+        return or(other, null);
+    }
+
+    @Override
+    public IBitSet orDiff(IBitSet set) {
+        RoaringBitSet diff = new RoaringBitSet();
+        if (this == set) {
+            return diff;
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+                if (set(i)) {
+                    diff.set(i);
+                }
+                if (i == Integer.MAX_VALUE) {
+                    break;
+                }
+            }
+            return diff;
+        }
+        or(other, diff);
+        return diff;
+    }
+
+    /**
+     * Performs a logical <b>OR</b> of this bit set with {@code other}.
+     *
+     * @param diff if it is not {@code null}, the bits that are set in
+     *             {@code other} and were not set in this set are added to it.
+     * @return {@code true} if this bit set changed as a result of the call
+     */
+    private boolean or(RoaringBitSet other, RoaringBitSet diff) {
+        int missing = 0;
+        for (int i = 0, j = 0; j < other.size; ++j) {
+            while (i < size && keys[i] < other.keys[j]) {
+                ++i;
+            }
+            if (i == size || keys[i] != other.keys[j]) {
+                ++missing;
+            }
+        }
+        char[] newKeys = keys;
+        Container[] newContainers = containers;
+        if (missing > 0) {
+            // merges the containers into new arrays
+            newKeys = new char[size + missing];
+            newContainers = new Container[size + missing];
+        }
+        boolean changed = false;
+        int i = 0, j = 0, k = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                newKeys[k] = keys[i];
+                newContainers[k++] = containers[i++];
+            } else if (i == size || keys[i] > other.keys[j]) {
+                Container c = other.containers[j];
+                newKeys[k] = other.keys[j];
+                newContainers[k++] = c.copy().optimize();
+                if (diff != null) {
+                    diff.append(other.keys[j], c.copy());
+                }
+                changed = true;
+                ++j;
+            } else {
+                Container c = containers[i];
+                Container o = other.containers[j];
+                int oldCard = c.cardinality();
+                if (diff != null) {
+                    Container d = andNot(o.copy(), c);
+                    if (d.cardinality() > 0) {
+                        diff.append(other.keys[j], d);
+                    }
+                }
+                c = or(c, o);
+                newKeys[k] = keys[i];
+                newContainers[k++] = c;
+                changed |= c.cardinality() != oldCard;
+                ++i;
+                ++j;
+            }
+        }
+        keys = newKeys;
+        containers = newContainers;
+        size = k;
+        return changed;
+    }
+
+    @Override
+    public boolean xor(IBitSet set) {
+        if (this == set) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        return super.xor(set);
+    }
+
+    @Override
+    public void setTo(IBitSet set) {
+        if (this == set) {
+            return;
+        }
+        if (!(set instanceof RoaringBitSet other)) {
+            super.setTo(set);
+            return;
+        }
+        clear();
+        ensureCapacity(other.size);
+        for (int i = 0; i < other.size; ++i) {
+            keys[i] = other.keys[i];
+            containers[i] = other.containers[i].copy();
+        }
+        size = other.size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public <R> R iterateBits(Action<R> action) {
+        for (int i = 0; i < size; ++i) {
+            if (!containers[i].forEach(keys[i] << CHUNK_BITS, action)) {
+                break;
+            }
+        }
+        return action.getResult();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int length() {
+        if (size == 0) {
+            return 0;
+        }
+        return ((keys[size - 1] << CHUNK_BITS) | containers[size - 1].last()) + 1;
+    }
+
+    /**
+     * @return the number of bits used by the containers to represent
+     * the bit values.
+     */
+    @Override
+    public int size() {
+        int bits = 0;
+        for (int i = 0; i < size; ++i) {
+            bits += containers[i].sizeInBits();
+        }
+        return bits;
+    }
+
+    @Override
+    public int cardinality() {
+        int card = 0;
+        for (int i = 0; i < size; ++i) {
+            card += containers[i].cardinality();
+        }
+        return card;
+    }
+
+    /**
+     * Returns the hash code value for this bit set. The hash code
+     * is the same as the one of {@link RegularBitSet} with the same bits.
+     */
+    @Override
+    public int hashCode() {
+        long h = 1234;
+        for (int i = 0; i < size; ++i) {
+            h = containers[i].hash(h, keys[i] * BITMAP_WORDS);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RoaringBitSet other) || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; ++i) {
+            if (keys[i] != other.keys[i]
+                    || containers[i].cardinality() != other.containers[i].cardinality()
+                    || !contains(containers[i], other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public RoaringBitSet copy() {
+        RoaringBitSet copy = new RoaringBitSet();
+        copy.setTo(this);
+        return copy;
+    }
+
+    // ------------------------------------------------------------------------
+    // operations on containers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Marks the containers to be removed.
+     */
+    private static final Container EMPTY = new ArrayContainer(new char[0], 0);
+
+    /**
+     * Computes the union of two containers. This method may modify
+     * {@code c1}, and never modifies {@code c2}.
+     *
+     * @return the union, which is never {@code c2}.
+     */
+    private static Container or(Container c1, Container c2) {
+        if (c1 instanceof BitmapContainer b1) {
+            if (c2 instanceof ArrayContainer a2) {
+                for (int i = 0; i < a2.card; ++i) {
+                    b1.add(a2.content[i]);
+                }
+                return b1;
+            }
+            int oldCard = b1.card;
+            c2.orInto(b1.words);
+            b1.recount();
+            return b1.card != oldCard ? b1.optimize() : b1;
+        }
+        if (c2 instanceof BitmapContainer b2) {
+            BitmapContainer result = b2.copy();
+            c1.orInto(result.words);
+            result.recount();
+            return result.optimize();
+        }
+        if (c1 instanceof ArrayContainer a1 && c2 instanceof ArrayContainer a2) {
+            return ArrayContainer.union(a1, a2).optimize();
+        }
+        return RunContainer.union(c1, c2).optimize();
+    }
+
+    /**
+     * Computes the difference of two containers, i.e., the bits in
+     * {@code c1} but not in {@code c2}. This method may modify {@code c1},
+     * and never modifies {@code c2}.
+     *
+     * @return the difference, which may be empty.
+     */
+    private static Container andNot(Container c1, Container c2) {
+        if (c1 instanceof ArrayContainer a1) {
+            a1.retain(c2, false);
+            return a1;
+        }
+        BitmapContainer result = c1 instanceof BitmapContainer b1
+                ? b1 : c1.toBitmap();
+        c2.andNotFrom(result.words);
+        result.recount();
+        return result.optimize();
+    }
+
+    /**
+     * Computes the intersection of two containers. This method may modify
+     * {@code c1}, and never modifies {@code c2}.
+     *
+     * @return the intersection, which may be empty.
+     */
+    private static Container and(Container c1, Container c2) {
+        if (c1 instanceof ArrayContainer a1) {
+            a1.retain(c2, true);
+            return a1;
+        }
+        if (c2 instanceof ArrayContainer a2) {
+            ArrayContainer result = a2.copy();
+            result.retain(c1, true);
+            return result;
+        }
+        BitmapContainer result = c1 instanceof BitmapContainer b1
+                ? b1 : c1.toBitmap();
+        long[] words = c2.toWords();
+        for (int i = 0; i < BITMAP_WORDS; ++i) {
+            result.words[i] &= words[i];
+        }
+        result.recount();
+        return result.optimize();
+    }
+
+    private static boolean intersects(Container c1, Container c2) {
+        if (c2 instanceof ArrayContainer) {
+            Container c = c1;
+            c1 = c2;
+            c2 = c;
+        }
+        if (c1 instanceof ArrayContainer a1) {
+            for (int i = 0; i < a1.card; ++i) {
+                if (c2.contains(a1.content[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long[] words1 = c1.toWords();
+        long[] words2 = c2.toWords();
+        for (int i = 0; i < BITMAP_WORDS; ++i) {
+            if ((words1[i] & words2[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if {@code c1} contains all bits in {@code c2}.
+     */
+    private static boolean contains(Container c1, Container c2) {
+        if (c1.cardinality() < c2.cardinality()) {
+            return false;
+        }
+        if (c2 instanceof ArrayContainer a2) {
+            for (int i = 0; i < a2.card; ++i) {
+                if (!c1.contains(a2.content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        long[] words1 = c1.toWords();
+        long[] words2 = c2.toWords();
+        for (int i = 0; i < BITMAP_WORDS; ++i) {
+            if ((words2[i] & ~words1[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the bits from {@code from} (inclusive) to {@code to} (inclusive).
+     */
+    private static void setRange(long[] words, int from, int to) {
+        int fromWord = from >>> ADDRESS_BITS_PER_WORD;
+        int toWord = to >>> ADDRESS_BITS_PER_WORD;
+        long fromMask = -1L << from;
+        long toMask = -1L >>> -(to + 1);
+        if (fromWord == toWord) {
+            words[fromWord] |= fromMask & toMask;
+        } else {
+            words[fromWord] |= fromMask;
+            Arrays.fill(words, fromWord + 1, toWord, -1L);
+            words[toWord] |= toMask;
+        }
+    }
+
+    /**
+     * Clears the bits from {@code from} (inclusive) to {@code to} (inclusive).
+     */
+    private static void clearRange(long[] words, int from, int to) {
+        int fromWord = from >>> ADDRESS_BITS_PER_WORD;
+        int toWord = to >>> ADDRESS_BITS_PER_WORD;
+        long fromMask = -1L << from;
+        long toMask = -1L >>> -(to + 1);
+        if (fromWord == toWord) {
+            words[fromWord] &= ~(fromMask & toMask);
+        } else {
+            words[fromWord] &= ~fromMask;
+            Arrays.fill(words, fromWord + 1, toWord, 0L);
+            words[toWord] &= ~toMask;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // containers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Container of the low 16 bits of the set bits in a chunk.
+     * The bits passed to and returned by the containers are
+     * in range [0, {@link #CHUNK_SIZE}).
+     */
+    private abstract static class Container implements Serializable {
+
+        abstract int cardinality();
+
+        abstract boolean contains(int x);
+
+        /**
+         * Sets given bit.
+         *
+         * @return the container after the modification, which may be
+         * a new container of another kind.
+         */
+        abstract Container add(int x);
+
+        /**
+         * Clears given bit.
+         *
+         * @return the container after the modification, which may be
+         * a new container of another kind.
+         */
+        abstract Container remove(int x);
+
+        /**
+         * @return the first set bit. The container must not be empty.
+         */
+        abstract int first();
+
+        /**
+         * @return the last set bit. The container must not be empty.
+         */
+        abstract int last();
+
+        /**
+         * @return the first set bit on or after {@code from},
+         * or -1 if there is no such bit.
+         */
+        abstract int nextSet(int from);
+
+        /**
+         * @return the last set bit on or before {@code from},
+         * or -1 if there is no such bit.
+         */
+        abstract int previousSet(int from);
+
+        /**
+         * @return the first clear bit on or after {@code from},
+         * or {@link #CHUNK_SIZE} if there is no such bit.
+         */
+        abstract int nextClear(int from);
+
+        /**
+         * @return the last clear bit on or before {@code from},
+         * or -1 if there is no such bit.
+         */
+        abstract int previousClear(int from);
+
+        /**
+         * Sets the bits of this container in {@code words}.
+         */
+        abstract void orInto(long[] words);
+
+        /**
+         * Clears the bits of this container in {@code words}.
+         */
+        abstract void andNotFrom(long[] words);
+
+        /**
+         * Applies {@code action} to the bits of this container.
+         *
+         * @param base the bit index of the first bit in the chunk.
+         * @return {@code false} if the action stops the iteration.
+         */
+        abstract boolean forEach(int base, Action<?> action);
+
+        abstract int numberOfRuns();
+
+        abstract int sizeInBits();
+
+        abstract Container copy();
+
+        /**
+         * @return the bits of this container in 1024 words, which must
+         * not be modified.
+         */
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            orInto(words);
+            return words;
+        }
+
+        BitmapContainer toBitmap() {
+            return new BitmapContainer(toWords(), cardinality());
+        }
+
+        /**
+         * Accumulates the hash code of the bits of this container.
+         *
+         * @param wordBase the index of the first word of the chunk.
+         */
+        long hash(long h, int wordBase) {
+            int wordIndex = -1;
+            long word = 0;
+            for (int x = nextSet(0); x >= 0;
+                 x = x + 1 < CHUNK_SIZE ? nextSet(x + 1) : -1) {
+                int i = x >>> ADDRESS_BITS_PER_WORD;
+                if (i != wordIndex) {
+                    if (wordIndex >= 0) {
+                        h ^= word * (wordBase + wordIndex + 1);
+                    }
+                    wordIndex = i;
+                    word = 0;
+                }
+                word |= 1L << x;
+            }
+            if (wordIndex >= 0) {
+                h ^= word * (wordBase + wordIndex + 1);
+            }
+            return h;
+        }
+
+        /**
+         * @return the container of the most compact kind
+         * for the bits of this container.
+         */
+        Container optimize() {
+            int card = cardinality();
+            int runBits = numberOfRuns() * 2 * Character.SIZE;
+            int arrayBits = card <= ARRAY_MAX_SIZE
+                    ? card * Character.SIZE : Integer.MAX_VALUE;
+            if (runBits < arrayBits && runBits < CHUNK_SIZE) {
+                return this instanceof RunContainer ? this : toRun();
+            } else if (arrayBits <= CHUNK_SIZE) {
+                return this instanceof ArrayContainer ? this : toArray();
+            } else {
+                return this instanceof BitmapContainer ? this : toBitmap();
+            }
+        }
+
+        ArrayContainer toArray() {
+            char[] content = new char[cardinality()];
+            forEach(0, new Action<Void>() {
+
+                private int i = 0;
+
+                @Override
+                public boolean accept(int bitIndex) {
+                    content[i++] = (char) bitIndex;
+                    return true;
+                }
+
+                @Override
+                public Void getResult() {
+                    return null;
+                }
+            });
+            return new ArrayContainer(content, content.length);
+        }
+
+        RunContainer toRun() {
+            char[] runs = new char[numberOfRuns() * 2];
+            int n = 0;
+            int card = cardinality();
+            for (int start = nextSet(0); start >= 0; ) {
+                int end = nextClear(start) - 1;
+                runs[2 * n] = (char) start;
+                runs[2 * n + 1] = (char) (end - start);
+                ++n;
+                start = end + 1 < CHUNK_SIZE ? nextSet(end + 1) : -1;
+            }
+            return new RunContainer(runs, n, card);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] content;
+
+        private int card;
+
+        private ArrayContainer(int x) {
+            this(new char[INITIAL_CAPACITY], 1);
+            content[0] = (char) x;
+        }
+
+        private ArrayContainer(char[] content, int card) {
+            this.content = content;
+            this.card = card;
+        }
+
+        /**
+         * Computes the union of two array containers. This method may
+         * modify {@code a1}, and never modifies {@code a2}.
+         */
+        private static Container union(ArrayContainer a1, ArrayContainer a2) {
+            int card1 = a1.card, card2 = a2.card;
+            char[] c1 = a1.content, c2 = a2.content;
+            // counts the bits of a2 that are absent in a1. As a2 is often
+            // much smaller than a1, the bits are searched in a1.
+            int absent = 0;
+            for (int j = 0, from = 0; j < card2; ++j) {
+                if (from == card1) {
+                    absent += card2 - j;
+                    break;
+                }
+                int pos = Arrays.binarySearch(c1, from, card1, c2[j]);
+                if (pos < 0) {
+                    ++absent;
+                    from = -pos - 1;
+                } else {
+                    from = pos + 1;
+                }
+            }
+            if (absent == 0) {
+                return a1;
+            }
+            int card = card1 + absent;
+            if (card > ARRAY_MAX_SIZE) {
+                BitmapContainer result = a1.toBitmap();
+                a2.orInto(result.words);
+                result.card = card;
+                return result;
+            }
+            if (c1.length < card) {
+                c1 = Arrays.copyOf(c1,
+                        Math.min(Math.max(card, card1 * 2), ARRAY_MAX_SIZE));
+                a1.content = c1;
+            }
+            // merges from the back, so that a1 is updated in place,
+            // and the bits of a1 between the bits of a2 are moved in bulk
+            int i = card1 - 1, k = card - 1;
+            for (int j = card2 - 1; j >= 0; --j) {
+                int pos = Arrays.binarySearch(c1, 0, i + 1, c2[j]);
+                int from = pos >= 0 ? pos + 1 : -pos - 1;
+                int len = i - from + 1;
+                System.arraycopy(c1, from, c1, k - len + 1, len);
+                k -= len;
+                c1[k--] = c2[j];
+                i = pos >= 0 ? pos - 1 : from - 1;
+            }
+            a1.card = card;
+            return a1;
+        }
+
+        /**
+         * Retains the bits that are (if {@code inOther} is {@code true})
+         * or are not (otherwise) in {@code other}.
+         */
+        private void retain(Container other, boolean inOther) {
+            int k = 0;
+            for (int i = 0; i < card; ++i) {
+                if (other.contains(content[i]) == inOther) {
+                    content[k++] = content[i];
+                }
+            }
+            card = k;
+        }
+
+        private int search(int x) {
+            return Arrays.binarySearch(content, 0, card, (char) x);
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return search(x) >= 0;
+        }
+
+        @Override
+        Container add(int x) {
+            int i = search(x);
+            if (i >= 0) {
+                return this;
+            }
+            if (card == ARRAY_MAX_SIZE) {
+                return toBitmap().add(x);
+            }
+            i = -i - 1;
+            if (card == content.length) {
+                content = Arrays.copyOf(content,
+                        Math.min(Math.max(card * 2, 4), ARRAY_MAX_SIZE));
+            }
+            System.arraycopy(content, i, content, i + 1, card - i);
+            content[i] = (char) x;
+            ++card;
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            int i = search(x);
+            if (i >= 0) {
+                System.arraycopy(content, i + 1, content, i, card - i - 1);
+                --card;
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return content[0];
+        }
+
+        @Override
+        int last() {
+            return content[card - 1];
+        }
+
+        @Override
+        int nextSet(int from) {
+            int i = search(from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < card ? content[i] : -1;
+        }
+
+        @Override
+        int previousSet(int from) {
+            int i = search(from);
+            if (i >= 0) {
+                return from;
+            }
+            i = -i - 2;
+            return i >= 0 ? content[i] : -1;
+        }
+
+        @Override
+        int nextClear(int from) {
+            int i = search(from);
+            if (i < 0) {
+                return from;
+            }
+            int x = from;
+            while (i < card && content[i] == x) {
+                ++i;
+                ++x;
+            }
+            return x;
+        }
+
+        @Override
+        int previousClear(int from) {
+            int i = search(from);
+            if (i < 0) {
+                return from;
+            }
+            int x = from;
+            while (i >= 0 && content[i] == x) {
+                --i;
+                --x;
+            }
+            return x;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < card; ++i) {
+                int x = content[i];
+                words[x >>> ADDRESS_BITS_PER_WORD] |= 1L << x;
+            }
+        }
+
+        @Override
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < card; ++i) {
+                int x = content[i];
+                words[x >>> ADDRESS_BITS_PER_WORD] &= ~(1L << x);
+            }
+        }
+
+        @Override
+        boolean forEach(int base, Action<?> action) {
+            for (int i = 0; i < card; ++i) {
+                if (!action.accept(base | content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int numberOfRuns() {
+            int runs = 0;
+            for (int i = 0; i < card; ++i) {
+                if (i == 0 || content[i] != content[i - 1] + 1) {
+                    ++runs;
+                }
+            }
+            return runs;
+        }
+
+        @Override
+        int sizeInBits() {
+            return content.length * Character.SIZE;
+        }
+
+        @Override
+        Container optimize() {
+            // the number of runs is at most the number of clear bits
+            // between the first and the last set bits plus one, and counting
+            // the runs is skipped if the array is too sparse to have few runs
+            if (card == 0 || (last() - first() + 2 - card) * 2 >= card) {
+                return this;
+            }
+            return super.optimize();
+        }
+
+        @Override
+        ArrayContainer copy() {
+            return new ArrayContainer(Arrays.copyOf(content, card), card);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int card;
+
+        private BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        private void recount() {
+            int c = 0;
+            for (long word : words) {
+                c += Long.bitCount(word);
+            }
+            card = c;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return (words[x >>> ADDRESS_BITS_PER_WORD] & (1L << x)) != 0;
+        }
+
+        @Override
+        Container add(int x) {
+            int i = x >>> ADDRESS_BITS_PER_WORD;
+            long oldWord = words[i];
+            long newWord = oldWord | (1L << x);
+            if (oldWord != newWord) {
+                words[i] = newWord;
+                ++card;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            int i = x >>> ADDRESS_BITS_PER_WORD;
+            long oldWord = words[i];
+            long newWord = oldWord & ~(1L << x);
+            if (oldWord != newWord) {
+                words[i] = newWord;
+                --card;
+                if (card <= ARRAY_MAX_SIZE) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return nextSet(0);
+        }
+
+        @Override
+        int last() {
+            return previousSet(LOW_MASK);
+        }
+
+        @Override
+        int nextSet(int from) {
+            int u = from >>> ADDRESS_BITS_PER_WORD;
+            long word = words[u] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+                }
+                if (++u == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[u];
+            }
+        }
+
+        @Override
+        int previousSet(int from) {
+            int u = from >>> ADDRESS_BITS_PER_WORD;
+            long word = words[u] & (-1L >>> -(from + 1));
+            while (true) {
+                if (word != 0) {
+                    return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+                }
+                if (u-- == 0) {
+                    return -1;
+                }
+                word = words[u];
+            }
+        }
+
+        @Override
+        int nextClear(int from) {
+            int u = from >>> ADDRESS_BITS_PER_WORD;
+            long word = ~words[u] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+                }
+                if (++u == BITMAP_WORDS) {
+                    return CHUNK_SIZE;
+                }
+                word = ~words[u];
+            }
+        }
+
+        @Override
+        int previousClear(int from) {
+            int u = from >>> ADDRESS_BITS_PER_WORD;
+            long word = ~words[u] & (-1L >>> -(from + 1));
+            while (true) {
+                if (word != 0) {
+                    return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+                }
+                if (u-- == 0) {
+                    return -1;
+                }
+                word = ~words[u];
+            }
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                words[i] |= this.words[i];
+            }
+        }
+
+        @Override
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                words[i] &= ~this.words[i];
+            }
+        }
+
+        @Override
+        boolean forEach(int base, Action<?> action) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                long word = words[i];
+                while (word != 0) {
+                    int x = i * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+                    if (!action.accept(base | x)) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int numberOfRuns() {
+            int runs = 0;
+            long prev = 0;
+            for (long word : words) {
+                // counts the set bits whose previous bits are clear
+                runs += Long.bitCount(word & ~((word << 1) | (prev >>> 63)));
+                prev = word;
+            }
+            return runs;
+        }
+
+        @Override
+        int sizeInBits() {
+            return CHUNK_SIZE;
+        }
+
+        @Override
+        long[] toWords() {
+            return words;
+        }
+
+        @Override
+        BitmapContainer copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        @Override
+        long hash(long h, int wordBase) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                if (words[i] != 0) {
+                    h ^= words[i] * (wordBase + i + 1);
+                }
+            }
+            return h;
+        }
+    }
+
+    private static final class RunContainer extends Container {
+
+        /**
+         * The start and the length minus one of each run,
+         * i.e., run i covers bits from {@code runs[2 * i]} to
+         * {@code runs[2 * i] + runs[2 * i + 1]} (inclusive).
+         * The runs are sorted, and they are neither overlapping
+         * nor adjacent.
+         */
+        private final char[] runs;
+
+        private final int nRuns;
+
+        private final int card;
+
+        private RunContainer(char[] runs, int nRuns, int card) {
+            this.runs = runs;
+            this.nRuns = nRuns;
+            this.card = card;
+        }
+
+        /**
+         * Computes the union of two containers, each of which is
+         * an array container or a run container.
+         */
+        private static RunContainer union(Container c1, Container c2) {
+            int[] runs1 = runsOf(c1);
+            int[] runs2 = runsOf(c2);
+            int n1 = runs1.length / 2, n2 = runs2.length / 2;
+            char[] runs = new char[(n1 + n2) * 2];
+            int n = 0, card = 0;
+            int start = -1, end = -2;
+            int i = 0, j = 0;
+            while (i < n1 || j < n2) {
+                int s, e;
+                if (j == n2 || (i < n1 && runs1[2 * i] <= runs2[2 * j])) {
+                    s = runs1[2 * i];
+                    e = runs1[2 * i + 1];
+                    ++i;
+                } else {
+                    s = runs2[2 * j];
+                    e = runs2[2 * j + 1];
+                    ++j;
+                }
+                if (s <= end + 1) {
+                    end = Math.max(end, e);
+                } else {
+                    if (start >= 0) {
+                        runs[2 * n] = (char) start;
+                        runs[2 * n + 1] = (char) (end - start);
+                        card += end - start + 1;
+                        ++n;
+                    }
+                    start = s;
+                    end = e;
+                }
+            }
+            if (start >= 0) {
+                runs[2 * n] = (char) start;
+                runs[2 * n + 1] = (char) (end - start);
+                card += end - start + 1;
+                ++n;
+            }
+            return new RunContainer(runs, n, card);
+        }
+
+        /**
+         * @return the start and the end (inclusive) of each run
+         * of given array container or run container.
+         */
+        private static int[] runsOf(Container c) {
+            if (c instanceof RunContainer r) {
+                int[] result = new int[r.nRuns * 2];
+                for (int i = 0; i < r.nRuns; ++i) {
+                    result[2 * i] = r.start(i);
+                    result[2 * i + 1] = r.end(i);
+                }
+                return result;
+            }
+            ArrayContainer a = (ArrayContainer) c;
+            int[] result = new int[a.numberOfRuns() * 2];
+            int n = 0;
+            for (int i = 0; i < a.card; ++i) {
+                int x = a.content[i];
+                if (n > 0 && result[2 * n - 1] + 1 == x) {
+                    result[2 * n - 1] = x;
+                } else {
+                    result[2 * n] = x;
+                    result[2 * n + 1] = x;
+                    ++n;
+                }
+            }
+            return result;
+        }
+
+        private int start(int i) {
+            return runs[2 * i];
+        }
+
+        private int end(int i) {
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        /**
+         * @return index of the last run that starts on or before {@code x},
+         * or -1 if there is no such run.
+         */
+        private int find(int x) {
+            int low = 0, high = nRuns - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (start(mid) <= x) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        /**
+         * @return a container of mutable kind with the bits of this container.
+         */
+        private Container toMutable() {
+            return card <= ARRAY_MAX_SIZE ? toArray() : toBitmap();
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            int i = find(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        @Override
+        Container add(int x) {
+            return contains(x) ? this : toMutable().add(x);
+        }
+
+        @Override
+        Container remove(int x) {
+            return contains(x) ? toMutable().remove(x) : this;
+        }
+
+        @Override
+        int first() {
+            return start(0);
+        }
+
+        @Override
+        int last() {
+            return end(nRuns - 1);
+        }
+
+        @Override
+        int nextSet(int from) {
+            int i = find(from);
+            if (i >= 0 && from <= end(i)) {
+                return from;
+            }
+            return i + 1 < nRuns ? start(i + 1) : -1;
+        }
+
+        @Override
+        int previousSet(int from) {
+            int i = find(from);
+            return i >= 0 ? Math.min(from, end(i)) : -1;
+        }
+
+        @Override
+        int nextClear(int from) {
+            int i = find(from);
+            return i >= 0 && from <= end(i) ? end(i) + 1 : from;
+        }
+
+        @Override
+        int previousClear(int from) {
+            int i = find(from);
+            return i >= 0 && from <= end(i) ? start(i) - 1 : from;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < nRuns; ++i) {
+                setRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < nRuns; ++i) {
+                clearRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        boolean forEach(int base, Action<?> action) {
+            for (int i = 0; i < nRuns; ++i) {
+                for (int x = start(i), end = end(i); x <= end; ++x) {
+                    if (!action.accept(base | x)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int numberOfRuns() {
+            return nRuns;
+        }
+
+        @Override
+        int sizeInBits() {
+            return runs.length * Character.SIZE;
+        }
+
+        @Override
+        RunContainer copy() {
+            // run containers are never modified, thus they can be shared
+            return this;
+        }
+    }
+}
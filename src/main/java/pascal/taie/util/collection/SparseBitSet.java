@@ -230,7 +230,7 @@ public class SparseBitSet extends AbstractBitSet
             invalidateState();
             return true;
         }
-        return true;
+        return false;
     }
 
     @Override
@@ -595,9 +595,7 @@ public class SparseBitSet extends AbstractBitSet
             return false;
         }
         if (!(set instanceof SparseBitSet other)) {
-            throw new UnsupportedOperationException(
-                    String.format("%s does not support AND with %s",
-                            this.getClass(), set.getClass()));
+            return super.and(set);
         }
         // Unlike other set operations, AND requires iteration on
         // non-null blocks of both this and other sets.
@@ -719,25 +717,12 @@ public class SparseBitSet extends AbstractBitSet
 
         @Override
         boolean accept(int w1, int w2, long[] selfBlock, long[] iteratedBlock) {
-            boolean isZero = true;
-            boolean changed = false;
-            if (selfBlock != null) {
-                for (int w3 = 0; w3 < LENGTH3; ++w3) {
-                    long selfWord = selfBlock[w3];
-                    if (selfWord != 0) {
-                        long newWord = selfWord & ~iteratedBlock[w3];
-                        if (newWord != selfWord) {
-                            selfBlock[w3] = newWord;
-                            changed = true;
-                        }
-                        if (newWord != 0) {
-                            isZero = false;
-                        }
-                    }
-                }
+            if (selfBlock == null) {
+                return true;
             }
-            this.changed |= changed;
-            return isZero;
+            int result = BitOps.andNot(selfBlock, iteratedBlock, 0, LENGTH3);
+            this.changed |= BitOps.isChanged(result);
+            return !BitOps.isNonZero(result);
         }
     }
 
@@ -760,27 +745,15 @@ public class SparseBitSet extends AbstractBitSet
 
         @Override
         boolean accept(int w1, int w2, long[] selfBlock, long[] iteratedBlock) {
-            boolean isZero = true;
-            boolean changed = false;
-            for (int w3 = 0; w3 < LENGTH3; ++w3) {
-                long iteratedWord = iteratedBlock[w3];
-                if (iteratedWord != 0) {
-                    isZero = false;
-                    if (selfBlock == null) {
-                        selfBlock = self.getOrCreateBlock(w1, w2);
-                    }
-                    long selfWord = selfBlock[w3];
-                    long newWord = selfWord | iteratedWord;
-                    if (selfWord != newWord) {
-                        selfBlock[w3] = newWord;
-                        changed = true;
-                    }
-                } else if (selfBlock != null && selfBlock[w3] != 0) {
-                    isZero = false;
+            if (selfBlock == null) {
+                if (!isNonZeroBlock(iteratedBlock)) {
+                    return true;
                 }
+                selfBlock = self.getOrCreateBlock(w1, w2);
             }
-            this.changed |= changed;
-            return isZero;
+            int result = BitOps.or(selfBlock, iteratedBlock, 0, LENGTH3);
+            this.changed |= BitOps.isChanged(result);
+            return !BitOps.isNonZero(result);
         }
     }
 
@@ -799,6 +772,11 @@ public class SparseBitSet extends AbstractBitSet
 
         private SparseBitSet diff;
 
+        /**
+         * Buffer of the diff words of a block.
+         */
+        private final long[] diffBlock = new long[LENGTH3];
+
         private boolean changed;
 
         private OrDiffAction(SparseBitSet self) {
@@ -813,29 +791,20 @@ public class SparseBitSet extends AbstractBitSet
 
         @Override
         boolean accept(int w1, int w2, long[] selfBlock, long[] iteratedBlock) {
-            boolean isZero = true;
-            boolean changed = false;
-            for (int w3 = 0; w3 < LENGTH3; ++w3) {
-                long iteratedWord = iteratedBlock[w3];
-                if (iteratedWord != 0) {
-                    isZero = false;
-                    if (selfBlock == null) {
-                        selfBlock = self.getOrCreateBlock(w1, w2);
-                    }
-                    long selfWord = selfBlock[w3];
-                    long newWord = selfWord | iteratedWord;
-                    if (selfWord != newWord) {
-                        selfBlock[w3] = newWord;
-                        changed = true;
-                        long[] diffBlock = diff.getOrCreateBlock(w1, w2);
-                        diffBlock[w3] = iteratedWord & ~selfWord;
-                    }
-                } else if (selfBlock != null && selfBlock[w3] != 0) {
-                    isZero = false;
+            if (selfBlock == null) {
+                if (!isNonZeroBlock(iteratedBlock)) {
+                    return true;
                 }
+                selfBlock = self.getOrCreateBlock(w1, w2);
             }
-            this.changed |= changed;
-            return isZero;
+            int result = BitOps.orDiff(selfBlock, iteratedBlock,
+                    diffBlock, 0, LENGTH3);
+            if (BitOps.isChanged(result)) {
+                System.arraycopy(diffBlock, 0,
+                        diff.getOrCreateBlock(w1, w2), 0, LENGTH3);
+                changed = true;
+            }
+            return !BitOps.isNonZero(result);
         }
 
         @Override
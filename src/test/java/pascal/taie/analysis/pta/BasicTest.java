@@ -22,9 +22,27 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Maps;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests basic functionalities of pointer analysis
@@ -63,4 +81,156 @@ public class BasicTest {
         Tests.testPTA(DIR, mainClass);
     }
 
+    /**
+     * Tests whether the parallel solver produces the same results
+     * as the default solver.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "StoreLoad",
+            "LinkedQueue",
+            "RedBlackBST",
+            "Dispatch2",
+            "Recursion",
+            "Cycle",
+            "ComplexAssign",
+    })
+    void testParallelSolver(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "solver:parallel", "threads:4");
+    }
+
+    /**
+     * Tests whether collapsing PFG cycles changes the results.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Cycle",
+            "ComplexAssign",
+            "Recursion",
+            "LinkedQueue",
+            "RedBlackBST",
+    })
+    void testCollapseCycles(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "collapse-cycles:true");
+        Tests.testPTA(DIR, mainClass, "collapse-cycles:true",
+                "solver:parallel", "threads:4");
+    }
+
+    /**
+     * Tests whether the order of work list changes the results.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"lrf", "topo", "wave"})
+    void testWorkListOrder(String order) {
+        for (String mainClass : List.of("LinkedQueue", "RedBlackBST",
+                "Recursion", "Cycle", "ComplexAssign")) {
+            Tests.testPTA(DIR, mainClass, "worklist:" + order);
+        }
+        Tests.testPTA(DIR, "RedBlackBST", "worklist:" + order,
+                "solver:parallel", "threads:4");
+    }
+
+    /**
+     * Tests whether the kind of bit sets changes the results
+     * of type filtering on points-to sets with more than 8 objects.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "regular",
+            "roaring",
+            "concurrent-sparse",
+            "concurrent-regular",
+    })
+    void testBitSetKinds(String kind) {
+        Tests.testPTA(false, DIR, "LargeCast");
+        Map<String, Set<String>> expected = getPointsToSets();
+        assertTrue(expected.values().stream().anyMatch(objs -> objs.size() > 8));
+        Tests.testPTA(false, DIR, "LargeCast", "pts-bit-set:" + kind);
+        assertEquals(expected, getPointsToSets());
+    }
+
+    /**
+     * Tests whether the analysis resumed from a checkpoint, which is saved
+     * when the analysis stops early, produces the same results.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+    })
+    void testCheckpoint(String mainClass, @TempDir Path dir) {
+        Path file = dir.resolve("pta-checkpoint-" + mainClass);
+        String checkpoint = "checkpoint-file:" + file;
+        Tests.testPTA(false, DIR, mainClass, checkpoint, "time-limit:0");
+        assertTrue(Files.exists(file));
+        Tests.testPTA(DIR, mainClass, checkpoint, "resume:true");
+    }
+
+    /**
+     * Tests whether the analysis degrades precision on a tiny memory limit,
+     * and whether the degraded results are still sound, i.e., they are
+     * supersets of the results without degradation.
+     */
+    @Test
+    void testMemoryLimit() {
+        Tests.testPTA(false, DIR, "RedBlackBST", "cs:2-obj");
+        Map<String, Set<String>> precise = getPointsToSets();
+        MemoryShortagePlugin.notified = false;
+        Tests.testPTA(false, DIR, "RedBlackBST", "cs:2-obj", "memory-limit:1",
+                "plugins:[" + MemoryShortagePlugin.class.getName() + "]");
+        assertTrue(MemoryShortagePlugin.notified);
+        Map<String, Set<String>> degraded = getPointsToSets();
+        precise.forEach((var, objs) -> assertTrue(
+                degraded.getOrDefault(var, Set.of()).containsAll(objs), var));
+    }
+
+    /**
+     * Tests whether the analysis does not save the checkpoint after it
+     * degrades precision, as the degraded facts cannot be resumed.
+     */
+    @Test
+    void testMemoryLimitWithCheckpoint(@TempDir Path dir) {
+        Path file = dir.resolve("pta-checkpoint-RedBlackBST");
+        MemoryShortagePlugin.notified = false;
+        Tests.testPTA(false, DIR, "RedBlackBST", "cs:2-obj", "memory-limit:1",
+                "checkpoint-file:" + file,
+                "plugins:[" + MemoryShortagePlugin.class.getName() + "]");
+        assertTrue(MemoryShortagePlugin.notified);
+        assertFalse(Files.exists(file));
+    }
+
+    /**
+     * @return the context-insensitive points-to sets of all variables
+     * in the last run of pointer analysis.
+     */
+    private static Map<String, Set<String>> getPointsToSets() {
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Map<String, Set<String>> pointsToSets = Maps.newMap();
+        for (Var var : result.getVars()) {
+            pointsToSets.put(var.getMethod() + "/" + var.getName(),
+                    result.getPointsToSet(var)
+                            .stream()
+                            .map(Obj::toString)
+                            .collect(Collectors.toSet()));
+        }
+        return pointsToSets;
+    }
+
+    /**
+     * Records whether the solver has released the memory of plugins,
+     * which is the first degradation on memory shortage.
+     */
+    public static class MemoryShortagePlugin implements Plugin {
+
+        private static boolean notified;
+
+        @Override
+        public void onMemoryShortage() {
+            notified = true;
+            // let the memory monitor check the heap usage again,
+            // so that the solver continues to degrade
+            System.gc();
+        }
+    }
+
 }
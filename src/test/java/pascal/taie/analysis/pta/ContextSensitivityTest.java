@@ -22,10 +22,14 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import pascal.taie.analysis.Tests;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.MultiStringsSource;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests context-sensitive pointer analyses.
@@ -50,4 +54,78 @@ public class ContextSensitivityTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    /**
+     * Tests whether interning points-to sets changes the results.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"OneObject", "cs:1-obj;intern-pts:true"})
+    @MultiStringsSource({"TwoCall", "cs:2-call;intern-pts:true"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj;intern-pts:true"})
+    void testInternPts(String mainClass, String opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    /**
+     * Interned points-to sets are not thread-safe,
+     * thus they cannot be used by the parallel solver.
+     */
+    @Test
+    void testInternPtsWithParallelSolver() {
+        assertThrows(ConfigException.class, () -> Tests.testPTA(DIR,
+                "TwoObject", "cs:2-obj;intern-pts:true;solver:parallel;threads:4"));
+    }
+
+    @Test
+    void testIllegalPtsBitSet() {
+        ConfigException e = assertThrows(ConfigException.class, () ->
+                Tests.testPTA(DIR, "TwoObject", "cs:2-obj;pts-bit-set:dense"));
+        assertTrue(e.getMessage().contains(
+                "[regular, sparse, roaring, concurrent-regular, concurrent-sparse]"),
+                e.getMessage());
+    }
+
+    /**
+     * Tests whether the bit sets of points-to sets change the results.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj;pts-bit-set:regular"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj;pts-bit-set:roaring"})
+    @MultiStringsSource({"TwoCall", "cs:2-call;pts-bit-set:roaring;intern-pts:true"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj;pts-bit-set:concurrent-sparse;"
+            + "solver:parallel;threads:4"})
+    @MultiStringsSource({"TwoType", "cs:2-type;pts-bit-set:concurrent-regular"})
+    void testPtsBitSet(String mainClass, String opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    /**
+     * Tests whether {@code IndexBasedCSManager} produces the same results
+     * as {@code MapBasedCSManager}.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"OneCall", "cs:1-call;cs-manager:index;"
+            + "propagate-types:[reference,int];"
+            + "plugins:[pascal.taie.analysis.pta.plugin.NumberLiteralHandler]"})
+    @MultiStringsSource({"OneObject", "cs:1-obj;cs-manager:index"})
+    @MultiStringsSource({"TwoCall", "cs:2-call;cs-manager:index"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj;cs-manager:index"})
+    @MultiStringsSource({"TwoType", "cs:2-type;cs-manager:index"})
+    void testIndexBasedCSManager(String mainClass, String opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
+    /**
+     * Tests whether memoizing selected contexts changes the results.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"OneCall", "cs:1-call;memoize-contexts:true;"
+            + "propagate-types:[reference,int];"
+            + "plugins:[pascal.taie.analysis.pta.plugin.NumberLiteralHandler]"})
+    @MultiStringsSource({"TwoCall", "cs:2-call;memoize-contexts:true"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj;memoize-contexts:true"})
+    @MultiStringsSource({"TwoType", "cs:2-type;memoize-contexts:true"})
+    void testMemoizeContexts(String mainClass, String opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
 }
@@ -0,0 +1,158 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.StmtResult;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.client.MayFailCast;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.demand.DemandPointerAnalysis;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests whether demand-driven pointer analysis gives the same results
+ * as whole-program context-insensitive pointer analysis, and whether
+ * it is sound for the programs whose flows are modelled by plugins.
+ */
+public class DemandPointerAnalysisTest {
+
+    private static final AnalysisOptions HEAP_OPTIONS = new AnalysisOptions(Map.of(
+            "distinguish-string-constants", "reflection",
+            "merge-string-objects", true,
+            "merge-string-builders", true,
+            "merge-exception-objects", true));
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "StoreLoad",
+            "Assign",
+            "InstanceField",
+            "Call",
+            "Dispatch",
+            "Cycle",
+            "Array",
+    })
+    void test(String mainClass) {
+        Tests.testPTA(false, BasicTest.DIR, mainClass);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        DemandPointerAnalysis demand = makeDemandPointerAnalysis(result);
+        for (Var var : result.getVars()) {
+            assertEquals(getAllocations(result.getPointsToSet(var)),
+                    getAllocations(demand.getPointsToSet(var)),
+                    var.getMethod() + "/" + var);
+        }
+    }
+
+    /**
+     * Tests whether the answers of demand-driven pointer analysis are
+     * supersets of the results of whole-program pointer analysis on the
+     * programs with native code, reflection and lambdas, whose flows are
+     * modelled by plugins.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "basic/NativeModel",
+            "basic/Native",
+            "basic/MultiArray",
+            "basic/Strings",
+            "basic/LinkedQueue",
+            "lambda/LambdaInstanceMethod",
+            "lambda/NativeModelWithLambda",
+            "reflection/GetMember",
+            "reflection/ArgsRefine",
+    })
+    void testSoundness(String program) {
+        String dir = program.substring(0, program.indexOf('/'));
+        String mainClass = program.substring(program.indexOf('/') + 1);
+        String option = switch (dir) {
+            case "lambda" -> "handle-invokedynamic:true";
+            case "reflection" -> "reflection-inference:solar";
+            default -> "cs:2-obj";
+        };
+        Tests.testPTA(false, dir, mainClass, option);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        DemandPointerAnalysis demand = makeDemandPointerAnalysis(result);
+        for (Var var : result.getVars()) {
+            Set<Object> objs = getAllocations(demand.getPointsToSet(var));
+            assertTrue(objs.containsAll(getAllocations(result.getPointsToSet(var))),
+                    var.getMethod() + "/" + var);
+        }
+    }
+
+    /**
+     * Tests whether {@link MayFailCast} with demand-driven pointer analysis
+     * finds all casts found with whole-program pointer analysis.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"Cast", "Cast2", "LargeCast", "NativeModel"})
+    void testMayFailCast(String mainClass) {
+        Set<String> casts = runMayFailCast(mainClass, false);
+        Set<String> demandCasts = runMayFailCast(mainClass, true);
+        assertTrue(demandCasts.containsAll(casts), demandCasts.toString());
+    }
+
+    private static DemandPointerAnalysis makeDemandPointerAnalysis(
+            PointerAnalysisResult result) {
+        return new DemandPointerAnalysis(result.getCallGraph(),
+                new AllocationSiteBasedModel(HEAP_OPTIONS), 1000, () -> result);
+    }
+
+    /**
+     * @return the casts that may fail found by {@link MayFailCast}.
+     */
+    private static Set<String> runMayFailCast(String mainClass, boolean demand) {
+        Main.main("-pp",
+                "-cp", "src/test/resources/pta/" + BasicTest.DIR,
+                "-m", mainClass,
+                "-a", "pta=only-app:true;implicit-entries:false",
+                "-a", MayFailCast.ID + "=demand:" + demand);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        StmtResult<Boolean> casts = World.get().getResult(MayFailCast.ID);
+        return result.getCallGraph()
+                .reachableMethods()
+                .flatMap(m -> m.getIR().stmts())
+                .filter(stmt -> casts.isRelevant(stmt) && casts.getResult(stmt))
+                .map(Stmt::toString)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Object> getAllocations(Set<Obj> objs) {
+        return objs.stream()
+                .map(Obj::getAllocation)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the results of incremental solving, i.e.,
+ * {@link Solver#solveIncrementally(Map)} and option {@code incremental},
+ * with the results of analyzing the changed program from scratch.
+ */
+public class IncrementalSolvingTest {
+
+    private static final String DIR = "incremental";
+
+    private static final String PTA_OPTIONS =
+            "pta=cs:1-obj;only-app:true;implicit-entries:false;";
+
+    @Test
+    void testIncrementalSolving() {
+        runPTA(null);
+        Set<String> original = getPointsToRelations(
+                World.get().getResult(PointerAnalysis.ID));
+        runPTA(FullPlugin.class);
+        Set<String> full = getPointsToRelations(
+                World.get().getResult(PointerAnalysis.ID));
+        runPTA(SolverHolder.class);
+        Solver solver = SolverHolder.solver;
+        solver.solveIncrementally(getAddedStmts(solver.getHierarchy()));
+        Set<String> incremental = getPointsToRelations(solver.getResult());
+        assertNotEquals(original, full);
+        assertEquals(full, incremental);
+    }
+
+    /**
+     * Tests whether the analysis of a changed program, which resumes from
+     * the checkpoint of the previous version of the program, produces the
+     * same results as the analysis from scratch. The changes remove a flow
+     * in a method, and add an overriding method that changes dispatch.
+     */
+    @Test
+    void testChangedProgram(@TempDir Path dir) {
+        Path file = dir.resolve("pta-checkpoint-Changed");
+        String checkpoint = "checkpoint-file:" + file;
+        Tests.testPTA(false, DIR + "/v1", "Changed", "cs:1-obj", checkpoint);
+        assertTrue(Files.exists(file));
+        Set<String> original = getPointsToRelations(
+                World.get().getResult(PointerAnalysis.ID));
+        Tests.testPTA(false, DIR + "/v2", "Changed", "cs:1-obj");
+        Set<String> full = getPointsToRelations(
+                World.get().getResult(PointerAnalysis.ID));
+        Tests.testPTA(false, DIR + "/v2", "Changed", "cs:1-obj", checkpoint,
+                "incremental:true");
+        Set<String> incremental = getPointsToRelations(
+                World.get().getResult(PointerAnalysis.ID));
+        assertNotEquals(original, full);
+        assertEquals(full, incremental);
+    }
+
+    private static void runPTA(Class<? extends Plugin> plugin) {
+        String ptaOptions = plugin == null ? PTA_OPTIONS
+                : PTA_OPTIONS + "plugins:[" + plugin.getName() + "];";
+        Main.main("-pp",
+                "-cp", "src/test/resources/pta/incremental",
+                "-m", "IncrementalSolving",
+                "-a", ptaOptions);
+    }
+
+    /**
+     * @return the non-empty points-to sets of all context-sensitive variables.
+     */
+    private static Set<String> getPointsToRelations(PointerAnalysisResult result) {
+        Set<String> relations = new TreeSet<>();
+        result.getCSVars().forEach(csVar -> {
+            PointsToSet pts = csVar.getPointsToSet();
+            if (pts != null && !pts.isEmpty()) {
+                relations.add(csVar + " -> " + new TreeSet<>(
+                        pts.objects().map(Object::toString).toList()));
+            }
+        });
+        return relations;
+    }
+    /**
+     * @return the statements added to the test program, i.e.,
+     * {@code w = other} in {@code main} and {@code r = o} in
+     * {@code Worker.work}. After {@code w = other} is added, {@code work}
+     * becomes reachable in the new context of the other receiver object,
+     * which must also process {@code r = o}.
+     */
+    private static Map<JMethod, List<Stmt>> getAddedStmts(ClassHierarchy hierarchy) {
+        JMethod main = hierarchy.getMethod(
+                "<IncrementalSolving: void main(java.lang.String[])>");
+        JMethod work = hierarchy.getMethod(
+                "<Worker: java.lang.Object work(java.lang.Object)>");
+        return Map.of(
+                main, List.of(new Copy(getVar(main, "w"), getVar(main, "other"))),
+                work, List.of(new Copy(getVar(work, "r"), getVar(work, "o"))));
+    }
+
+    private static Var getVar(JMethod method, String name) {
+        return method.getIR().getVars()
+                .stream()
+                .filter(v -> v.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Analyzes the modified program from scratch, i.e., the added
+     * statements are processed in every context of their methods.
+     */
+    public static class FullPlugin implements Plugin {
+
+        private Solver solver;
+
+        private Map<JMethod, List<Stmt>> addedStmts;
+
+        @Override
+        public void setSolver(Solver solver) {
+            this.solver = solver;
+            this.addedStmts = getAddedStmts(solver.getHierarchy());
+        }
+
+        @Override
+        public void onNewCSMethod(CSMethod csMethod) {
+            List<Stmt> stmts = addedStmts.get(csMethod.getMethod());
+            if (stmts != null) {
+                solver.addStmts(csMethod, stmts);
+            }
+        }
+    }
+
+    /**
+     * Keeps the solver of the analysis, so that the added statements
+     * are solved incrementally after the analysis finishes.
+     */
+    public static class SolverHolder implements Plugin {
+
+        private static Solver solver;
+
+        @Override
+        public void setSolver(Solver solver) {
+            SolverHolder.solver = solver;
+        }
+    }
+}
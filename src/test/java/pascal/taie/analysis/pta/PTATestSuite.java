@@ -25,10 +25,12 @@ package pascal.taie.analysis.pta;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 import pascal.taie.analysis.pta.core.cs.context.ContextTest;
+import pascal.taie.analysis.pta.pts.PointsToSetInternerTest;
 
 @Suite
 @SelectClasses({
         ContextTest.class,
+        PointsToSetInternerTest.class,
         BasicTestFull.class,
         ContextSensitivityTestFull.class,
         ExceptionTest.class,
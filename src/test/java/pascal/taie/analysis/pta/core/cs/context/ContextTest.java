@@ -25,6 +25,7 @@ package pascal.taie.analysis.pta.core.cs.context;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class ContextTest {
 
@@ -45,6 +46,31 @@ public class ContextTest {
         assertEquals(cde.getParent(), cd);
     }
 
+    @Test
+    void testIntContext() {
+        testContext(new IntContext.Factory<>());
+    }
+
+    @Test
+    void testIntContext2() {
+        IntContext.Factory<String> factory = new IntContext.Factory<>();
+        Context abc = factory.make("A", "B", "C");
+        Context bcd = factory.append(abc, "D", 3);
+        assertSame(factory.make("B", "C", "D"), bcd);
+        assertEquals("D", bcd.getElementAt(2));
+        Context cde = factory.append(bcd, "E", 3);
+        assertSame(factory.make("C", "D", "E"), cde);
+        assertSame(factory.makeLastK(cde, 2), factory.make("D", "E"));
+        assertEquals("[C, D, E]", cde.toString());
+        // grows the context table
+        Context c = factory.getEmptyContext();
+        for (int i = 0; i < 1000; ++i) {
+            c = factory.append(c, String.valueOf(i % 100), 4);
+        }
+        assertSame(factory.make("96", "97", "98", "99"), c);
+        assertEquals(4, c.getLength());
+    }
+
     private static void testContext(ContextFactory<String> factory) {
         Context a = factory.make("A");
         Context empty1 = factory.getEmptyContext();
@@ -0,0 +1,123 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.SetEx;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PointsToSetInternerTest {
+
+    private static final Indexer<Integer> INDEXER = new Indexer<>() {
+
+        @Override
+        public int getIndex(Integer i) {
+            return i;
+        }
+
+        @Override
+        public Integer getObject(int index) {
+            return index;
+        }
+    };
+
+    private static SetEx<Integer> setOf(int... elems) {
+        SetEx<Integer> set = new HybridBitSet<>(INDEXER, true);
+        for (int e : elems) {
+            set.add(e);
+        }
+        return set;
+    }
+
+    private static PointsToSetInterner<Integer> newInterner(int maxUnions) {
+        return new PointsToSetInterner<>(setOf(), maxUnions);
+    }
+
+    @Test
+    void testIntern() {
+        PointsToSetInterner<Integer> interner = newInterner(16);
+        var c1 = interner.intern(setOf(1, 2, 3));
+        var c2 = interner.intern(setOf(3, 2, 1));
+        var c3 = interner.intern(setOf(1, 2));
+        assertSame(c1, c2);
+        assertNotSame(c1, c3);
+        assertSame(interner.getEmpty(), interner.intern(setOf()));
+        // large sets are stored in bit sets
+        var large1 = interner.intern(setOf(0, 10, 20, 30, 40, 50, 60, 70, 80, 90));
+        var large2 = interner.intern(setOf(90, 80, 70, 60, 50, 40, 30, 20, 10, 0));
+        assertSame(large1, large2);
+    }
+
+    @Test
+    void testUnion() {
+        PointsToSetInterner<Integer> interner = newInterner(16);
+        var c12 = interner.intern(setOf(1, 2));
+        var c23 = interner.intern(setOf(2, 3));
+        var union = interner.union(c12, c23);
+        assertEquals(Set.of(1, 2, 3), union.union().getSet());
+        assertEquals(Set.of(3), union.diff().getSet());
+        assertSame(union.union(), interner.intern(setOf(1, 2, 3)));
+        // the union is memoized
+        assertSame(union, interner.union(c12, c23));
+        assertEquals(1, interner.getNumberOfUnions());
+        // unions with subsets and empty sets are not memoized
+        var sub = interner.union(c12, interner.intern(setOf(1)));
+        assertSame(c12, sub.union());
+        assertSame(interner.getEmpty(), sub.diff());
+        var fromEmpty = interner.union(interner.getEmpty(), c12);
+        assertSame(c12, fromEmpty.union());
+        assertSame(c12, fromEmpty.diff());
+        assertSame(c12, interner.union(c12, c12).union());
+        assertEquals(2, interner.getNumberOfUnions());
+    }
+
+    @Test
+    void testUnionEviction() {
+        int maxUnions = 4;
+        PointsToSetInterner<Integer> interner = newInterner(maxUnions);
+        var base = interner.intern(setOf(0));
+        var first = interner.union(base, interner.intern(setOf(1)));
+        for (int i = 2; i <= maxUnions; ++i) {
+            interner.union(base, interner.intern(setOf(i)));
+        }
+        assertEquals(maxUnions, interner.getNumberOfUnions());
+        assertSame(first, interner.union(base, interner.intern(setOf(1))));
+        // reaching the limit drops all memoized unions
+        interner.union(base, interner.intern(setOf(maxUnions + 1)));
+        assertEquals(1, interner.getNumberOfUnions());
+        var recomputed = interner.union(base, interner.intern(setOf(1)));
+        assertNotSame(first, recomputed);
+        // the recomputed union still yields the same canonical sets
+        assertSame(first.union(), recomputed.union());
+        assertSame(first.diff(), recomputed.diff());
+        assertEquals(2, interner.getNumberOfUnions());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlowSensitivePointsToTest {
+
+    @Test
+    void test() {
+        Tests.testPTA(false, "basic", "Reassign", "flow-sensitive:true");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        FlowSensitivePointsTo fs = pta.getResult(FlowSensitivePointsTo.class.getName());
+        JMethod main = World.get().getMainMethod();
+        assertTrue(fs.isRefined(main));
+        IR ir = main.getIR();
+        // refined results are subsets of flow-insensitive results
+        ir.forEach(stmt -> stmt.getUses()
+                .stream()
+                .filter(use -> use instanceof Var)
+                .map(use -> (Var) use)
+                .forEach(var -> assertTrue(pta.getPointsToSet(var)
+                        .containsAll(fs.getPointsToSet(stmt, var)))));
+        List<Invoke> calls = ir.invokes(false)
+                .filter(invoke -> !invoke.getMethodRef().getName().equals("<init>"))
+                .toList();
+        // x.foo() before x is reassigned
+        assertEquals(1, fs.getPointsToSet(calls.get(0), getBase(calls.get(0))).size());
+        // x.foo() after x may be reassigned
+        assertEquals(2, fs.getPointsToSet(calls.get(1), getBase(calls.get(1))).size());
+        // y.foo()
+        assertEquals(2, fs.getPointsToSet(calls.get(2), getBase(calls.get(2))).size());
+        // use(y) after y = null
+        InvokeExp useCall = calls.get(3).getInvokeExp();
+        assertTrue(fs.getPointsToSet(calls.get(3), useCall.getArg(0)).isEmpty());
+    }
+
+    private static Var getBase(Invoke invoke) {
+        return ((InvokeInstanceExp) invoke.getInvokeExp()).getBase();
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.scaler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
+import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl;
+import pascal.taie.analysis.pta.toolkit.util.OAGs;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScalerTest {
+
+    private static final String CS = "contextsensitivity";
+
+    /**
+     * Tests whether Scaler selects the same context sensitivity variants
+     * as the sequential selection for various TSTs.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "TwoObject",
+            "TwoType",
+            "NestedHeap",
+            "LinkedQueue",
+            "RecursiveObj",
+    })
+    void testSelectContext(String mainClass) {
+        Tests.testPTA(false, CS, mainClass);
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        SequentialScaler expected = new SequentialScaler(pta);
+        for (String arg : List.of("scaler", "scaler=0", "scaler=1",
+                "scaler=10", "scaler=100", "scaler=1000")) {
+            assertEquals(expected.selectContext(Scaler.parseTST(arg)),
+                    Scaler.run(pta, arg), mainClass + ", " + arg);
+        }
+    }
+
+    /**
+     * Tests whether the estimated values in Scaler report are the same
+     * as the ones of the sequential selection, and whether the actual
+     * values are the ones of the main analysis.
+     */
+    @Test
+    void testScalerReport() throws IOException {
+        // estimates the variants on the result of context-insensitive
+        // analysis, which is the pre-analysis of Scaler
+        Tests.testPTA(false, CS, "TwoObject");
+        SequentialScaler scaler = new SequentialScaler(
+                World.get().getResult(PointerAnalysis.ID));
+        Map<String, List<String>> expected = Maps.newMap();
+        scaler.selectContext(Scaler.parseTST("scaler")).forEach((m, variant) ->
+                expected.put(m.toString(), List.of(variant,
+                        Integer.toString(scaler.contextNumberOf(m, variant)),
+                        Long.toString(scaler.weightOf(m, variant)))));
+        Tests.testPTA(false, CS, "TwoObject",
+                "advanced:scaler;scaler-report:true");
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        File report = new File(World.get().getOptions().getOutputDir(),
+                ScalerReport.REPORT_FILE);
+        List<String> lines = Files.readAllLines(report.toPath());
+        assertTrue(lines.get(0).startsWith(
+                "# TST: " + Scaler.parseTST("scaler") + ", ST: "));
+        assertEquals(String.join("\t", "method", "variant",
+                        "estimated-contexts", "actual-contexts",
+                        "estimated-cost", "actual-cost"),
+                lines.get(1));
+        Map<String, List<String>> estimates = Maps.newMap();
+        for (String line : lines.subList(2, lines.size())) {
+            String[] fields = line.split("\t");
+            estimates.put(fields[0], List.of(fields[1], fields[2], fields[4]));
+            JMethod method = World.get().getClassHierarchy().getMethod(fields[0]);
+            long actualContexts = result.getCSCallGraph()
+                    .reachableMethods()
+                    .filter(csMethod -> csMethod.getMethod().equals(method))
+                    .count();
+            long actualCost = result.getCSVars()
+                    .stream()
+                    .filter(csVar -> csVar.getVar().getMethod().equals(method))
+                    .filter(csVar -> Scaler.isConcerned(csVar.getVar()))
+                    .map(CSVar::getPointsToSet)
+                    .mapToLong(pts -> pts == null ? 0 : pts.size())
+                    .sum();
+            assertEquals(Long.toString(actualContexts), fields[3], fields[0]);
+            assertEquals(Long.toString(actualCost), fields[5], fields[0]);
+        }
+        assertEquals(expected, estimates);
+    }
+
+    /**
+     * Selects context sensitivity variants for methods sequentially,
+     * without the arrays of context numbers and weights used by Scaler.
+     * It computes the context numbers of 2-object sensitivity
+     * directly on the object allocation graph.
+     */
+    private static class SequentialScaler {
+
+        private final PointerAnalysisResultEx pta;
+
+        private final Graph<Obj> oag;
+
+        /**
+         * Context computers from the most precise variant to the least
+         * precise variant, except 2-object sensitivity.
+         */
+        private final List<ContextComputer> ctxComputers;
+
+        private SequentialScaler(PointerAnalysisResult ptaBase) {
+            pta = new PointerAnalysisResultExImpl(ptaBase, true);
+            oag = OAGs.build(pta);
+            ctxComputers = List.of(
+                    new _2TypeContextComputer(pta, oag),
+                    new _1TypeContextComputer(pta),
+                    new _InsensitiveContextComputer(pta));
+        }
+
+        private Map<JMethod, String> selectContext(long tst) {
+            Set<JMethod> methods = pta.getBase()
+                    .getCallGraph()
+                    .reachableMethods()
+                    .filter(m -> !m.isStatic())
+                    .collect(Collectors.toSet());
+            long st = binarySearch(methods, tst);
+            Map<JMethod, String> csMap = Maps.newMap();
+            methods.forEach(m -> csMap.put(m, selectVariant(m, st)));
+            return csMap;
+        }
+
+        private long binarySearch(Set<JMethod> methods, long tst) {
+            long end = methods.stream()
+                    .mapToLong(m -> weightOf(m, "2-obj"))
+                    .max()
+                    .orElse(0);
+            long start = 0;
+            long mid, ret = 0;
+            while (start <= end) {
+                mid = (start + end) / 2;
+                long st = mid;
+                long totalSize = methods.stream()
+                        .filter(m -> !isSpecialMethod(m))
+                        .mapToLong(m -> weightOf(m, selectVariant(m, st)))
+                        .sum();
+                if (totalSize < tst) {
+                    ret = mid;
+                    start = mid + 1;
+                } else if (totalSize > tst) {
+                    end = mid - 1;
+                } else {
+                    ret = mid;
+                    break;
+                }
+            }
+            return ret;
+        }
+
+        private String selectVariant(JMethod method, long st) {
+            if (isSpecialMethod(method) || weightOf(method, "2-obj") <= st) {
+                return "2-obj";
+            }
+            for (ContextComputer cc : ctxComputers) {
+                if (weightOf(method, cc.getVariantName()) <= st) {
+                    return cc.getVariantName();
+                }
+            }
+            return "ci";
+        }
+
+        private static boolean isSpecialMethod(JMethod method) {
+            return method.getDeclaringClass()
+                    .getName()
+                    .startsWith("java.util.");
+        }
+
+        private long weightOf(JMethod method, String variant) {
+            long ptsSize = method.getIR()
+                    .getVars()
+                    .stream()
+                    .filter(Scaler::isConcerned)
+                    .map(pta.getBase()::getPointsToSet)
+                    .mapToLong(Set::size)
+                    .sum();
+            return contextNumberOf(method, variant) * ptsSize;
+        }
+
+        private int contextNumberOf(JMethod method, String variant) {
+            if (variant.equals("2-obj")) {
+                Set<Obj> receivers = pta.getReceiverObjectsOf(method);
+                if (receivers.isEmpty()) {
+                    return 1;
+                }
+                // without allocator, back to 1-object
+                return receivers.stream()
+                        .mapToInt(recv -> Math.max(oag.getInDegreeOf(recv), 1))
+                        .sum();
+            }
+            for (ContextComputer cc : ctxComputers) {
+                if (cc.getVariantName().equals(variant)) {
+                    return cc.computeContextNumberOf(method);
+                }
+            }
+            throw new IllegalArgumentException("Unknown variant: " + variant);
+        }
+    }
+}
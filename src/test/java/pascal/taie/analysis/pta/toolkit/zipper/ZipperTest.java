@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.toolkit.zipper;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import pascal.taie.World;
@@ -32,12 +33,18 @@ import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
 import pascal.taie.analysis.pta.PointerAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl;
 import pascal.taie.util.graph.DotDumper;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class ZipperTest {
 
     private static final String CS = "contextsensitivity";
@@ -84,4 +91,61 @@ public class ZipperTest {
     void testPFGBuilder() {
         Tests.testPTA(false, MISC, "Zipper", "advanced:zipper");
     }
+
+    /**
+     * Tests whether the analysis skips the pre-analysis by reusing cached
+     * pre-analysis results, and whether reusing them changes the results.
+     */
+    @Test
+    void testPreAnalysisCache(@TempDir Path dir) throws IOException {
+        String opts = "advanced:zipper;pre-analysis-cache-dir:" + dir
+                + ";plugins:[" + SolverCounter.class.getName() + "]";
+        // the first analysis runs the pre-analysis and the main analysis
+        SolverCounter.count = 0;
+        Tests.testPTA(false, MISC, "Zipper", opts);
+        assertEquals(2, SolverCounter.count);
+        long expected = countPointsTo();
+        // the second analysis loads Zipper's results from the cache
+        SolverCounter.count = 0;
+        Tests.testPTA(false, MISC, "Zipper", opts);
+        assertEquals(1, SolverCounter.count);
+        assertEquals(expected, countPointsTo());
+        // the cache is ignored if any method reached by the pre-analysis
+        // has been changed, which is simulated by changing their hashes
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.write(file, Files.readAllLines(file)
+                        .stream()
+                        .map(line -> line.startsWith("H\t")
+                                ? line.substring(0, line.lastIndexOf('\t') + 1) + "changed"
+                                : line)
+                        .toList());
+            }
+        }
+        SolverCounter.count = 0;
+        Tests.testPTA(false, MISC, "Zipper", opts);
+        assertEquals(2, SolverCounter.count);
+        assertEquals(expected, countPointsTo());
+    }
+
+    private static long countPointsTo() {
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        return pta.getVars()
+                .stream()
+                .mapToLong(v -> pta.getPointsToSet(v).size())
+                .sum();
+    }
+
+    /**
+     * Counts the runs of pointer analysis solvers.
+     */
+    public static class SolverCounter implements Plugin {
+
+        private static int count;
+
+        @Override
+        public void onStart() {
+            ++count;
+        }
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the kernels of {@link BitOps} against the scalar implementations.
+ * The kernels are computed with the Vector API if the test runs with
+ * module {@code jdk.incubator.vector} (see Gradle task testVectorBitOps).
+ */
+public class BitOpsTest {
+
+    private static final int LENGTH = 100;
+
+    private final Random random = new Random(0);
+
+    @Test
+    void testVectorized() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            assertTrue(BitOps.VECTORIZED);
+        }
+    }
+
+    @Test
+    void testOr() {
+        for (int i = 0; i < 1000; ++i) {
+            long[] dst = randomWords(), src = randomWords();
+            int from = random.nextInt(LENGTH), to = from + random.nextInt(LENGTH - from + 1);
+            long[] expected = dst.clone();
+            int expectedResult = BitOps.scalarOr(expected, src, from, to);
+            assertEquals(expectedResult, BitOps.or(dst, src, from, to));
+            assertArrayEquals(expected, dst);
+        }
+    }
+
+    @Test
+    void testAndNot() {
+        for (int i = 0; i < 1000; ++i) {
+            long[] dst = randomWords(), src = randomWords();
+            int from = random.nextInt(LENGTH), to = from + random.nextInt(LENGTH - from + 1);
+            long[] expected = dst.clone();
+            int expectedResult = BitOps.scalarAndNot(expected, src, from, to);
+            assertEquals(expectedResult, BitOps.andNot(dst, src, from, to));
+            assertArrayEquals(expected, dst);
+        }
+    }
+
+    @Test
+    void testOrDiff() {
+        for (int i = 0; i < 1000; ++i) {
+            long[] dst = randomWords(), src = randomWords();
+            long[] diff = new long[LENGTH], expectedDiff = new long[LENGTH];
+            int from = random.nextInt(LENGTH), to = from + random.nextInt(LENGTH - from + 1);
+            long[] expected = dst.clone();
+            int expectedResult = BitOps.scalarOrDiff(
+                    expected, src, expectedDiff, from, to);
+            assertEquals(expectedResult, BitOps.orDiff(dst, src, diff, from, to));
+            assertArrayEquals(expected, dst);
+            assertArrayEquals(expectedDiff, diff);
+        }
+    }
+
+    @Test
+    void testResult() {
+        long[] dst = new long[LENGTH], src = new long[LENGTH];
+        assertEquals(0, BitOps.or(dst, src, 0, LENGTH));
+        src[LENGTH - 1] = 1;
+        assertEquals(BitOps.CHANGED | BitOps.NON_ZERO, BitOps.or(dst, src, 0, LENGTH));
+        assertEquals(BitOps.NON_ZERO, BitOps.or(dst, src, 0, LENGTH));
+        assertEquals(BitOps.NON_ZERO, BitOps.orDiff(dst, src, new long[LENGTH], 0, LENGTH));
+        assertEquals(BitOps.CHANGED, BitOps.andNot(dst, src, 0, LENGTH));
+    }
+
+    /**
+     * @return words whose shapes are similar to the ones of points-to sets,
+     * i.e., runs of zero words, sparse words and dense words.
+     */
+    private long[] randomWords() {
+        long[] words = new long[LENGTH];
+        for (int i = 0; i < LENGTH; ++i) {
+            switch (random.nextInt(3)) {
+                case 0 -> words[i] = 0;
+                case 1 -> words[i] = 1L << random.nextInt(64);
+                default -> words[i] = random.nextLong();
+            }
+        }
+        return words;
+    }
+}
@@ -29,12 +29,22 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
         GenericBitSetTest.class,
         ArraySetTest.class,
+        BitOpsTest.class,
+        ConcurrentRegularBitSetTest.class,
+        ConcurrentSparseBitSetTest.class,
         ArrayMapTest.class,
+        HybridBitSetTest.class,
         HybridHashMapTest.class,
         HybridHashSetTest.class,
         IndexMapTest.class,
+        IndexableMapTest.class,
+        IndexableTwoKeyMapTest.class,
+        IntIntMapTest.class,
+        IntObjectMapTest.class,
+        IntSetMultiMapTest.class,
         MultiMapTest.class,
         RegularBitSetTest.class,
+        RoaringBitSetTest.class,
         SetQueueTest.class,
         SparseBitSetTest.class,
         StreamsTest.class,
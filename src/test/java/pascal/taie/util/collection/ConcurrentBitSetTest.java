@@ -0,0 +1,231 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for thread-safe bit sets, in addition to the tests
+ * of {@link IBitSetTest} for single thread.
+ */
+public abstract class ConcurrentBitSetTest extends IBitSetTest {
+
+    private static final int THREADS = 8;
+
+    /**
+     * Runs {@code task} with {@link #THREADS} threads simultaneously.
+     * The task receives the id (0 to {@code THREADS - 1}) of its thread.
+     */
+    private static void runConcurrently(IntConsumer task) {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; ++i) {
+            int id = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(id);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    /**
+     * Each bit set by multiple threads is newly set by exactly one thread.
+     */
+    @Test
+    void testConcurrentSet() {
+        final int MAX = 300_000, TIMES = 50_000;
+        IBitSet s = of();
+        IBitSet[] inputs = new IBitSet[THREADS];
+        IBitSet expected = IBitSet.of();
+        Random random = new Random(0);
+        for (int i = 0; i < THREADS; ++i) {
+            inputs[i] = IBitSet.of();
+            for (int j = 0; j < TIMES; ++j) {
+                inputs[i].set(random.nextInt(MAX));
+            }
+            expected.or(inputs[i]);
+        }
+        AtomicInteger newBits = new AtomicInteger();
+        runConcurrently(id -> {
+            IBitSet input = inputs[id];
+            for (int i = input.nextSetBit(0); i >= 0; i = input.nextSetBit(i + 1)) {
+                if (s.set(i)) {
+                    newBits.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(expected.cardinality(), newBits.get());
+        assertEquals(expected.cardinality(), s.cardinality());
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+            assertTrue(s.get(i));
+        }
+        assertEquals(expected.length(), s.length());
+    }
+
+    /**
+     * The diffs of concurrent {@code orDiff} are disjoint, and their union
+     * is the union of the inputs.
+     */
+    @Test
+    void testConcurrentOrDiff() {
+        final int MAX = 1_000_000, ROUNDS = 200, TIMES = 200;
+        IBitSet s = of();
+        IBitSet[] diffs = new IBitSet[THREADS];
+        IBitSet[] unions = new IBitSet[THREADS];
+        runConcurrently(id -> {
+            Random random = new Random(id % 2); // makes threads overlap
+            IBitSet diff = IBitSet.of();
+            IBitSet union = IBitSet.of();
+            for (int r = 0; r < ROUNDS; ++r) {
+                IBitSet input = of();
+                for (int i = 0; i < TIMES; ++i) {
+                    input.set(random.nextInt(MAX));
+                }
+                IBitSet d = s.orDiff(input);
+                assertTrue(input.contains(d));
+                assertFalse(diff.intersects(d));
+                diff.or(d);
+                union.or(input);
+            }
+            diffs[id] = diff;
+            unions[id] = union;
+        });
+        IBitSet expected = IBitSet.of();
+        IBitSet allDiffs = IBitSet.of();
+        int diffCount = 0;
+        for (int i = 0; i < THREADS; ++i) {
+            expected.or(unions[i]);
+            allDiffs.or(diffs[i]);
+            diffCount += diffs[i].cardinality();
+        }
+        assertEquals(expected, allDiffs);
+        assertEquals(expected.cardinality(), diffCount);
+        assertEquals(expected.cardinality(), s.cardinality());
+        assertTrue(s.contains(expected));
+    }
+
+    /**
+     * Concurrent {@code set}, {@code clear}, {@code or} and {@code andNot}
+     * on interleaved bits (which share words) lose no updates,
+     * including when the set grows.
+     */
+    @Test
+    void testConcurrentSetAndClear() {
+        final int MAX = 500_000;
+        IBitSet s = of();
+        runConcurrently(id -> {
+            // thread id owns the bits i where i % THREADS == id
+            IBitSet odds = of();
+            for (int i = id; i < MAX; i += THREADS) {
+                assertTrue(s.set(i));
+                if ((i / THREADS) % 2 == 1) {
+                    odds.set(i);
+                }
+            }
+            for (int i = id; i < MAX; i += 2 * THREADS) {
+                assertTrue(s.clear(i));
+            }
+            IBitSet evens = of();
+            for (int i = id; i < MAX; i += 2 * THREADS) {
+                evens.set(i);
+            }
+            assertFalse(s.intersects(evens));
+            assertTrue(s.contains(odds));
+            assertFalse(s.or(odds));
+            assertTrue(s.andNot(odds));
+            assertTrue(s.or(odds));
+        });
+        int count = 0;
+        for (int i = 0; i < MAX; ++i) {
+            boolean odd = (i / THREADS) % 2 == 1;
+            assertEquals(odd, s.get(i), "Failed on i = " + i);
+            if (odd) {
+                ++count;
+            }
+        }
+        assertEquals(count, s.cardinality());
+    }
+
+    /**
+     * The bits observed by readers are never lost, while writers are adding
+     * bits concurrently.
+     */
+    @Test
+    void testConcurrentReads() {
+        final int MAX = 200_000;
+        IBitSet s = of();
+        AtomicInteger done = new AtomicInteger();
+        runConcurrently(id -> {
+            if (id % 2 == 0) {
+                // writer: sets the bits i where i % THREADS == id
+                for (int i = id; i < MAX; i += THREADS) {
+                    s.set(i);
+                }
+                done.incrementAndGet();
+            } else {
+                // reader: the bits observed by previous scans are still set
+                IBitSet seen = IBitSet.of();
+                while (done.get() < THREADS / 2) {
+                    IBitSet scan = IBitSet.of();
+                    for (int i = s.nextSetBit(0); i >= 0; i = s.nextSetBit(i + 1)) {
+                        assertTrue(i % 2 == 0 && i < MAX);
+                        scan.set(i);
+                    }
+                    assertTrue(scan.contains(seen));
+                    seen = scan;
+                }
+            }
+        });
+        assertEquals(MAX / 2, s.cardinality());
+    }
+}
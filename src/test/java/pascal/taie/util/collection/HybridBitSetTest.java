@@ -0,0 +1,82 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexer;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HybridBitSetTest {
+
+    private static final Indexer<Integer> INDEXER = new Indexer<>() {
+
+        @Override
+        public int getIndex(Integer i) {
+            return i;
+        }
+
+        @Override
+        public Integer getObject(int index) {
+            return index;
+        }
+    };
+
+    /**
+     * Bulk operations on large sets backed by bit sets of different kinds.
+     */
+    @Test
+    void testBulkOperationsOnDifferentKinds() {
+        for (IBitSet.Kind k1 : IBitSet.Kind.values()) {
+            for (IBitSet.Kind k2 : IBitSet.Kind.values()) {
+                String msg = k1 + " and " + k2;
+                Set<Integer> s1 = newSet(k1, IntStream.range(0, 20));
+                Set<Integer> s2 = newSet(k2, IntStream.range(10, 30));
+                assertTrue(s1.retainAll(s2), msg);
+                assertEquals(ints(IntStream.range(10, 20)), s1, msg);
+                s1 = newSet(k1, IntStream.range(0, 20));
+                assertTrue(s1.removeAll(s2), msg);
+                assertEquals(ints(IntStream.range(0, 10)), s1, msg);
+                s1 = newSet(k1, IntStream.range(0, 20));
+                assertTrue(s1.addAll(s2), msg);
+                assertEquals(ints(IntStream.range(0, 30)), s1, msg);
+            }
+        }
+    }
+
+    private static Set<Integer> newSet(IBitSet.Kind kind, IntStream ints) {
+        Set<Integer> set = new HybridBitSet<>(INDEXER, kind);
+        ints.forEach(set::add);
+        return set;
+    }
+
+    private static Set<Integer> ints(IntStream ints) {
+        return ints.boxed().collect(Collectors.toSet());
+    }
+}
@@ -64,9 +64,12 @@ public abstract class IBitSetTest {
     void testClear() {
         IBitSet s = of(1, 10000);
         assertEquals(2, s.cardinality());
-        s.clear(1);
+        assertTrue(s.clear(1));
+        // clearing absent bits in an allocated word does not change the set
+        assertFalse(s.clear(3));
+        assertFalse(s.clear(1));
         assertEquals(1, s.cardinality());
-        s.clear(10000);
+        assertTrue(s.clear(10000));
         assertEquals(0, s.cardinality());
     }
 
@@ -131,6 +134,25 @@ public abstract class IBitSetTest {
         System.out.println(s);
     }
 
+    @Test
+    void testAndOtherKinds() {
+        for (IBitSet.Kind kind : IBitSet.Kind.values()) {
+            String msg = kind.toString();
+            IBitSet other = IBitSet.newBitSet(kind);
+            other.set(2);
+            other.set(3);
+            other.set(11111);
+            other.set(333333);
+            IBitSet s = of(1, 2, 3, 11111, 22222);
+            assertTrue(s.and(other), msg);
+            assertEquals(3, s.cardinality(), msg);
+            assertTrue(s.get(2) && s.get(3) && s.get(11111), msg);
+            assertFalse(s.and(other), msg);
+            assertTrue(s.and(IBitSet.newBitSet(kind)), msg);
+            assertTrue(s.isEmpty(), msg);
+        }
+    }
+
     @Test
     void testAndNot() {
         IBitSet s = of(1, 2, 3, 6666);
@@ -0,0 +1,134 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexableMapTest {
+
+    private record Item(String name, int index)
+            implements Indexable, Serializable {
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    private static final Item A = new Item("a", 0);
+
+    private static final Item B = new Item("b", 1);
+
+    private static final Item C = new Item("c", 100_000);
+
+    @Test
+    void testPutAndGet() {
+        Map<Item, String> m = Maps.newIndexableMap();
+        assertNull(m.put(A, "x"));
+        assertNull(m.put(C, "z"));
+        assertEquals("x", m.put(A, "xx"));
+        assertEquals(2, m.size());
+        assertEquals("xx", m.get(A));
+        assertEquals("z", m.get(C));
+        assertNull(m.get(B));
+        assertEquals("y", m.getOrDefault(B, "y"));
+        assertTrue(m.containsKey(C));
+        assertFalse(m.containsKey(B));
+        assertFalse(m.containsKey("a"));
+        assertEquals(Set.of(A, C), m.keySet());
+    }
+
+    @Test
+    void testSameIndex() {
+        Map<Item, String> m = Maps.newIndexableMap();
+        m.put(A, "x");
+        Item a2 = new Item("a2", 0);
+        assertFalse(m.containsKey(a2));
+        assertNull(m.get(a2));
+        assertThrows(IllegalArgumentException.class, () -> m.put(a2, "y"));
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        Map<Item, String> m = Maps.newIndexableMap();
+        assertEquals("a", m.computeIfAbsent(A, Item::name));
+        assertEquals("a", m.computeIfAbsent(A, __ -> "aa"));
+        assertNull(m.computeIfAbsent(B, __ -> null));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    void testRemove() {
+        Map<Item, String> m = Maps.newIndexableMap();
+        m.put(A, "x");
+        m.put(B, "y");
+        m.put(C, "z");
+        assertEquals("y", m.remove(B));
+        assertNull(m.remove(B));
+        assertTrue(m.entrySet().remove(Map.entry(C, "z")));
+        assertEquals(Map.of(A, "x"), m);
+        m.keySet().removeIf(k -> k == A);
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void testEquals() {
+        Map<Item, String> m1 = Maps.newIndexableMap();
+        m1.put(A, "x");
+        m1.put(C, "z");
+        Map<Item, String> m2 = Maps.newMap();
+        m2.putAll(m1);
+        assertEquals(m1, m2);
+        assertEquals(m2, m1);
+        assertEquals(m1.hashCode(), m2.hashCode());
+    }
+
+    @Test
+    void testNullValue() {
+        Map<Item, String> m = Maps.newIndexableMap();
+        assertThrows(NullPointerException.class, () -> m.put(A, null));
+    }
+
+    @Test
+    void testSerializable() {
+        Map<Item, String> map1 = Maps.newIndexableMap();
+        map1.put(A, "x");
+        map1.put(C, "z");
+        Map<Item, String> map2 = SerializationUtils.serializedCopy(map1);
+        assertEquals(map1, map2);
+        assertEquals("z", map2.get(C));
+    }
+}
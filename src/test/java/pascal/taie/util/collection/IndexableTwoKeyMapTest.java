@@ -0,0 +1,131 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexableTwoKeyMapTest {
+
+    private static class IntIndexer implements
+            Indexer<Integer>, Serializable {
+
+        @Override
+        public int getIndex(Integer i) {
+            return i;
+        }
+
+        @Override
+        public Integer getObject(int index) {
+            return index;
+        }
+    }
+
+    private static final Indexer<Integer> indexer = new IntIndexer();
+
+    private static TwoKeyMap<Integer, Integer, Integer> newTwoKeyMap() {
+        return Maps.newTwoKeyMap(indexer, indexer);
+    }
+
+    @Test
+    void testPutAndRemove() {
+        TwoKeyMap<Integer, Integer, Integer> m = newTwoKeyMap();
+        assertNull(m.put(1, 1, 1));
+        assertNull(m.put(1, 2, 2));
+        assertEquals(2, (int) m.put(1, 2, 4));
+        m.putAll(3, Map.of(1, 3, 2, 6));
+        assertEquals(4, m.size());
+        assertEquals(4, (int) m.remove(1, 2));
+        assertNull(m.remove(1, 2));
+        assertTrue(m.removeAll(3));
+        assertFalse(m.removeAll(3));
+        assertEquals(1, m.size());
+        assertEquals(Set.of(1), m.keySet());
+        m.remove(1, 1);
+        assertFalse(m.containsKey(1));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void testKeysFromIndexes() {
+        TwoKeyMap<Integer, Integer, Integer> m = newTwoKeyMap();
+        m.putAll(10, Map.of(1, 10, 2, 20, 3, 30));
+        m.put(100_000, 7, 77);
+        assertEquals(Set.of(10, 100_000), m.keySet());
+        assertTrue(m.keySet().contains(100_000));
+        assertFalse(m.keySet().contains("10"));
+        Map<Integer, Integer> m10 = m.get(10);
+        assertEquals(Map.of(1, 10, 2, 20, 3, 30), m10);
+        assertTrue(m10.containsKey(2));
+        assertFalse(m10.containsKey(4));
+        assertFalse(m10.containsKey("2"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> m10.put(4, 40));
+        m.put(10, 4, 40);
+        assertEquals(40, (int) m10.get(4));
+        m.replaceALl((k1, k2, v) -> k1 + k2 + v);
+        assertEquals(21, (int) m.get(10, 1));
+        assertEquals(100_084, (int) m.get(100_000, 7));
+    }
+
+    @Test
+    void testEquals() {
+        TwoKeyMap<Integer, Integer, Integer> m1 = newTwoKeyMap();
+        m1.putAll(10, Map.of(1, 10, 2, 20, 3, 30));
+        m1.putAll(11, Map.of(4, 44, 5, 55));
+        TwoKeyMap<Integer, Integer, Integer> m2 = Maps.newTwoKeyMap();
+        m2.putAll(m1);
+        assertEquals(m1, m2);
+        assertEquals(m2, m1);
+        m2.remove(11, 4);
+        assertNotEquals(m1, m2);
+    }
+
+    @Test
+    void testNullValue() {
+        assertThrows(NullPointerException.class, () ->
+                newTwoKeyMap().put(1, 2, null));
+    }
+
+    @Test
+    void testSerializable() {
+        TwoKeyMap<Integer, Integer, Integer> map1 = newTwoKeyMap();
+        map1.put(1, 1, 1);
+        map1.put(1, 2, 2);
+        map1.put(3, 4, 12);
+        TwoKeyMap<Integer, Integer, Integer> map2 = SerializationUtils.serializedCopy(map1);
+        assertEquals(map1, map2);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.SerializationUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntIntMapTest {
+
+    @Test
+    void testGetAndPut() {
+        IntIntMap m = new IntIntMap(4, -1);
+        assertEquals(-1, m.get(0));
+        assertEquals(-1, m.put(0, 10));
+        assertEquals(-1, m.put(5, 50));
+        assertEquals(50, m.put(5, 55));
+        assertEquals(10, m.get(0));
+        assertEquals(55, m.get(5));
+        assertEquals(-1, m.get(6));
+        assertTrue(m.containsKey(0));
+        assertFalse(m.containsKey(6));
+        assertEquals(2, m.size());
+    }
+
+    @Test
+    void testAddTo() {
+        IntIntMap m = Maps.newIntIntMap();
+        assertEquals(3, m.addTo(7, 3));
+        assertEquals(5, m.addTo(7, 2));
+        assertEquals(-1, m.addTo(0, -1));
+        assertEquals(5, m.get(7));
+        assertEquals(-1, m.get(0));
+        assertEquals(2, m.size());
+    }
+
+    @Test
+    void testRemove() {
+        IntIntMap m = Maps.newIntIntMap();
+        m.put(0, 1);
+        m.put(1, 2);
+        assertEquals(1, m.remove(0));
+        assertFalse(m.containsKey(0));
+        assertEquals(0, m.get(0));
+        assertEquals(0, m.remove(2));
+        assertEquals(2, m.remove(1));
+        assertTrue(m.isEmpty());
+    }
+
+    /**
+     * Compares with {@link HashMap} under random puts and removes, whose
+     * keys collide often, to exercise the backward shifting of removals.
+     */
+    @Test
+    void testRandomOperations() {
+        IntIntMap m = new IntIntMap(0, 0);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 1; i <= 200_000; ++i) {
+            int key = random.nextInt(3000) - 100;
+            if (random.nextInt(3) == 0) {
+                Integer v = expected.remove(key);
+                assertEquals(v == null ? 0 : v, m.remove(key));
+            } else {
+                Integer v = expected.put(key, i);
+                assertEquals(v == null ? 0 : v, m.put(key, i));
+            }
+            assertEquals(expected.size(), m.size());
+        }
+        expected.forEach((k, v) -> assertEquals((int) v, m.get(k)));
+        m.forEach((k, v) -> assertEquals(v, (int) expected.get(k)));
+        m.clear();
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void testEqualsAndSerializable() {
+        IntIntMap m1 = Maps.newIntIntMap();
+        for (int i = 0; i < 100; ++i) {
+            m1.put(i * 31, i);
+        }
+        IntIntMap m2 = SerializationUtils.serializedCopy(m1);
+        assertEquals(m1, m2);
+        assertEquals(m1.hashCode(), m2.hashCode());
+        m2.remove(0);
+        assertNotEquals(m1, m2);
+        m2.put(0, 0);
+        assertEquals(m1, m2);
+        assertEquals(m1.toString(), m2.toString());
+    }
+}
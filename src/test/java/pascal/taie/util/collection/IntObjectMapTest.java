@@ -0,0 +1,180 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.SerializationUtils;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntObjectMapTest {
+
+    private static IntObjectMap<String> makeMap() {
+        IntObjectMap<String> m = Maps.newIntObjectMap();
+        m.putInt(1, "one");
+        m.putInt(3, "three");
+        m.putInt(-4, "minus four");
+        m.putInt(0, "zero");
+        return m;
+    }
+
+    @Test
+    void testGetAndPut() {
+        var m = makeMap();
+        assertEquals(4, m.size());
+        assertEquals("one", m.getInt(1));
+        assertEquals("zero", m.getInt(0));
+        assertEquals("minus four", m.get(-4));
+        assertNull(m.getInt(2));
+        assertNull(m.get("one"));
+        assertEquals("one", m.putInt(1, "ONE"));
+        assertEquals("ONE", m.getInt(1));
+        assertEquals("ONE", m.put(1, "one"));
+        assertEquals(4, m.size());
+        assertEquals("default", m.getOrDefaultInt(2, "default"));
+        assertEquals("default", m.getOrDefault(2, "default"));
+    }
+
+    /**
+     * Primitive and boxed keys are not ambiguous
+     * for the maps whose values are {@link Integer}s.
+     */
+    @Test
+    void testIntegerValues() {
+        IntObjectMap<Integer> m = Maps.newIntObjectMap();
+        int one = 1, two = 2;
+        assertNull(m.put(one, one));
+        assertNull(m.putInt(two, two));
+        assertEquals(Integer.valueOf(two), m.get(two));
+        assertEquals(Integer.valueOf(one), m.getInt(one));
+        assertTrue(m.containsKey(two));
+        assertTrue(m.containsKeyInt(one));
+        assertEquals(Integer.valueOf(two), m.remove(two));
+        assertEquals(Integer.valueOf(one), m.removeInt(one));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void testPutNull() {
+        var m = makeMap();
+        assertThrows(NullPointerException.class, () -> m.putInt(1, null));
+        assertThrows(NullPointerException.class, () -> m.put(null, "null"));
+    }
+
+    @Test
+    void testRemove() {
+        var m = makeMap();
+        assertNull(m.removeInt(2));
+        assertEquals("one", m.removeInt(1));
+        assertNull(m.removeInt(1));
+        assertFalse(m.containsKeyInt(1));
+        assertEquals("three", m.remove(3));
+        assertEquals(2, m.size());
+        m.putInt(1, "one");
+        assertEquals(3, m.size());
+        assertEquals("one", m.getInt(1));
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        var m = makeMap();
+        assertEquals("one", m.computeIfAbsentInt(1, k -> "ONE"));
+        assertEquals("2", m.computeIfAbsentInt(2, String::valueOf));
+        assertNull(m.computeIfAbsentInt(5, k -> null));
+        assertFalse(m.containsKeyInt(5));
+        assertEquals(5, m.size());
+        assertEquals("6", m.computeIfAbsent(6, String::valueOf));
+        assertEquals(6, m.size());
+    }
+
+    @Test
+    void testIterator() {
+        var m = makeMap();
+        m.keySet().removeIf(k -> k % 2 != 0);
+        assertEquals(Map.of(-4, "minus four", 0, "zero"), m);
+        m.replaceAll((k, v) -> v.toUpperCase());
+        assertEquals("ZERO", m.getInt(0));
+        var iter = m.entrySet().iterator();
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void testForEachInt() {
+        var m = makeMap();
+        int[] sum = {0};
+        m.forEachInt((k, v) -> sum[0] += k);
+        assertEquals(0, sum[0]);
+        assertThrows(ConcurrentModificationException.class,
+                () -> m.forEachInt((k, v) -> m.putInt(k + 100, v)));
+    }
+
+    /**
+     * Compares with {@link HashMap} under random puts and removes,
+     * which exercise the rehashing and the reuse of removed slots.
+     */
+    @Test
+    void testRandomOperations() {
+        IntObjectMap<Integer> m = new IntObjectMap<>(0);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 200_000; ++i) {
+            int key = random.nextInt(5000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), m.removeInt(key));
+            } else {
+                assertEquals(expected.put(key, i), m.putInt(key, i));
+            }
+            assertEquals(expected.size(), m.size());
+        }
+        assertEquals(expected, m);
+        assertEquals(m, expected);
+        assertEquals(expected.hashCode(), m.hashCode());
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertNull(m.getInt(0));
+    }
+
+    @Test
+    void testSerializable() {
+        var m1 = makeMap();
+        m1.removeInt(3);
+        var m2 = SerializationUtils.serializedCopy(m1);
+        assertEquals(m1, m2);
+        assertNull(m2.getInt(3));
+        m2.putInt(3, "three");
+        assertEquals(4, m2.size());
+    }
+}
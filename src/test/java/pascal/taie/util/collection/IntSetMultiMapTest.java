@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.SerializationUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntSetMultiMapTest {
+
+    @Test
+    void testPut() {
+        IntSetMultiMap<Integer> m = Maps.newIntSetMultiMap();
+        assertTrue(m.put(1, 1));
+        assertTrue(m.put(1, 2));
+        assertFalse(m.put(1, 2));
+        assertTrue(m.put(-1, 3));
+        assertTrue(m.putAll(2, Set.of(6, 7, 8)));
+        assertFalse(m.putAll(3, Set.of()));
+        assertEquals(6, m.size());
+        assertEquals(Set.of(-1, 1, 2), m.keySet());
+    }
+
+    @Test
+    void testRemove() {
+        IntSetMultiMap<Integer> m = Maps.newIntSetMultiMap();
+        m.putAll(1, Set.of(555, 888, 666));
+        m.putAll(2, Set.of(777));
+        assertTrue(m.remove(1, 666));
+        assertFalse(m.remove(1, 666));
+        assertTrue(m.remove(2, 777));
+        assertFalse(m.containsKeyInt(2));
+        assertTrue(m.removeAll(1));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void testPrimitiveQueries() {
+        IntSetMultiMap<String> m = Maps.newIntSetMultiMap();
+        m.put(0, "zero");
+        m.put(-1, "minus one");
+        m.put(1000, "a");
+        m.put(1000, "b");
+        assertTrue(m.containsKeyInt(0));
+        assertTrue(m.containsKeyInt(-1));
+        assertFalse(m.containsKeyInt(1));
+        assertTrue(m.containsInt(1000, "b"));
+        assertFalse(m.containsInt(1000, "c"));
+        assertFalse(m.containsInt(1, "a"));
+        assertEquals(Set.of("a", "b"), m.getInt(1000));
+        assertEquals(Set.of(), m.getInt(1));
+        assertThrows(UnsupportedOperationException.class,
+                () -> m.getInt(1000).add("c"));
+        m.removeAll(1000);
+        assertFalse(m.containsKeyInt(1000));
+        assertEquals(2, m.size());
+    }
+
+    @Test
+    void testEquals() {
+        IntSetMultiMap<Integer> m1 = Maps.newIntSetMultiMap();
+        m1.putAll(1, Set.of(314, 159, 265));
+        m1.putAll(2, Set.of(3));
+        MultiMap<Integer, Integer> m2 = Maps.newMultiMap();
+        m2.putAll(m1);
+        assertEquals(m1, m2);
+        assertEquals(m2, m1);
+        m2.remove(1, 314);
+        assertNotEquals(m1, m2);
+    }
+
+    @Test
+    void testSerializable() {
+        IntSetMultiMap<String> map1 = Maps.newIntSetMultiMap();
+        map1.put(1, "x");
+        map1.put(1, "xx");
+        map1.put(2, "y");
+        IntSetMultiMap<String> map2 = SerializationUtils.serializedCopy(map1);
+        assertEquals(map1, map2);
+        assertTrue(map2.containsInt(1, "xx"));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoaringBitSetTest extends IBitSetTest {
+
+    @Override
+    protected IBitSet of(int... indexes) {
+        IBitSet result = new RoaringBitSet();
+        for (int i : indexes) {
+            result.set(i);
+        }
+        return result;
+    }
+
+    /**
+     * Tests the conversions among array, bitmap and run containers.
+     */
+    @Test
+    void testContainers() {
+        IBitSet dense = of();
+        for (int i = 0; i < 10000; ++i) {
+            dense.set(i);
+        }
+        IBitSet s = of();
+        assertTrue(s.or(dense));
+        assertEquals(10000, s.cardinality());
+        assertEquals(10000, s.nextClearBit(0));
+        assertEquals(9999, s.previousSetBit(70000));
+        // the run of 10000 bits is stored in a run container
+        assertTrue(s.size() < 100);
+        assertFalse(s.or(dense));
+
+        IBitSet odds = of();
+        for (int i = 1; i < 10000; i += 2) {
+            odds.set(i);
+        }
+        assertTrue(s.andNot(odds));
+        assertEquals(5000, s.cardinality());
+        assertEquals(1, s.nextClearBit(0));
+        assertEquals(9998, s.previousSetBit(9999));
+        assertTrue(s.set(9999));
+        assertTrue(s.clear(0));
+        assertEquals(9997, s.previousClearBit(9999));
+        assertTrue(s.or(odds));
+        assertEquals(9999, s.cardinality());
+        assertEquals(1, s.nextSetBit(0));
+        assertTrue(s.and(of(0, 5, 66666)));
+        assertEquals(of(5), s);
+    }
+
+    /**
+     * Tests the bulk operations with a regular bit set as the reference.
+     */
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(0);
+        for (int i = 0; i < 200; ++i) {
+            IBitSet s1 = of(), s2 = of();
+            IBitSet r1 = new RegularBitSet(), r2 = new RegularBitSet();
+            fill(random, s1, r1);
+            fill(random, s2, r2);
+            assertEquals(r1.intersects(r2), s1.intersects(s2));
+            assertEquals(r1.contains(r2), s1.contains(s2));
+            switch (i % 4) {
+                case 0 -> assertEquals(r1.or(r2), s1.or(s2));
+                case 1 -> assertEquals(r1.andNot(r2), s1.andNot(s2));
+                case 2 -> assertEquals(r1.and(r2), s1.and(s2));
+                default -> assertEqualBits(r1.orDiff(r2), s1.orDiff(s2));
+            }
+            assertEqualBits(r1, s1);
+            assertEqualBits(r2, s2);
+        }
+    }
+
+    private static void fill(Random random, IBitSet s, IBitSet r) {
+        int bound = random.nextBoolean() ? 300_000 : 1000;
+        int n = random.nextInt(6000);
+        for (int i = 0; i < n; ++i) {
+            int x = random.nextInt(bound);
+            s.set(x);
+            r.set(x);
+        }
+        if (random.nextBoolean()) {
+            int start = random.nextInt(bound);
+            int end = start + random.nextInt(100_000);
+            for (int i = start; i < end; ++i) {
+                s.set(i);
+                r.set(i);
+            }
+        }
+    }
+
+    private static void assertEqualBits(IBitSet expected, IBitSet actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.hashCode(), actual.hashCode());
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+            assertTrue(actual.get(i));
+        }
+    }
+}
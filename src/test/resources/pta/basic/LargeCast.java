@@ -0,0 +1,32 @@
+class LargeCast {
+    public static void main(String[] args) {
+        m();
+    }
+
+    static void m() {
+        Shape shape = new Shape();
+        shape = new Circle();
+        shape = new Square();
+        shape = new Circle();
+        shape = new Square();
+        shape = new Circle();
+        shape = new Square();
+        shape = new Circle();
+        shape = new Square();
+        shape = new Circle();
+        shape = new Square();
+
+        Circle circle = (Circle) shape; // 5 of 11 objects pass the cast
+        Square square = (Square) shape; // 5 of 11 objects pass the cast
+        Shape shape2 = (Shape) shape; // all objects pass the cast
+    }
+}
+
+class Shape {
+}
+
+class Circle extends Shape {
+}
+
+class Square extends Shape {
+}
@@ -0,0 +1,24 @@
+class Reassign {
+
+    public static void main(String[] args) {
+        Item x = new Item();
+        x.foo();
+        if (args.length > 0) {
+            x = new Item();
+        }
+        x.foo();
+        Item y = x;
+        y.foo();
+        y = null;
+        use(y);
+    }
+
+    static void use(Item item) {
+    }
+}
+
+class Item {
+
+    void foo() {
+    }
+}
@@ -0,0 +1,25 @@
+public class IncrementalSolving {
+
+    public static void main(String[] args) {
+        Worker w = id(new Worker());
+        Worker other = new Worker(); // w = other is added incrementally
+        Object r = w.work(new A());
+    }
+
+    static Worker id(Worker w) {
+        return w;
+    }
+}
+
+class Worker {
+
+    Object saved;
+
+    Object work(Object o) {
+        Object r = saved; // r = o is added incrementally
+        return r;
+    }
+}
+
+class A {
+}
@@ -0,0 +1,57 @@
+public class Changed {
+
+    public static void main(String[] args) {
+        Box box = new Box();
+        box.set(new A());
+        Object a = box.get();
+        Shape s = Shape.make();
+        Object r = s.id(new B());
+        Object c = copy(box);
+    }
+
+    static Object copy(Box box) {
+        Box other = new Box();
+        other.set(box.get());
+        return other.get();
+    }
+}
+
+class Box {
+
+    Object item;
+
+    void set(Object o) {
+        item = new C(); // changed from item = o in v1
+    }
+
+    Object get() {
+        return item;
+    }
+}
+
+class Shape {
+
+    static Shape make() {
+        return new Circle();
+    }
+
+    Object id(Object o) {
+        return o;
+    }
+}
+
+class Circle extends Shape {
+
+    Object id(Object o) { // added in v2
+        return new C();
+    }
+}
+
+class A {
+}
+
+class B {
+}
+
+class C {
+}
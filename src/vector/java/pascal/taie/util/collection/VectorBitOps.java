@@ -0,0 +1,149 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementations of the kernels of {@code BitOps} with the Vector API.
+ * This class is loaded only if module {@code jdk.incubator.vector}
+ * is present at runtime.
+ * <p>
+ * This class is compiled before, and separately from, the other classes
+ * of Tai-e (see source set {@code vector} in the build script), so that
+ * only its compilation requires the incubator module. Thus, it cannot
+ * refer to {@code BitOps}.
+ */
+final class VectorBitOps {
+
+    /**
+     * Same as {@code BitOps.CHANGED}.
+     */
+    private static final int CHANGED = 1;
+
+    /**
+     * Same as {@code BitOps.NON_ZERO}.
+     */
+    private static final int NON_ZERO = 2;
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private VectorBitOps() {
+    }
+
+    /**
+     * @return {@code true} if the platform supports vectors of
+     * more than one word.
+     */
+    static boolean isSupported() {
+        return SPECIES.length() > 1;
+    }
+
+    /**
+     * Same as {@code BitOps.result(long, long)}.
+     */
+    private static int result(long changed, long result) {
+        return (changed != 0 ? CHANGED : 0) | (result != 0 ? NON_ZERO : 0);
+    }
+
+    static int or(long[] dst, long[] src, int from, int to) {
+        LongVector changedV = LongVector.zero(SPECIES);
+        LongVector resultV = LongVector.zero(SPECIES);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from);
+             i < bound; i += SPECIES.length()) {
+            LongVector oldV = LongVector.fromArray(SPECIES, dst, i);
+            LongVector newV = oldV.or(LongVector.fromArray(SPECIES, src, i));
+            newV.intoArray(dst, i);
+            changedV = changedV.or(oldV.lanewise(VectorOperators.XOR, newV));
+            resultV = resultV.or(newV);
+        }
+        long changed = changedV.reduceLanes(VectorOperators.OR);
+        long result = resultV.reduceLanes(VectorOperators.OR);
+        for (; i < to; ++i) {
+            long oldWord = dst[i];
+            long newWord = oldWord | src[i];
+            dst[i] = newWord;
+            changed |= oldWord ^ newWord;
+            result |= newWord;
+        }
+        return result(changed, result);
+    }
+
+    static int andNot(long[] dst, long[] src, int from, int to) {
+        LongVector changedV = LongVector.zero(SPECIES);
+        LongVector resultV = LongVector.zero(SPECIES);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from);
+             i < bound; i += SPECIES.length()) {
+            LongVector oldV = LongVector.fromArray(SPECIES, dst, i);
+            LongVector newV = oldV.lanewise(VectorOperators.AND_NOT,
+                    LongVector.fromArray(SPECIES, src, i));
+            newV.intoArray(dst, i);
+            changedV = changedV.or(oldV.lanewise(VectorOperators.XOR, newV));
+            resultV = resultV.or(newV);
+        }
+        long changed = changedV.reduceLanes(VectorOperators.OR);
+        long result = resultV.reduceLanes(VectorOperators.OR);
+        for (; i < to; ++i) {
+            long oldWord = dst[i];
+            long newWord = oldWord & ~src[i];
+            dst[i] = newWord;
+            changed |= oldWord ^ newWord;
+            result |= newWord;
+        }
+        return result(changed, result);
+    }
+
+    static int orDiff(long[] dst, long[] src, long[] diff, int from, int to) {
+        LongVector changedV = LongVector.zero(SPECIES);
+        LongVector resultV = LongVector.zero(SPECIES);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from);
+             i < bound; i += SPECIES.length()) {
+            LongVector oldV = LongVector.fromArray(SPECIES, dst, i);
+            LongVector srcV = LongVector.fromArray(SPECIES, src, i);
+            LongVector diffV = srcV.lanewise(VectorOperators.AND_NOT, oldV);
+            LongVector newV = oldV.or(srcV);
+            newV.intoArray(dst, i);
+            diffV.intoArray(diff, i);
+            changedV = changedV.or(diffV);
+            resultV = resultV.or(newV);
+        }
+        long changed = changedV.reduceLanes(VectorOperators.OR);
+        long result = resultV.reduceLanes(VectorOperators.OR);
+        for (; i < to; ++i) {
+            long oldWord = dst[i];
+            long srcWord = src[i];
+            long diffWord = srcWord & ~oldWord;
+            long newWord = oldWord | srcWord;
+            dst[i] = newWord;
+            diff[i] = diffWord;
+            changed |= diffWord;
+            result |= newWord;
+        }
+        return result(changed, result);
+    }
+}